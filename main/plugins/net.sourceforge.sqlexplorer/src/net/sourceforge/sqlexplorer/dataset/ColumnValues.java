@@ -0,0 +1,226 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package net.sourceforge.sqlexplorer.dataset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The values of one column of a {@link DataSet}, in an array of the type of the column: the integer and small decimal
+ * columns are kept in primitive arrays, and boxed only for the rows displayed. The type of the column is resolved once,
+ * when the values are created.
+ */
+abstract class ColumnValues {
+
+    private static final int INITIAL_CAPACITY = 128;
+
+    private static final int MAX_DOUBLE_PRECISION = 16;
+
+    private final BitSet nulls = new BitSet();
+
+    /**
+     * Method "create".
+     *
+     * @param dataSet the dataset which loads the other values
+     * @param dataType the JDBC type of the column
+     * @param precision the precision of the column
+     * @return the values of the column
+     */
+    static ColumnValues create(DataSet dataSet, int dataType, int precision) {
+        switch (dataType) {
+        case Types.INTEGER:
+        case Types.SMALLINT:
+        case Types.TINYINT:
+            return new LongValues();
+        case Types.DECIMAL:
+        case Types.NUMERIC:
+        case Types.DOUBLE:
+        case Types.FLOAT:
+        case Types.REAL:
+            if (precision <= MAX_DOUBLE_PRECISION && precision >= 1) {
+                return new DoubleValues();
+            }
+            // read as BigDecimal, like the BIGINT columns, without reading the precision again for each value
+            return new ObjectValues(dataSet, Types.BIGINT);
+        default:
+            return new ObjectValues(dataSet, dataType);
+        }
+    }
+
+    /**
+     * Method "load" reads the value of the current row of the result set.
+     *
+     * @param resultSet the result set
+     * @param columnIndex the index of the column in the result set
+     * @param row the number of the row in the dataset
+     * @throws SQLException
+     */
+    void load(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+        ensureCapacity(row + 1);
+        read(resultSet, columnIndex, row);
+        if (resultSet.wasNull()) {
+            setNull(row);
+        }
+    }
+
+    boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    void setNull(int row) {
+        nulls.set(row);
+        clear(row);
+    }
+
+    /**
+     * Method "get".
+     *
+     * @param row the number of the row
+     * @return the value of the row, null for a null value
+     */
+    Comparable get(int row) {
+        return isNull(row) ? null : getValue(row);
+    }
+
+    /**
+     * Method "compare" compares the values of two rows which are not null.
+     */
+    abstract int compare(int row1, int row2);
+
+    protected abstract void ensureCapacity(int size);
+
+    protected abstract void read(ResultSet resultSet, int columnIndex, int row) throws SQLException;
+
+    protected abstract Comparable getValue(int row);
+
+    protected void clear(int row) {
+        // nothing to release by default
+    }
+
+    protected static int newCapacity(int length, int size) {
+        return Math.max(size, Math.max(INITIAL_CAPACITY, length * 2));
+    }
+
+    /**
+     * The INTEGER, SMALLINT and TINYINT columns.
+     */
+    private static class LongValues extends ColumnValues {
+
+        private long[] values = new long[0];
+
+        @Override
+        protected void ensureCapacity(int size) {
+            if (size > values.length) {
+                values = Arrays.copyOf(values, newCapacity(values.length, size));
+            }
+        }
+
+        @Override
+        protected void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            values[row] = resultSet.getLong(columnIndex);
+        }
+
+        @Override
+        protected Comparable getValue(int row) {
+            return Long.valueOf(values[row]);
+        }
+
+        @Override
+        int compare(int row1, int row2) {
+            long value1 = values[row1];
+            long value2 = values[row2];
+            return value1 < value2 ? -1 : (value1 == value2 ? 0 : 1);
+        }
+    }
+
+    /**
+     * The decimal columns whose precision fits in a double.
+     */
+    private static class DoubleValues extends ColumnValues {
+
+        private double[] values = new double[0];
+
+        @Override
+        protected void ensureCapacity(int size) {
+            if (size > values.length) {
+                values = Arrays.copyOf(values, newCapacity(values.length, size));
+            }
+        }
+
+        @Override
+        protected void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            values[row] = resultSet.getDouble(columnIndex);
+        }
+
+        @Override
+        protected Comparable getValue(int row) {
+            return Double.valueOf(values[row]);
+        }
+
+        @Override
+        int compare(int row1, int row2) {
+            return Double.compare(values[row1], values[row2]);
+        }
+    }
+
+    /**
+     * The other columns, whose values are read by {@link DataSet#loadCellValue(int, int, ResultSet)}.
+     */
+    private static class ObjectValues extends ColumnValues {
+
+        private final DataSet dataSet;
+
+        private final int dataType;
+
+        private Comparable[] values = new Comparable[0];
+
+        ObjectValues(DataSet dataSet, int dataType) {
+            this.dataSet = dataSet;
+            this.dataType = dataType;
+        }
+
+        @Override
+        protected void ensureCapacity(int size) {
+            if (size > values.length) {
+                values = Arrays.copyOf(values, newCapacity(values.length, size));
+            }
+        }
+
+        @Override
+        protected void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            values[row] = dataSet.loadCellValue(columnIndex, dataType, resultSet);
+            if (values[row] == null) {
+                // a value which could not be read
+                setNull(row);
+            }
+        }
+
+        @Override
+        protected void clear(int row) {
+            values[row] = null;
+        }
+
+        @Override
+        protected Comparable getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        int compare(int row1, int row2) {
+            return values[row1].compareTo(values[row2]);
+        }
+    }
+}
@@ -23,7 +23,6 @@ import java.text.DateFormat;
 import java.text.DecimalFormat;
 import java.text.Format;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Arrays;
 
 import net.sourceforge.sqlexplorer.ExplorerException;
@@ -97,6 +96,14 @@ public class DataSet {
 
     private DataSetRow[] _rows;
 
+    // The values loaded from a ResultSet, by column; the rows are only created when they are displayed
+    private ColumnValues[] _columnValues;
+
+    private int _rowCount;
+
+    // The numbers of the loaded rows in the sort order, null before the first sort
+    private int[] _order;
+
     private DataSetTableSorter _sorter;
 
     // Whether dates are formatted (from preferences)
@@ -350,13 +357,26 @@ public class DataSet {
      * @return Number of rows.
      */
     public int getRowCount() {
+        if (_rows == null) {
+            return _rowCount;
+        }
         return _rows.length;
     }
 
     /**
+     * Get all the rows; when the dataset is loaded from a ResultSet, all the rows are created, so getRow() should be
+     * used instead.
+     * 
      * @return all rows in this dataset
      */
     public DataSetRow[] getRows() {
+        if (_rows == null) {
+            DataSetRow[] rows = new DataSetRow[_rowCount];
+            for (int i = 0; i < _rowCount; i++) {
+                rows[i] = getRow(i);
+            }
+            return rows;
+        }
         return _rows;
     }
 
@@ -368,9 +388,17 @@ public class DataSet {
      * @throws IndexOutOfBoundsException if row at index isn't present.
      */
     public DataSetRow getRow(int index) {
-        if (index < 0 || index >= _rows.length) {
+        if (index < 0 || index >= getRowCount()) {
             throw new IndexOutOfBoundsException(Messages.getString("DataSet.errorIndexOutOfRange") + index);
         }
+        if (_rows == null) {
+            int row = _order == null ? index : _order[index];
+            Comparable[] values = new Comparable[_columnValues.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = _columnValues[i].get(row);
+            }
+            return new DataSetRow(this, values);
+        }
         return _rows[index];
     }
 
@@ -378,30 +406,40 @@ public class DataSet {
      * Called to load rows from the specified result set; the default implementation simply uses standard JDBC data
      * types to inten to be overridden.
      * 
+     * The values are kept by column, in primitive arrays for the integer and small decimal columns; the type of each
+     * column is read once from the metadata.
+     * 
      * @param resultSet ResultSet to load from
      * @param relevantIndeces int[] of all columns to add to the dataSet, use null if all columns should be included.
      */
     protected void loadRows(ResultSet resultSet, int[] relevantIndeces, int maxRows) throws SQLException {
         ResultSetMetaData metadata = resultSet.getMetaData();
 
-        // create rows
-        ArrayList rows = new ArrayList(maxRows > 0 ? maxRows : 100);
+        int[] columnIndexes = new int[columns.length];
+        ColumnValues[] values = new ColumnValues[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            columnIndexes[i] = relevantIndeces != null ? relevantIndeces[i] : i;
+            int dataType = metadata.getColumnType(columnIndexes[i]);
+            int precision = isDecimal(dataType) ? metadata.getPrecision(columnIndexes[i]) : 0;
+            values[i] = ColumnValues.create(this, dataType, precision);
+        }
+
         int rowCount = 0;
-        while (resultSet.next() && (maxRows == 0 || rowCount < maxRows)) {
-            DataSetRow row = new DataSetRow(this);
+        while ((maxRows == 0 || rowCount < maxRows) && resultSet.next()) {
             for (int i = 0; i < columns.length; i++) {
-                int columnIndex = relevantIndeces != null ? relevantIndeces[i] : i;
-                Comparable obj = loadCellValue(columnIndex, metadata.getColumnType(columnIndex), resultSet);
-                if (resultSet.wasNull()) {
-                    row.setValue(i, null);
-                } else {
-                    row.setValue(i, obj);
-                }
+                values[i].load(resultSet, columnIndexes[i], rowCount);
             }
-            rows.add(row);
             rowCount++;
         }
-        _rows = (DataSetRow[]) rows.toArray(new DataSetRow[] {});
+        _columnValues = values;
+        _rowCount = rowCount;
+        _order = null;
+        _rows = null;
+    }
+
+    private boolean isDecimal(int dataType) {
+        return dataType == Types.DECIMAL || dataType == Types.NUMERIC || dataType == Types.DOUBLE || dataType == Types.FLOAT
+                || dataType == Types.REAL;
     }
 
     /**
@@ -477,7 +515,17 @@ public class DataSet {
         }
         _sorter.setTopPriority(columnIndex, sortDirection);
 
-        Arrays.sort(_rows, _sorter);
+        if (_rows == null) {
+            if (_order == null) {
+                _order = new int[_rowCount];
+                for (int i = 0; i < _rowCount; i++) {
+                    _order[i] = i;
+                }
+            }
+            _sorter.sort(_order, _columnValues);
+        } else {
+            Arrays.sort(_rows, _sorter);
+        }
     }
 
     private DateFormat getDateFormat(int type) {
@@ -95,7 +95,7 @@ public class DataSetTable {
         final Table table = tableViewer.getTable();
         
         tableViewer.setColumnProperties(columnLabels);
-        table.setItemCount(dataSet.getRows().length);
+        table.setItemCount(dataSet.getRowCount());
 
         // create listener for sorting
     	Listener sortListener = new Listener() {
@@ -18,24 +18,28 @@
  */
 package net.sourceforge.sqlexplorer.dataset;
 
-import org.eclipse.jface.viewers.IStructuredContentProvider;
+import org.eclipse.jface.viewers.ILazyContentProvider;
+import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.Viewer;
 
 
 /**
- * Table Content Provider for DataSet
+ * Table Content Provider for DataSet; the rows are only created when the virtual table displays them.
  * 
  * @author Davy Vanherbergen
  *
  */
-public class DataSetTableContentProvider implements IStructuredContentProvider {
-   
+public class DataSetTableContentProvider implements ILazyContentProvider {
+
+    private TableViewer viewer;
+
+    private DataSet dataSet;
+
     /* (non-Javadoc)
-     * @see org.eclipse.jface.viewers.IStructuredContentProvider#getElements(java.lang.Object)
+     * @see org.eclipse.jface.viewers.ILazyContentProvider#updateElement(int)
      */
-    public Object[] getElements(Object inputElement) {
-        DataSet dataSet = (DataSet) inputElement;
-        return dataSet.getRows();
+    public void updateElement(int index) {
+        viewer.replace(dataSet.getRow(index), index);
     }
 
 
@@ -51,8 +55,11 @@ public class DataSetTableContentProvider implements IStructuredContentProvider {
      * @see org.eclipse.jface.viewers.IContentProvider#inputChanged(org.eclipse.jface.viewers.Viewer, java.lang.Object, java.lang.Object)
      */
     public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
-        // noop
-
+        this.viewer = (TableViewer) viewer;
+        this.dataSet = (DataSet) newInput;
+        if (dataSet != null) {
+            this.viewer.setItemCount(dataSet.getRowCount());
+        }
     }
 
 }
@@ -123,4 +123,51 @@ public class DataSetTableSorter implements Comparator {
         return result;
     }
 
+    /**
+     * Sorts the numbers of the rows of a dataset which keeps its values by column, without creating the rows. The sort
+     * is stable, as the sort of the rows.
+     * 
+     * @param rows the numbers of the rows, in their current order
+     * @param values the values of the columns
+     */
+    void sort(int[] rows, ColumnValues[] values) {
+        mergeSort(rows.clone(), rows, 0, rows.length, values);
+    }
+
+    private void mergeSort(int[] src, int[] dest, int low, int high, ColumnValues[] values) {
+        if (high - low < 2) {
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        mergeSort(dest, src, low, middle, values);
+        mergeSort(dest, src, middle, high, values);
+        for (int i = low, p = low, q = middle; i < high; i++) {
+            if (q >= high || p < middle && compareRows(src[p], src[q], values) <= 0) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+
+    private int compareRows(int row1, int row2, ColumnValues[] values) {
+        for (int depth = 0; depth < _priorities.length; depth++) {
+            int columnNumber = _priorities[depth];
+            ColumnValues column = values[columnNumber];
+            boolean null1 = column.isNull(row1);
+            boolean null2 = column.isNull(row2);
+            int result;
+            if (null1 || null2) {
+                // null values are last
+                result = null1 == null2 ? 0 : (null1 ? 1 : -1);
+            } else {
+                result = column.compare(row1, row2);
+            }
+            if (result != 0) {
+                return _directions[columnNumber] == SWT.DOWN ? -result : result;
+            }
+        }
+        return 0;
+    }
+
 }
@@ -106,7 +106,7 @@ public class SQLExecution extends AbstractSQLExecution {
                     gLayout.marginHeight = 0;
                     composite.setLayout(gLayout);
 
-                    int resultCount = sqlResult.getDataSet().getRows().length;
+                    int resultCount = sqlResult.getDataSet().getRowCount();
                     String statusMessage = Messages.getString("SQLResultsView.Time.Prefix") + " "
                             + sqlResult.getExecutionTimeMillis() + " "
                             + Messages.getString("SQLResultsView.Time.Postfix");
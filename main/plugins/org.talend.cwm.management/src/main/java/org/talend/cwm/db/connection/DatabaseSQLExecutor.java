@@ -20,10 +20,13 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.apache.log4j.Logger;
+import org.talend.algorithms.ReservoirSampler;
 import org.talend.core.model.metadata.builder.connection.Connection;
 import org.talend.core.model.metadata.builder.database.JavaSqlFactory;
+import org.talend.cwm.helper.ColumnHelper;
 import org.talend.cwm.helper.SwitchHelpers;
 import org.talend.cwm.relational.TdColumn;
+import org.talend.dataquality.helpers.SystemPropertyHelper;
 import org.talend.dataquality.matchmerge.Record;
 import org.talend.dataquality.record.linkage.iterator.ResultSetIterator;
 import org.talend.dq.dbms.DbmsLanguage;
@@ -34,6 +37,7 @@ import org.talend.utils.sugars.TypedReturnCode;
 
 import orgomg.cwm.foundation.softwaredeployment.DataManager;
 import orgomg.cwm.objectmodel.core.ModelElement;
+import orgomg.cwm.resource.relational.ColumnSet;
 
 /**
  * SQL executor dedicated for relational database query.
@@ -42,6 +46,12 @@ public class DatabaseSQLExecutor extends SQLExecutor {
 
     private static Logger log = Logger.getLogger(DatabaseSQLExecutor.class);
 
+    /**
+     * the number of rows read for each row of a random sample, when the database cannot sample the table.
+     */
+    public static final int RANDOM_SCAN_FACTOR = SystemPropertyHelper.getInt(
+            "talend.analysis.random.scan.factor", 100); //$NON-NLS-1$
+
     /*
      * (non-Javadoc)
      *
@@ -70,12 +80,17 @@ public class DatabaseSQLExecutor extends SQLExecutor {
      *
      * createSqlStatement: if has limit, add it, else do not use limit
      *
-     * @param connection
+     * @param dbms
+     * @param con
      * @param analysedElements
+     * @param where
+     * @param sampleClause the clause which samples the table, null if none
+     * @param randomQuery whether the rows are sorted in random order
+     * @param limit
      * @return
      */
-    private String createSqlStatement(DataManager connection, List<ModelElement> analysedElements, String where) {
-        DbmsLanguage dbms = DbmsLanguageFactory.createDbmsLanguage(connection);
+    private String createSqlStatement(DbmsLanguage dbms, Connection con, List<ModelElement> analysedElements, String where,
+            String sampleClause, boolean randomQuery, int limit) {
         TdColumn col = null;
         StringBuilder sql = new StringBuilder("SELECT ");//$NON-NLS-1$
         final Iterator<ModelElement> iterator = analysedElements.iterator();
@@ -90,6 +105,9 @@ public class DatabaseSQLExecutor extends SQLExecutor {
         }
         sql.append(dbms.from());
         sql.append(dbms.getQueryColumnSetWithPrefix(col));
+        if (sampleClause != null) {
+            sql.append(sampleClause);
+        }
         if (where != null && where.length() > 0) {
             sql.append(dbms.where());
             sql.append(where);
@@ -97,19 +115,99 @@ public class DatabaseSQLExecutor extends SQLExecutor {
 
         String finalQuery = sql.toString();
 
-        if (isShowRandomData()) {
+        if (randomQuery) {
             finalQuery = dbms.getRandomQuery(finalQuery);
         }
-        Connection con = (Connection) connection;
         // not all database support Limit. only append Limit for non-JDBC type at here.
-        if (getLimit() > 0 && !ConnectionUtils.isTcompJdbc(con) && !ConnectionUtils.isGeneralJdbc(con)) {
-            return dbms.getTopNQuery(finalQuery, getLimit());
+        if (limit > 0 && !ConnectionUtils.isTcompJdbc(con) && !ConnectionUtils.isGeneralJdbc(con)) {
+            return dbms.getTopNQuery(finalQuery, limit);
         } else {
             return finalQuery;
         }
 
     }
 
+    /**
+     *
+     * Get the clause which samples the analyzed table in the database, instead of sorting all its rows in random
+     * order. The table is sampled before the data filter applies, so there is no sample clause when a data filter is
+     * set: the sample would hold fewer rows than asked, or none.
+     *
+     * @param dbms
+     * @param sqlConnection
+     * @param analysedElements
+     * @param where the data filter, null or empty if none
+     * @return the sample clause, null if the database cannot sample the table
+     */
+    private String getTableSampleClause(DbmsLanguage dbms, java.sql.Connection sqlConnection,
+            List<ModelElement> analysedElements, String where) {
+        if (!isShowRandomData() || getLimit() <= 0 || dbms.isRandomQuerySampling()) {
+            return null;
+        }
+        if (where != null && where.length() > 0) {
+            return null;
+        }
+        TdColumn col = SwitchHelpers.COLUMN_SWITCH.doSwitch(analysedElements.get(0));
+        ColumnSet columnSet = col == null ? null : ColumnHelper.getColumnOwnerAsColumnSet(col);
+        String countQuery = columnSet == null ? null : dbms.getEstimatedRowCountQuery(columnSet);
+        long estimatedRowCount = -1L;
+        if (countQuery != null) {
+            Statement statement = null;
+            try {
+                statement = sqlConnection.createStatement();
+                ResultSet resultSet = statement.executeQuery(countQuery);
+                if (resultSet.next()) {
+                    double rowCount = resultSet.getDouble(1);
+                    if (!resultSet.wasNull()) {
+                        estimatedRowCount = (long) rowCount;
+                    }
+                }
+            } catch (SQLException e) {
+                // no statistics, the table is not sampled by the database
+                log.warn(e.getMessage(), e);
+            } finally {
+                try {
+                    if (statement != null) {
+                        statement.close();
+                    }
+                } catch (SQLException e) {
+                    log.warn(e.getMessage(), e);
+                }
+            }
+        }
+        return dbms.getTableSampleClause(getLimit(), estimatedRowCount);
+    }
+
+    /**
+     *
+     * Create the sampler of the random rows, when the database cannot sample them: the sample is then drawn from a
+     * bounded number of rows instead of sorting the whole table.
+     *
+     * @param dbms
+     * @param sampleClause the clause which samples the table, null if none
+     * @return the sampler, null if the rows are sampled by the database or if there is no random sample
+     */
+    private <T> ReservoirSampler<T> createSampler(DbmsLanguage dbms, String sampleClause) {
+        if (isShowRandomData() && getLimit() > 0 && sampleClause == null && !dbms.isRandomQuerySampling()) {
+            return new ReservoirSampler<T>(getLimit());
+        }
+        return null;
+    }
+
+    /**
+     *
+     * Get the number of rows read from the database.
+     *
+     * @param sampler the sampler of the random rows, null if none
+     * @return the limit, or the number of rows from which the sample is drawn
+     */
+    private int getQueryLimit(ReservoirSampler<?> sampler) {
+        if (sampler == null) {
+            return getLimit();
+        }
+        return (int) Math.min((long) getLimit() * RANDOM_SCAN_FACTOR, Integer.MAX_VALUE);
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -118,14 +216,25 @@ public class DatabaseSQLExecutor extends SQLExecutor {
      * , java.util.List)
      */
     public Iterator<Record> getResultSetIterator(DataManager connection, List<ModelElement> analysedElements) throws SQLException {
-        String sqlString = createSqlStatement(connection, analysedElements, null);
         TypedReturnCode<java.sql.Connection> sqlconnection = getSQLConnection(connection);
+        DbmsLanguage dbms = DbmsLanguageFactory.createDbmsLanguage(connection);
+        String sampleClause = getTableSampleClause(dbms, sqlconnection.getObject(), analysedElements, null);
+        ReservoirSampler<Record> sampler = createSampler(dbms, sampleClause);
+        String sqlString = createSqlStatement(dbms, (Connection) connection, analysedElements, null, sampleClause,
+                isShowRandomData() && sampleClause == null && sampler == null, getQueryLimit(sampler));
         List<String> elementsName = new ArrayList<String>();
         for (ModelElement element : analysedElements) {
             elementsName.add(element.getName());
         }
 
-        return new ResultSetIterator(sqlconnection.getObject(), sqlString, elementsName);
+        ResultSetIterator resultSetIterator = new ResultSetIterator(sqlconnection.getObject(), sqlString, elementsName);
+        if (sampler == null) {
+            return resultSetIterator;
+        }
+        while (resultSetIterator.hasNext()) {
+            sampler.add(resultSetIterator.next());
+        }
+        return sampler.getSample().iterator();
     }
 
     /*
@@ -149,14 +258,18 @@ public class DatabaseSQLExecutor extends SQLExecutor {
         Statement statement = null;
         ResultSet resultSet = null;
         try {
+            DbmsLanguage dbms = DbmsLanguageFactory.createDbmsLanguage(connection);
+            String sampleClause = getTableSampleClause(dbms, sqlconnection.getObject(), analysedElements, where);
+            ReservoirSampler<Object[]> sampler = createSampler(dbms, sampleClause);
+            int limit = getQueryLimit(sampler);
             statement = sqlconnection.getObject().createStatement();
             // for JDBC type, use 'statement.setMaxRows(limit)' instead of Limit in sql query;
-            int limit = getLimit();
             Connection con = (Connection) connection;
             if (limit > 0 && (ConnectionUtils.isTcompJdbc(con) || ConnectionUtils.isGeneralJdbc(con))) {
                 statement.setMaxRows(limit);
             }
-            String query = createSqlStatement(connection, analysedElements, where);
+            String query = createSqlStatement(dbms, con, analysedElements, where, sampleClause,
+                    isShowRandomData() && sampleClause == null && sampler == null, limit);
             if (log.isInfoEnabled()) {
                 log.info("Executing query: " + query); //$NON-NLS-1$
             }
@@ -170,7 +283,16 @@ public class DatabaseSQLExecutor extends SQLExecutor {
                     // --- get content of column
                     oneRow[i] = ResultSetUtils.getBigObject(resultSet, i + 1);
                 }
-                handleRow(oneRow);
+                if (sampler == null) {
+                    handleRow(oneRow);
+                } else {
+                    sampler.add(oneRow);
+                }
+            }
+            if (sampler != null) {
+                for (Object[] oneRow : sampler.getSample()) {
+                    handleRow(oneRow);
+                }
             }
         } catch (Exception e) {
             log.error(e, e);
@@ -19,12 +19,14 @@ import java.util.List;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.talend.commons.emf.FactoriesUtil;
 import org.talend.commons.exception.PersistenceException;
+import org.talend.core.model.general.Project;
 import org.talend.core.model.metadata.builder.connection.Connection;
 import org.talend.core.model.properties.Item;
 import org.talend.core.model.properties.Property;
@@ -52,6 +54,7 @@ import org.talend.dq.helper.FileUtils;
 import org.talend.dq.helper.PropertyHelper;
 import org.talend.dq.writer.AElementPersistance;
 import org.talend.dq.writer.impl.ElementWriterFactory;
+import org.talend.repository.ProjectManager;
 import org.talend.resource.EResourceConstant;
 import org.talend.resource.ResourceManager;
 import org.talend.utils.sugars.ReturnCode;
@@ -435,7 +438,8 @@ public final class DependenciesHandler {
     }
 
     /**
-     * get Indicator Dependency.
+     * get Indicator Dependency. Only the analyses which reference the indicator in the {@link DependencyIndex} are
+     * loaded, and the analyses of the referenced projects which are not in the index.
      *
      * @return get the list for analysis which use parameter to be a Indicator
      */
@@ -446,9 +450,24 @@ public final class DependenciesHandler {
             TDQIndicatorDefinitionItemImpl tdqIndicatorItem = (TDQIndicatorDefinitionItemImpl) item;
             IndicatorDefinition newIndicatorDefinition = tdqIndicatorItem.getIndicatorDefinition();
             List<IRepositoryViewObject> allAnaList = new ArrayList<IRepositoryViewObject>();
+            DependencyIndex index = DependencyIndex.getInstance();
             try {
-                allAnaList.addAll(ProxyRepositoryFactory.getInstance().getAll(
-                        ERepositoryObjectType.TDQ_ANALYSIS_ELEMENT, true));
+                if (index == null) {
+                    allAnaList.addAll(ProxyRepositoryFactory.getInstance().getAll(
+                            ERepositoryObjectType.TDQ_ANALYSIS_ELEMENT, true));
+                } else {
+                    for (String path : index.getClients(ResourceHelper.getUUID(newIndicatorDefinition))) {
+                        Property property = PropertyHelper.getProperty(ResourceManager.getRoot().getFile(new Path(path)));
+                        if (property != null && property.getItem() instanceof TDQAnalysisItem) {
+                            allAnaList.add(new RepositoryViewObject(property));
+                        }
+                    }
+                    // the index only knows the analyses of the current project
+                    for (Project project : ProjectManager.getInstance().getAllReferencedProjects()) {
+                        allAnaList.addAll(ProxyRepositoryFactory.getInstance().getAll(project,
+                                ERepositoryObjectType.TDQ_ANALYSIS_ELEMENT, true));
+                    }
+                }
             } catch (PersistenceException e) {
                 log.error(e, e);
             }
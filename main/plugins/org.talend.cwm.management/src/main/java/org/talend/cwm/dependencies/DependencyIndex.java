@@ -0,0 +1,442 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.cwm.dependencies;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.talend.commons.emf.FactoriesUtil;
+import org.talend.core.model.properties.Property;
+import org.talend.dq.CWMPlugin;
+import org.talend.resource.ResourceManager;
+
+/**
+ * The reverse dependencies of the analyses of the current project: for each analysis file, the UUIDs of the elements
+ * it references (indicator definitions and UDIs, patterns, rules, match rules, connections, contexts...). It answers
+ * "which analyses use this element" without loading the EMF models of all the analyses.
+ * <p>
+ * The index is kept in a file of the plugin state location, with the modification date of each analysis file. At the
+ * first query, the analysis files are listed and only the new or modified ones since the index was saved are read
+ * again. The queries then only read the index: it is kept up to date by the analyses saved by the
+ * {@link org.talend.dq.writer.AElementPersistance}, and by a workspace listener for the analysis files changed
+ * otherwise (update from the shared repository, import, deletion...).
+ */
+public final class DependencyIndex {
+
+    private static Logger log = Logger.getLogger(DependencyIndex.class);
+
+    private static final String STORE_EXTENSION = ".dependencies"; //$NON-NLS-1$
+
+    private static final String STORE_VERSION = "1"; //$NON-NLS-1$
+
+    private static final String ENCODING = "UTF-8"; //$NON-NLS-1$
+
+    /**
+     * A reference to another file of the repository ends with the UUID of the element, i.e. "...#_uuid".
+     */
+    private static final Pattern REFERENCE = Pattern.compile("#(_[\\w\\-]+)\""); //$NON-NLS-1$
+
+    private static DependencyIndex instance;
+
+    private final File folder;
+
+    private final String folderPath;
+
+    private final File store;
+
+    private final Map<String, Long> lastModified = new HashMap<String, Long>();
+
+    private final Map<String, Set<String>> suppliers = new HashMap<String, Set<String>>();
+
+    private final Map<String, Set<String>> clients = new HashMap<String, Set<String>>();
+
+    private boolean loaded = false;
+
+    private boolean dirty = false;
+
+    private final IResourceChangeListener listener = new IResourceChangeListener() {
+
+        @Override
+        public void resourceChanged(IResourceChangeEvent event) {
+            DependencyIndex.this.resourceChanged(event);
+        }
+    };
+
+    /**
+     * DependencyIndex constructor.
+     *
+     * @param folder the analysis folder on the disk
+     * @param folderPath the workspace path of the analysis folder
+     * @param store the file where the index is kept, null to keep it in memory only
+     */
+    DependencyIndex(File folder, String folderPath, File store) {
+        this.folder = folder;
+        this.folderPath = folderPath;
+        this.store = store;
+    }
+
+    /**
+     * Method "getInstance".
+     *
+     * @return the index of the analyses of the current project, or null when there is no workspace
+     */
+    public static synchronized DependencyIndex getInstance() {
+        IFolder analysisFolder;
+        IPath location;
+        try {
+            analysisFolder = ResourceManager.getAnalysisFolder();
+            location = analysisFolder.getLocation();
+        } catch (IllegalStateException e) {
+            log.debug(e, e);
+            return null;
+        }
+        if (location == null) {
+            return null;
+        }
+        String path = analysisFolder.getFullPath().toString();
+        if (instance == null || !instance.folderPath.equals(path)) {
+            if (instance != null) {
+                ResourcesPlugin.getWorkspace().removeResourceChangeListener(instance.listener);
+            }
+            File storeFile = null;
+            CWMPlugin plugin = CWMPlugin.getDefault();
+            if (plugin != null) {
+                try {
+                    storeFile = plugin.getStateLocation().append(ResourceManager.getRootProjectName() + STORE_EXTENSION)
+                            .toFile();
+                } catch (IllegalStateException e) {
+                    // no state location: the index is kept in memory
+                    log.debug(e, e);
+                }
+            }
+            instance = new DependencyIndex(location.toFile(), path, storeFile);
+            ResourcesPlugin.getWorkspace().addResourceChangeListener(instance.listener,
+                    IResourceChangeEvent.POST_CHANGE);
+        }
+        return instance;
+    }
+
+    /**
+     * Method "getAnalysisPath".
+     *
+     * @param property the property of an analysis
+     * @return the workspace path of the analysis file, or null when the property is not in a resource
+     */
+    public static String getAnalysisPath(Property property) {
+        Resource resource = property == null ? null : property.eResource();
+        if (resource == null || resource.getURI() == null) {
+            return null;
+        }
+        URI uri = resource.getURI().trimFileExtension().appendFileExtension(FactoriesUtil.ANA);
+        return uri.isPlatform() ? uri.toPlatformString(true) : null;
+    }
+
+    /**
+     * Method "getClients".
+     *
+     * @param supplierUuid the UUID of a model element
+     * @return the workspace paths of the analysis files which reference the model element
+     */
+    public synchronized Set<String> getClients(String supplierUuid) {
+        if (!loaded) {
+            refresh();
+        }
+        Set<String> paths = clients.get(supplierUuid);
+        return paths == null ? Collections.<String> emptySet() : new HashSet<String>(paths);
+    }
+
+    /**
+     * Method "isIndexed".
+     *
+     * @param path the workspace path of an analysis file
+     * @return true when the file is in the index, false when its dependencies are unknown (reference project...)
+     */
+    public synchronized boolean isIndexed(String path) {
+        return path != null && lastModified.containsKey(path);
+    }
+
+    /**
+     * Method "update" reads again the dependencies of a saved analysis file.
+     *
+     * @param path the workspace path of the file
+     */
+    public synchronized void update(String path) {
+        updateFile(path);
+        if (dirty) {
+            save();
+        }
+    }
+
+    /**
+     * Method "resourceChanged" reads again the dependencies of the analysis files changed in the workspace.
+     *
+     * @param event a workspace event
+     */
+    void resourceChanged(IResourceChangeEvent event) {
+        IResourceDelta delta = event.getDelta();
+        if (delta == null) {
+            return;
+        }
+        final Set<String> paths = new HashSet<String>();
+        try {
+            delta.accept(new IResourceDeltaVisitor() {
+
+                @Override
+                public boolean visit(IResourceDelta childDelta) {
+                    IResource resource = childDelta.getResource();
+                    if (resource != null && resource.getType() == IResource.FILE
+                            && FactoriesUtil.isAnalysisFile(resource.getFileExtension())) {
+                        paths.add(childDelta.getFullPath().toString());
+                    }
+                    return true;
+                }
+            });
+        } catch (CoreException e) {
+            log.warn(e, e);
+        }
+        if (!paths.isEmpty()) {
+            synchronized (this) {
+                for (String path : paths) {
+                    updateFile(path);
+                }
+                if (dirty) {
+                    save();
+                }
+            }
+        }
+    }
+
+    private void updateFile(String path) {
+        if (!loaded || path == null || !path.startsWith(folderPath + '/')) {
+            // not loaded yet: the file is read with the others on the first query
+            return;
+        }
+        File file = new File(folder, path.substring(folderPath.length() + 1));
+        if (file.isFile()) {
+            index(path, file);
+        } else {
+            remove(path);
+        }
+    }
+
+    /**
+     * Method "rebuild" reads again all the analysis files.
+     */
+    public synchronized void rebuild() {
+        reset();
+        loaded = true;
+        refresh();
+    }
+
+    private void refresh() {
+        if (!loaded) {
+            load();
+            loaded = true;
+        }
+        Set<String> paths = new HashSet<String>();
+        scan(folder, folderPath, paths);
+        for (String path : new HashSet<String>(lastModified.keySet())) {
+            if (!paths.contains(path)) {
+                remove(path);
+            }
+        }
+        if (dirty) {
+            save();
+        }
+    }
+
+    private void scan(File directory, String directoryPath, Set<String> paths) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String path = directoryPath + '/' + file.getName();
+            if (file.isDirectory()) {
+                scan(file, path, paths);
+            } else if (FactoriesUtil.isAnalysisFile(file.getName().substring(file.getName().lastIndexOf('.') + 1))) {
+                paths.add(path);
+                Long date = lastModified.get(path);
+                if (date == null || date.longValue() != file.lastModified()) {
+                    index(path, file);
+                }
+            }
+        }
+    }
+
+    private void index(String path, File file) {
+        long date = file.lastModified();
+        Set<String> uuids = new HashSet<String>();
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), ENCODING));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = REFERENCE.matcher(line);
+                while (matcher.find()) {
+                    uuids.add(matcher.group(1));
+                }
+            }
+        } catch (IOException e) {
+            // the file is read again on the next query
+            log.warn(e, e);
+            date = -1L;
+        } finally {
+            close(reader);
+        }
+        put(path, date, uuids);
+    }
+
+    private void put(String path, long date, Set<String> uuids) {
+        remove(path);
+        lastModified.put(path, date);
+        suppliers.put(path, uuids);
+        for (String uuid : uuids) {
+            Set<String> paths = clients.get(uuid);
+            if (paths == null) {
+                paths = new HashSet<String>();
+                clients.put(uuid, paths);
+            }
+            paths.add(path);
+        }
+        dirty = true;
+    }
+
+    private void remove(String path) {
+        lastModified.remove(path);
+        Set<String> uuids = suppliers.remove(path);
+        if (uuids == null) {
+            return;
+        }
+        for (String uuid : uuids) {
+            Set<String> paths = clients.get(uuid);
+            if (paths != null) {
+                paths.remove(path);
+                if (paths.isEmpty()) {
+                    clients.remove(uuid);
+                }
+            }
+        }
+        dirty = true;
+    }
+
+    /**
+     * The store has a version line, then one line per analysis file: its path, its modification date and the UUIDs it
+     * references, separated by tabulations.
+     */
+    private void load() {
+        if (store == null || !store.isFile()) {
+            return;
+        }
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(store), ENCODING));
+            if (!STORE_VERSION.equals(reader.readLine())) {
+                return;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t"); //$NON-NLS-1$
+                if (fields.length < 2) {
+                    continue;
+                }
+                Set<String> uuids = new HashSet<String>();
+                for (int i = 2; i < fields.length; i++) {
+                    uuids.add(fields[i]);
+                }
+                put(fields[0], Long.parseLong(fields[1]), uuids);
+            }
+            dirty = false;
+        } catch (IOException e) {
+            log.warn(e, e);
+            reset();
+        } catch (NumberFormatException e) {
+            log.warn(e, e);
+            reset();
+        } finally {
+            close(reader);
+        }
+    }
+
+    private void reset() {
+        lastModified.clear();
+        suppliers.clear();
+        clients.clear();
+        dirty = true;
+    }
+
+    private void save() {
+        if (store == null) {
+            dirty = false;
+            return;
+        }
+        BufferedWriter writer = null;
+        try {
+            store.getParentFile().mkdirs();
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(store), ENCODING));
+            writer.write(STORE_VERSION);
+            writer.newLine();
+            for (Map.Entry<String, Long> entry : lastModified.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write('\t');
+                writer.write(String.valueOf(entry.getValue()));
+                for (String uuid : suppliers.get(entry.getKey())) {
+                    writer.write('\t');
+                    writer.write(uuid);
+                }
+                writer.newLine();
+            }
+            dirty = false;
+        } catch (IOException e) {
+            log.warn(e, e);
+        } finally {
+            close(writer);
+        }
+    }
+
+    private static void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                log.warn(e, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,514 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang.StringUtils;
+import org.talend.dataquality.indicators.Indicator;
+import org.talend.dq.dbms.DbmsLanguage;
+
+/**
+ * Merges the queries of the indicators which only compute aggregates on the same table into one query per table, so
+ * that the table is scanned once for all these indicators.
+ * <p>
+ * A query can be merged when it is of the form "SELECT aggregate, ... FROM table [WHERE condition]", each selected
+ * item being a COUNT, SUM, MIN, MAX or AVG function without DISTINCT, and when it has no sub-query, grouping, ordering,
+ * row limit or window function, so that it returns a single row. The condition of each query is moved into its
+ * aggregates: "SELECT SUM(x) FROM t WHERE c" becomes "SUM(CASE WHEN c THEN x END)", which has the same value since the
+ * aggregate functions ignore the nulls. The conditions shared by all the merged queries, such as the data filter of the
+ * analysis, are kept in the WHERE clause of the merged query.
+ */
+public class AggregateQueryFusion {
+
+    /**
+     * The maximum number of aggregates selected by a merged query.
+     */
+    public static final int MAX_AGGREGATES = 200;
+
+    private static final String SELECT = "SELECT"; //$NON-NLS-1$
+
+    private static final String FROM = "FROM"; //$NON-NLS-1$
+
+    private static final String WHERE = "WHERE"; //$NON-NLS-1$
+
+    private static final String AND = "AND"; //$NON-NLS-1$
+
+    private static final String OR = "OR"; //$NON-NLS-1$
+
+    private static final String BETWEEN = "BETWEEN"; //$NON-NLS-1$
+
+    private static final Set<String> AGGREGATE_FUNCTIONS = new HashSet<String>(Arrays.asList("COUNT", "SUM", "MIN", "MAX", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+            "AVG")); //$NON-NLS-1$
+
+    // the words which change the number of rows returned by a query or which cannot be moved into an aggregate
+    private static final Set<String> UNSUPPORTED_WORDS = new HashSet<String>(Arrays.asList(SELECT, "DISTINCT", "GROUP", //$NON-NLS-1$ //$NON-NLS-2$
+            "ORDER", "HAVING", "UNION", "INTERSECT", "EXCEPT", "MINUS", "LIMIT", "TOP", "FETCH", "OFFSET", "ROWNUM", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$
+            "QUALIFY", "SAMPLE", "TABLESAMPLE", "OVER", "WITH", "INTO", "CONNECT")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+
+    private static final Pattern AGGREGATE = Pattern.compile("(\\w+)\\s*\\((.*)\\)", Pattern.DOTALL); //$NON-NLS-1$
+
+    private final DbmsLanguage dbmsLanguage;
+
+    // the queries to merge by their catalog and table
+    private final Map<String, List<AggregateQuery>> tableToQueries = new LinkedHashMap<String, List<AggregateQuery>>();
+
+    /**
+     * AggregateQueryFusion constructor.
+     *
+     * @param dbmsLanguage the language of the database, which writes the merged aggregates
+     */
+    public AggregateQueryFusion(DbmsLanguage dbmsLanguage) {
+        this.dbmsLanguage = dbmsLanguage;
+    }
+
+    /**
+     * Adds the query of an indicator to the queries to merge.
+     *
+     * @param indicator the indicator
+     * @param catalog the catalog or schema of the analyzed table, can be null
+     * @param query the instantiated query of the indicator
+     * @return false when the query cannot be merged, the indicator must then be computed by its own query
+     */
+    public boolean add(Indicator indicator, String catalog, String query) {
+        AggregateQuery aggregateQuery = parse(query);
+        if (aggregateQuery == null) {
+            return false;
+        }
+        aggregateQuery.indicator = indicator;
+        aggregateQuery.catalog = catalog;
+        String key = catalog + '\u0000' + aggregateQuery.from;
+        List<AggregateQuery> queries = tableToQueries.get(key);
+        if (queries == null) {
+            queries = new ArrayList<AggregateQuery>();
+            tableToQueries.put(key, queries);
+        }
+        queries.add(aggregateQuery);
+        return true;
+    }
+
+    /**
+     * Method "getFusedQueries".
+     *
+     * @return the merged queries. The indicators which are alone on their table are not in these queries.
+     */
+    public List<FusedQuery> getFusedQueries() {
+        List<FusedQuery> fusedQueries = new ArrayList<FusedQuery>();
+        for (List<AggregateQuery> queries : tableToQueries.values()) {
+            List<AggregateQuery> merged = new ArrayList<AggregateQuery>();
+            int aggregateCount = 0;
+            for (AggregateQuery query : queries) {
+                if (aggregateCount + query.aggregates.size() > MAX_AGGREGATES && !merged.isEmpty()) {
+                    addFusedQuery(fusedQueries, merged);
+                    merged = new ArrayList<AggregateQuery>();
+                    aggregateCount = 0;
+                }
+                merged.add(query);
+                aggregateCount += query.aggregates.size();
+            }
+            addFusedQuery(fusedQueries, merged);
+        }
+        return fusedQueries;
+    }
+
+    private void addFusedQuery(List<FusedQuery> fusedQueries, List<AggregateQuery> queries) {
+        if (queries.size() < 2) {
+            // nothing to merge
+            return;
+        }
+        // the conditions of all the queries are kept in the where clause
+        List<String> commonConditions = new ArrayList<String>(queries.get(0).conditions);
+        for (AggregateQuery query : queries) {
+            commonConditions.retainAll(query.conditions);
+        }
+        List<String> aggregates = new ArrayList<String>();
+        List<Indicator> indicators = new ArrayList<Indicator>();
+        int[] firstColumns = new int[queries.size() + 1];
+        for (int i = 0; i < queries.size(); i++) {
+            AggregateQuery query = queries.get(i);
+            List<String> conditions = new ArrayList<String>(query.conditions);
+            conditions.removeAll(commonConditions);
+            String condition = conditions.isEmpty() ? null : joinConditions(conditions);
+            for (String[] aggregate : query.aggregates) {
+                aggregates.add(dbmsLanguage.conditionalAggregate(aggregate[0], aggregate[1], condition));
+            }
+            indicators.add(query.indicator);
+            firstColumns[i + 1] = aggregates.size();
+        }
+        StringBuilder sql = new StringBuilder(SELECT).append(' ').append(StringUtils.join(aggregates, ", ")); //$NON-NLS-1$
+        sql.append(dbmsLanguage.from()).append(queries.get(0).from);
+        if (!commonConditions.isEmpty()) {
+            sql.append(dbmsLanguage.where()).append(joinConditions(commonConditions));
+        }
+        fusedQueries.add(new FusedQuery(queries.get(0).catalog, sql.toString(), indicators, firstColumns));
+    }
+
+    private String joinConditions(List<String> conditions) {
+        if (conditions.size() == 1) {
+            return conditions.get(0);
+        }
+        StringBuilder condition = new StringBuilder();
+        for (String c : conditions) {
+            if (condition.length() > 0) {
+                condition.append(dbmsLanguage.and());
+            }
+            condition.append('(').append(c).append(')');
+        }
+        return condition.toString();
+    }
+
+    /**
+     * Method "parse".
+     *
+     * @param query a query
+     * @return the aggregates, table and conditions of the query, null when the query cannot be merged
+     */
+    static AggregateQuery parse(String query) {
+        String sql = StringUtils.trim(query);
+        if (StringUtils.isEmpty(sql)) {
+            return null;
+        }
+        if (sql.endsWith(";")) { //$NON-NLS-1$
+            sql = sql.substring(0, sql.length() - 1).trim();
+        }
+        boolean[] topLevel = getTopLevelMask(sql);
+        if (topLevel == null) {
+            return null;
+        }
+        int fromIndex = -1;
+        int whereIndex = -1;
+        List<int[]> words = getWords(sql, topLevel);
+        if (words.isEmpty() || words.get(0)[0] != 0 || !SELECT.equalsIgnoreCase(getWord(sql, words.get(0)))) {
+            return null;
+        }
+        for (int[] word : words.subList(1, words.size())) {
+            String w = getWord(sql, word).toUpperCase();
+            if (UNSUPPORTED_WORDS.contains(w)) {
+                return null;
+            }
+            if (topLevel[word[0]]) {
+                if (FROM.equals(w)) {
+                    if (fromIndex >= 0) {
+                        return null;
+                    }
+                    fromIndex = word[0];
+                } else if (WHERE.equals(w)) {
+                    if (whereIndex >= 0 || fromIndex < 0) {
+                        return null;
+                    }
+                    whereIndex = word[0];
+                }
+            }
+        }
+        if (fromIndex < 0) {
+            return null;
+        }
+        AggregateQuery aggregateQuery = new AggregateQuery();
+        for (int[] item : split(sql, topLevel, SELECT.length(), fromIndex)) {
+            String[] aggregate = parseAggregate(sql, topLevel, item[0], item[1]);
+            if (aggregate == null) {
+                return null;
+            }
+            aggregateQuery.aggregates.add(aggregate);
+        }
+        int fromEnd = whereIndex < 0 ? sql.length() : whereIndex;
+        aggregateQuery.from = sql.substring(fromIndex + FROM.length(), fromEnd).trim();
+        if (aggregateQuery.from.length() == 0) {
+            return null;
+        }
+        if (whereIndex >= 0) {
+            aggregateQuery.conditions.addAll(splitConditions(sql, topLevel, words, whereIndex + WHERE.length()));
+            if (aggregateQuery.conditions.isEmpty()) {
+                return null;
+            }
+        }
+        return aggregateQuery;
+    }
+
+    /**
+     * @return the function and argument of the aggregate between the given indexes, null when it is not an aggregate
+     */
+    private static String[] parseAggregate(String sql, boolean[] topLevel, int start, int end) {
+        String item = sql.substring(start, end);
+        Matcher matcher = AGGREGATE.matcher(item.trim());
+        if (!matcher.matches() || !AGGREGATE_FUNCTIONS.contains(matcher.group(1).toUpperCase())) {
+            return null;
+        }
+        // the parenthesis after the function must be the one which ends the item, as in "MIN(a)" but not in
+        // "MIN(a) + MAX(b)"
+        int open = start + item.indexOf('(');
+        int close = start + item.lastIndexOf(')');
+        for (int i = open + 1; i < close; i++) {
+            if (topLevel[i]) {
+                return null;
+            }
+        }
+        String argument = matcher.group(2).trim();
+        if (argument.length() == 0) {
+            return null;
+        }
+        return new String[] { matcher.group(1), argument };
+    }
+
+    /**
+     * Splits the where clause on its top level AND operators. The clause is kept whole when it contains a top level OR.
+     */
+    private static List<String> splitConditions(String sql, boolean[] topLevel, List<int[]> words, int start) {
+        List<Integer> ands = new ArrayList<Integer>();
+        boolean inBetween = false;
+        for (int[] word : words) {
+            if (word[0] < start || !topLevel[word[0]]) {
+                continue;
+            }
+            String w = getWord(sql, word).toUpperCase();
+            if (OR.equals(w)) {
+                ands.clear();
+                break;
+            } else if (BETWEEN.equals(w)) {
+                inBetween = true;
+            } else if (AND.equals(w)) {
+                if (inBetween) {
+                    // the AND of "x BETWEEN a AND b"
+                    inBetween = false;
+                } else {
+                    ands.add(word[0]);
+                }
+            }
+        }
+        List<String> conditions = new ArrayList<String>();
+        int conditionStart = start;
+        ands.add(sql.length());
+        for (int and : ands) {
+            String condition = sql.substring(conditionStart, and).trim();
+            if (condition.length() == 0) {
+                return new ArrayList<String>();
+            }
+            conditions.add(removeParentheses(condition));
+            conditionStart = and + AND.length();
+        }
+        return conditions;
+    }
+
+    /**
+     * @return the condition without the parentheses surrounding it, if any
+     */
+    private static String removeParentheses(String condition) {
+        String result = condition;
+        while (result.startsWith("(") && result.endsWith(")")) { //$NON-NLS-1$ //$NON-NLS-2$
+            boolean[] topLevel = getTopLevelMask(result);
+            for (int i = 1; i < result.length() - 1; i++) {
+                if (topLevel[i]) {
+                    // as in "(a) = (b)"
+                    return result;
+                }
+            }
+            result = result.substring(1, result.length() - 1).trim();
+        }
+        return result;
+    }
+
+    /**
+     * Splits the given part of the query on its top level commas.
+     *
+     * @return the start and end indexes of each item
+     */
+    private static List<int[]> split(String sql, boolean[] topLevel, int start, int end) {
+        List<int[]> items = new ArrayList<int[]>();
+        int itemStart = start;
+        for (int i = start; i < end; i++) {
+            if (topLevel[i] && sql.charAt(i) == ',') {
+                items.add(new int[] { itemStart, i });
+                itemStart = i + 1;
+            }
+        }
+        items.add(new int[] { itemStart, end });
+        return items;
+    }
+
+    /**
+     * Finds the characters of the query which are neither between parentheses nor in a literal or a quoted identifier.
+     * The parentheses themselves are at the level of the expression they delimit.
+     *
+     * @return the mask of the top level characters, null when the query has comments or unbalanced quotes or
+     * parentheses
+     */
+    private static boolean[] getTopLevelMask(String sql) {
+        boolean[] topLevel = new boolean[sql.length()];
+        int depth = 0;
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            switch (c) {
+            case '\'':
+            case '"':
+            case '`':
+                quote = c;
+                break;
+            case '[':
+                quote = ']';
+                break;
+            case '(':
+                topLevel[i] = depth == 0;
+                depth++;
+                continue;
+            case ')':
+                depth--;
+                if (depth < 0) {
+                    return null;
+                }
+                break;
+            case '-':
+            case '/':
+                if (i + 1 < sql.length() && (sql.charAt(i + 1) == '-' || sql.charAt(i + 1) == '*')) {
+                    return null;
+                }
+                break;
+            default:
+                break;
+            }
+            topLevel[i] = depth == 0 && quote == 0;
+        }
+        return depth == 0 && quote == 0 ? topLevel : null;
+    }
+
+    /**
+     * @return the start and end indexes of the words out of the literals and quoted identifiers
+     */
+    private static List<int[]> getWords(String sql, boolean[] topLevel) {
+        List<int[]> words = new ArrayList<int[]>();
+        char quote = 0;
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+                i++;
+            } else if (c == '\'' || c == '"' || c == '`' || c == '[') {
+                quote = c == '[' ? ']' : c;
+                i++;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < sql.length() && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_'
+                        || sql.charAt(i) == '$' || sql.charAt(i) == '#')) {
+                    i++;
+                }
+                words.add(new int[] { start, i });
+            } else {
+                i++;
+            }
+        }
+        return words;
+    }
+
+    private static String getWord(String sql, int[] word) {
+        return sql.substring(word[0], word[1]);
+    }
+
+    /**
+     * The aggregates, table and conditions of the query of an indicator.
+     */
+    static class AggregateQuery {
+
+        Indicator indicator;
+
+        String catalog;
+
+        // the function and argument of each aggregate
+        List<String[]> aggregates = new ArrayList<String[]>();
+
+        String from;
+
+        // the conditions of the where clause, which are all true for the aggregated rows
+        List<String> conditions = new ArrayList<String>();
+    }
+
+    /**
+     * A query which computes the aggregates of several indicators.
+     */
+    public static class FusedQuery {
+
+        private final String catalog;
+
+        private final String sql;
+
+        private final List<Indicator> indicators;
+
+        // the index of the first column of each indicator in the results, followed by the number of columns
+        private final int[] firstColumns;
+
+        FusedQuery(String catalog, String sql, List<Indicator> indicators, int[] firstColumns) {
+            this.catalog = catalog;
+            this.sql = sql;
+            this.indicators = indicators;
+            this.firstColumns = firstColumns;
+        }
+
+        /**
+         * Getter for catalog.
+         *
+         * @return the catalog or schema of the table, can be null
+         */
+        public String getCatalog() {
+            return this.catalog;
+        }
+
+        /**
+         * Getter for sql.
+         *
+         * @return the merged query
+         */
+        public String getSql() {
+            return this.sql;
+        }
+
+        /**
+         * Getter for indicators.
+         *
+         * @return the indicators computed by the query
+         */
+        public List<Indicator> getIndicators() {
+            return this.indicators;
+        }
+
+        /**
+         * Method "getResults".
+         *
+         * @param index the index of the indicator in {@link #getIndicators()}
+         * @param rows the results of the merged query
+         * @return the results of the indicator, as if its own query had been executed
+         */
+        public List<Object[]> getResults(int index, List<Object[]> rows) {
+            List<Object[]> results = new ArrayList<Object[]>();
+            for (Object[] row : rows) {
+                results.add(Arrays.copyOfRange(row, firstColumns[index], firstColumns[index + 1]));
+            }
+            return results;
+        }
+    }
+}
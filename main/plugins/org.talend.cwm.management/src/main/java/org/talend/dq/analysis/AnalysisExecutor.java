@@ -114,6 +114,7 @@ public abstract class AnalysisExecutor implements IAnalysisExecutor {
 
         // --- creation time
         final long startime = AnalysisExecutorHelper.setExecutionDateInAnalysisResult(analysis);
+        AnalysisThreadMemoryChangeNotifier.getInstance().resetMemoryPressure();
 
         // MOD qiongli 2012-3-14 TDQ-4433,if import from low vesion and not import SystemIdicator,should initionlize
         // these indicator.
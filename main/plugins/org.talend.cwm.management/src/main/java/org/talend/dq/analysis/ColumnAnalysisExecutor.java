@@ -12,6 +12,17 @@
 // ============================================================================
 package org.talend.dq.analysis;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -33,11 +44,16 @@ import org.talend.cwm.relational.TdColumn;
 import org.talend.dataquality.PluginConstant;
 import org.talend.dataquality.analysis.Analysis;
 import org.talend.dataquality.analysis.AnalysisContext;
+import org.talend.dataquality.helpers.IndicatorHelper;
 import org.talend.dataquality.helpers.RowCountIndicatorsAdapter;
 import org.talend.dataquality.indicators.Indicator;
+import org.talend.dq.analysis.connpool.TdqAnalysisConnectionPool;
 import org.talend.dq.dbms.GenericSQLHandler;
 import org.talend.dq.helper.EObjectHelper;
+import org.talend.dq.indicators.IncrementalAnalysisState;
 import org.talend.dq.indicators.IndicatorEvaluator;
+import org.talend.dq.indicators.ParallelIndicatorEvaluator;
+import org.talend.dq.indicators.PartitionedIndicatorEvaluator;
 import org.talend.utils.sugars.ReturnCode;
 import orgomg.cwm.objectmodel.core.Classifier;
 import orgomg.cwm.objectmodel.core.ModelElement;
@@ -57,6 +73,19 @@ public class ColumnAnalysisExecutor extends AnalysisExecutor {
 
     protected Map<ModelElement, Package> schemata = new HashMap<ModelElement, Package>();
 
+    /**
+     * the analysis query before its where clause, used to build the queries of the partitions.
+     */
+    private String selectFromStatement;
+
+    private String dataFilter;
+
+    private ColumnSet analyzedColumnSet;
+
+    private String fromStatement;
+
+    private String watermarkClause;
+
     protected boolean isAccessWith(Connection dp) {
         if (dataprovider == null) {
             dataprovider = dp;
@@ -68,7 +97,12 @@ public class ColumnAnalysisExecutor extends AnalysisExecutor {
 
     @Override
     protected ReturnCode evaluate(Analysis analysis, java.sql.Connection connection, String sqlStatement) {
-        IndicatorEvaluator eval = CreateIndicatorEvaluator(analysis);
+        IncrementalAnalysisState incrementalState = createIncrementalState(analysis, connection);
+        if (incrementalState != null) {
+            sqlStatement = createFilteredStatement();
+        }
+        IndicatorEvaluator eval = CreateIndicatorEvaluator(analysis, connection);
+        eval.setIncrementalState(incrementalState);
         // MOD xqliu 2009-02-09 bug 6237
         eval.setMonitor(getMonitor());
         // set it into the evaluator
@@ -108,13 +142,263 @@ public class ColumnAnalysisExecutor extends AnalysisExecutor {
      * DOC zshen Comment method "CreateIndicatorEvaluator".
      *
      * @param analysis
+     * @param connection the connection of the analysis
      * @return
      */
-    protected IndicatorEvaluator CreateIndicatorEvaluator(Analysis analysis) {
+    protected IndicatorEvaluator CreateIndicatorEvaluator(Analysis analysis, java.sql.Connection connection) {
+        if (PartitionedIndicatorEvaluator.isPartitionEnabled() && !analysis.getParameters().isStoreData()) {
+            List<String> partitionStatements = createPartitionSqlStatements(analysis, connection);
+            if (!partitionStatements.isEmpty()) {
+                PartitionedIndicatorEvaluator eval = new PartitionedIndicatorEvaluator(analysis);
+                eval.setPartitionStatements(partitionStatements);
+                return eval;
+            }
+        }
+        if (ParallelIndicatorEvaluator.isParallelEnabled()) {
+            return new ParallelIndicatorEvaluator(analysis);
+        }
         IndicatorEvaluator eval = new IndicatorEvaluator(analysis);
         return eval;
     }
 
+    /**
+     * Method "createPartitionSqlStatements" splits the analysis query on ranges of an integer primary key of the
+     * analyzed table, so that each query reads a disjoint subset of the rows.
+     *
+     * @param analysis the analysis
+     * @param connection the connection of the analysis
+     * @return the query of each partition, or an empty list when the table has no integer primary key
+     */
+    protected List<String> createPartitionSqlStatements(Analysis analysis, java.sql.Connection connection) {
+        List<String> statements = new ArrayList<String>();
+        if (selectFromStatement == null || analyzedColumnSet == null) {
+            return statements;
+        }
+        TdColumn keyColumn = null;
+        for (TdColumn column : ColumnSetHelper.getColumns(analyzedColumnSet)) {
+            if (ColumnHelper.isPrimaryKey(column) && column.getSqlDataType() != null
+                    && isIntegerType(column.getSqlDataType().getJavaDataType())) {
+                keyColumn = column;
+                break;
+            }
+        }
+        if (keyColumn == null) {
+            return statements;
+        }
+        // the connection of the analysis is already taken from the pool
+        int partitionCount = Math.min(PartitionedIndicatorEvaluator.PARTITION_NUMBER, TdqAnalysisConnectionPool
+                .getConnectionPool(analysis).getMaxConnections() - 1);
+        if (partitionCount < 2) {
+            return statements;
+        }
+        String quotedColumn = this.quote(keyColumn.getName());
+        long[] keyRange;
+        try {
+            keyRange = getKeyRange(connection, quotedColumn);
+        } catch (SQLException e) {
+            log.warn(e, e);
+            return statements;
+        }
+        if (keyRange == null) {
+            return statements;
+        }
+        // the ranges have the same width, the first and the last ones are not bounded so that no row is missed
+        BigInteger min = BigInteger.valueOf(keyRange[0]);
+        BigInteger width = BigInteger.valueOf(keyRange[1]).subtract(min).add(BigInteger.ONE);
+        partitionCount = (int) Math.min(partitionCount, width.min(BigInteger.valueOf(Integer.MAX_VALUE)).longValue());
+        if (partitionCount < 2) {
+            return statements;
+        }
+        Long lowerBound = null;
+        for (int i = 1; i <= partitionCount; i++) {
+            Long upperBound = i == partitionCount ? null : Long.valueOf(min.add(
+                    width.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(partitionCount))).longValue());
+            statements.add(createFilteredStatement(dbms().getPartitionClause(quotedColumn, lowerBound, upperBound)));
+            lowerBound = upperBound;
+        }
+        return statements;
+    }
+
+    /**
+     * Method "getKeyRange".
+     *
+     * @param connection the connection
+     * @param quotedColumn a quoted integer column of the analyzed table
+     * @return the smallest and the greatest values of the column in the rows read by the analysis, null when there is
+     * none
+     * @throws SQLException
+     */
+    private long[] getKeyRange(java.sql.Connection connection, String quotedColumn) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT MIN(").append(quotedColumn).append("), MAX(") //$NON-NLS-1$ //$NON-NLS-2$
+                .append(quotedColumn).append(')').append(fromStatement);
+        List<String> whereExpressions = new ArrayList<String>();
+        if (!(dataFilter == null || "".equals(dataFilter))) { //$NON-NLS-1$
+            whereExpressions.add(dataFilter);
+        }
+        if (watermarkClause != null) {
+            whereExpressions.add(watermarkClause);
+        }
+        if (!whereExpressions.isEmpty()) {
+            sql.append(dbms().where()).append(dbms().buildWhereExpression(whereExpressions));
+        }
+        Statement statement = connection.createStatement();
+        try {
+            ResultSet resultSet = statement.executeQuery(sql.toString());
+            try {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                long min = resultSet.getLong(1);
+                if (resultSet.wasNull()) {
+                    return null;
+                }
+                return new long[] { min, resultSet.getLong(2) };
+            } finally {
+                resultSet.close();
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Method "createFilteredStatement".
+     *
+     * @param expressions other where expressions
+     * @return the analysis query restricted by the data filter, the watermarks of an incremental run and the given
+     * expressions
+     */
+    private String createFilteredStatement(String... expressions) {
+        List<String> whereExpressions = new ArrayList<String>();
+        if (!(dataFilter == null || "".equals(dataFilter))) { //$NON-NLS-1$
+            whereExpressions.add(dataFilter);
+        }
+        if (watermarkClause != null) {
+            whereExpressions.add(watermarkClause);
+        }
+        whereExpressions.addAll(Arrays.asList(expressions));
+        if (whereExpressions.isEmpty()) {
+            return selectFromStatement;
+        }
+        return dbms().addWhereToStatement(selectFromStatement + GenericSQLHandler.WHERE_CLAUSE,
+                dbms().buildWhereExpression(whereExpressions));
+    }
+
+    /**
+     * Method "createIncrementalState" reads the state of the previous run of an analysis whose results are kept on a
+     * watermark column (see {@link IncrementalAnalysisState}), and restricts the rows to read to the ones after the
+     * previous watermark.
+     *
+     * @param analysis the analysis
+     * @param connection the connection
+     * @return the state of the analysis, or null when it is not run incrementally
+     */
+    protected IncrementalAnalysisState createIncrementalState(Analysis analysis, java.sql.Connection connection) {
+        this.watermarkClause = null;
+        String watermarkColumnName = IncrementalAnalysisState.getWatermarkColumn(analysis);
+        if (watermarkColumnName == null || selectFromStatement == null || analyzedColumnSet == null
+                || analysis.getParameters().isStoreData()) {
+            return null;
+        }
+        TdColumn watermarkColumn = null;
+        for (TdColumn column : ColumnSetHelper.getColumns(analyzedColumnSet)) {
+            if (column.getName().equalsIgnoreCase(watermarkColumnName)) {
+                watermarkColumn = column;
+                break;
+            }
+        }
+        // the row count indicators themselves, as the evaluator writes them (not their adapter)
+        List<Indicator> indicators = IndicatorHelper.getIndicatorLeavesBySingleNode(analysis.getResults());
+        if (watermarkColumn == null || !IncrementalAnalysisState.isMergeable(indicators)) {
+            log.warn(Messages.getString("ColumnAnalysisExecutor.NotIncremental", watermarkColumnName)); //$NON-NLS-1$
+            return null;
+        }
+        String quotedColumn = quote(watermarkColumn.getName());
+        String nextWatermark;
+        try {
+            nextWatermark = toSqlLiteral(getMaxValue(connection, quotedColumn));
+        } catch (SQLException e) {
+            log.warn(e, e);
+            return null;
+        }
+        IncrementalAnalysisState state = IncrementalAnalysisState.load(analysis, watermarkColumnName, dataFilter, indicators);
+        state.setNextWatermark(nextWatermark);
+        if (nextWatermark == null) {
+            // no row has a watermark yet: all the rows are read, and read again by the next run
+            state.delete();
+            return null;
+        }
+        if (state.isIncremental()) {
+            watermarkClause = quotedColumn + dbms().greater() + state.getWatermark() + dbms().and() + quotedColumn
+                    + dbms().lessOrEqual() + nextWatermark;
+        } else {
+            // the rows added while this run reads the table are read by the next run
+            watermarkClause = quotedColumn + dbms().lessOrEqual() + nextWatermark + dbms().or() + quotedColumn
+                    + dbms().isNull();
+        }
+        return state;
+    }
+
+    /**
+     * Method "getMaxValue".
+     *
+     * @param connection the connection
+     * @param quotedColumn a quoted column of the analyzed table
+     * @return the greatest value of the column in the rows of the data filter, null when there is none
+     * @throws SQLException
+     */
+    private Object getMaxValue(java.sql.Connection connection, String quotedColumn) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT MAX(").append(quotedColumn).append(')').append(fromStatement); //$NON-NLS-1$
+        if (!(dataFilter == null || "".equals(dataFilter))) { //$NON-NLS-1$
+            sql.append(dbms().where()).append(dataFilter);
+        }
+        Statement statement = connection.createStatement();
+        try {
+            ResultSet resultSet = statement.executeQuery(sql.toString());
+            try {
+                return resultSet.next() ? resultSet.getObject(1) : null;
+            } finally {
+                resultSet.close();
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Method "toSqlLiteral".
+     *
+     * @param value a value read from the database
+     * @return the SQL literal of the value, with the JDBC escape syntax for the dates, or null
+     */
+    static String toSqlLiteral(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if (value instanceof Number) {
+            return value.toString();
+        }
+        if (value instanceof java.sql.Date) {
+            return "{d '" + value + "'}"; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (value instanceof Time) {
+            return "{t '" + value + "'}"; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (value instanceof Date) {
+            Timestamp timestamp = value instanceof Timestamp ? (Timestamp) value : new Timestamp(((Date) value).getTime());
+            return "{ts '" + timestamp + "'}"; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return '\'' + value.toString().replace("'", "''") + '\''; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private boolean isIntegerType(int javaType) {
+        return javaType == Types.INTEGER || javaType == Types.BIGINT || javaType == Types.SMALLINT
+                || javaType == Types.TINYINT;
+    }
+
     /**
      * Method "belongToSameSchemata" fills in the map this{@link #schemata}.
      *
@@ -221,11 +505,15 @@ public class ColumnAnalysisExecutor extends AnalysisExecutor {
         // add from clause
         sql.append(dbms().from());
         sql.append(dbms().getQueryColumnSetWithPrefix(firstColumn));
+        this.selectFromStatement = sql.toString();
+        this.fromStatement = dbms().from() + dbms().getQueryColumnSetWithPrefix(firstColumn);
+        this.analyzedColumnSet = fromPart.iterator().next();
         // add where clause
         // --- get data filter
         ModelElementAnalysisHandler handler = new ModelElementAnalysisHandler();
         handler.setAnalysis(analysis);
         String stringDataFilter = handler.getStringDataFilter();
+        this.dataFilter = stringDataFilter;
         if (!(stringDataFilter == null || "".equals(stringDataFilter))) { //$NON-NLS-1$
             sql.append(GenericSQLHandler.WHERE_CLAUSE);
         }
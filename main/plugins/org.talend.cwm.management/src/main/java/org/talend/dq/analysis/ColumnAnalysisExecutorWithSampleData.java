@@ -42,10 +42,11 @@ public class ColumnAnalysisExecutorWithSampleData extends ColumnAnalysisExecutor
     /*
      * (non-Javadoc)
      *
-     * @see org.talend.dq.analysis.ColumnAnalysisExecutor#CreateIndicatorEvaluator(org.talend.dataquality.analysis.Analysis)
+     * @see org.talend.dq.analysis.ColumnAnalysisExecutor#CreateIndicatorEvaluator(org.talend.dataquality.analysis.Analysis,
+     * java.sql.Connection)
      */
     @Override
-    protected IndicatorEvaluator CreateIndicatorEvaluator(Analysis analysis) {
+    protected IndicatorEvaluator CreateIndicatorEvaluator(Analysis analysis, java.sql.Connection connection) {
         return new IndicatorEvaluatorWithSampleData(analysis);
     }
 
@@ -22,6 +22,8 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -30,9 +32,6 @@ import java.util.regex.Matcher;
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.swt.widgets.Display;
@@ -76,6 +75,8 @@ import org.talend.dataquality.indicators.RowCountIndicator;
 import org.talend.dataquality.indicators.TextParameters;
 import org.talend.dataquality.indicators.definition.CharactersMapping;
 import org.talend.dataquality.indicators.definition.IndicatorDefinition;
+import org.talend.dq.analysis.connpool.SqlQueryScheduler;
+import org.talend.dq.analysis.connpool.TdqAnalysisConnectionPool;
 import org.talend.dq.dbms.BigQueryDbmsLanguage;
 import org.talend.dq.dbms.GenericSQLHandler;
 import org.talend.dq.helper.AnalysisExecutorHelper;
@@ -115,6 +116,15 @@ public class ColumnAnalysisSqlExecutor extends ColumnAnalysisExecutor {
 
     private static Logger log = Logger.getLogger(ColumnAnalysisSqlExecutor.class);
 
+    // the maximum time in milliseconds between two refreshes of the progress of the parallel queries
+    private static final long PROGRESS_REPORT_INTERVAL = 200;
+
+    /**
+     * Whether the aggregate queries of the indicators of a table are merged into one query, see
+     * {@link AggregateQueryFusion}.
+     */
+    public static final boolean QUERY_FUSION = Boolean.valueOf(System.getProperty("talend.analysis.query.fusion", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+
     /*
      * (non-Javadoc)
      *
@@ -1131,13 +1141,17 @@ public class ColumnAnalysisSqlExecutor extends ColumnAnalysisExecutor {
         Map<ModelElement, List<Indicator>> elementToIndicator = new HashMap<ModelElement, List<Indicator>>();
 
         // execute the sql statement for each indicator
-        List<Indicator> indicators = IndicatorHelper.getIndicatorLeaves(analysis.getResults());
+        List<Indicator> indicators = new ArrayList<Indicator>(IndicatorHelper.getIndicatorLeaves(analysis.getResults()));
 
         try {
+            if (QUERY_FUSION) {
+                // the computed indicators are removed from the list
+                ok = runFusedQueries(connection, elementToIndicator, indicators);
+            }
             if (canParallel(connection)) {
-                ok = runAnalysisIndicatorsParallel(analysis, elementToIndicator, indicators, POOLED_CONNECTION);
+                ok = runAnalysisIndicatorsParallel(analysis, elementToIndicator, indicators) && ok;
             } else {
-                ok = runAnalysisIndicators(connection, elementToIndicator, indicators);
+                ok = runAnalysisIndicators(connection, elementToIndicator, indicators) && ok;
             }
             // --- finalize indicators by setting the row count and null when they exist.
             setRowCountAndNullCount(elementToIndicator);
@@ -1154,6 +1168,64 @@ public class ColumnAnalysisSqlExecutor extends ColumnAnalysisExecutor {
 
     }
 
+    /**
+     * Computes the indicators which only need aggregates on their table with one query per table, see
+     * {@link AggregateQueryFusion}. These indicators are removed from the given list. When a merged query fails, its
+     * indicators are left in the list to be computed by their own query.
+     *
+     * @param connection
+     * @param elementToIndicator
+     * @param indicators the indicators to compute
+     * @return false when the results of an indicator could not be stored
+     * @throws SQLException
+     */
+    private boolean runFusedQueries(Connection connection, Map<ModelElement, List<Indicator>> elementToIndicator,
+            List<Indicator> indicators) throws SQLException {
+        AggregateQueryFusion queryFusion = new AggregateQueryFusion(dbms());
+        for (Indicator indicator : indicators) {
+            if (indicator instanceof CompositeIndicator) {
+                continue;
+            }
+            Expression query = dbms().getInstantiatedExpression(indicator);
+            if (query != null) {
+                queryFusion.add(indicator, getCatalogOrSchemaName(indicator.getAnalyzedElement()), query.getBody());
+            }
+        }
+        boolean runStatus = Boolean.TRUE;
+        Set<Indicator> computedIndicators = new HashSet<Indicator>();
+        for (AggregateQueryFusion.FusedQuery fusedQuery : queryFusion.getFusedQueries()) {
+            if (!continueRun()) {
+                break;
+            }
+            List<Object[]> results;
+            try {
+                results = executeQuery(fusedQuery.getCatalog(), connection, fusedQuery.getSql());
+            } catch (SQLException e) {
+                log.warn(e, e);
+                continue;
+            }
+            if (results == null) {
+                continue;
+            }
+            List<Indicator> fusedIndicators = fusedQuery.getIndicators();
+            for (int i = 0; i < fusedIndicators.size(); i++) {
+                Indicator indicator = fusedIndicators.get(i);
+                if (indicator.storeSqlResults(fusedQuery.getResults(i, results))) {
+                    indicator.setComputed(true);
+                    publishDynamicEvent(indicator);
+                } else {
+                    traceError("Results not stored for indicator: \"" + AnalysisExecutorHelper.getIndicatorName(indicator) //$NON-NLS-1$
+                            + "\" SQL query: " + fusedQuery.getSql()); //$NON-NLS-1$
+                    runStatus = Boolean.FALSE;
+                }
+                addElements2IndicatorsMapping(elementToIndicator, indicator);
+                computedIndicators.add(indicator);
+            }
+        }
+        indicators.removeAll(computedIndicators);
+        return runStatus;
+    }
+
     /**
      * DOC xqliu Comment method "runAnalysisIndicators".
      *
@@ -1217,66 +1289,65 @@ public class ColumnAnalysisSqlExecutor extends ColumnAnalysisExecutor {
     }
 
     /**
-     *
-     * @param parent
-     * @param connection
-     * @param elementToIndicator
-     * @param indicator
-     * @return IStatus
-     * @throws
+     * The query of an indicator, run by the {@link SqlQueryScheduler} on a connection of the pool.
      */
     // TDQ Guodong bu 2011-2-25, feature 19107
-    static class ExecutiveAnalysisJob extends Job {
+    static class IndicatorQuery implements SqlQueryScheduler.Query {
 
         ColumnAnalysisSqlExecutor parent;
 
-        Connection connection;
-
         Map<ModelElement, List<Indicator>> elementToIndicator;
 
         Indicator indicator;
 
-        String errorMessage;
+        String catalog;
+
+        // null when the query has not been run
+        volatile Boolean success = null;
 
-        public ExecutiveAnalysisJob(ColumnAnalysisSqlExecutor parent, Connection connection,
-                Map<ModelElement, List<Indicator>> elementToIndicator, Indicator indicator) {
-            super(PluginConstant.EMPTY_STRING);
+        IndicatorQuery(ColumnAnalysisSqlExecutor parent, Map<ModelElement, List<Indicator>> elementToIndicator,
+                Indicator indicator, String catalog) {
             this.parent = parent;
-            this.connection = connection;
             this.elementToIndicator = elementToIndicator;
             this.indicator = indicator;
+            this.catalog = catalog;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.talend.dq.analysis.connpool.SqlQueryScheduler.Query#getCatalog()
+         */
+        @Override
+        public String getCatalog() {
+            return catalog;
         }
 
         /*
-         * (non-Jsdoc)
+         * (non-Javadoc)
          *
-         * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+         * @see org.talend.dq.analysis.connpool.SqlQueryScheduler.Query#run(java.sql.Connection)
          */
         @Override
-        protected IStatus run(IProgressMonitor monitor) {
+        public void run(Connection connection) {
             if (parent.getMonitor() != null && parent.getMonitor().isCanceled()) {
-                return Status.CANCEL_STATUS;
+                return;
             }
             ColumnAnalysisSqlParallelExecutor columnSqlParallel = ColumnAnalysisSqlParallelExecutor.createInstance(parent,
                     connection, elementToIndicator, indicator);
-            Boolean isSuccess = columnSqlParallel.run();
-            // System.out.println("i:" + i + ":::::" + indicator.getAnalyzedElement().getName() + "--" + indicator.getName());
-            if (isSuccess) {
-                return Status.OK_STATUS;
-            } else {
-                this.errorMessage = Messages.getString("ColumnAnalysisSqlExecutor.AnalysisExecutionFailed"); //$NON-NLS-1$
-                return Status.CANCEL_STATUS;
-            }
+            success = columnSqlParallel.run();
         }
 
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.talend.dq.analysis.connpool.SqlQueryScheduler.Query#fail(java.lang.String)
+         */
         @Override
-        public boolean shouldRun() {
-            if (!parent.continueRun()) {
-                return false;
-            }
-            return true;
+        public void fail(String message) {
+            log.error(message);
+            success = Boolean.FALSE;
         }
-
     }
 
     /**
@@ -1285,77 +1356,99 @@ public class ColumnAnalysisSqlExecutor extends ColumnAnalysisExecutor {
      * @param analysis
      * @param elementToIndicator
      * @param indicators
-     * @param pooledConnection
      * @return
      * @throws SQLException
      */
     private boolean runAnalysisIndicatorsParallel(Analysis analysis, Map<ModelElement, List<Indicator>> elementToIndicator,
-            List<Indicator> indicators, boolean pooledConnection) throws SQLException {
+            List<Indicator> indicators) throws SQLException {
         // reset the connection pool before run this analysis
         resetConnectionPool(analysis);
 
         // MOD gdbu 2011-6-10 bug : 21273
+        SqlQueryScheduler scheduler = null;
         try {
             final int totleWork = compIndicatorsWorked;
-            List<ExecutiveAnalysisJob> jobs = new ArrayList<ExecutiveAnalysisJob>();
 
             final IProgressMonitor monitor = this.getMonitor();
             if (monitor != null) {
                 monitor.subTask("Run Indicators Parallel"); //$NON-NLS-1$
             }
-            int temp = 0;
-            for (int i = 0; i < indicators.size(); i++) {
-                final Indicator indicator = indicators.get(i);
-                if (!this.continueRun()) {
-                    return false;
-                }
-                // TDQ-11851,in order to syn UI and backend-threads, add this Display.
-                if (monitor != null) {
-                    Display.getDefault().syncExec(new Runnable() {
+            scheduler = new SqlQueryScheduler(TdqAnalysisConnectionPool.getConnectionPool(analysis),
+                    new SqlQueryScheduler.CatalogSwitcher() {
 
-                        public void run() {
-                            monitor.subTask(Messages.getString(
-                                    "ColumnAnalysisSqlExecutor.AnalyzedElement", indicator.getAnalyzedElement() //$NON-NLS-1$
-                                            .getName()));
+                        @Override
+                        public boolean switchCatalog(Connection connection, String catalog) {
+                            return !needChangeCatalog(connection) || changeCatalog(catalog, connection);
                         }
                     });
 
-                    int current = (i + 1) * totleWork / indicators.size();
-                    if (current > temp) {
-                        monitor.worked(current - temp);
-                        temp = current;
-                    }
+            // the queries of a catalog are submitted together, so that they mostly run on connections already set on
+            // this catalog
+            Map<String, List<IndicatorQuery>> catalogToQueries = new LinkedHashMap<String, List<IndicatorQuery>>();
+            for (Indicator indicator : indicators) {
+                // skip composite indicators that do not require a sql execution
+                if (indicator instanceof CompositeIndicator) {
+                    continue;
                 }
-                Connection conn = null;
-                if (pooledConnection) {
-                    conn = getPooledConnection(analysis).getObject();
-                } else {
-                    conn = getConnection(analysis).getObject();
+                String catalogName = null;
+                if (belongToSameSchemata(indicator.getAnalyzedElement())) {
+                    catalogName = getCatalogOrSchemaName(indicator.getAnalyzedElement());
                 }
-
-                if (conn != null) {
-                    ExecutiveAnalysisJob eaj = new ExecutiveAnalysisJob(ColumnAnalysisSqlExecutor.this, conn, elementToIndicator,
-                            indicator);
-                    eaj.setName(AnalysisExecutorHelper.getIndicatorName(indicator));
-                    eaj.schedule();
-                    jobs.add(eaj);
+                // add mapping of analyzed elements to their indicators
+                addElements2IndicatorsMapping(elementToIndicator, indicator);
+                List<IndicatorQuery> queries = catalogToQueries.get(catalogName);
+                if (queries == null) {
+                    queries = new ArrayList<IndicatorQuery>();
+                    catalogToQueries.put(catalogName, queries);
+                }
+                queries.add(new IndicatorQuery(this, elementToIndicator, indicator, catalogName));
+            }
+            int queryCount = 0;
+            for (List<IndicatorQuery> queries : catalogToQueries.values()) {
+                for (IndicatorQuery query : queries) {
+                    scheduler.submit(query);
+                    queryCount++;
                 }
-
             }
 
             boolean hasErrorMessage = false;
-            // should call join() after schedule all the jobs
-            for (int i = 0; i < jobs.size(); i++) {
-                ExecutiveAnalysisJob eaj = jobs.get(i);
+            int doneCount = 0;
+            int temp = 0;
+            long lastSubTaskTime = 0;
+            while (scheduler.hasPendingQueries()) {
                 if (!this.continueRun()) {
                     break;
                 }
-                eaj.join();
-                if (eaj.errorMessage != null) {
+                IndicatorQuery query = (IndicatorQuery) scheduler.takeCompleted(PROGRESS_REPORT_INTERVAL);
+                if (query == null) {
+                    continue;
+                }
+                doneCount++;
+                if (Boolean.FALSE.equals(query.success)) {
                     hasErrorMessage = true;
                     ColumnAnalysisSqlExecutor.this.parallelExeStatus = false;
                 }
-
+                // the progress is reported by this thread, the UI only being updated from time to time
+                if (monitor != null) {
+                    int current = doneCount * totleWork / queryCount;
+                    if (current > temp) {
+                        monitor.worked(current - temp);
+                        temp = current;
+                    }
+                    long now = System.currentTimeMillis();
+                    if (now - lastSubTaskTime >= PROGRESS_REPORT_INTERVAL) {
+                        lastSubTaskTime = now;
+                        final String elementName = query.indicator.getAnalyzedElement().getName();
+                        // TDQ-11851,in order to syn UI and backend-threads, add this Display.
+                        Display.getDefault().asyncExec(new Runnable() {
+
+                            @Override
+                            public void run() {
+                                monitor.subTask(Messages.getString("ColumnAnalysisSqlExecutor.AnalyzedElement", elementName)); //$NON-NLS-1$
+                            }
+                        });
+                    }
+                }
             }
             // Added TDQ-8388 20140530 yyin: only show one message to let the user check detail in error log.
             if (hasErrorMessage) {
@@ -1365,6 +1458,9 @@ public class ColumnAnalysisSqlExecutor extends ColumnAnalysisExecutor {
         } catch (Throwable thr) {
             log.error(thr);
         } finally {
+            if (scheduler != null) {
+                scheduler.shutdown();
+            }
             resetConnectionPool(analysis);
         }
         // ~21273
@@ -1467,8 +1563,19 @@ public class ColumnAnalysisSqlExecutor extends ColumnAnalysisExecutor {
         }
         ret = indicator.storeSqlResults(myResultSet);
 
-        // Added TDQ-8787 publish the related event when one indicator is finished: to refresh the chart with new result
-        // of the current indicator
+        publishDynamicEvent(indicator);
+
+        // MOD delete the try/catch TDQ-8388
+        return ret;
+    }
+
+    /**
+     * Added TDQ-8787 publish the related event when one indicator is finished: to refresh the chart with new result of
+     * the current indicator.
+     *
+     * @param indicator
+     */
+    private void publishDynamicEvent(final Indicator indicator) {
         final ITDQRepositoryService tdqRepositoryService = AnalysisExecutorHelper.getTDQService();
         if (tdqRepositoryService != null) {
             Display.getDefault().asyncExec(new Runnable() {
@@ -1478,9 +1585,6 @@ public class ColumnAnalysisSqlExecutor extends ColumnAnalysisExecutor {
                 }
             });
         }// ~
-
-        // MOD delete the try/catch TDQ-8388
-        return ret;
     }
 
     /**
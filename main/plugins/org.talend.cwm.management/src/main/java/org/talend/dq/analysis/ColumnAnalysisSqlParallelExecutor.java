@@ -22,7 +22,6 @@ import org.talend.cwm.management.i18n.Messages;
 import org.talend.dataquality.PluginConstant;
 import org.talend.dataquality.indicators.CompositeIndicator;
 import org.talend.dataquality.indicators.Indicator;
-import org.talend.dq.analysis.connpool.TdqAnalysisConnectionPool;
 import org.talend.dq.helper.AnalysisExecutorHelper;
 import orgomg.cwm.objectmodel.core.Expression;
 import orgomg.cwm.objectmodel.core.ModelElement;
@@ -69,65 +68,41 @@ public final class ColumnAnalysisSqlParallelExecutor extends ColumnAnalysisSqlEx
     }
 
     /**
-     * run analysis when SqlParallelExecutor.
+     * run analysis when SqlParallelExecutor. The connection is already set on the catalog of the analyzed element and
+     * the element is already mapped to its indicators.
      *
      * @return true if successfull , false otherwise.
      */
     public Boolean run() {
         Expression query = null;
-        try {
-            if (!continueRun()) {
-                return Boolean.FALSE;
-            }
-            // skip composite indicators that do not require a sql execution
-            if (indicator instanceof CompositeIndicator) {
-                // options of composite indicators are handled elsewhere
-                return Boolean.TRUE;
-            }
-
-            synchronized (schemata) {
-                // set the connection's catalog
-                if (belongToSameSchemata(indicator.getAnalyzedElement())) {
-                    if (needChangeCatalog(connection)) {
-                        String catalogName = getCatalogOrSchemaName(indicator.getAnalyzedElement());
-                        if (catalogName != null) { // check whether null argument can be given
-                            changeCatalog(catalogName, connection);
-                        }
-                    }
-                }
-            }
-
-            // add mapping of analyzed elements to their indicators
-            synchronized (elementToIndicator) {
-                addElements2IndicatorsMapping(elementToIndicator, indicator);
-            }
+        if (!continueRun()) {
+            return Boolean.FALSE;
+        }
+        // skip composite indicators that do not require a sql execution
+        if (indicator instanceof CompositeIndicator) {
+            // options of composite indicators are handled elsewhere
+            return Boolean.TRUE;
+        }
 
-            query = dbms().getInstantiatedExpression(indicator);
-            if (query == null) {
-                traceError(getErrorMessageForQuery(query));
-                return Boolean.FALSE;
-            }
+        query = dbms().getInstantiatedExpression(indicator);
+        if (query == null) {
+            traceError(getErrorMessageForQuery(query));
+            return Boolean.FALSE;
+        }
 
-            try {
-                boolean execStatus = executeQuery(indicator, connection, query.getBody());
-                if (!execStatus) {
-                    traceError(getErrorMessageForQuery(query));
-                    return Boolean.FALSE;
-                }
-            } catch (SQLException e) {
-                log.error(e, e);
+        try {
+            boolean execStatus = executeQuery(indicator, connection, query.getBody());
+            if (!execStatus) {
                 traceError(getErrorMessageForQuery(query));
                 return Boolean.FALSE;
             }
-            // set computation done
-            indicator.setComputed(true);
-
-        } finally {
-            // return the connection after run
-            if (POOLED_CONNECTION) {
-                TdqAnalysisConnectionPool.returnPooledConnection(cachedAnalysis, connection);
-            }
+        } catch (SQLException e) {
+            log.error(e, e);
+            traceError(getErrorMessageForQuery(query));
+            return Boolean.FALSE;
         }
+        // set computation done
+        indicator.setComputed(true);
         return Boolean.TRUE;
     }
 
@@ -0,0 +1,170 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+import org.talend.core.model.metadata.builder.connection.MetadataColumn;
+import org.talend.core.model.metadata.builder.connection.MetadataTable;
+import org.talend.cwm.helper.ColumnHelper;
+import org.talend.cwm.relational.TdColumn;
+import org.talend.dataquality.analysis.Analysis;
+import org.talend.dataquality.analysis.ExecutionLanguage;
+import org.talend.dataquality.helpers.AnalysisHelper;
+import org.talend.dq.helper.EObjectHelper;
+
+import orgomg.cwm.foundation.softwaredeployment.DataManager;
+import orgomg.cwm.objectmodel.core.ModelElement;
+import orgomg.cwm.resource.relational.ColumnSet;
+
+/**
+ * Plans the concurrent execution of the analyses of a report.
+ * <p>
+ * The analyses are split into chains of analyses which are executed one after the other, the chains being independent.
+ * The java engine analyses which read the same table with the same data filter are in the same chain: they are
+ * executed back to back by one worker, so that the rows of the table are read while they are in the cache of the
+ * database or of the file system, instead of being read concurrently by several workers. An analysis which is in
+ * several analysis maps of the report is executed once.
+ */
+public class ReportExecutionPlan {
+
+    private final List<AnalysisChain> chains = new ArrayList<AnalysisChain>();
+
+    // the chains of the analyses which read the same rows
+    private final Map<Object, AnalysisChain> chainsByScan = new HashMap<Object, AnalysisChain>();
+
+    private final Set<Analysis> plannedAnalyses = new HashSet<Analysis>();
+
+    /**
+     * Adds an analysis to execute.
+     *
+     * @param analysis the analysis
+     * @return false when the analysis has already been added
+     */
+    public boolean addAnalysis(Analysis analysis) {
+        return addAnalysis(analysis, getDataProvider(analysis), getSharedScan(analysis));
+    }
+
+    boolean addAnalysis(Analysis analysis, Object dataProvider, Object sharedScan) {
+        if (!plannedAnalyses.add(analysis)) {
+            return false;
+        }
+        AnalysisChain chain = sharedScan == null ? null : chainsByScan.get(sharedScan);
+        if (chain == null) {
+            chain = new AnalysisChain(dataProvider);
+            chains.add(chain);
+            if (sharedScan != null) {
+                chainsByScan.put(sharedScan, chain);
+            }
+        }
+        chain.analyses.add(analysis);
+        return true;
+    }
+
+    /**
+     * Getter for chains.
+     *
+     * @return the chains of analyses, in the order of their first analysis
+     */
+    public List<AnalysisChain> getChains() {
+        return this.chains;
+    }
+
+    private static Object getDataProvider(Analysis analysis) {
+        if (analysis.getContext() == null) {
+            return null;
+        }
+        DataManager dataManager = analysis.getContext().getConnection();
+        if (dataManager != null && dataManager.eIsProxy()) {
+            dataManager = (DataManager) EObjectHelper.resolveObject(dataManager);
+        }
+        return dataManager;
+    }
+
+    /**
+     * Method "getSharedScan".
+     *
+     * @param analysis the analysis
+     * @return the table and the data filter read by a java engine analysis, null when the rows read by the analysis
+     * cannot be shared
+     */
+    static Object getSharedScan(Analysis analysis) {
+        if (analysis.getContext() == null || !ExecutionLanguage.JAVA.equals(AnalysisHelper.getExecutionEngine(analysis))) {
+            return null;
+        }
+        Object table = null;
+        for (ModelElement element : analysis.getContext().getAnalysedElements()) {
+            Object owner = getTable(element);
+            if (owner == null || table != null && table != owner) {
+                return null;
+            }
+            table = owner;
+        }
+        if (table == null) {
+            return null;
+        }
+        return Arrays.asList(table, StringUtils.trimToEmpty(AnalysisHelper.getStringDataFilter(analysis)));
+    }
+
+    private static Object getTable(ModelElement element) {
+        if (element instanceof TdColumn) {
+            return ColumnHelper.getColumnOwnerAsColumnSet((TdColumn) element);
+        }
+        if (element instanceof MetadataColumn) {
+            return ColumnHelper.getColumnOwnerAsMetadataTable((MetadataColumn) element);
+        }
+        if (element instanceof ColumnSet || element instanceof MetadataTable) {
+            return element;
+        }
+        return null;
+    }
+
+    /**
+     * Analyses executed one after the other on the same data provider.
+     */
+    public static class AnalysisChain {
+
+        private final Object dataProvider;
+
+        private final List<Analysis> analyses = new ArrayList<Analysis>();
+
+        AnalysisChain(Object dataProvider) {
+            this.dataProvider = dataProvider;
+        }
+
+        /**
+         * Getter for dataProvider.
+         *
+         * @return the connection of the analyses, can be null
+         */
+        public Object getDataProvider() {
+            return this.dataProvider;
+        }
+
+        /**
+         * Getter for analyses.
+         *
+         * @return the analyses in their execution order
+         */
+        public List<Analysis> getAnalyses() {
+            return this.analyses;
+        }
+    }
+}
@@ -12,19 +12,34 @@
 // ============================================================================
 package org.talend.dq.analysis;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.emf.common.util.EList;
 import org.talend.cwm.exception.AnalysisExecutionException;
 import org.talend.cwm.management.i18n.Messages;
 import org.talend.dataquality.analysis.Analysis;
 import org.talend.dataquality.analysis.ExecutionInformations;
 import org.talend.dataquality.helpers.ReportHelper;
+import org.talend.dataquality.helpers.SystemPropertyHelper;
 import org.talend.dataquality.reports.AnalysisMap;
 import org.talend.dataquality.reports.TdReport;
+import org.talend.dq.analysis.ReportExecutionPlan.AnalysisChain;
 import org.talend.dq.analysis.connpool.TdqAnalysisConnectionPool;
 import org.talend.dq.helper.EObjectHelper;
 import org.talend.utils.sugars.ReturnCode;
@@ -38,6 +53,19 @@ public class ReportExecutor implements IReportExecutor {
 
     private static Logger log = Logger.getLogger(ReportExecutor.class);
 
+    /**
+     * The maximum number of analyses of a report executed concurrently, 1 to execute them one after the other.
+     */
+    public static final int ANALYSIS_THREADS = SystemPropertyHelper.getInt("talend.report.analysis.threads", 1); //$NON-NLS-1$
+
+    /**
+     * The maximum number of analyses of a report executed concurrently on the same data provider (database connection
+     * or file). It limits the analyses, not the database connections: each analysis opens its own connections, up to
+     * the size of its connection pool.
+     */
+    public static final int ANALYSES_PER_PROVIDER = SystemPropertyHelper.getInt(
+            "talend.report.analysis.threads.per.provider", 2); //$NON-NLS-1$
+
     private boolean atLeastOneFailure;
 
     /*
@@ -53,6 +81,7 @@ public class ReportExecutor implements IReportExecutor {
         }
         EList<AnalysisMap> analysisMaps = report.getAnalysisMap();
         StringBuilder strBuilder = new StringBuilder();
+        ReportExecutionPlan plan = ANALYSIS_THREADS > 1 ? new ReportExecutionPlan() : null;
         // loop on analysis maps is faster than loop on analyses
         for (AnalysisMap analysisMap : analysisMaps) {
             Analysis analysis = analysisMap.getAnalysis();
@@ -61,22 +90,11 @@ public class ReportExecutor implements IReportExecutor {
                     return new ReturnCode(
                             Messages.getString("ReportExecutor.CannotEvaluateNullAnalysis", report.getName()), false); //$NON-NLS-1$
                 }
-                ReturnCode executeRc = AnalysisExecutorSelector.executeAnalysis(analysis, monitor);
-
-                if (executeRc.getMessage() != null && !StringUtils.EMPTY.equals(executeRc.getMessage().trim())) {
-                    throw new AnalysisExecutionException(Messages.getString("ReportExecutor.failRunAnalysis", analysis.getName(),
-                            executeRc.getMessage()));
-                }
-                // ADD msjian TDQ-5952: we should close connections always
-                TdqAnalysisConnectionPool.closeConnectionPool(analysis);
-                // TDQ-5952~
-                if (!executeRc.isOk()) {
-                    log.error("Failed to execute analysis " + analysis.getName() + ". Reason: " + executeRc.getMessage());
-                    atLeastOneFailure = true;
-                }
-                if (log.isInfoEnabled()) {
-                    strBuilder.append("Report " + report.getName() + ": Analysis " + analysis.getName() + " refreshed. State: "
-                            + executeRc.isOk() + "\n");
+                if (plan != null) {
+                    plan.addAnalysis(analysis);
+                } else {
+                    ReturnCode executeRc = executeAnalysis(analysis, monitor);
+                    handleResult(report, analysis, executeRc, strBuilder);
                 }
             } else { // skipped analysis
                 if (log.isInfoEnabled()) {
@@ -84,6 +102,9 @@ public class ReportExecutor implements IReportExecutor {
                 }
             }
         }
+        if (plan != null) {
+            executeInParallel(report, plan, monitor, strBuilder);
+        }
         // log execution
         if (log.isInfoEnabled()) {
             if (strBuilder.length() == 0) {
@@ -115,4 +136,155 @@ public class ReportExecutor implements IReportExecutor {
         return new ReturnCode();
     }
 
+    private void handleResult(TdReport report, Analysis analysis, ReturnCode executeRc, StringBuilder strBuilder)
+            throws AnalysisExecutionException {
+        if (executeRc.getMessage() != null && !StringUtils.EMPTY.equals(executeRc.getMessage().trim())) {
+            throw new AnalysisExecutionException(Messages.getString("ReportExecutor.failRunAnalysis", analysis.getName(),
+                    executeRc.getMessage()));
+        }
+        if (!executeRc.isOk()) {
+            log.error("Failed to execute analysis " + analysis.getName() + ". Reason: " + executeRc.getMessage());
+            atLeastOneFailure = true;
+        }
+        if (log.isInfoEnabled()) {
+            strBuilder.append("Report " + report.getName() + ": Analysis " + analysis.getName() + " refreshed. State: "
+                    + executeRc.isOk() + "\n");
+        }
+    }
+
+    /**
+     * Executes the analysis and closes its connections, so that a chain of analyses keeps at most the connections of
+     * the running analysis open.
+     *
+     * @param analysis the analysis
+     * @param monitor the monitor
+     * @return the result of the execution
+     */
+    private static ReturnCode executeAnalysis(Analysis analysis, IProgressMonitor monitor) {
+        try {
+            return AnalysisExecutorSelector.executeAnalysis(analysis, monitor);
+        } finally {
+            // ADD msjian TDQ-5952: we should close connections always
+            TdqAnalysisConnectionPool.closeConnectionPool(analysis);
+            // TDQ-5952~
+        }
+    }
+
+    /**
+     * Executes the chains of analyses of the plan concurrently, with at most {@link #ANALYSIS_THREADS} analyses at a
+     * time and at most {@link #ANALYSES_PER_PROVIDER} analyses on the same data provider. The results are handled on
+     * the calling thread as the chains complete. When an analysis fails with a message, the chains which are not
+     * started are not executed and the failure is thrown once the running chains have completed.
+     *
+     * @param report the report
+     * @param plan the analyses to execute
+     * @param monitor the monitor of the report execution, only its cancelation is forwarded to the analyses
+     * @param strBuilder the log of the execution
+     * @throws AnalysisExecutionException
+     */
+    private void executeInParallel(TdReport report, ReportExecutionPlan plan, final IProgressMonitor monitor,
+            StringBuilder strBuilder) throws AnalysisExecutionException {
+        List<AnalysisChain> waitingChains = new LinkedList<AnalysisChain>(plan.getChains());
+        if (waitingChains.isEmpty()) {
+            return;
+        }
+        // the progress monitors are not thread safe
+        final IProgressMonitor analysisMonitor = new NullProgressMonitor() {
+
+            @Override
+            public boolean isCanceled() {
+                return monitor != null && monitor.isCanceled();
+            }
+        };
+        Map<Object, Integer> runningByProvider = new HashMap<Object, Integer>();
+        int running = 0;
+        AnalysisExecutionException failure = null;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(ANALYSIS_THREADS, waitingChains.size()));
+        CompletionService<ChainExecution> completionService = new ExecutorCompletionService<ChainExecution>(executor);
+        try {
+            while (true) {
+                if (failure == null && !analysisMonitor.isCanceled()) {
+                    // start the chains whose connection is not used by too many analyses
+                    Iterator<AnalysisChain> iterator = waitingChains.iterator();
+                    while (running < ANALYSIS_THREADS && iterator.hasNext()) {
+                        AnalysisChain chain = iterator.next();
+                        Integer providerCount = runningByProvider.get(chain.getDataProvider());
+                        int count = providerCount == null ? 0 : providerCount;
+                        if (count < ANALYSES_PER_PROVIDER) {
+                            iterator.remove();
+                            runningByProvider.put(chain.getDataProvider(), count + 1);
+                            completionService.submit(new ChainExecution(chain, analysisMonitor));
+                            running++;
+                        }
+                    }
+                }
+                if (running == 0) {
+                    break;
+                }
+                ChainExecution execution = completionService.take().get();
+                running--;
+                Object dataProvider = execution.chain.getDataProvider();
+                runningByProvider.put(dataProvider, runningByProvider.get(dataProvider) - 1);
+                for (int i = 0; i < execution.results.size(); i++) {
+                    try {
+                        handleResult(report, execution.chain.getAnalyses().get(i), execution.results.get(i), strBuilder);
+                    } catch (AnalysisExecutionException e) {
+                        if (failure == null) {
+                            failure = e;
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisExecutionException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new AnalysisExecutionException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * The execution of the analyses of a chain, which stops at the first analysis failing with a message.
+     */
+    private static class ChainExecution implements Callable<ChainExecution> {
+
+        final AnalysisChain chain;
+
+        final IProgressMonitor monitor;
+
+        final List<ReturnCode> results = new ArrayList<ReturnCode>();
+
+        ChainExecution(AnalysisChain chain, IProgressMonitor monitor) {
+            this.chain = chain;
+            this.monitor = monitor;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.Callable#call()
+         */
+        @Override
+        public ChainExecution call() throws Exception {
+            for (Analysis analysis : chain.getAnalyses()) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                ReturnCode executeRc = executeAnalysis(analysis, monitor);
+                results.add(executeRc);
+                if (StringUtils.isNotBlank(executeRc.getMessage())) {
+                    break;
+                }
+            }
+            return this;
+        }
+    }
 }
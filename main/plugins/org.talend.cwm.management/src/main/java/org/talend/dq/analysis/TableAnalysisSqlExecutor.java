@@ -13,6 +13,7 @@
 package org.talend.dq.analysis;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
@@ -20,8 +21,10 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
@@ -30,6 +33,7 @@ import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.swt.widgets.Display;
 import org.talend.core.ITDQRepositoryService;
+import org.talend.core.model.metadata.builder.database.ExtractMetaDataUtils;
 import org.talend.cwm.exception.AnalysisExecutionException;
 import org.talend.cwm.helper.CatalogHelper;
 import org.talend.cwm.helper.ColumnSetHelper;
@@ -44,16 +48,20 @@ import org.talend.dataquality.analysis.AnalysisResult;
 import org.talend.dataquality.helpers.BooleanExpressionHelper;
 import org.talend.dataquality.helpers.IndicatorHelper;
 import org.talend.dataquality.indicators.Indicator;
+import org.talend.dataquality.indicators.RowCountIndicator;
 import org.talend.dataquality.indicators.definition.IndicatorDefinition;
 import org.talend.dataquality.indicators.sql.WhereRuleIndicator;
 import org.talend.dataquality.rules.JoinElement;
 import org.talend.dataquality.rules.RulesPackage;
 import org.talend.dataquality.rules.WhereRule;
+import org.talend.dq.analysis.connpool.SqlQueryScheduler;
+import org.talend.dq.analysis.connpool.TdqAnalysisConnectionPool;
 import org.talend.dq.dbms.DbmsLanguage;
 import org.talend.dq.helper.AnalysisExecutorHelper;
 import org.talend.dq.helper.ContextHelper;
 import org.talend.dq.indicators.IndicatorCommonUtil;
 import org.talend.dq.indicators.IndicatorEvaluator;
+import org.talend.metadata.managment.utils.DatabaseConstant;
 import org.talend.utils.sugars.ReturnCode;
 import org.talend.utils.sugars.TypedReturnCode;
 
@@ -78,6 +86,15 @@ public class TableAnalysisSqlExecutor extends AnalysisExecutor {
 
     private Map<ModelElement, Package> schemata = new HashMap<ModelElement, Package>();
 
+    /**
+     * Whether the rules with the same table, joins and data filter are computed by one query, see
+     * {@link WhereRuleBatchPlanner}.
+     */
+    public static final boolean RULE_BATCH = Boolean.valueOf(System.getProperty("talend.analysis.rule.batch", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+
+    // the maximum time in milliseconds to wait for a batch of rules before checking whether the run is cancelled
+    private static final long BATCH_WAIT_INTERVAL = 200;
+
     @Override
     protected String createSqlStatement(Analysis analysis) {
         this.cachedAnalysis = analysis;
@@ -329,16 +346,28 @@ public class TableAnalysisSqlExecutor extends AnalysisExecutor {
 
             List<Indicator> indicatorList = IndicatorHelper.getIndicatorLeavesBySingleNode(analysis.getResults());
 
+            // the rules and row counts computed by the batches are not executed again below
+            Set<Indicator> batchedIndicators = new HashSet<Indicator>();
+            boolean batchSuccess = true;
+            if (RULE_BATCH) {
+                batchSuccess = runRuleBatches(analysis, connection, indicatorList, batchedIndicators);
+            }
+
             // execute the row count
             Indicator rowIndicator = indicatorList.get(0);
-            isSuccess = executeIndicator(rowIndicator, connection);
-            publishDynamicEvent(rowIndicator);
+            if (!batchedIndicators.contains(rowIndicator)) {
+                isSuccess = executeIndicator(rowIndicator, connection);
+                publishDynamicEvent(rowIndicator);
+            }
             // remember the row count
             rowCount = rowIndicator.getCount();
 
             // execute the sql statement for each group of aide and rule
             for (int i = 1; i < indicatorList.size(); i++) {
                 final Indicator rule = indicatorList.get(i);
+                if (batchedIndicators.contains(rule)) {
+                    continue;
+                }
                 if (rule instanceof WhereRuleIndicator) {
                     isSuccess = executeRule((WhereRuleIndicator) rule, connection);
                     // if there's no joins, should use the row count as the count.
@@ -351,6 +380,7 @@ public class TableAnalysisSqlExecutor extends AnalysisExecutor {
                 }
                 publishDynamicEvent(rule);
             }
+            isSuccess = isSuccess && batchSuccess;
         } finally {
             ReturnCode rc = closeConnection(analysis, connection);
             if (!rc.isOk()) {
@@ -362,6 +392,210 @@ public class TableAnalysisSqlExecutor extends AnalysisExecutor {
         return isSuccess;
     }
 
+    /**
+     * Computes the rules with the same table, joins and data filter, and the row counts of their table, with one query
+     * per batch, see {@link WhereRuleBatchPlanner}. The batches run in parallel on the pooled connections when the
+     * database allows it. The indicators of a batch which fails are not added to the computed indicators, so that they
+     * are computed by their own queries.
+     *
+     * @param analysis
+     * @param connection
+     * @param indicators the leaf indicators of the analysis
+     * @param computedIndicators the indicators computed by the batches
+     * @return false when the results of an indicator could not be stored
+     */
+    private boolean runRuleBatches(Analysis analysis, Connection connection, List<Indicator> indicators,
+            Set<Indicator> computedIndicators) {
+        WhereRuleBatchPlanner planner = new WhereRuleBatchPlanner(dbms());
+        for (Indicator indicator : indicators) {
+            Expression query = dbms().getInstantiatedExpression(indicator);
+            if (query == null) {
+                continue;
+            }
+            String catalogName = getCatalogOrSchemaName(indicator.getAnalyzedElement());
+            if (indicator instanceof WhereRuleIndicator && indicator.getIndicatorDefinition() instanceof WhereRule) {
+                WhereRule whereRule = (WhereRule) indicator.getIndicatorDefinition();
+                planner.addRule(indicator, catalogName, query.getBody(), whereRule.getWhereExpression());
+            } else if (indicator instanceof RowCountIndicator) {
+                planner.addRowCount(indicator, catalogName, query.getBody());
+            }
+        }
+        List<WhereRuleBatchPlanner.RuleBatch> batches = planner.getBatches();
+        if (batches.isEmpty()) {
+            return true;
+        }
+        if (batches.size() > 1 && canRunInParallel(connection)) {
+            try {
+                return runRuleBatchesParallel(analysis, batches, computedIndicators);
+            } catch (SQLException e) {
+                // the batches which have not been run are left to the queries of each indicator
+                log.warn(e, e);
+                return true;
+            }
+        }
+        boolean runStatus = Boolean.TRUE;
+        for (WhereRuleBatchPlanner.RuleBatch batch : batches) {
+            if (!continueRun()) {
+                break;
+            }
+            try {
+                List<Object[]> rows = executeQuery(batch.getCatalog(), connection, batch.getSql());
+                runStatus = storeBatchResults(batch, rows, computedIndicators) && runStatus;
+            } catch (SQLException e) {
+                log.warn(e, e);
+            }
+        }
+        return runStatus;
+    }
+
+    /**
+     * The query of a batch of rules, run by the {@link SqlQueryScheduler} on a connection of the pool.
+     */
+    private class RuleBatchQuery implements SqlQueryScheduler.Query {
+
+        private final WhereRuleBatchPlanner.RuleBatch batch;
+
+        // null when the query has not been run or has failed
+        private volatile List<Object[]> rows;
+
+        RuleBatchQuery(WhereRuleBatchPlanner.RuleBatch batch) {
+            this.batch = batch;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.talend.dq.analysis.connpool.SqlQueryScheduler.Query#getCatalog()
+         */
+        @Override
+        public String getCatalog() {
+            return batch.getCatalog();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.talend.dq.analysis.connpool.SqlQueryScheduler.Query#run(java.sql.Connection)
+         */
+        @Override
+        public void run(Connection connection) {
+            if (!continueRun()) {
+                return;
+            }
+            try {
+                // the scheduler has already switched the connection to the catalog
+                rows = executeQuery(null, connection, batch.getSql());
+            } catch (SQLException e) {
+                log.warn(e, e);
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.talend.dq.analysis.connpool.SqlQueryScheduler.Query#fail(java.lang.String)
+         */
+        @Override
+        public void fail(String message) {
+            // the rules of the batch are not computed, as when their query fails
+            log.warn(message);
+        }
+    }
+
+    private boolean runRuleBatchesParallel(Analysis analysis, List<WhereRuleBatchPlanner.RuleBatch> batches,
+            Set<Indicator> computedIndicators) throws SQLException {
+        boolean runStatus = Boolean.TRUE;
+        SqlQueryScheduler scheduler = new SqlQueryScheduler(TdqAnalysisConnectionPool.getConnectionPool(analysis),
+                new SqlQueryScheduler.CatalogSwitcher() {
+
+                    @Override
+                    public boolean switchCatalog(Connection connection, String catalog) {
+                        return !needChangeCatalog(connection) || changeCatalog(catalog, connection);
+                    }
+                });
+        try {
+            for (WhereRuleBatchPlanner.RuleBatch batch : batches) {
+                scheduler.submit(new RuleBatchQuery(batch));
+            }
+            // the results are stored by this thread, as the results of the serial queries
+            while (scheduler.hasPendingQueries() && continueRun()) {
+                RuleBatchQuery query = (RuleBatchQuery) scheduler.takeCompleted(BATCH_WAIT_INTERVAL);
+                if (query != null && query.rows != null) {
+                    runStatus = storeBatchResults(query.batch, query.rows, computedIndicators) && runStatus;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(e);
+        } finally {
+            scheduler.shutdown();
+        }
+        return runStatus;
+    }
+
+    /**
+     * Gives the results of a batch to its row counts and rules.
+     *
+     * @param batch the batch
+     * @param rows the results of the query of the batch, null when no result set has been returned
+     * @param computedIndicators the indicators computed by the batches
+     * @return false when the results of an indicator could not be stored
+     */
+    private boolean storeBatchResults(WhereRuleBatchPlanner.RuleBatch batch, List<Object[]> rows,
+            Set<Indicator> computedIndicators) {
+        if (rows == null) {
+            return true;
+        }
+        boolean runStatus = Boolean.TRUE;
+        List<Object[]> countResults = batch.getCountResults(rows);
+        List<Indicator> batchIndicators = batch.getIndicators();
+        for (int i = 0; i < batchIndicators.size(); i++) {
+            Indicator indicator = batchIndicators.get(i);
+            boolean isStored;
+            if (batch.isRule(i)) {
+                WhereRuleIndicator rule = (WhereRuleIndicator) indicator;
+                isStored = rule.setCount(countResults) && rule.storeSqlResults(batch.getResults(i, rows));
+                try {
+                    // keep the query of the rule in the indicator, as when it is executed alone
+                    createSqlQuery(stringDataFilter, rule, true);
+                } catch (AnalysisExecutionException e) {
+                    log.warn(e, e);
+                }
+            } else {
+                isStored = indicator.storeSqlResults(countResults);
+            }
+            if (isStored) {
+                indicator.setComputed(true);
+            } else {
+                traceError("Query not executed for indicator: \"" + AnalysisExecutorHelper.getIndicatorName(indicator) + "\" "//$NON-NLS-1$//$NON-NLS-2$
+                        + "SQL query: " + batch.getSql());//$NON-NLS-1$
+                runStatus = Boolean.FALSE;
+            }
+            publishDynamicEvent(indicator);
+            computedIndicators.add(indicator);
+        }
+        return runStatus;
+    }
+
+    /**
+     * the ODBC bridge and SQLite do not support concurrent queries well, and only some Hive servers accept them.
+     */
+    private boolean canRunInParallel(Connection connection) {
+        try {
+            @SuppressWarnings("deprecation")
+            DatabaseMetaData connectionMetadata = org.talend.utils.sql.ConnectionUtils.getConnectionMetadata(connection);
+            if (connectionMetadata.getDriverName() != null
+                    && connectionMetadata.getDriverName().toLowerCase().startsWith(DatabaseConstant.ODBC_DRIVER_NAME)) {
+                return false;
+            }
+            return !"SQLite".equals(connection.getMetaData().getDatabaseProductName()) //$NON-NLS-1$
+                    && !ExtractMetaDataUtils.getInstance().isHiveConnection(connection);
+        } catch (SQLException e) {
+            log.warn(e, e);
+            return false;
+        }
+    }
+
     /**
      * DOC yyin Comment method "executeRule".
      *
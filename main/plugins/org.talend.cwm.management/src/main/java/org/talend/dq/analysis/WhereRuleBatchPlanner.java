@@ -0,0 +1,291 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang.StringUtils;
+import org.talend.dataquality.indicators.Indicator;
+import org.talend.dq.dbms.DbmsLanguage;
+
+/**
+ * Plans the business rules of a table analysis so that the rows of a table are read once for all its rules.
+ * <p>
+ * The count query of a rule is the query of the rule without its where expression: "SELECT COUNT(*) FROM table [joins]
+ * [WHERE data filter]". The rules with the same count query, i.e. on the same table with the same join clause and the
+ * same data filter, are computed by one query "SELECT COUNT(*), COUNT(CASE WHEN (rule1) THEN 1 END), ... FROM table
+ * [joins] [WHERE data filter]": the first column is the number of rows of each rule, the next ones the number of rows
+ * matching each rule. The row count indicators of the table, whose query is the same count query, take the first
+ * column. The queries of the different batches are independent.
+ */
+public class WhereRuleBatchPlanner {
+
+    /**
+     * The maximum number of rules computed by one query.
+     */
+    public static final int MAX_RULES = 200;
+
+    private static final Pattern COUNT_QUERY = Pattern.compile("\\s*SELECT\\s+COUNT\\s*\\(\\s*\\*\\s*\\)\\s+FROM\\s(.*)", //$NON-NLS-1$
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final DbmsLanguage dbmsLanguage;
+
+    // the rules and row counts by their catalog and count query
+    private final Map<String, RuleGroup> groups = new LinkedHashMap<String, RuleGroup>();
+
+    /**
+     * WhereRuleBatchPlanner constructor.
+     *
+     * @param dbmsLanguage the language of the database, which writes the conditional counts
+     */
+    public WhereRuleBatchPlanner(DbmsLanguage dbmsLanguage) {
+        this.dbmsLanguage = dbmsLanguage;
+    }
+
+    /**
+     * Adds a rule to the rules to batch.
+     *
+     * @param rule the where rule indicator
+     * @param catalog the catalog or schema of the analyzed table, can be null
+     * @param countQuery the instantiated query of the rule without its where expression
+     * @param whereExpression the where expression of the rule
+     * @return false when the rule cannot be batched, it must then be computed by its own queries
+     */
+    public boolean addRule(Indicator rule, String catalog, String countQuery, String whereExpression) {
+        if (StringUtils.isBlank(whereExpression)) {
+            return false;
+        }
+        RuleGroup group = getGroup(catalog, countQuery);
+        if (group == null) {
+            return false;
+        }
+        group.rules.add(rule);
+        group.conditions.add(whereExpression.trim());
+        return true;
+    }
+
+    /**
+     * Adds a row count indicator, which is computed by the batch of the rules with the same count query, if any.
+     *
+     * @param rowCount the row count indicator
+     * @param catalog the catalog or schema of the analyzed table, can be null
+     * @param countQuery the instantiated query of the indicator
+     * @return false when the query is not a count of the rows
+     */
+    public boolean addRowCount(Indicator rowCount, String catalog, String countQuery) {
+        RuleGroup group = getGroup(catalog, countQuery);
+        if (group == null) {
+            return false;
+        }
+        group.rowCounts.add(rowCount);
+        return true;
+    }
+
+    private RuleGroup getGroup(String catalog, String countQuery) {
+        if (countQuery == null) {
+            return null;
+        }
+        String query = countQuery.trim();
+        if (query.endsWith(";")) { //$NON-NLS-1$
+            query = query.substring(0, query.length() - 1);
+        }
+        Matcher matcher = COUNT_QUERY.matcher(query);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String from = matcher.group(1).trim();
+        String key = catalog + '\u0000' + normalizeSpaces(from);
+        RuleGroup group = groups.get(key);
+        if (group == null) {
+            group = new RuleGroup(catalog, from);
+            groups.put(key, group);
+        }
+        return group;
+    }
+
+    /**
+     * Replaces each sequence of white spaces out of the literals and quoted identifiers by a single space, so that the
+     * count queries built from different templates can be compared.
+     */
+    static String normalizeSpaces(String sql) {
+        StringBuilder normalized = new StringBuilder(sql.length());
+        char quote = 0;
+        boolean space = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote == 0 && Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space) {
+                normalized.append(' ');
+                space = false;
+            }
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '[') {
+                quote = ']';
+            }
+            normalized.append(c);
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Method "getBatches".
+     *
+     * @return the queries which compute the rules, the row counts which have no rule on their table are not in them
+     */
+    public List<RuleBatch> getBatches() {
+        List<RuleBatch> batches = new ArrayList<RuleBatch>();
+        for (RuleGroup group : groups.values()) {
+            for (int start = 0; start < group.rules.size(); start += MAX_RULES) {
+                int end = Math.min(start + MAX_RULES, group.rules.size());
+                List<Indicator> indicators = new ArrayList<Indicator>();
+                if (start == 0) {
+                    indicators.addAll(group.rowCounts);
+                }
+                int firstRule = indicators.size();
+                indicators.addAll(group.rules.subList(start, end));
+                StringBuilder sql = new StringBuilder("SELECT COUNT(*)"); //$NON-NLS-1$
+                for (String condition : group.conditions.subList(start, end)) {
+                    sql.append(", ").append(dbmsLanguage.conditionalAggregate("COUNT", "*", '(' + condition + ')')); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                }
+                sql.append(dbmsLanguage.from()).append(group.from);
+                batches.add(new RuleBatch(group.catalog, sql.toString(), indicators, firstRule));
+            }
+        }
+        return batches;
+    }
+
+    /**
+     * The rules and row counts with the same count query.
+     */
+    private static class RuleGroup {
+
+        final String catalog;
+
+        // the tables of the count query after the FROM keyword, with the joins and the data filter
+        final String from;
+
+        final List<Indicator> rules = new ArrayList<Indicator>();
+
+        final List<String> conditions = new ArrayList<String>();
+
+        final List<Indicator> rowCounts = new ArrayList<Indicator>();
+
+        RuleGroup(String catalog, String from) {
+            this.catalog = catalog;
+            this.from = from;
+        }
+    }
+
+    /**
+     * A query which computes several rules with the same count query.
+     */
+    public static class RuleBatch {
+
+        private final String catalog;
+
+        private final String sql;
+
+        private final List<Indicator> indicators;
+
+        // the index of the first rule in the indicators, the row counts being before it
+        private final int firstRule;
+
+        RuleBatch(String catalog, String sql, List<Indicator> indicators, int firstRule) {
+            this.catalog = catalog;
+            this.sql = sql;
+            this.indicators = indicators;
+            this.firstRule = firstRule;
+        }
+
+        /**
+         * Getter for catalog.
+         *
+         * @return the catalog or schema of the table, can be null
+         */
+        public String getCatalog() {
+            return this.catalog;
+        }
+
+        /**
+         * Getter for sql.
+         *
+         * @return the query of the batch
+         */
+        public String getSql() {
+            return this.sql;
+        }
+
+        /**
+         * Getter for indicators.
+         *
+         * @return the row count indicators then the rule indicators computed by the query
+         */
+        public List<Indicator> getIndicators() {
+            return this.indicators;
+        }
+
+        /**
+         * Method "isRule".
+         *
+         * @param index the index of an indicator in {@link #getIndicators()}
+         * @return true for a rule, false for a row count
+         */
+        public boolean isRule(int index) {
+            return index >= firstRule;
+        }
+
+        /**
+         * Method "getCountResults".
+         *
+         * @param rows the results of the query
+         * @return the results of the count query, which are the results of the row counts and the count of the rules
+         */
+        public List<Object[]> getCountResults(List<Object[]> rows) {
+            List<Object[]> results = new ArrayList<Object[]>();
+            for (Object[] row : rows) {
+                results.add(Arrays.copyOfRange(row, 0, 1));
+            }
+            return results;
+        }
+
+        /**
+         * Method "getResults".
+         *
+         * @param index the index of a rule in {@link #getIndicators()}
+         * @param rows the results of the query
+         * @return the results of the rule, as if its own query had been executed
+         */
+        public List<Object[]> getResults(int index, List<Object[]> rows) {
+            int column = index - firstRule + 1;
+            List<Object[]> results = new ArrayList<Object[]>();
+            for (Object[] row : rows) {
+                results.add(Arrays.copyOfRange(row, column, column + 1));
+            }
+            return results;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.analysis.connpool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.talend.cwm.management.i18n.Messages;
+
+/**
+ * Runs the queries of an analysis on the connections of its {@link TdqAnalysisConnectionPool}.
+ * <p>
+ * The queries are executed by a work-stealing pool with as many threads as the connections the pool can open, so a
+ * query never waits for a connection: each thread takes an idle connection from a lock-free queue and gives it back
+ * when its query is done. The idle connections are queued by the catalog they are switched to, so that a query
+ * preferably runs on a connection already set on its catalog and the catalog is only changed when no such connection
+ * is idle. The results are taken in completion order by the thread which submitted the queries, which can report the
+ * progress without blocking the workers.
+ */
+public class SqlQueryScheduler {
+
+    private static Logger log = Logger.getLogger(SqlQueryScheduler.class);
+
+    // key of the connections which have not been switched to a catalog
+    private static final String NO_CATALOG = ""; //$NON-NLS-1$
+
+    /**
+     * A query to run on a connection of the pool.
+     */
+    public interface Query {
+
+        /**
+         * Method "getCatalog".
+         *
+         * @return the catalog or schema on which the query must run, null when the connection does not need to be
+         * switched
+         */
+        String getCatalog();
+
+        /**
+         * Method "run".
+         *
+         * @param connection a connection of the pool, already switched to the catalog of the query
+         */
+        void run(Connection connection);
+
+        /**
+         * Method "fail" is called instead of {@link #run(Connection)} when the connection cannot be switched to the
+         * catalog of the query.
+         *
+         * @param message the error message
+         */
+        void fail(String message);
+    }
+
+    /**
+     * Switches the connections to the catalog of the queries.
+     */
+    public interface CatalogSwitcher {
+
+        /**
+         * Method "switchCatalog".
+         *
+         * @param connection the connection
+         * @param catalog the catalog or schema of the next query
+         * @return false when the catalog could not be changed
+         */
+        boolean switchCatalog(Connection connection, String catalog);
+    }
+
+    private final TdqAnalysisConnectionPool connectionPool;
+
+    private final CatalogSwitcher catalogSwitcher;
+
+    private final ExecutorService executor;
+
+    private final CompletionService<Query> completionService;
+
+    // the idle connections by the catalog they are switched to
+    private final ConcurrentMap<String, Queue<Connection>> idleConnections = new ConcurrentHashMap<String, Queue<Connection>>();
+
+    private final Map<Connection, String> connectionCatalogs = new ConcurrentHashMap<Connection, String>();
+
+    private int pendingQueries = 0;
+
+    /**
+     * SqlQueryScheduler constructor.
+     *
+     * @param connectionPool the connection pool of the analysis
+     * @param catalogSwitcher switches the catalog of the connections, can be null when the queries do not depend on the
+     * catalog of the connection
+     * @throws SQLException when no connection can be opened
+     */
+    public SqlQueryScheduler(TdqAnalysisConnectionPool connectionPool, CatalogSwitcher catalogSwitcher) throws SQLException {
+        this.connectionPool = connectionPool;
+        this.catalogSwitcher = catalogSwitcher;
+        // the first connection tells how many connections the driver accepts
+        release(connectionPool.getConnection(), NO_CATALOG);
+        int parallelism = Math.max(1, Math.min(connectionPool.getMaxConnections(), connectionPool.getDriverMaxConnections()));
+        this.executor = Executors.newWorkStealingPool(parallelism);
+        this.completionService = new ExecutorCompletionService<Query>(executor);
+    }
+
+    /**
+     * Submits a query. It is executed as soon as a thread is free.
+     *
+     * @param query the query
+     */
+    public void submit(final Query query) {
+        completionService.submit(new Callable<Query>() {
+
+            @Override
+            public Query call() throws Exception {
+                try {
+                    execute(query);
+                } catch (SQLException e) {
+                    log.error(e, e);
+                }
+                return query;
+            }
+        });
+        pendingQueries++;
+    }
+
+    /**
+     * Method "hasPendingQueries".
+     *
+     * @return true while a submitted query has not been taken with {@link #takeCompleted(long)}
+     */
+    public boolean hasPendingQueries() {
+        return pendingQueries > 0;
+    }
+
+    /**
+     * Waits for the next query to complete.
+     *
+     * @param timeout the maximum time to wait in milliseconds
+     * @return the query which has completed, null when none has completed before the timeout
+     * @throws InterruptedException when the thread is interrupted while waiting
+     */
+    public Query takeCompleted(long timeout) throws InterruptedException {
+        Future<Query> future = completionService.poll(timeout, TimeUnit.MILLISECONDS);
+        if (future == null) {
+            return null;
+        }
+        pendingQueries--;
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            log.error(e.getCause(), e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * Stops the threads and gives the connections back to the pool. The queries which have not started yet are
+     * cancelled.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Queue<Connection> connections : idleConnections.values()) {
+            Connection connection = connections.poll();
+            while (connection != null) {
+                connectionPool.returnConnection(connection);
+                connection = connections.poll();
+            }
+        }
+    }
+
+    private void execute(Query query) throws SQLException {
+        Connection connection = acquire(query.getCatalog());
+        String connectionCatalog = getCatalog(connection);
+        try {
+            if (query.getCatalog() != null && !query.getCatalog().equals(connectionCatalog)) {
+                connectionCatalog = NO_CATALOG;
+                if (catalogSwitcher != null && !catalogSwitcher.switchCatalog(connection, query.getCatalog())) {
+                    query.fail(Messages.getString("SqlQueryScheduler.CatalogNotSwitched", query.getCatalog())); //$NON-NLS-1$
+                    return;
+                }
+                connectionCatalog = query.getCatalog();
+            }
+            query.run(connection);
+        } finally {
+            release(connection, connectionCatalog);
+        }
+    }
+
+    /**
+     * Takes an idle connection, preferably one already switched to the given catalog.
+     */
+    private Connection acquire(String catalog) throws SQLException {
+        Connection connection = null;
+        if (catalog != null) {
+            connection = poll(idleConnections.get(catalog));
+        }
+        // else any idle connection, whatever its catalog
+        for (Iterator<Queue<Connection>> it = idleConnections.values().iterator(); connection == null && it.hasNext();) {
+            connection = poll(it.next());
+        }
+        if (connection == null) {
+            // all the opened connections are used, the pool opens a new one
+            connection = connectionPool.getConnection();
+        }
+        return connection;
+    }
+
+    private String getCatalog(Connection connection) {
+        String catalog = connectionCatalogs.get(connection);
+        return catalog == null ? NO_CATALOG : catalog;
+    }
+
+    private static Connection poll(Queue<Connection> connections) {
+        return connections == null ? null : connections.poll();
+    }
+
+    private void release(Connection connection, String catalog) {
+        connectionCatalogs.put(connection, catalog);
+        Queue<Connection> connections = idleConnections.get(catalog);
+        if (connections == null) {
+            idleConnections.putIfAbsent(catalog, new ConcurrentLinkedQueue<Connection>());
+            connections = idleConnections.get(catalog);
+        }
+        connections.offer(connection);
+    }
+}
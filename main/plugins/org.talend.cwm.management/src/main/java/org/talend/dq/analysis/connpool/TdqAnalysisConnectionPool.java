@@ -53,6 +53,8 @@ public class TdqAnalysisConnectionPool {
 
     private static final int DEFAULT_WAIT_TIMES = 10;
 
+    private static final long FREE_CONNECTION_WAIT_MILLISECOND = 100;
+
     private static final float DEFAULT_CONNECTION_NUMBER_OFFSET = 0.5f;
 
     private static final boolean SHOW_CONNECTIONS_INFO = Boolean.FALSE;
@@ -77,7 +79,8 @@ public class TdqAnalysisConnectionPool {
 
     private int maxConnections = CONNECTIONS_PER_ANALYSIS_DEFAULT_LENGTH;
 
-    private String synchronizedFlag = ""; //$NON-NLS-1$\
+    // the connections being opened, which are counted in the size of the pool
+    private int openingConnections = 0;
 
     /**
      * Look up the conn pool from instance map, if there not have, creata a new one.
@@ -209,71 +212,114 @@ public class TdqAnalysisConnectionPool {
     public Connection getConnection() throws SQLException {
         Connection conn = findFreeConnection();
         while (conn == null) {
-            wait(DEFAULT_WAIT_MILLISECOND);
-            conn = findFreeConnection();
+            // the new connection is added busy so that no other thread can take it
+            conn = newConnection(true);
             if (conn == null) {
-                newConnection();
+                if (!isFull()) {
+                    // the connection could not be created, waiting would never end
+                    throw new SQLException(Messages.getString("AnalysisExecutor.NoUseableConnection")); //$NON-NLS-1$
+                }
+                conn = waitFreeConnection();
             }
         }
         showConnectionInfo();
         return conn;
     }
 
+    /**
+     * Waits until a connection is returned to the full pool.
+     *
+     * @return a free connection, or null when none has been returned before the timeout
+     * @throws SQLException when the thread is interrupted
+     */
+    private synchronized Connection waitFreeConnection() throws SQLException {
+        Connection conn = findFreeConnection();
+        if (conn == null) {
+            try {
+                // notified by returnConnection() and removeConnection()
+                this.wait(FREE_CONNECTION_WAIT_MILLISECOND);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException(e);
+            }
+            conn = findFreeConnection();
+        }
+        return conn;
+    }
+
     /**
      * DOC xqliu Comment method "newConnection".
      *
      * @return
      */
     private Connection newConnection() {
+        return newConnection(false);
+    }
+
+    /**
+     * create a new connection and add it to the pool.
+     *
+     * @param busy true when the connection is added to the pool as used by the caller
+     * @return the new connection, null when the pool is full or the connection failed
+     */
+    private Connection newConnection(boolean busy) {
         Connection conn = null;
-        if (isFull()) {
+        // the place in the pool is taken under the same lock as the check, the connection is opened outside of it
+        if (!reserveConnection()) {
             return conn;
         }
-        DataManager datamanager = analysis.getContext().getConnection();
-        if (datamanager == null) {
-            log.error(Messages.getString("AnalysisExecutor.DataManagerNull", analysis.getName())); //$NON-NLS-1$
-            return null;
-        }
-        if (datamanager != null && datamanager.eIsProxy()) {
-            datamanager = (DataManager) EObjectHelper.resolveObject(datamanager);
-        }
-        org.talend.core.model.metadata.builder.connection.Connection dataprovider = SwitchHelpers.CONNECTION_SWITCH
-                .doSwitch(datamanager);
+        IMetadataConnection metadataConnection = null;
+        PooledTdqAnalysisConnection pConn = null;
+        try {
+            DataManager datamanager = analysis.getContext().getConnection();
+            if (datamanager == null) {
+                log.error(Messages.getString("AnalysisExecutor.DataManagerNull", analysis.getName())); //$NON-NLS-1$
+                return null;
+            }
+            if (datamanager != null && datamanager.eIsProxy()) {
+                datamanager = (DataManager) EObjectHelper.resolveObject(datamanager);
+            }
+            org.talend.core.model.metadata.builder.connection.Connection dataprovider = SwitchHelpers.CONNECTION_SWITCH
+                    .doSwitch(datamanager);
 
-        TypedReturnCode<Connection> trcConn = null;
+            TypedReturnCode<Connection> trcConn = null;
 
-        IMetadataConnection metadataConnection = ConvertionHelper.convert(dataprovider);
+            metadataConnection = ConvertionHelper.convert(dataprovider);
 
-        if (metadataConnection != null && EDatabaseTypeName.HIVE.getXmlName().equalsIgnoreCase(metadataConnection.getDbType())) {
-            trcConn = new TypedReturnCode<Connection>(false);
-            try {
-                HiveConnectionHandler hiveConnHandler = HiveConnectionManager.getInstance().createHandler(metadataConnection);
-                Connection hiveConnection = hiveConnHandler.createHiveConnection();
-                if (hiveConnection != null) {
-                    trcConn.setOk(true);
-                    trcConn.setObject(hiveConnection);
+            if (metadataConnection != null
+                    && EDatabaseTypeName.HIVE.getXmlName().equalsIgnoreCase(metadataConnection.getDbType())) {
+                trcConn = new TypedReturnCode<Connection>(false);
+                try {
+                    HiveConnectionHandler hiveConnHandler = HiveConnectionManager.getInstance().createHandler(
+                            metadataConnection);
+                    Connection hiveConnection = hiveConnHandler.createHiveConnection();
+                    if (hiveConnection != null) {
+                        trcConn.setOk(true);
+                        trcConn.setObject(hiveConnection);
+                    }
+                } catch (ClassNotFoundException e) {
+                    trcConn.setOk(false);
+                    log.error(e);
+                } catch (InstantiationException e) {
+                    trcConn.setOk(false);
+                    log.error(e);
+                } catch (IllegalAccessException e) {
+                    trcConn.setOk(false);
+                    log.error(e);
+                } catch (SQLException e) {
+                    trcConn.setOk(false);
+                    log.error(e);
                 }
-            } catch (ClassNotFoundException e) {
-                trcConn.setOk(false);
-                log.error(e);
-            } catch (InstantiationException e) {
-                trcConn.setOk(false);
-                log.error(e);
-            } catch (IllegalAccessException e) {
-                trcConn.setOk(false);
-                log.error(e);
-            } catch (SQLException e) {
-                trcConn.setOk(false);
-                log.error(e);
+            } else {
+                trcConn = JavaSqlFactory.createConnection(dataprovider);
             }
-        } else {
-            trcConn = JavaSqlFactory.createConnection(dataprovider);
-        }
-        if (trcConn != null && trcConn.isOk()) {
-            conn = trcConn.getObject();
-            synchronized (this.synchronizedFlag) {
-                this.getPConnections().add(new PooledTdqAnalysisConnection(conn));
+            if (trcConn != null && trcConn.isOk()) {
+                conn = trcConn.getObject();
+                pConn = new PooledTdqAnalysisConnection(conn);
+                pConn.setBusy(busy);
             }
+        } finally {
+            addReservedConnection(pConn);
         }
 
         if (conn != null) {
@@ -285,7 +331,7 @@ public class TdqAnalysisConnectionPool {
                     DatabaseMetaData metaData = conn.getMetaData();
                     int currentDriverMaxConnections = new Float(metaData.getMaxConnections() * DEFAULT_CONNECTION_NUMBER_OFFSET)
                             .intValue();
-                    synchronized (this.synchronizedFlag) {
+                    synchronized (this) {
                         this.setDriverMaxConnections(currentDriverMaxConnections);
                     }
                 }
@@ -297,6 +343,33 @@ public class TdqAnalysisConnectionPool {
         return conn;
     }
 
+    /**
+     * Takes a place in the pool for a connection which is going to be opened.
+     *
+     * @return false when the pool is full
+     */
+    private synchronized boolean reserveConnection() {
+        if (isFull()) {
+            return false;
+        }
+        openingConnections++;
+        return true;
+    }
+
+    /**
+     * Adds the connection opened in a place taken with {@link #reserveConnection()}.
+     *
+     * @param pConn the opened connection, null when it could not be opened and the place is given back
+     */
+    private synchronized void addReservedConnection(PooledTdqAnalysisConnection pConn) {
+        openingConnections--;
+        if (pConn != null) {
+            this.getPConnections().add(pConn);
+        }
+        // the threads waiting for a free connection can open one when this one failed
+        notifyAll();
+    }
+
     /**
      * DOC xqliu Comment method "isFull".
      *
@@ -308,7 +381,7 @@ public class TdqAnalysisConnectionPool {
         if (topLimit < 1) {
             result = false;
         } else {
-            result = !(this.getPConnections().size() < topLimit);
+            result = !(this.getPConnections().size() + openingConnections < topLimit);
         }
         return result;
     }
@@ -361,6 +434,7 @@ public class TdqAnalysisConnectionPool {
                 break;
             }
         }
+        notifyAll();
 
         showConnectionInfo();
     }
@@ -407,7 +481,7 @@ public class TdqAnalysisConnectionPool {
                     log.debug(e);
                 }
                 times++;
-                wait(DEFAULT_WAIT_MILLISECOND);
+                sleep(DEFAULT_WAIT_MILLISECOND);
                 if (times > DEFAULT_WAIT_TIMES) {
                     break busy;
                 }
@@ -429,7 +503,7 @@ public class TdqAnalysisConnectionPool {
             int times = 0;
             busy: if (pConn.isBusy()) {
                 times++;
-                wait(DEFAULT_WAIT_MILLISECOND);
+                sleep(DEFAULT_WAIT_MILLISECOND);
                 if (times > DEFAULT_WAIT_TIMES) {
                     break busy;
                 }
@@ -475,16 +549,17 @@ public class TdqAnalysisConnectionPool {
                 break;
             }
         }
+        notifyAll();
 
         showConnectionInfo();
     }
 
     /**
-     * DOC xqliu Comment method "wait".
+     * DOC xqliu Comment method "sleep".
      *
      * @param mSeconds
      */
-    private void wait(int mSeconds) {
+    private void sleep(int mSeconds) {
         try {
             Thread.sleep(mSeconds);
         } catch (InterruptedException e) {
@@ -12,13 +12,28 @@
 // ============================================================================
 package org.talend.dq.analysis.memory;
 
+import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
 import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
 
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.ui.PlatformUI;
+import org.talend.dataquality.helpers.SystemPropertyHelper;
+import org.talend.dataquality.indicators.sketch.MemoryPressure;
 
 /**
  * DOC yyi class global comment. Detailled comment
@@ -35,8 +50,32 @@ public abstract class AbstractMemoryChangeNotifier {
      */
     public static final String ANALYSIS_MEMORY_THRESHOLD = "ANALYSIS_MEMORY_THRESHOLD";//$NON-NLS-1$
 
+    /**
+     * The ratio of the threshold from which the memory is short: the indicators prepared when the memory used after a
+     * garbage collection exceeds this ratio are estimated (see {@link MemoryPressure}).
+     */
+    public static final double PRESSURE_RATIO = SystemPropertyHelper.getDouble(
+            "talend.analysis.memory.pressure", 0.8); //$NON-NLS-1$
+
+    /**
+     * The minimum interval in milliseconds between two garbage collections forced by the memory control, when the
+     * memory used after the last garbage collection does not exceed the threshold.
+     */
+    public static final long FORCED_GC_INTERVAL = SystemPropertyHelper.getLong(
+            "talend.analysis.memory.gc.interval", 10000L); //$NON-NLS-1$
+
+    private static final Method THREAD_ALLOCATED_BYTES = getThreadAllocatedBytesMethod();
+
     private MemoryPoolMXBean tenuredGenPoll;
 
+    private long usageThreshold;
+
+    private volatile long lastForcedGc;
+
+    private List<GarbageCollectorMXBean> tenuredGenCollectors;
+
+    private volatile long lastCollectionCount = -1L;
+
     private boolean isThresholdControl;
 
     private int userDefineThreshold;
@@ -54,12 +93,67 @@ public abstract class AbstractMemoryChangeNotifier {
         return null;
     }
 
+    private List<GarbageCollectorMXBean> findTenuredGenCollectors() {
+        List<GarbageCollectorMXBean> collectors = new ArrayList<GarbageCollectorMXBean>();
+        if (tenuredGenPoll != null) {
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (Arrays.asList(collector.getMemoryPoolNames()).contains(tenuredGenPoll.getName())) {
+                    collectors.add(collector);
+                }
+            }
+        }
+        return collectors;
+    }
+
+    /**
+     * Method "getCollectionCount".
+     *
+     * @return the number of garbage collections of the tenured pool, -1 when the collectors do not count them
+     */
+    private long getCollectionCount() {
+        long count = 0L;
+        for (GarbageCollectorMXBean collector : tenuredGenCollectors) {
+            long collectorCount = collector.getCollectionCount();
+            if (collectorCount < 0) {
+                return -1L;
+            }
+            count += collectorCount;
+        }
+        return tenuredGenCollectors.isEmpty() ? -1L : count;
+    }
+
     protected boolean initialize() {
         tenuredGenPoll = findTenuredGenPool();
+        tenuredGenCollectors = findTenuredGenCollectors();
+        lastCollectionCount = getCollectionCount();
         this.initializeThresholdsFromPreferences();
+        this.addCollectionThresholdListener();
         return null != tenuredGenPoll;
     }
 
+    /**
+     * The memory is short when the memory used after a garbage collection exceeds the collection usage threshold of
+     * the pool. The JVM notifies it at the end of the collection, without any check from the analyses.
+     */
+    private void addCollectionThresholdListener() {
+        if (tenuredGenPoll == null || !tenuredGenPoll.isCollectionUsageThresholdSupported()
+                || !(ManagementFactory.getMemoryMXBean() instanceof NotificationEmitter)) {
+            return;
+        }
+        NotificationEmitter emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+        emitter.addNotificationListener(new NotificationListener() {
+
+            public void handleNotification(Notification notification, Object handback) {
+                if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+                    MemoryNotificationInfo info = MemoryNotificationInfo.from((CompositeData) notification.getUserData());
+                    if (tenuredGenPoll.getName().equals(info.getPoolName())) {
+                        MemoryPressure.setHigh(true);
+                    }
+                }
+            }
+        }, null, null);
+    }
+
     private void initializeThresholdsFromPreferences() {
         isThresholdControl = PlatformUI.getPreferenceStore().getBoolean(ANALYSIS_AUTOMATIC_MEMORY_CONTROL);
         userDefineThreshold = PlatformUI.getPreferenceStore().getInt(ANALYSIS_MEMORY_THRESHOLD);
@@ -98,10 +192,16 @@ public abstract class AbstractMemoryChangeNotifier {
         // MOD yyi 2012-04-12 TDQ-4916:The usage threshold crossing checking is disabled if it is set to zero.
         if (threshold <= 0) {
             tenuredGenPoll.setUsageThreshold(0);
+            usageThreshold = 0;
         } else {
             // the threshold shoudle less than max memory
             tenuredGenPoll.setUsageThreshold(threshold);
+            usageThreshold = threshold;
+        }
+        if (tenuredGenPoll.isCollectionUsageThresholdSupported()) {
+            tenuredGenPoll.setCollectionUsageThreshold((long) (usageThreshold * PRESSURE_RATIO));
         }
+        MemoryPressure.setHigh(false);
     }
 
     /**
@@ -114,12 +214,85 @@ public abstract class AbstractMemoryChangeNotifier {
         if (!isThresholdControl) { // no control set in preference pages
             return false;
         }
-        boolean isExceeded = tenuredGenPoll.isUsageThresholdExceeded();
-        if (isExceeded) {
-            ManagementFactory.getMemoryMXBean().gc();
-            isExceeded = tenuredGenPoll.isUsageThresholdExceeded();
+        boolean collectionUsageSupported = tenuredGenPoll.isCollectionUsageThresholdSupported();
+        if (collectionUsageSupported && MemoryPressure.isHigh() && !tenuredGenPoll.isCollectionUsageThresholdExceeded()) {
+            // the last garbage collection has freed the memory
+            MemoryPressure.setHigh(false);
+        }
+        if (!tenuredGenPoll.isUsageThresholdExceeded()) {
+            return false;
+        }
+        // the memory which was still used after the last garbage collection, without forcing a new one. It is only
+        // trusted when the collection ran after the previous check: an older collection does not know the memory
+        // freed since then.
+        long collectionCount = getCollectionCount();
+        boolean newCollection = collectionCount >= 0 && collectionCount != lastCollectionCount;
+        lastCollectionCount = collectionCount;
+        if (collectionUsageSupported && newCollection) {
+            MemoryUsage collectionUsage = tenuredGenPoll.getCollectionUsage();
+            if (collectionUsage != null && collectionUsage.getUsed() >= usageThreshold) {
+                return true;
+            }
+        }
+        // the used memory can be freed by the next garbage collection: a full collection is forced from time to time
+        // only, instead of at each check
+        long now = System.currentTimeMillis();
+        if (now - lastForcedGc < FORCED_GC_INTERVAL) {
+            return false;
+        }
+        lastForcedGc = now;
+        ManagementFactory.getMemoryMXBean().gc();
+        lastCollectionCount = getCollectionCount();
+        return tenuredGenPoll.isUsageThresholdExceeded();
+    }
+
+    /**
+     * Method "resetMemoryPressure" is called when an analysis starts. The memory pressure raised by a previous analysis
+     * is cleared when the memory used now is below the pressure threshold, so that the indicators of this analysis are
+     * not estimated because of memory freed since then.
+     */
+    public void resetMemoryPressure() {
+        if (!MemoryPressure.isHigh()) {
+            return;
+        }
+        if (!isThresholdControl || tenuredGenPoll == null
+                || tenuredGenPoll.getUsage().getUsed() < (long) (usageThreshold * PRESSURE_RATIO)) {
+            MemoryPressure.setHigh(false);
+        }
+    }
+
+    /**
+     * Method "getCurrentThreadAllocatedBytes".
+     *
+     * @return the number of bytes allocated by the current thread since it started, -1 when the JVM does not count them
+     */
+    public static long getCurrentThreadAllocatedBytes() {
+        if (THREAD_ALLOCATED_BYTES == null) {
+            return -1L;
+        }
+        try {
+            return (Long) THREAD_ALLOCATED_BYTES.invoke(ManagementFactory.getThreadMXBean(), Thread.currentThread().getId());
+        } catch (Exception e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * The counter of the allocated bytes is only in the bean of the HotSpot JVMs, which is loaded by the system class
+     * loader since its package is not visible from the plugins.
+     */
+    private static Method getThreadAllocatedBytesMethod() {
+        try {
+            ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+            Class<?> beanClass = ClassLoader.getSystemClassLoader().loadClass("com.sun.management.ThreadMXBean"); //$NON-NLS-1$
+            if (!beanClass.isInstance(threadBean)
+                    || !(Boolean) beanClass.getMethod("isThreadAllocatedMemoryEnabled").invoke(threadBean)) { //$NON-NLS-1$
+                return null;
+            }
+            return beanClass.getMethod("getThreadAllocatedBytes", long.class); //$NON-NLS-1$
+        } catch (Exception e) {
+            return null;
         }
-        return isExceeded;
     }
 
     private static long megaToByte(int numMb) {
@@ -12,6 +12,8 @@
 // ============================================================================
 package org.talend.dq.dbms;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
@@ -571,6 +573,29 @@ public class DbmsLanguage {
         return query + " LIMIT " + n; //$NON-NLS-1$
     }
 
+    /**
+     * Method "getPartitionClause". A range of the key lets the database read the partition through the index of the
+     * key, instead of reading the whole table for each partition.
+     *
+     * @param keyColumn the quoted name of an integer key column
+     * @param lowerBound the smallest key of the partition, null for the first partition
+     * @param upperBound the smallest key after the partition, null for the last partition
+     * @return the where clause which selects the rows of the given partition
+     */
+    public String getPartitionClause(String keyColumn, Long lowerBound, Long upperBound) {
+        StringBuilder clause = new StringBuilder();
+        if (lowerBound != null) {
+            clause.append(keyColumn).append(greaterOrEqual()).append(lowerBound);
+        }
+        if (upperBound != null) {
+            if (lowerBound != null) {
+                clause.append(and());
+            }
+            clause.append(keyColumn).append(less()).append(upperBound);
+        }
+        return clause.toString();
+    }
+
     /**
      * Method "countRowInSubquery".
      *
@@ -583,6 +608,23 @@ public class DbmsLanguage {
         return " SELECT COUNT(*) FROM (" + subquery + ") AS " + alias; //$NON-NLS-1$ //$NON-NLS-2$
     }
 
+    /**
+     * Method "conditionalAggregate".
+     *
+     * @param function the aggregate function (COUNT, SUM, MIN, MAX or AVG)
+     * @param argument the argument of the function, "*" to count the rows
+     * @param condition the condition on the aggregated rows, null to aggregate all the rows
+     * @return the aggregate on the rows matching the condition, e.g. "SUM(CASE WHEN condition THEN argument END)"
+     */
+    public String conditionalAggregate(String function, String argument, String condition) {
+        if (condition == null) {
+            return function + "(" + argument + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        // the aggregate functions ignore the null values of the rows which do not match
+        String value = "*".equals(argument.trim()) ? "1" : argument; //$NON-NLS-1$ //$NON-NLS-2$
+        return function + "(CASE WHEN " + condition + " THEN " + value + " END)"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
     public String sumRowInSubquery(String colToSum, String subquery, String alias) {
         // ANSI SQL, MySQL
         return " SELECT SUM(" + colToSum + ") FROM (" + subquery + ") AS " + alias; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
@@ -2282,6 +2324,91 @@ public class DbmsLanguage {
         return query + orderBy() + "RAND() "; //$NON-NLS-1$
     }
 
+    /**
+     * Method "isRandomQuerySampling".
+     *
+     * @return true when the query of {@link #getRandomQuery(String)} samples the rows in the database, false when it
+     * sorts all the rows of the table
+     */
+    public boolean isRandomQuerySampling() {
+        return false;
+    }
+
+    /**
+     * Method "getTableSampleClause".
+     *
+     * @param sampleSize the number of rows of the sample
+     * @param estimatedRowCount the estimated number of rows of the table, -1 when it is unknown
+     * @return the clause which follows the table name so that the database reads a random sample of about sampleSize
+     * rows of the table, or null when the database cannot sample the table
+     */
+    public String getTableSampleClause(int sampleSize, long estimatedRowCount) {
+        return null;
+    }
+
+    /**
+     * Method "getEstimatedRowCountQuery".
+     *
+     * @param columnSet a table
+     * @return the query which reads the number of rows of the table in the statistics of the database, or null when
+     * there is none
+     */
+    public String getEstimatedRowCountQuery(ColumnSet columnSet) {
+        return null;
+    }
+
+    /**
+     * Method "getEstimatedRowCountsQuery".
+     *
+     * @param catalog the name of the catalog, can be null
+     * @param schema the name of the schema, can be null
+     * @return the query which reads the name and the number of rows of all the tables of the catalog or schema in the
+     * statistics of the database, or null when there is none. A null or negative number of rows means that the table
+     * has no statistics.
+     */
+    public String getEstimatedRowCountsQuery(String catalog, String schema) {
+        return null;
+    }
+
+    /**
+     * Method "isAllTablesPrimaryKeySupported".
+     *
+     * @return true when the driver returns the primary keys of all the tables of a schema in one call, when no table
+     * name is given
+     */
+    public boolean isAllTablesPrimaryKeySupported() {
+        return false;
+    }
+
+    /**
+     * Method "getSamplePercentage".
+     *
+     * @param sampleSize the number of rows of the sample
+     * @param estimatedRowCount the estimated number of rows of the table, -1 when it is unknown
+     * @return the percentage of the rows to sample, or null when the table is not known to be much larger than the
+     * sample. Twice the sample size is sampled, as the blocks sampled and the statistics are not exact.
+     */
+    protected String getSamplePercentage(int sampleSize, long estimatedRowCount) {
+        if (estimatedRowCount <= 0) {
+            return null;
+        }
+        double percentage = 200d * sampleSize / estimatedRowCount;
+        if (percentage >= 50) {
+            return null;
+        }
+        return BigDecimal.valueOf(Math.max(percentage, 0.000001d)).setScale(6, RoundingMode.UP).toPlainString();
+    }
+
+    /**
+     * Method "toStringLiteral".
+     *
+     * @param value a value
+     * @return the value as a string literal
+     */
+    protected String toStringLiteral(String value) {
+        return "'" + StringUtils.replace(value, "'", "''") + "'"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    }
+
     /**
      * @Description: Find a TdExpression by a matched/nearest version between TdExpression and ProductVersion
      * @param dbVersion
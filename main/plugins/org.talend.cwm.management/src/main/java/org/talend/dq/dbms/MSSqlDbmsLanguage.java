@@ -22,6 +22,7 @@ import org.talend.utils.ProductVersion;
 
 import orgomg.cwm.objectmodel.core.ModelElement;
 import orgomg.cwm.resource.relational.Catalog;
+import orgomg.cwm.resource.relational.ColumnSet;
 import orgomg.cwm.resource.relational.Schema;
 
 /**
@@ -243,6 +244,42 @@ public class MSSqlDbmsLanguage extends DbmsLanguage {
         return query + orderBy() + "NEWID() "; //$NON-NLS-1$
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.dbms.DbmsLanguage#getTableSampleClause(int, long)
+     */
+    @Override
+    public String getTableSampleClause(int sampleSize, long estimatedRowCount) {
+        String percentage = getSamplePercentage(sampleSize, estimatedRowCount);
+        return percentage == null ? null : " TABLESAMPLE (" + percentage + " PERCENT) "; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.dbms.DbmsLanguage#getEstimatedRowCountQuery(orgomg.cwm.resource.relational.ColumnSet)
+     */
+    @Override
+    public String getEstimatedRowCountQuery(ColumnSet columnSet) {
+        return "SELECT SUM(rows) FROM sys.partitions WHERE index_id IN (0, 1) AND object_id = OBJECT_ID(" //$NON-NLS-1$
+                + toStringLiteral(getQueryColumnSetWithPrefix(columnSet)) + ")"; //$NON-NLS-1$
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.dbms.DbmsLanguage#getEstimatedRowCountsQuery(java.lang.String, java.lang.String)
+     */
+    @Override
+    public String getEstimatedRowCountsQuery(String catalog, String schema) {
+        String sys = catalog == null ? "sys." : quote(catalog) + ".sys."; //$NON-NLS-1$ //$NON-NLS-2$
+        return "SELECT t.name, SUM(p.rows) FROM " + sys + "tables t JOIN " + sys //$NON-NLS-1$ //$NON-NLS-2$
+                + "schemas s ON s.schema_id = t.schema_id JOIN " + sys //$NON-NLS-1$
+                + "partitions p ON p.object_id = t.object_id WHERE p.index_id IN (0, 1) AND s.name = " //$NON-NLS-1$
+                + (schema == null ? "SCHEMA_NAME()" : toStringLiteral(schema)) + " GROUP BY t.name"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
     /*
      * (non-Javadoc)
      *
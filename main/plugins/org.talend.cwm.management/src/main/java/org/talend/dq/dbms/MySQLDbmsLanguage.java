@@ -240,6 +240,18 @@ public class MySQLDbmsLanguage extends DbmsLanguage {
         return null;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.dbms.DbmsLanguage#getEstimatedRowCountsQuery(java.lang.String, java.lang.String)
+     */
+    @Override
+    public String getEstimatedRowCountsQuery(String catalog, String schema) {
+        // the catalogs are the databases in MySQL. TABLE_ROWS is an estimate for InnoDB tables
+        return "SELECT TABLE_NAME, TABLE_ROWS FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_TYPE = 'BASE TABLE' AND TABLE_SCHEMA = " //$NON-NLS-1$
+                + (catalog == null ? "DATABASE()" : toStringLiteral(catalog)); //$NON-NLS-1$
+    }
+
     /*
      * (non-Javadoc)
      *
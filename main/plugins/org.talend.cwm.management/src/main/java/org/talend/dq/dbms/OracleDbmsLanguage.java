@@ -19,6 +19,8 @@ import org.talend.utils.ProductVersion;
 import org.talend.utils.properties.PropertiesLoader;
 
 import orgomg.cwm.objectmodel.core.Expression;
+import orgomg.cwm.resource.relational.ColumnSet;
+import orgomg.cwm.resource.relational.Schema;
 
 /**
  * DOC scorreia class global comment. Detailled comment
@@ -358,6 +360,45 @@ public class OracleDbmsLanguage extends DbmsLanguage {
         return query + orderBy() + "dbms_random.value "; //$NON-NLS-1$
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.dbms.DbmsLanguage#getTableSampleClause(int, long)
+     */
+    @Override
+    public String getTableSampleClause(int sampleSize, long estimatedRowCount) {
+        String percentage = getSamplePercentage(sampleSize, estimatedRowCount);
+        return percentage == null ? null : " SAMPLE BLOCK (" + percentage + ") "; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.dbms.DbmsLanguage#getEstimatedRowCountQuery(orgomg.cwm.resource.relational.ColumnSet)
+     */
+    @Override
+    public String getEstimatedRowCountQuery(ColumnSet columnSet) {
+        Schema schema = getSchema(columnSet);
+        if (schema == null) {
+            return "SELECT NUM_ROWS FROM USER_TABLES WHERE TABLE_NAME = " + toStringLiteral(columnSet.getName()); //$NON-NLS-1$
+        }
+        return "SELECT NUM_ROWS FROM ALL_TABLES WHERE OWNER = " + toStringLiteral(schema.getName()) //$NON-NLS-1$
+                + " AND TABLE_NAME = " + toStringLiteral(columnSet.getName()); //$NON-NLS-1$
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.dbms.DbmsLanguage#getEstimatedRowCountsQuery(java.lang.String, java.lang.String)
+     */
+    @Override
+    public String getEstimatedRowCountsQuery(String catalog, String schema) {
+        if (schema == null) {
+            return "SELECT TABLE_NAME, NUM_ROWS FROM USER_TABLES"; //$NON-NLS-1$
+        }
+        return "SELECT TABLE_NAME, NUM_ROWS FROM ALL_TABLES WHERE OWNER = " + toStringLiteral(schema); //$NON-NLS-1$
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -23,6 +23,7 @@ import org.talend.utils.properties.PropertiesLoader;
 import orgomg.cwm.objectmodel.core.Expression;
 import orgomg.cwm.objectmodel.core.ModelElement;
 import orgomg.cwm.resource.relational.Catalog;
+import orgomg.cwm.resource.relational.ColumnSet;
 import orgomg.cwm.resource.relational.Schema;
 
 /**
@@ -223,6 +224,63 @@ public class PostgresqlDbmsLanguage extends DbmsLanguage {
         return query + orderBy() + "RANDOM() "; //$NON-NLS-1$
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.dbms.DbmsLanguage#getTableSampleClause(int, long)
+     */
+    @Override
+    public String getTableSampleClause(int sampleSize, long estimatedRowCount) {
+        // TABLESAMPLE is available since PostgreSQL 9.5
+        ProductVersion dbVersion = getDbVersion();
+        if (dbVersion != null && (dbVersion.getMajor() < 9 || dbVersion.getMajor() == 9 && dbVersion.getMinor() < 5)) {
+            return null;
+        }
+        String percentage = getSamplePercentage(sampleSize, estimatedRowCount);
+        return percentage == null ? null : " TABLESAMPLE SYSTEM (" + percentage + ") "; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.dbms.DbmsLanguage#getEstimatedRowCountQuery(orgomg.cwm.resource.relational.ColumnSet)
+     */
+    @Override
+    public String getEstimatedRowCountQuery(ColumnSet columnSet) {
+        Schema schema = getSchema(columnSet);
+        String query = "SELECT c.reltuples FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace WHERE c.relname = " //$NON-NLS-1$
+                + toStringLiteral(columnSet.getName());
+        if (schema == null) {
+            return query + " AND pg_table_is_visible(c.oid)"; //$NON-NLS-1$
+        }
+        return query + " AND n.nspname = " + toStringLiteral(schema.getName()); //$NON-NLS-1$
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.dbms.DbmsLanguage#getEstimatedRowCountsQuery(java.lang.String, java.lang.String)
+     */
+    @Override
+    public String getEstimatedRowCountsQuery(String catalog, String schema) {
+        String query = "SELECT c.relname, c.reltuples FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace" //$NON-NLS-1$
+                + " WHERE c.relkind IN ('r', 'p')"; //$NON-NLS-1$
+        if (schema == null) {
+            return query + " AND pg_table_is_visible(c.oid)"; //$NON-NLS-1$
+        }
+        return query + " AND n.nspname = " + toStringLiteral(schema); //$NON-NLS-1$
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.dbms.DbmsLanguage#isAllTablesPrimaryKeySupported()
+     */
+    @Override
+    public boolean isAllTablesPrimaryKeySupported() {
+        return true;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -43,4 +43,37 @@ public class RedshiftDbmsLanguage extends PostgresqlDbmsLanguage {
     public String getInvalidClauseBenFord(String columnName) {
         return columnName + " is null or " + columnName + "='' or SUBSTRING(" + columnName + ", 1,1)  ~ '[^0-9]'";//$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
     }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.dbms.PostgresqlDbmsLanguage#getTableSampleClause(int, long)
+     */
+    @Override
+    public String getTableSampleClause(int sampleSize, long estimatedRowCount) {
+        // no TABLESAMPLE in Redshift
+        return null;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.dbms.PostgresqlDbmsLanguage#getEstimatedRowCountsQuery(java.lang.String, java.lang.String)
+     */
+    @Override
+    public String getEstimatedRowCountsQuery(String catalog, String schema) {
+        // pg_class is not maintained by Redshift
+        return "SELECT \"table\", tbl_rows FROM SVV_TABLE_INFO WHERE \"schema\" = " //$NON-NLS-1$
+                + (schema == null ? "current_schema()" : toStringLiteral(schema)); //$NON-NLS-1$
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.dbms.PostgresqlDbmsLanguage#isAllTablesPrimaryKeySupported()
+     */
+    @Override
+    public boolean isAllTablesPrimaryKeySupported() {
+        return false;
+    }
 }
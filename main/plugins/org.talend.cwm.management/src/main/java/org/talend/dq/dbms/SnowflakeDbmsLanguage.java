@@ -40,4 +40,27 @@ public class SnowflakeDbmsLanguage extends DbmsLanguage {
     public String charLength(String columnName) {
         return " LENGTH(" + columnName + ") "; //$NON-NLS-1$ //$NON-NLS-2$
     }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dq.dbms.DbmsLanguage#getTableSampleClause(int, long)
+     */
+    @Override
+    public String getTableSampleClause(int sampleSize, long estimatedRowCount) {
+        // fixed-size sampling, the number of rows of the table is not needed
+        return " SAMPLE (" + sampleSize + " ROWS) "; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dq.dbms.DbmsLanguage#getEstimatedRowCountsQuery(java.lang.String, java.lang.String)
+     */
+    @Override
+    public String getEstimatedRowCountsQuery(String catalog, String schema) {
+        String tables = catalog == null ? "INFORMATION_SCHEMA.TABLES" : quote(catalog) + ".INFORMATION_SCHEMA.TABLES"; //$NON-NLS-1$ //$NON-NLS-2$
+        return "SELECT TABLE_NAME, ROW_COUNT FROM " + tables + " WHERE TABLE_TYPE = 'BASE TABLE' AND TABLE_SCHEMA = " //$NON-NLS-1$ //$NON-NLS-2$
+                + (schema == null ? "CURRENT_SCHEMA()" : toStringLiteral(schema)); //$NON-NLS-1$
+    }
 }
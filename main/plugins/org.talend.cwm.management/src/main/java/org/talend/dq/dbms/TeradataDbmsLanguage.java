@@ -168,4 +168,14 @@ public class TeradataDbmsLanguage extends DbmsLanguage {
         // the SAMPLE is the random method, when use this method need to add a number after this
         return query + " SAMPLE "; //$NON-NLS-1$
     }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.dbms.DbmsLanguage#isRandomQuerySampling()
+     */
+    @Override
+    public boolean isRandomQuerySampling() {
+        return true;
+    }
 }
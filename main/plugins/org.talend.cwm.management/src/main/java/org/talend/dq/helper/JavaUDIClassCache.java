@@ -0,0 +1,112 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.helper;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.talend.utils.classloader.TalendURLClassLoader;
+
+/**
+ * The classes of the java user defined indicators, loaded once for all the analyses.
+ * <p>
+ * There is one class loader for each set of jars, shared by all the indicators whose classes are in these jars. The
+ * jars are identified by their path, and their content by their size and last modification date: when a jar changes,
+ * the class loader of its jar set is dropped and its classes are loaded again by a new class loader. The dropped class
+ * loader is not closed since the indicators created from its classes can still be used by a running analysis.
+ */
+public class JavaUDIClassCache {
+
+    private final Map<String, JarSet> jarSets = new HashMap<String, JarSet>();
+
+    /**
+     * Method "loadClass".
+     *
+     * @param jarFiles the jars of the indicator
+     * @param className the name of the class of the indicator
+     * @return the class of the indicator
+     * @throws ClassNotFoundException when the class is not in the jars
+     * @throws MalformedURLException
+     */
+    public synchronized Class<?> loadClass(List<File> jarFiles, String className) throws ClassNotFoundException,
+            MalformedURLException {
+        JarSet jarSet = getJarSet(jarFiles);
+        Class<?> clazz = jarSet.classes.get(className);
+        if (clazz == null) {
+            clazz = jarSet.classLoader.findClass(className);
+            if (clazz != null) {
+                jarSet.classes.put(className, clazz);
+            }
+        }
+        return clazz;
+    }
+
+    /**
+     * Method "getClassLoader".
+     *
+     * @param jarFiles the jars of an indicator
+     * @return the class loader of the current content of the jars
+     * @throws MalformedURLException
+     */
+    synchronized ClassLoader getClassLoader(List<File> jarFiles) throws MalformedURLException {
+        return getJarSet(jarFiles).classLoader;
+    }
+
+    private JarSet getJarSet(List<File> jarFiles) throws MalformedURLException {
+        StringBuilder key = new StringBuilder();
+        StringBuilder fingerprint = new StringBuilder();
+        URL[] jarUrls = new URL[jarFiles.size()];
+        for (int i = 0; i < jarUrls.length; i++) {
+            File jarFile = jarFiles.get(i);
+            key.append(jarFile.getAbsolutePath()).append(File.pathSeparatorChar);
+            fingerprint.append(jarFile.length()).append(':').append(jarFile.lastModified()).append(File.pathSeparatorChar);
+            jarUrls[i] = jarFile.toURI().toURL();
+        }
+        JarSet jarSet = jarSets.get(key.toString());
+        if (jarSet == null || !jarSet.fingerprint.equals(fingerprint.toString())) {
+            // Note that the 2nd parameter (classloader) is needed to load class UserDefinitionIndicator from
+            // org.talend.dataquality plugin.
+            jarSet = new JarSet(fingerprint.toString(), new TalendURLClassLoader(jarUrls, UDIHelper.class.getClassLoader()));
+            jarSets.put(key.toString(), jarSet);
+        }
+        return jarSet;
+    }
+
+    /**
+     * Drops all the class loaders.
+     */
+    public synchronized void clear() {
+        jarSets.clear();
+    }
+
+    /**
+     * The class loader of a set of jars and the classes it has loaded.
+     */
+    private static class JarSet {
+
+        final String fingerprint;
+
+        final TalendURLClassLoader classLoader;
+
+        final Map<String, Class<?>> classes = new HashMap<String, Class<?>>();
+
+        JarSet(String fingerprint, TalendURLClassLoader classLoader) {
+            this.fingerprint = fingerprint;
+            this.classLoader = classLoader;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.helper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.talend.commons.utils.StringUtils;
+import org.talend.core.language.LanguageManager;
+import org.talend.core.model.metadata.builder.connection.DelimitedFileConnection;
+import org.talend.core.model.metadata.builder.connection.Escape;
+import org.talend.core.model.metadata.builder.database.JavaSqlFactory;
+
+/**
+ * Reads the records of a delimited file through a memory mapping of the file, without a reader and without building
+ * the strings of the fields which are not analyzed.
+ * <p>
+ * The file is split into chunks which end on a row separator, so the chunks can be read by several threads. It is used
+ * only for the files which {@link org.talend.fileprocess.FileInputDelimited} reads field by field: no text enclosure
+ * (the CSV option), no footer, no record split, a row separator "\n" or "\r\n" (a "\r" before "\n" is removed), and an
+ * encoding in which the separators are single ASCII bytes (UTF-8, ISO-8859-x, windows-125x...). The files which start
+ * with a UTF-8 byte order mark are left to the buffered readers, which handle it.
+ */
+public final class MappedDelimitedFileReader implements Closeable {
+
+    private static Logger log = Logger.getLogger(MappedDelimitedFileReader.class);
+
+    private static final byte LINE_FEED = '\n';
+
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private static final int SCAN_BUFFER_SIZE = 8192;
+
+    private static final byte[] UTF8_BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+    /**
+     * Handles the records read from the file.
+     */
+    public interface RecordHandler {
+
+        /**
+         * Method "handle".
+         *
+         * @param fields the fields of the record by position, null for a field which is not read or not in the record
+         * @param offset the position of the record in the file
+         * @return false to stop the reading
+         */
+        boolean handle(String[] fields, long offset);
+    }
+
+    private final RandomAccessFile file;
+
+    private final FileChannel channel;
+
+    private final Charset charset;
+
+    private final byte[] fieldSeparator;
+
+    private final boolean skipEmptyRows;
+
+    MappedDelimitedFileReader(File file, Charset charset, String fieldSeparator, boolean skipEmptyRows) throws IOException {
+        this.file = new RandomAccessFile(file, "r"); //$NON-NLS-1$
+        this.channel = this.file.getChannel();
+        this.charset = charset;
+        this.fieldSeparator = fieldSeparator.getBytes(charset);
+        this.skipEmptyRows = skipEmptyRows;
+    }
+
+    /**
+     * Method "create".
+     *
+     * @param file the file of the connection
+     * @param connection a delimited file connection
+     * @return the reader of the file, or null when the file must be read by the buffered readers
+     * @throws IOException
+     */
+    public static MappedDelimitedFileReader create(File file, DelimitedFileConnection connection) throws IOException {
+        if (Escape.CSV.equals(connection.getEscapeType()) || connection.isSplitRecord()
+                || JavaSqlFactory.getFooterValue(connection) > 0) {
+            return null;
+        }
+        String languageName = LanguageManager.getCurrentLanguage().getName();
+        String fieldSeparator = ParameterUtil.trimParameter(StringUtils.loadConvert(
+                JavaSqlFactory.getFieldSeparatorValue(connection), languageName));
+        String rowSeparator = ParameterUtil.trimParameter(StringUtils.loadConvert(
+                JavaSqlFactory.getRowSeparatorValue(connection), languageName));
+        if (!"\n".equals(rowSeparator) && !"\r\n".equals(rowSeparator)) { //$NON-NLS-1$ //$NON-NLS-2$
+            return null;
+        }
+        String encoding = ParameterUtil.trimParameter(JavaSqlFactory.getEncoding(connection));
+        Charset charset;
+        try {
+            charset = Charset.forName(encoding == null || encoding.length() == 0 ? "UTF-8" : encoding); //$NON-NLS-1$
+        } catch (IllegalArgumentException e) {
+            log.debug(e, e);
+            return null;
+        }
+        if (!isAsciiSeparator(fieldSeparator, charset) || startsWithByteOrderMark(file)) {
+            return null;
+        }
+        return new MappedDelimitedFileReader(file, charset, fieldSeparator, connection.isRemoveEmptyRow());
+    }
+
+    /**
+     * the separator must be found on the bytes, it must not be a part of a multi-byte character.
+     */
+    static boolean isAsciiSeparator(String separator, Charset charset) {
+        if (separator == null || separator.length() == 0) {
+            return false;
+        }
+        for (int i = 0; i < separator.length(); i++) {
+            char c = separator.charAt(i);
+            if (c == LINE_FEED || c == CARRIAGE_RETURN || c >= 0x80) {
+                return false;
+            }
+        }
+        String ascii = separator + (char) LINE_FEED + (char) CARRIAGE_RETURN;
+        if (!Arrays.equals(ascii.getBytes(charset), ascii.getBytes(Charset.forName("US-ASCII")))) { //$NON-NLS-1$
+            return false;
+        }
+        return "UTF-8".equals(charset.name()) || charset.newEncoder().maxBytesPerChar() == 1; //$NON-NLS-1$
+    }
+
+    /**
+     * Method "startsWithByteOrderMark".
+     *
+     * @param file a file
+     * @return true when the file starts with a UTF-8 byte order mark, which would be read in the first field
+     * @throws IOException
+     */
+    static boolean startsWithByteOrderMark(File file) throws IOException {
+        byte[] start = new byte[UTF8_BOM.length];
+        RandomAccessFile input = new RandomAccessFile(file, "r"); //$NON-NLS-1$
+        try {
+            return input.length() >= start.length && input.read(start) == start.length && Arrays.equals(start, UTF8_BOM);
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Method "skipRecords".
+     *
+     * @param count the number of rows to skip at the beginning of the file (the header)
+     * @return the position of the first record after these rows
+     * @throws IOException
+     */
+    public long skipRecords(int count) throws IOException {
+        long position = 0L;
+        for (int i = 0; i < count && position < channel.size(); i++) {
+            position = nextRecord(position);
+        }
+        return position;
+    }
+
+    /**
+     * Method "split".
+     *
+     * @param from the position of the first record
+     * @param chunkSize the size of the chunks, a chunk is larger when a record does not end in it
+     * @return the start and end positions of the chunks, each chunk ending with a record
+     * @throws IOException
+     */
+    public List<long[]> split(long from, long chunkSize) throws IOException {
+        List<long[]> chunks = new ArrayList<long[]>();
+        long size = channel.size();
+        long start = from;
+        while (start < size) {
+            long end = start + chunkSize >= size ? size : nextRecord(start + chunkSize - 1);
+            chunks.add(new long[] { start, end });
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Method "read" reads the records of a chunk.
+     *
+     * @param from the start position of the chunk
+     * @param to the end position of the chunk
+     * @param columns true for the position of each field to read
+     * @param limit the maximum number of records to read
+     * @param handler the handler of the records
+     * @return the number of records read, -1 when the handler has stopped the reading
+     * @throws IOException
+     */
+    public long read(long from, long to, boolean[] columns, long limit, RecordHandler handler) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        int length = buffer.limit();
+        int separatorLength = fieldSeparator.length;
+        byte firstSeparatorByte = fieldSeparator[0];
+        byte[] bytes = new byte[SCAN_BUFFER_SIZE];
+        String[] fields = new String[columns.length];
+        long count = 0L;
+        int position = 0;
+        while (position < length && count < limit) {
+            int end = position;
+            while (end < length && buffer.get(end) != LINE_FEED) {
+                end++;
+            }
+            int next = end + 1;
+            if (end > position && buffer.get(end - 1) == CARRIAGE_RETURN) {
+                end--;
+            }
+            if (end == position && skipEmptyRows) {
+                position = next;
+                continue;
+            }
+            Arrays.fill(fields, null);
+            int field = 0;
+            int fieldStart = position;
+            int i = position;
+            while (field < columns.length) {
+                if (i < end && (buffer.get(i) != firstSeparatorByte || !isSeparator(buffer, i, end))) {
+                    i++;
+                    continue;
+                }
+                if (columns[field]) {
+                    int fieldLength = i - fieldStart;
+                    if (fieldLength > bytes.length) {
+                        bytes = new byte[Math.max(fieldLength, bytes.length * 2)];
+                    }
+                    buffer.position(fieldStart);
+                    buffer.get(bytes, 0, fieldLength);
+                    fields[field] = new String(bytes, 0, fieldLength, charset);
+                }
+                if (i >= end) {
+                    break;
+                }
+                field++;
+                i += separatorLength;
+                fieldStart = i;
+            }
+            count++;
+            if (!handler.handle(fields, from + position)) {
+                return -1L;
+            }
+            position = next;
+        }
+        return count;
+    }
+
+    private boolean isSeparator(ByteBuffer buffer, int index, int end) {
+        if (index + fieldSeparator.length > end) {
+            return false;
+        }
+        for (int j = 1; j < fieldSeparator.length; j++) {
+            if (buffer.get(index + j) != fieldSeparator[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method "nextRecord".
+     *
+     * @param position a position in the file
+     * @return the position after the next line feed, or the size of the file
+     * @throws IOException
+     */
+    private long nextRecord(long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long current = position;
+        int read;
+        while ((read = channel.read(buffer, current)) > 0) {
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == LINE_FEED) {
+                    return current + i + 1;
+                }
+            }
+            current += read;
+            buffer.clear();
+        }
+        return channel.size();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -79,6 +79,7 @@ public class ProxyRepositoryManager {
      * DOC qiongli Comment method "refresh".
      */
     public void refresh() {
+        RepositoryNodeIndex.clear();
         try {
             ProxyRepositoryFactory.getInstance().initialize();
         } catch (PersistenceException e) {
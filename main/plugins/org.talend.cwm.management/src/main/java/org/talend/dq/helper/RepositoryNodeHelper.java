@@ -989,7 +989,7 @@ public final class RepositoryNodeHelper {
      * @param modelElement
      * @return
      */
-    public static RuleRepNode recursiveFindRuleParser(ParserRule rule) {
+    public static RuleRepNode recursiveFindRuleParser(final ParserRule rule) {
         if (rule == null) {
             return null;
         }
@@ -997,16 +997,18 @@ public final class RepositoryNodeHelper {
         if (uuid == null) {
             return null;
         }
-        IRepositoryNode librariesFolderNode = getParserRuleFolderNode(rule);
-        List<RuleRepNode> ruleRepNodes = getRuleRepNodes(librariesFolderNode, true, true);
-        if (ruleRepNodes.size() > 0) {
-            for (RuleRepNode childNode : ruleRepNodes) {
-                if (uuid.equals(getUUID(childNode.getRule()))) {
-                    return childNode;
-                }
+        return findIndexedNode(uuid, RuleRepNode.class, new NodeSearch<RuleRepNode>() {
+
+            @Override
+            public List<? extends IRepositoryNode> getNodes() {
+                return getRuleRepNodes(getParserRuleFolderNode(rule), true, true);
             }
-        }
-        return null;
+
+            @Override
+            public EObject getModelElement(RuleRepNode node) {
+                return node.getRule();
+            }
+        });
     }
 
     /**
@@ -1030,7 +1032,7 @@ public final class RepositoryNodeHelper {
      * @param modelElement
      * @return
      */
-    public static RuleRepNode recursiveFindMatcherRule(MatchRuleDefinition rule) {
+    public static RuleRepNode recursiveFindMatcherRule(final MatchRuleDefinition rule) {
         if (rule == null) {
             return null;
         }
@@ -1038,16 +1040,18 @@ public final class RepositoryNodeHelper {
         if (uuid == null) {
             return null;
         }
-        IRepositoryNode librariesFolderNode = getMatchRuleFolderNode(rule);
-        List<RuleRepNode> ruleRepNodes = getRuleRepNodes(librariesFolderNode, true, true);
-        if (ruleRepNodes.size() > 0) {
-            for (RuleRepNode childNode : ruleRepNodes) {
-                if (uuid.equals(getUUID(childNode.getRule()))) {
-                    return childNode;
-                }
+        return findIndexedNode(uuid, RuleRepNode.class, new NodeSearch<RuleRepNode>() {
+
+            @Override
+            public List<? extends IRepositoryNode> getNodes() {
+                return getRuleRepNodes(getMatchRuleFolderNode(rule), true, true);
             }
-        }
-        return null;
+
+            @Override
+            public EObject getModelElement(RuleRepNode node) {
+                return node.getRule();
+            }
+        });
     }
 
     /**
@@ -1227,7 +1231,7 @@ public final class RepositoryNodeHelper {
         return result;
     }
 
-    public static DBConnectionRepNode recursiveFindDatabaseConnection(DatabaseConnection dbConn) {
+    public static DBConnectionRepNode recursiveFindDatabaseConnection(final DatabaseConnection dbConn) {
         if (dbConn == null) {
             return null;
         }
@@ -1235,18 +1239,18 @@ public final class RepositoryNodeHelper {
         if (uuid == null) {
             return null;
         }
+        return findIndexedNode(uuid, DBConnectionRepNode.class, new NodeSearch<DBConnectionRepNode>() {
 
-        IRepositoryNode MetadataDBConnectionFolderNode = getMetadataDBConnectionFolderNode(dbConn);
-        List<DBConnectionRepNode> dbConnectionRepNodes =
-                getDBConnectionRepNodes(MetadataDBConnectionFolderNode, true, true);
-        if (dbConnectionRepNodes.size() > 0) {
-            for (DBConnectionRepNode childNode : dbConnectionRepNodes) {
-                if (uuid.equals(getUUID(childNode.getDatabaseConnection()))) {
-                    return childNode;
-                }
+            @Override
+            public List<? extends IRepositoryNode> getNodes() {
+                return getDBConnectionRepNodes(getMetadataDBConnectionFolderNode(dbConn), true, true);
             }
-        }
-        return null;
+
+            @Override
+            public EObject getModelElement(DBConnectionRepNode node) {
+                return node.getDatabaseConnection();
+            }
+        });
     }
 
     /**
@@ -1264,7 +1268,7 @@ public final class RepositoryNodeHelper {
         }
     }
 
-    public static DFConnectionRepNode recursiveFindDFConnection(DelimitedFileConnection dfConn) {
+    public static DFConnectionRepNode recursiveFindDFConnection(final DelimitedFileConnection dfConn) {
         if (dfConn == null) {
             return null;
         }
@@ -1272,18 +1276,18 @@ public final class RepositoryNodeHelper {
         if (uuid == null) {
             return null;
         }
+        return findIndexedNode(uuid, DFConnectionRepNode.class, new NodeSearch<DFConnectionRepNode>() {
 
-        IRepositoryNode MetadataFileDelimitedFolderNode = getMetadataFileDelimitedFolderNode(dfConn);
-        List<DFConnectionRepNode> dfConnectionRepNodes =
-                getDFConnectionRepNodes(MetadataFileDelimitedFolderNode, true, true);
-        if (dfConnectionRepNodes.size() > 0) {
-            for (DFConnectionRepNode childNode : dfConnectionRepNodes) {
-                if (uuid.equals(getUUID(childNode.getDfConnection()))) {
-                    return childNode;
-                }
+            @Override
+            public List<? extends IRepositoryNode> getNodes() {
+                return getDFConnectionRepNodes(getMetadataFileDelimitedFolderNode(dfConn), true, true);
             }
-        }
-        return null;
+
+            @Override
+            public EObject getModelElement(DFConnectionRepNode node) {
+                return node.getDfConnection();
+            }
+        });
     }
 
     /**
@@ -1328,7 +1332,7 @@ public final class RepositoryNodeHelper {
         return null;
     }
 
-    public static AnalysisRepNode recursiveFindAnalysis(Analysis analysis) {
+    public static AnalysisRepNode recursiveFindAnalysis(final Analysis analysis) {
         if (analysis == null) {
             return null;
         }
@@ -1336,18 +1340,19 @@ public final class RepositoryNodeHelper {
         if (uuid == null) {
             return null;
         }
+        return findIndexedNode(uuid, AnalysisRepNode.class, new NodeSearch<AnalysisRepNode>() {
 
-        IRepositoryNode DataProfilingAnalysisFolderNode = getDataProfilingAnalysisFolderNode(analysis);
-        // MOD qiongli 2011-4-6,bug 20218,add parameter withDeleted(true), contain child is in recycle bin.
-        List<AnalysisRepNode> analysisRepNodes = getAnalysisRepNodes(DataProfilingAnalysisFolderNode, true, true);
-        if (analysisRepNodes.size() > 0) {
-            for (AnalysisRepNode childNode : analysisRepNodes) {
-                if (uuid.equals(getUUID(childNode.getAnalysis()))) {
-                    return childNode;
-                }
+            @Override
+            public List<? extends IRepositoryNode> getNodes() {
+                // MOD qiongli 2011-4-6,bug 20218,add parameter withDeleted(true), contain child is in recycle bin.
+                return getAnalysisRepNodes(getDataProfilingAnalysisFolderNode(analysis), true, true);
             }
-        }
-        return null;
+
+            @Override
+            public EObject getModelElement(AnalysisRepNode node) {
+                return node.getAnalysis();
+            }
+        });
     }
 
     /**
@@ -1428,7 +1433,7 @@ public final class RepositoryNodeHelper {
         return new org.talend.core.model.general.Project(project);
     }
 
-    public static ReportRepNode recursiveFindReport(Report report) {
+    public static ReportRepNode recursiveFindReport(final Report report) {
         if (report == null) {
             return null;
         }
@@ -1436,17 +1441,18 @@ public final class RepositoryNodeHelper {
         if (uuid == null) {
             return null;
         }
+        return findIndexedNode(uuid, ReportRepNode.class, new NodeSearch<ReportRepNode>() {
 
-        IRepositoryNode DataProfilingReportFolderNode = getDataProfilingReportFolderNode(report);
-        List<ReportRepNode> reportRepNodes = getReportRepNodes(DataProfilingReportFolderNode, true, true);
-        if (reportRepNodes.size() > 0) {
-            for (ReportRepNode childNode : reportRepNodes) {
-                if (uuid.equals(getUUID(childNode.getReport()))) {
-                    return childNode;
-                }
+            @Override
+            public List<? extends IRepositoryNode> getNodes() {
+                return getReportRepNodes(getDataProfilingReportFolderNode(report), true, true);
             }
-        }
-        return null;
+
+            @Override
+            public EObject getModelElement(ReportRepNode node) {
+                return node.getReport();
+            }
+        });
     }
 
     /**
@@ -1464,7 +1470,7 @@ public final class RepositoryNodeHelper {
         }
     }
 
-    public static SysIndicatorDefinitionRepNode recursiveFindIndicatorDefinition(IndicatorDefinition indDef) {
+    public static SysIndicatorDefinitionRepNode recursiveFindIndicatorDefinition(final IndicatorDefinition indDef) {
         if (indDef == null) {
             return null;
         }
@@ -1472,34 +1478,38 @@ public final class RepositoryNodeHelper {
         if (uuid == null) {
             return null;
         }
-
-        List<SysIndicatorDefinitionRepNode> indicatorDefinitionRepNodes;
-        if (ProxyRepositoryManager.getInstance().isMergeRefProject()) {
-            indicatorDefinitionRepNodes =
-                    getIndicatorDefinitionRepNodes(getLibrariesFolderNode(EResourceConstant.SYSTEM_INDICATORS), true,
-                            true);
-            indicatorDefinitionRepNodes.addAll(getIndicatorDefinitionRepNodes(
-                    getLibrariesFolderNode(EResourceConstant.USER_DEFINED_INDICATORS), true, true));
-        } else {
-            Project inWhichProject = getInWhichProject(indDef);
-            indicatorDefinitionRepNodes =
-                    getIndicatorDefinitionRepNodes(
-                            getLibrariesFolderNode(EResourceConstant.SYSTEM_INDICATORS, inWhichProject), true, true);
-            indicatorDefinitionRepNodes.addAll(getIndicatorDefinitionRepNodes(
-                    getLibrariesFolderNode(EResourceConstant.USER_DEFINED_INDICATORS, inWhichProject), true, true));
-        }
-
-        if (indicatorDefinitionRepNodes.size() > 0) {
-            for (SysIndicatorDefinitionRepNode childNode : indicatorDefinitionRepNodes) {
-                if (uuid.equals(getUUID(childNode.getIndicatorDefinition()))) {
-                    return childNode;
+        return findIndexedNode(uuid, SysIndicatorDefinitionRepNode.class, new NodeSearch<SysIndicatorDefinitionRepNode>() {
+
+            @Override
+            public List<? extends IRepositoryNode> getNodes() {
+                List<SysIndicatorDefinitionRepNode> indicatorDefinitionRepNodes;
+                if (ProxyRepositoryManager.getInstance().isMergeRefProject()) {
+                    indicatorDefinitionRepNodes =
+                            getIndicatorDefinitionRepNodes(getLibrariesFolderNode(EResourceConstant.SYSTEM_INDICATORS),
+                                    true, true);
+                    indicatorDefinitionRepNodes.addAll(getIndicatorDefinitionRepNodes(
+                            getLibrariesFolderNode(EResourceConstant.USER_DEFINED_INDICATORS), true, true));
+                } else {
+                    Project inWhichProject = getInWhichProject(indDef);
+                    indicatorDefinitionRepNodes =
+                            getIndicatorDefinitionRepNodes(
+                                    getLibrariesFolderNode(EResourceConstant.SYSTEM_INDICATORS, inWhichProject), true,
+                                    true);
+                    indicatorDefinitionRepNodes.addAll(getIndicatorDefinitionRepNodes(
+                            getLibrariesFolderNode(EResourceConstant.USER_DEFINED_INDICATORS, inWhichProject), true,
+                            true));
                 }
+                return indicatorDefinitionRepNodes;
             }
-        }
-        return null;
+
+            @Override
+            public EObject getModelElement(SysIndicatorDefinitionRepNode node) {
+                return node.getIndicatorDefinition();
+            }
+        });
     }
 
-    public static PatternRepNode recursiveFindPattern(Pattern pattern) {
+    public static PatternRepNode recursiveFindPattern(final Pattern pattern) {
         if (pattern == null) {
             return null;
         }
@@ -1507,32 +1517,35 @@ public final class RepositoryNodeHelper {
         if (uuid == null) {
             return null;
         }
+        return findIndexedNode(uuid, PatternRepNode.class, new NodeSearch<PatternRepNode>() {
 
-        List<PatternRepNode> patternRepNodes;
-        if (ProxyRepositoryManager.getInstance().isMergeRefProject()) {
-            patternRepNodes = getPatternRepNodes(getLibrariesFolderNode(EResourceConstant.PATTERN_REGEX), true, true);
-            patternRepNodes
-                    .addAll(getPatternRepNodes(getLibrariesFolderNode(EResourceConstant.PATTERN_SQL), true, true));
-        } else {
-            Project inWhichProject = getInWhichProject(pattern);
-            patternRepNodes =
-                    getPatternRepNodes(getLibrariesFolderNode(EResourceConstant.PATTERN_REGEX, inWhichProject), true,
-                            true);
-            patternRepNodes.addAll(getPatternRepNodes(
-                    getLibrariesFolderNode(EResourceConstant.PATTERN_SQL, inWhichProject), true, true));
-        }
-
-        if (patternRepNodes.size() > 0) {
-            for (PatternRepNode childNode : patternRepNodes) {
-                if (uuid.equals(getUUID(childNode.getPattern()))) {
-                    return childNode;
+            @Override
+            public List<? extends IRepositoryNode> getNodes() {
+                List<PatternRepNode> patternRepNodes;
+                if (ProxyRepositoryManager.getInstance().isMergeRefProject()) {
+                    patternRepNodes =
+                            getPatternRepNodes(getLibrariesFolderNode(EResourceConstant.PATTERN_REGEX), true, true);
+                    patternRepNodes.addAll(getPatternRepNodes(getLibrariesFolderNode(EResourceConstant.PATTERN_SQL),
+                            true, true));
+                } else {
+                    Project inWhichProject = getInWhichProject(pattern);
+                    patternRepNodes =
+                            getPatternRepNodes(getLibrariesFolderNode(EResourceConstant.PATTERN_REGEX, inWhichProject),
+                                    true, true);
+                    patternRepNodes.addAll(getPatternRepNodes(
+                            getLibrariesFolderNode(EResourceConstant.PATTERN_SQL, inWhichProject), true, true));
                 }
+                return patternRepNodes;
             }
-        }
-        return null;
+
+            @Override
+            public EObject getModelElement(PatternRepNode node) {
+                return node.getPattern();
+            }
+        });
     }
 
-    public static RuleRepNode recursiveFindRuleSql(DQRule rule) {
+    public static RuleRepNode recursiveFindRuleSql(final DQRule rule) {
         if (rule == null) {
             return null;
         }
@@ -1540,17 +1553,18 @@ public final class RepositoryNodeHelper {
         if (uuid == null) {
             return null;
         }
+        return findIndexedNode(uuid, RuleRepNode.class, new NodeSearch<RuleRepNode>() {
 
-        IRepositoryNode ruleSQLFolderNode = getRuleSQLFolderNode(rule);
-        List<RuleRepNode> ruleRepNodes = getRuleRepNodes(ruleSQLFolderNode, true, true);
-        if (ruleRepNodes.size() > 0) {
-            for (RuleRepNode childNode : ruleRepNodes) {
-                if (uuid.equals(getUUID(childNode.getRule()))) {
-                    return childNode;
-                }
+            @Override
+            public List<? extends IRepositoryNode> getNodes() {
+                return getRuleRepNodes(getRuleSQLFolderNode(rule), true, true);
             }
-        }
-        return null;
+
+            @Override
+            public EObject getModelElement(RuleRepNode node) {
+                return node.getRule();
+            }
+        });
     }
 
     /**
@@ -1568,7 +1582,7 @@ public final class RepositoryNodeHelper {
         }
     }
 
-    public static DBCatalogRepNode recursiveFindCatalog(Catalog catalog) {
+    public static DBCatalogRepNode recursiveFindCatalog(final Catalog catalog) {
         if (catalog == null) {
             return null;
         }
@@ -1576,26 +1590,19 @@ public final class RepositoryNodeHelper {
         if (uuidCatalog == null) {
             return null;
         }
+        return findIndexedNode(uuidCatalog, DBCatalogRepNode.class, new NodeSearch<DBCatalogRepNode>() {
 
-        IRepositoryNode connNode = recursiveFind(ConnectionHelper.getTdDataProvider(catalog));
-        if (connNode == null) {
-            return null;
-        }
-        List<IRepositoryNode> children = connNode.getChildren();
-        if (children.size() > 0) {
-            IRepositoryNode iRepositoryNode = children.get(0);
-            if (iRepositoryNode != null && iRepositoryNode instanceof DBCatalogRepNode) {
-                for (IRepositoryNode childNode : children) {
-                    if (childNode != null && childNode instanceof DBCatalogRepNode) {
-                        DBCatalogRepNode dbCatalogRepNode = (DBCatalogRepNode) childNode;
-                        if (uuidCatalog.equals(getUUID(dbCatalogRepNode.getCatalog()))) {
-                            return dbCatalogRepNode;
-                        }
-                    }
-                }
+            @Override
+            public List<? extends IRepositoryNode> getNodes() {
+                IRepositoryNode connNode = recursiveFind(ConnectionHelper.getTdDataProvider(catalog));
+                return getChildren(connNode, DBCatalogRepNode.class);
             }
-        }
-        return null;
+
+            @Override
+            public EObject getModelElement(DBCatalogRepNode node) {
+                return node.getCatalog();
+            }
+        });
     }
 
     /**
@@ -1613,7 +1620,87 @@ public final class RepositoryNodeHelper {
         return ResourceHelper.getUUID(object);
     }
 
-    public static DBSchemaRepNode recursiveFindSchema(Schema schema) {
+    /**
+     * The search of the node of a model element among the nodes of its folder or of its parent node.
+     */
+    private interface NodeSearch<T extends IRepositoryNode> {
+
+        /**
+         * @return the nodes where the node is searched, null when there is none
+         */
+        List<? extends IRepositoryNode> getNodes();
+
+        /**
+         * @return the model element of a node found by the search
+         */
+        EObject getModelElement(T node);
+    }
+
+    /**
+     * The search of a schema among the children of its catalog or of its connection.
+     */
+    private abstract static class SchemaSearch implements NodeSearch<DBSchemaRepNode> {
+
+        @Override
+        public EObject getModelElement(DBSchemaRepNode node) {
+            return node.getSchema();
+        }
+    }
+
+    /**
+     * Method "findIndexedNode" returns the node of a model element from the {@link RepositoryNodeIndex}, or searches it
+     * and adds all the nodes visited by the search to the index.
+     *
+     * @param uuid the UUID of the model element
+     * @param nodeClass the class of the node of the model element
+     * @param search the search of the node
+     * @return the node of the model element, or null when it is not found
+     */
+    private static <T extends IRepositoryNode> T findIndexedNode(String uuid, Class<T> nodeClass,
+            NodeSearch<T> search) {
+        T indexedNode = RepositoryNodeIndex.get(uuid, nodeClass);
+        if (indexedNode != null) {
+            return indexedNode;
+        }
+        long generation = RepositoryNodeIndex.getGeneration();
+        List<? extends IRepositoryNode> nodes = search.getNodes();
+        if (nodes == null) {
+            return null;
+        }
+        for (IRepositoryNode node : nodes) {
+            if (nodeClass.isInstance(node)) {
+                T childNode = nodeClass.cast(node);
+                EObject modelElement = search.getModelElement(childNode);
+                String childUuid = getUUID(modelElement);
+                RepositoryNodeIndex.put(childUuid, modelElement, childNode, generation);
+                if (uuid.equals(childUuid)) {
+                    return childNode;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Method "getChildren".
+     *
+     * @param parentNode a node, can be null
+     * @param nodeClass the class of the expected children
+     * @return the children of the node when its first child is of the expected class, null otherwise
+     */
+    private static List<IRepositoryNode> getChildren(IRepositoryNode parentNode,
+            Class<? extends IRepositoryNode> nodeClass) {
+        if (parentNode == null) {
+            return null;
+        }
+        List<IRepositoryNode> children = parentNode.getChildren();
+        if (children == null || children.isEmpty() || !nodeClass.isInstance(children.get(0))) {
+            return null;
+        }
+        return children;
+    }
+
+    public static DBSchemaRepNode recursiveFindSchema(final Schema schema) {
         if (schema == null) {
             return null;
         }
@@ -1621,47 +1708,33 @@ public final class RepositoryNodeHelper {
         if (uuidSchema == null) {
             return null;
         }
-        Catalog catalog = CatalogHelper.getParentCatalog(schema);
+        DBSchemaRepNode schemaNode = null;
+        final Catalog catalog = CatalogHelper.getParentCatalog(schema);
         // Schema's parent is catalog (MS SQL Server)
         if (catalog != null) {
-            DBCatalogRepNode catalogNode = recursiveFindCatalog(catalog);
-            List<IRepositoryNode> children = catalogNode.getChildren();
-            if (children.size() > 0) {
-                IRepositoryNode iRepositoryNode = children.get(0);
-                if (iRepositoryNode != null && iRepositoryNode instanceof DBSchemaRepNode) {
-                    for (IRepositoryNode childNode : children) {
-                        if (childNode != null && childNode instanceof DBSchemaRepNode) {
-                            DBSchemaRepNode dbSchemaRepNode = (DBSchemaRepNode) childNode;
-                            if (uuidSchema.equals(getUUID(dbSchemaRepNode.getSchema()))) {
-                                return dbSchemaRepNode;
-                            }
-                        }
-                    }
+            schemaNode = findIndexedNode(uuidSchema, DBSchemaRepNode.class, new SchemaSearch() {
+
+                @Override
+                public List<? extends IRepositoryNode> getNodes() {
+                    return getChildren(recursiveFindCatalog(catalog), DBSchemaRepNode.class);
                 }
-            }
+            });
         }
-        // schema's parent is connection (e.g Oracle)
-        IRepositoryNode connNode = recursiveFind(ConnectionHelper.getTdDataProvider(schema));
-        if (connNode != null) {
-            List<IRepositoryNode> children = connNode.getChildren();
-            if (children.size() > 0) {
-                IRepositoryNode iRepositoryNode = children.get(0);
-                if (iRepositoryNode != null && iRepositoryNode instanceof DBSchemaRepNode) {
-                    for (IRepositoryNode childNode : children) {
-                        if (childNode != null && childNode instanceof DBSchemaRepNode) {
-                            DBSchemaRepNode dbSchemaRepNode = (DBSchemaRepNode) childNode;
-                            if (uuidSchema.equals(getUUID(dbSchemaRepNode.getSchema()))) {
-                                return dbSchemaRepNode;
-                            }
-                        }
-                    }
+        if (schemaNode == null) {
+            // schema's parent is connection (e.g Oracle)
+            schemaNode = findIndexedNode(uuidSchema, DBSchemaRepNode.class, new SchemaSearch() {
+
+                @Override
+                public List<? extends IRepositoryNode> getNodes() {
+                    IRepositoryNode connNode = recursiveFind(ConnectionHelper.getTdDataProvider(schema));
+                    return getChildren(connNode, DBSchemaRepNode.class);
                 }
-            }
+            });
         }
-        return null;
+        return schemaNode;
     }
 
-    public static DBTableRepNode recursiveFindTdTable(TdTable tdTable) {
+    public static DBTableRepNode recursiveFindTdTable(final TdTable tdTable) {
         if (tdTable == null) {
             return null;
         }
@@ -1669,32 +1742,25 @@ public final class RepositoryNodeHelper {
         if (uuidTdTable == null) {
             return null;
         }
-        IRepositoryNode schemaOrCatalogNode = recursiveFind(ColumnSetHelper.getParentCatalogOrSchema(tdTable));
-        if (schemaOrCatalogNode == null) {
-            return null;
-        }
-        List<IRepositoryNode> childrens = schemaOrCatalogNode.getChildren();
-        List<IRepositoryNode> children = null;
-        if (!childrens.isEmpty()) {
-            children = childrens.get(0).getChildren();
-        }
-        if (null != children && children.size() > 0) {
-            IRepositoryNode iRepositoryNode = children.get(0);
-            if (iRepositoryNode != null && iRepositoryNode instanceof DBTableRepNode) {
-                for (IRepositoryNode childNode : children) {
-                    if (childNode != null && childNode instanceof DBTableRepNode) {
-                        DBTableRepNode dbTableRepNode = (DBTableRepNode) childNode;
-                        if (uuidTdTable.equals(getUUID(dbTableRepNode.getTdTable()))) {
-                            return dbTableRepNode;
-                        }
-                    }
+        return findIndexedNode(uuidTdTable, DBTableRepNode.class, new NodeSearch<DBTableRepNode>() {
+
+            @Override
+            public List<? extends IRepositoryNode> getNodes() {
+                IRepositoryNode schemaOrCatalogNode = recursiveFind(ColumnSetHelper.getParentCatalogOrSchema(tdTable));
+                if (schemaOrCatalogNode == null || schemaOrCatalogNode.getChildren().isEmpty()) {
+                    return null;
                 }
+                return getChildren(schemaOrCatalogNode.getChildren().get(0), DBTableRepNode.class);
             }
-        }
-        return null;
+
+            @Override
+            public EObject getModelElement(DBTableRepNode node) {
+                return node.getTdTable();
+            }
+        });
     }
 
-    public static DBViewRepNode recursiveFindTdView(TdView tdView) {
+    public static DBViewRepNode recursiveFindTdView(final TdView tdView) {
         if (tdView == null) {
             return null;
         }
@@ -1702,28 +1768,25 @@ public final class RepositoryNodeHelper {
         if (uuidTdView == null) {
             return null;
         }
-        IRepositoryNode schemaOrCatalogNode = recursiveFind(ColumnSetHelper.getParentCatalogOrSchema(tdView));
-        if (schemaOrCatalogNode == null) {
-            return null;
-        }
-        List<IRepositoryNode> children = schemaOrCatalogNode.getChildren().get(1).getChildren();
-        if (children.size() > 0) {
-            IRepositoryNode iRepositoryNode = children.get(0);
-            if (iRepositoryNode != null && iRepositoryNode instanceof DBViewRepNode) {
-                for (IRepositoryNode childNode : children) {
-                    if (childNode != null && childNode instanceof DBViewRepNode) {
-                        DBViewRepNode dbViewRepNode = (DBViewRepNode) childNode;
-                        if (uuidTdView.equals(getUUID(dbViewRepNode.getTdView()))) {
-                            return dbViewRepNode;
-                        }
-                    }
+        return findIndexedNode(uuidTdView, DBViewRepNode.class, new NodeSearch<DBViewRepNode>() {
+
+            @Override
+            public List<? extends IRepositoryNode> getNodes() {
+                IRepositoryNode schemaOrCatalogNode = recursiveFind(ColumnSetHelper.getParentCatalogOrSchema(tdView));
+                if (schemaOrCatalogNode == null) {
+                    return null;
                 }
+                return getChildren(schemaOrCatalogNode.getChildren().get(1), DBViewRepNode.class);
             }
-        }
-        return null;
+
+            @Override
+            public EObject getModelElement(DBViewRepNode node) {
+                return node.getTdView();
+            }
+        });
     }
 
-    public static DBColumnRepNode recursiveFindTdColumn(TdColumn tdColumn) {
+    public static DBColumnRepNode recursiveFindTdColumn(final TdColumn tdColumn) {
         if (tdColumn == null) {
             return null;
         }
@@ -1732,36 +1795,31 @@ public final class RepositoryNodeHelper {
         if (uuidTdColumn == null) {
             return null;
         }
-        IRepositoryNode columnSetNode = recursiveFind(ColumnHelper.getColumnOwnerAsColumnSet(tdColumn));
-        if (columnSetNode == null) {
-            return null;
-        }
-        // MOD gdbu 2011-7-18 bug 23161
-        List<IRepositoryNode> childrens = columnSetNode.getChildren();
-        if (childrens.size() == 0) {
-            return null;
-        }
+        return findIndexedNode(uuidTdColumn, DBColumnRepNode.class, new NodeSearch<DBColumnRepNode>() {
 
-        List<IRepositoryNode> children = childrens.get(0).getChildren();
-        if (children.size() == 0) {
-            return null;
-        }
-        // ~23161
-        IRepositoryNode iRepositoryNode = children.get(0);
-        if (iRepositoryNode != null && iRepositoryNode instanceof DBColumnRepNode) {
-            for (IRepositoryNode childNode : children) {
-                if (childNode != null && childNode instanceof DBColumnRepNode) {
-                    DBColumnRepNode dbColumnRepNode = (DBColumnRepNode) childNode;
-                    if (uuidTdColumn.equals(getUUID(dbColumnRepNode.getTdColumn()))) {
-                        return dbColumnRepNode;
-                    }
+            @Override
+            public List<? extends IRepositoryNode> getNodes() {
+                IRepositoryNode columnSetNode = recursiveFind(ColumnHelper.getColumnOwnerAsColumnSet(tdColumn));
+                if (columnSetNode == null) {
+                    return null;
                 }
+                // MOD gdbu 2011-7-18 bug 23161
+                List<IRepositoryNode> childrens = columnSetNode.getChildren();
+                if (childrens.size() == 0) {
+                    return null;
+                }
+                // ~23161
+                return getChildren(childrens.get(0), DBColumnRepNode.class);
             }
-        }
-        return null;
+
+            @Override
+            public EObject getModelElement(DBColumnRepNode node) {
+                return node.getTdColumn();
+            }
+        });
     }
 
-    public static DFTableRepNode recursiveFindMetadataTable(MetadataTable metadataTable) {
+    public static DFTableRepNode recursiveFindMetadataTable(final MetadataTable metadataTable) {
         if (metadataTable == null) {
             return null;
         }
@@ -1769,29 +1827,30 @@ public final class RepositoryNodeHelper {
         if (uuidMetadataTable == null) {
             return null;
         }
-        if (metadataTable.getNamespace() instanceof RecordFile) {
-            Connection tdDataProvider = ConnectionHelper.getTdDataProvider(metadataTable);
-            if (tdDataProvider != null) {
-                IRepositoryNode connNode = recursiveFind(tdDataProvider);
-                if (connNode != null) {
-                    List<IRepositoryNode> children = connNode.getChildren();
-                    if (children.size() > 0) {
-                        for (IRepositoryNode childNode : children) {
-                            if (childNode != null && childNode instanceof DFTableRepNode) {
-                                DFTableRepNode dfTableRepNode = (DFTableRepNode) childNode;
-                                if (uuidMetadataTable.equals(getUUID(dfTableRepNode.getMetadataTable()))) {
-                                    return dfTableRepNode;
-                                }
-                            }
+        return findIndexedNode(uuidMetadataTable, DFTableRepNode.class, new NodeSearch<DFTableRepNode>() {
+
+            @Override
+            public List<? extends IRepositoryNode> getNodes() {
+                if (metadataTable.getNamespace() instanceof RecordFile) {
+                    Connection tdDataProvider = ConnectionHelper.getTdDataProvider(metadataTable);
+                    if (tdDataProvider != null) {
+                        IRepositoryNode connNode = recursiveFind(tdDataProvider);
+                        if (connNode != null) {
+                            return connNode.getChildren();
                         }
                     }
                 }
+                return null;
             }
-        }
-        return null;
+
+            @Override
+            public EObject getModelElement(DFTableRepNode node) {
+                return node.getMetadataTable();
+            }
+        });
     }
 
-    public static DFColumnRepNode recursiveFindMetadataColumn(MetadataColumn metadataColumn) {
+    public static DFColumnRepNode recursiveFindMetadataColumn(final MetadataColumn metadataColumn) {
         if (metadataColumn == null) {
             return null;
         }
@@ -1799,22 +1858,23 @@ public final class RepositoryNodeHelper {
         if (uuidMetadataColumn == null) {
             return null;
         }
-        IRepositoryNode columnSetNode = recursiveFind(ColumnHelper.getColumnOwnerAsMetadataTable(metadataColumn));
-        if (columnSetNode == null) {
-            return null;
-        }
-        List<IRepositoryNode> children = columnSetNode.getChildren().get(0).getChildren();
-        if (children.size() > 0) {
-            for (IRepositoryNode childNode : children) {
-                if (childNode != null && childNode instanceof DFColumnRepNode) {
-                    DFColumnRepNode dfColumnRepNode = (DFColumnRepNode) childNode;
-                    if (uuidMetadataColumn.equals(getUUID(dfColumnRepNode.getMetadataColumn()))) {
-                        return dfColumnRepNode;
-                    }
+        return findIndexedNode(uuidMetadataColumn, DFColumnRepNode.class, new NodeSearch<DFColumnRepNode>() {
+
+            @Override
+            public List<? extends IRepositoryNode> getNodes() {
+                IRepositoryNode columnSetNode =
+                        recursiveFind(ColumnHelper.getColumnOwnerAsMetadataTable(metadataColumn));
+                if (columnSetNode == null) {
+                    return null;
                 }
+                return columnSetNode.getChildren().get(0).getChildren();
             }
-        }
-        return null;
+
+            @Override
+            public EObject getModelElement(DFColumnRepNode node) {
+                return node.getMetadataColumn();
+            }
+        });
     }
 
     /**
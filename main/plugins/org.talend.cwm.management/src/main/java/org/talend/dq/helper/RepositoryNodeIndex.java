@@ -0,0 +1,305 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.helper;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.talend.dq.nodes.DQRepositoryNode;
+import org.talend.repository.model.IRepositoryNode;
+
+/**
+ * The repository nodes already found by the "recursiveFind" methods of {@link RepositoryNodeHelper}, by the UUID of
+ * their model element. A node found in the index is returned without building again all the nodes of its folder.
+ * <p>
+ * The repository items are created, saved, moved and deleted through the files of the workspace. Each node is indexed
+ * with the workspace path of the file of its model element, without the file extension so that the item file and its
+ * property file have the same path. When resources of the workspace change, only the nodes of the changed files are
+ * removed from the index. The nodes whose model element is not in a workspace file are removed on each change. The
+ * index is not used while the repository view is filtered, nor when the workspace cannot be listened to.
+ * <p>
+ * A node is also checked when it is found: it is removed from the index when its model element has been unloaded or
+ * is no longer in the file it was indexed with, as it happens when the item is reloaded without a workspace change.
+ */
+public final class RepositoryNodeIndex {
+
+    private static Logger log = Logger.getLogger(RepositoryNodeIndex.class);
+
+    /**
+     * The path of the nodes whose model element is not in a workspace file.
+     */
+    private static final String NO_PATH = ""; //$NON-NLS-1$
+
+    private static final Map<String, IndexedNode> NODES = new ConcurrentHashMap<String, IndexedNode>();
+
+    private static final Map<String, Set<String>> UUIDS_BY_PATH = new HashMap<String, Set<String>>();
+
+    private static volatile long generation = 0L;
+
+    private static volatile boolean listening = false;
+
+    private RepositoryNodeIndex() {
+    }
+
+    /**
+     * Method "get".
+     *
+     * @param uuid the UUID of the model element of the node
+     * @param nodeClass the expected class of the node
+     * @return the node of the model element, or null when it is not in the index
+     */
+    public static <T extends IRepositoryNode> T get(String uuid, Class<T> nodeClass) {
+        if (uuid == null || !isEnabled()) {
+            return null;
+        }
+        IndexedNode indexedNode = NODES.get(uuid);
+        if (indexedNode != null && !indexedNode.isCurrent()) {
+            removeNode(uuid, indexedNode);
+            return null;
+        }
+        IRepositoryNode node = indexedNode == null ? null : indexedNode.node;
+        return nodeClass.isInstance(node) ? nodeClass.cast(node) : null;
+    }
+
+    /**
+     * Method "removeNode" removes a stale node, unless it has been replaced in the meantime.
+     *
+     * @param uuid the UUID of the model element of the node
+     * @param indexedNode the stale node
+     */
+    private static void removeNode(String uuid, IndexedNode indexedNode) {
+        synchronized (NODES) {
+            if (NODES.get(uuid) != indexedNode) {
+                return;
+            }
+            NODES.remove(uuid);
+            Set<String> uuids = UUIDS_BY_PATH.get(indexedNode.path);
+            if (uuids != null) {
+                uuids.remove(uuid);
+            }
+        }
+    }
+
+    /**
+     * Method "getGeneration".
+     *
+     * @return the number of times nodes have been removed from the index, to be read before the nodes are built
+     */
+    public static long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Method "put" adds a node to the index, unless the workspace has changed since the node was built.
+     *
+     * @param uuid the UUID of the model element of the node
+     * @param modelElement the model element of the node
+     * @param node the node
+     * @param nodeGeneration the generation read before the node was built
+     */
+    public static void put(String uuid, EObject modelElement, IRepositoryNode node, long nodeGeneration) {
+        if (uuid == null || node == null || !isEnabled()) {
+            return;
+        }
+        String path = getPath(modelElement);
+        synchronized (NODES) {
+            if (nodeGeneration != generation) {
+                return;
+            }
+            IndexedNode previous = NODES.put(uuid, new IndexedNode(node, modelElement, path));
+            if (previous != null && !previous.path.equals(path)) {
+                Set<String> uuids = UUIDS_BY_PATH.get(previous.path);
+                if (uuids != null) {
+                    uuids.remove(uuid);
+                }
+            }
+            Set<String> uuids = UUIDS_BY_PATH.get(path);
+            if (uuids == null) {
+                uuids = new HashSet<String>();
+                UUIDS_BY_PATH.put(path, uuids);
+            }
+            uuids.add(uuid);
+        }
+    }
+
+    /**
+     * Method "remove" removes the nodes of the changed files from the index.
+     *
+     * @param paths the workspace paths of the changed files, without their file extension
+     */
+    static void remove(Set<String> paths) {
+        synchronized (NODES) {
+            generation++;
+            removePath(NO_PATH);
+            for (String path : paths) {
+                removePath(path);
+            }
+        }
+    }
+
+    private static void removePath(String path) {
+        Set<String> uuids = UUIDS_BY_PATH.remove(path);
+        if (uuids != null) {
+            for (String uuid : uuids) {
+                IndexedNode indexedNode = NODES.get(uuid);
+                if (indexedNode != null && indexedNode.path.equals(path)) {
+                    NODES.remove(uuid);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method "clear" empties the index.
+     */
+    public static void clear() {
+        synchronized (NODES) {
+            generation++;
+            NODES.clear();
+            UUIDS_BY_PATH.clear();
+        }
+    }
+
+    /**
+     * Method "getPath".
+     *
+     * @param modelElement the model element of a node
+     * @return the workspace path of the file of the model element without its extension, or {@link #NO_PATH}
+     */
+    private static String getPath(EObject modelElement) {
+        Resource resource = modelElement == null ? null : modelElement.eResource();
+        URI uri = resource == null ? null : resource.getURI();
+        if (uri == null || !uri.isPlatformResource()) {
+            return NO_PATH;
+        }
+        return getPath(new Path(uri.toPlatformString(true)));
+    }
+
+    private static String getPath(IPath filePath) {
+        return filePath.removeFileExtension().toString();
+    }
+
+    /**
+     * Method "resourceChanged" removes the nodes of the files changed by a workspace event.
+     *
+     * @param event a workspace event
+     */
+    static void resourceChanged(IResourceChangeEvent event) {
+        IResourceDelta delta = event.getDelta();
+        if (delta == null) {
+            clear();
+            return;
+        }
+        final Set<String> paths = new HashSet<String>();
+        try {
+            delta.accept(new IResourceDeltaVisitor() {
+
+                @Override
+                public boolean visit(IResourceDelta childDelta) {
+                    IResource resource = childDelta.getResource();
+                    // a file which is added, removed or whose content changes can hold another version of the item, so
+                    // its nodes are always removed. The changes of the markers only do not change the items.
+                    boolean markersOnly = childDelta.getKind() == IResourceDelta.CHANGED
+                            && childDelta.getFlags() == IResourceDelta.MARKERS;
+                    if (resource != null && resource.getType() == IResource.FILE && !markersOnly) {
+                        paths.add(getPath(childDelta.getFullPath()));
+                    }
+                    return true;
+                }
+            });
+        } catch (CoreException e) {
+            log.debug(e, e);
+            clear();
+            return;
+        }
+        if (!paths.isEmpty()) {
+            remove(paths);
+        }
+    }
+
+    private static boolean isEnabled() {
+        if (DQRepositoryNode.isOnFilterring()) {
+            return false;
+        }
+        if (!listening) {
+            startListening();
+        }
+        return listening;
+    }
+
+    private static synchronized void startListening() {
+        if (listening || !Platform.isRunning()) {
+            return;
+        }
+        try {
+            ResourcesPlugin.getWorkspace().addResourceChangeListener(new IResourceChangeListener() {
+
+                @Override
+                public void resourceChanged(IResourceChangeEvent event) {
+                    RepositoryNodeIndex.resourceChanged(event);
+                }
+            }, IResourceChangeEvent.POST_CHANGE);
+            listening = true;
+        } catch (IllegalStateException e) {
+            // no workspace: the nodes are always searched
+            log.debug(e, e);
+        }
+    }
+
+    /**
+     * A node of the index, with its model element and the path of the file of its model element.
+     */
+    private static class IndexedNode {
+
+        final IRepositoryNode node;
+
+        final EObject modelElement;
+
+        final String path;
+
+        IndexedNode(IRepositoryNode node, EObject modelElement, String path) {
+            this.node = node;
+            this.modelElement = modelElement;
+            this.path = path;
+        }
+
+        /**
+         * Method "isCurrent".
+         *
+         * @return false when the model element has been unloaded or moved to another file since the node was indexed
+         */
+        boolean isCurrent() {
+            if (modelElement == null) {
+                return true;
+            }
+            return !modelElement.eIsProxy() && path.equals(getPath(modelElement));
+        }
+    }
+}
@@ -15,16 +15,15 @@ package org.talend.dq.helper;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.WeakHashMap;
 
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
 import org.eclipse.core.resources.IFile;
@@ -33,6 +32,7 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EStructuralFeature;
 import org.talend.commons.exception.ExceptionHandler;
 import org.talend.core.model.metadata.builder.database.PluginConstant;
 import org.talend.cwm.helper.TaggedValueHelper;
@@ -53,7 +53,6 @@ import org.talend.dq.helper.resourcehelper.IndicatorResourceFileHelper;
 import org.talend.dq.indicators.definitions.DefinitionHandler;
 import org.talend.resource.EResourceConstant;
 import org.talend.resource.ResourceManager;
-import org.talend.utils.classloader.TalendURLClassLoader;
 import org.talend.utils.sugars.ReturnCode;
 import orgomg.cwm.objectmodel.core.Expression;
 import orgomg.cwm.objectmodel.core.ModelElement;
@@ -64,7 +63,13 @@ import orgomg.cwm.objectmodel.core.TaggedValue;
  */
 public final class UDIHelper {
 
-    private static final Map<Indicator, Indicator> JAVAUDIMAP = new HashMap<Indicator, Indicator>();
+    // the java user defined indicators by their indicator, the indicators of the analyses which are not used anymore
+    // are dropped
+    private static final Map<Indicator, Indicator> JAVAUDIMAP = new WeakHashMap<Indicator, Indicator>();
+
+    private static final Set<Indicator> JAVAUDIS = Collections.newSetFromMap(new WeakHashMap<Indicator, Boolean>());
+
+    private static final JavaUDIClassCache JAVA_UDI_CLASSES = new JavaUDIClassCache();
 
     private static Properties UDI_TEMPLATES_PROPERTIES = new Properties();
 
@@ -353,7 +358,7 @@ public final class UDIHelper {
      * @return
      * @throws Exception
      */
-    public static Indicator adaptToJavaUDI(Indicator indicator) throws Throwable {
+    public static synchronized Indicator adaptToJavaUDI(Indicator indicator) throws Throwable {
         Indicator returnIndicator = getUDIFromMap(indicator);
         if (returnIndicator != null) {
             return returnIndicator;
@@ -374,25 +379,17 @@ public final class UDIHelper {
             }
             // MOD by zshen for feature 18724
             if (validateJavaUDI(userJavaClassName, jarPath)) {
-                List<URL> jarUrls = new ArrayList<URL>();
-                for (File file : getContainJarFile(jarPath)) {
-                    jarUrls.add(file.toURI().toURL());
-                }
-                TalendURLClassLoader cl;
-                // Note that the 2nd parameter (classloader) is needed to load class UserDefinitionIndicator from
-                // org.talend.dataquality plugin.
-                cl = new TalendURLClassLoader(jarUrls.toArray(new URL[jarUrls.size()]), UDIHelper.class.getClassLoader());
-
-                Class<?> clazz = null;
-                clazz = cl.findClass(userJavaClassName);
+                // the classes are loaded once for all the analyses
+                Class<?> clazz = JAVA_UDI_CLASSES.loadClass(getContainJarFile(jarPath), userJavaClassName);
                 if (clazz != null) {
                     // MOD yyin 20121012 TDQ-6259
                     UserDefIndicator judi = (UserDefIndicator) clazz.newInstance();
                     // judi.setIndicatorDefinition(indicator.getIndicatorDefinition());
-                    PropertyUtils.copyProperties(judi, indicator);
+                    copyProperties(judi, indicator);
                     // judi.setAnalyzedElement(indicator.getAnalyzedElement());
                     adaptedUDI = judi;
                     JAVAUDIMAP.put(indicator, adaptedUDI);
+                    JAVAUDIS.add(adaptedUDI);
                 }
 
             }
@@ -400,18 +397,37 @@ public final class UDIHelper {
         return adaptedUDI;
     }
 
+    /**
+     * Copies the properties of the indicator to the java user defined indicator with the generated accessors of the
+     * model, as {@link org.apache.commons.beanutils.PropertyUtils#copyProperties(Object, Object)} would do: the
+     * single valued features which can be set and the transient properties of the indicator.
+     *
+     * @param judi the java user defined indicator
+     * @param indicator the user defined indicator
+     */
+    static void copyProperties(UserDefIndicator judi, Indicator indicator) {
+        for (EStructuralFeature feature : indicator.eClass().getEAllStructuralFeatures()) {
+            // the lists have no setter
+            if (feature.isChangeable() && !feature.isMany()) {
+                judi.eSet(feature, indicator.eGet(feature));
+            }
+        }
+        judi.setUsedMapDBMode(indicator.isUsedMapDBMode());
+        judi.setDerivedValueCache(indicator.getDerivedValueCache());
+    }
+
     /**
      * DOC zshen Comment method "getUDIFromMap".
      *
      * @param indicator
      */
-    private static Indicator getUDIFromMap(Indicator indicator) {
+    private static synchronized Indicator getUDIFromMap(Indicator indicator) {
         // If the JUDI already been initiatated
         if (JAVAUDIMAP.get(indicator) != null) {
             return JAVAUDIMAP.get(indicator);
         }
         // indicator itself already be a java user define indicator.
-        if (JAVAUDIMAP.values().contains(indicator)) {
+        if (JAVAUDIS.contains(indicator)) {
             return indicator;
         }
         return null;
@@ -669,22 +685,26 @@ public final class UDIHelper {
      *
      * @param indDef
      */
-    public static void clearJAVAUDIMAPByIndicatorDefinition(IndicatorDefinition indDef) {
+    public static synchronized void clearJAVAUDIMAPByIndicatorDefinition(IndicatorDefinition indDef) {
         if (indDef == null || !isJUDIValid(indDef)) {
             return;
         }
-        for (Indicator indicator : JAVAUDIMAP.keySet()) {
-            if (indDef.equals(indicator.getIndicatorDefinition())
-                    || indDef.equals(JAVAUDIMAP.get(indicator).getIndicatorDefinition())) {
+        for (Map.Entry<Indicator, Indicator> entry : JAVAUDIMAP.entrySet()) {
+            Indicator judi = entry.getValue();
+            if (indDef.equals(entry.getKey().getIndicatorDefinition())
+                    || judi != null && indDef.equals(judi.getIndicatorDefinition())) {
                 // if the jar used by UDI is changed need to set null then adaptToJavaUDI() will reload again
-                JAVAUDIMAP.put(indicator, null);
+                entry.setValue(null);
+                JAVAUDIS.remove(judi);
             }
         }
 
     }
 
-    public static void clearJAVAUDIMAP() {
+    public static synchronized void clearJAVAUDIMAP() {
         JAVAUDIMAP.clear();
+        JAVAUDIS.clear();
+        JAVA_UDI_CLASSES.clear();
     }
 
 }
@@ -15,10 +15,20 @@ package org.talend.dq.indicators;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
@@ -29,12 +39,14 @@ import org.talend.core.model.metadata.builder.connection.DatabaseConnection;
 import org.talend.core.model.metadata.builder.database.DqRepositoryViewService;
 import org.talend.core.model.metadata.builder.database.JavaSqlFactory;
 import org.talend.core.runtime.CoreRuntimePlugin;
+import org.talend.cwm.db.connection.ConnectionUtils;
 import org.talend.cwm.helper.ConnectionHelper;
 import org.talend.cwm.helper.SchemaHelper;
 import org.talend.cwm.helper.SwitchHelpers;
 import org.talend.cwm.management.i18n.Messages;
 import org.talend.dataquality.PluginConstant;
 import org.talend.dataquality.helpers.IndicatorHelper;
+import org.talend.dataquality.helpers.SystemPropertyHelper;
 import org.talend.dataquality.indicators.Indicator;
 import org.talend.dataquality.indicators.schema.CatalogIndicator;
 import org.talend.dataquality.indicators.schema.SchemaFactory;
@@ -65,6 +77,21 @@ public abstract class AbstractSchemaEvaluator<T> extends Evaluator<T> {
 
     public static final char FILTER_SEP = ',';
 
+    /**
+     * The number of connections used to count the rows of the tables at the same time. The default value 1 counts the
+     * tables one after the other on the connection of the analysis.
+     */
+    public static final int THREAD_NUMBER = SystemPropertyHelper.getInt(
+            "talend.analysis.overview.thread.number", 1); //$NON-NLS-1$
+
+    /**
+     * When true, the number of rows of the tables is read in the statistics of the database, see
+     * {@link DbmsLanguage#getEstimatedRowCountsQuery(String, String)}. The rows of the tables without statistics are
+     * still counted.
+     */
+    public static final boolean ESTIMATED_COUNTS = Boolean.valueOf(System.getProperty(
+            "talend.analysis.overview.estimated.counts", "false")); //$NON-NLS-1$ //$NON-NLS-2$
+
     private DbmsLanguage dbmsLanguage;
 
     private static final String SELECT_COUNT_FROM = "select count(*) from "; //$NON-NLS-1$
@@ -78,6 +105,17 @@ public abstract class AbstractSchemaEvaluator<T> extends Evaluator<T> {
 
     private int nbExceptions = 0;
 
+    /**
+     * The estimated number of rows by table name of the current catalog or schema, null when not used.
+     */
+    private Map<String, Long> estimatedRowCounts = null;
+
+    /**
+     * The number of primary key columns by table name of the current catalog or schema, null when they are read table
+     * by table.
+     */
+    private Map<String, Integer> pkCounts = null;
+
     private String catalogPattern = null;
 
     private String schemaPattern = null;
@@ -119,35 +157,265 @@ public abstract class AbstractSchemaEvaluator<T> extends Evaluator<T> {
         // MOD klliu 2011-02-17 bug 18961
         // TDQ-8277 should consider tha database just has catalog(like hive/mysal).then get the quCatalog.
         String quCatalog = getCatalogNameWithQuote(schemaIndic);
+        long[] counts = getAllCounts(getConnection(), quCatalog, catalog, schema, t, isTable);
+        addAllCounts(t, schemaIndic, isTable, counts);
+    }
+
+    /**
+     * Method "getAllCounts" reads the counts of a table or view. It does not change the indicators, so that it can be
+     * called by several threads with different connections.
+     *
+     * @param conn the connection used to read the counts
+     * @param quCatalog the quoted catalog name
+     * @param catalog
+     * @param schema
+     * @param t the table or view
+     * @param isTable
+     * @return the number of rows, of primary key columns and of index columns
+     * @throws SQLException
+     */
+    private long[] getAllCounts(java.sql.Connection conn, String quCatalog, String catalog, String schema, NamedColumnSet t,
+            boolean isTable) throws SQLException {
         String quSchema = schema == null ? null : dbms().quote(schema);
         final String table = t.getName();
         String quTable = dbms().quote(table);
 
         if (isTable) {
-            long rowCount = getRowCounts(quCatalog, quSchema, quTable);
-            schemaIndic.setTableRowCount(schemaIndic.getTableRowCount() + rowCount);
+            Long estimatedRowCount = estimatedRowCounts == null ? null : estimatedRowCounts.get(table);
+            long rowCount = estimatedRowCount != null ? estimatedRowCount : getRowCounts(conn, quCatalog, quSchema, quTable);
             // MOD qiongli 2012-8-13 TDQ-5907.Hive dosen't support PK/INDEX.
             boolean isPkIndexSupported = dbmsLanguage.isPkIndexSupported();
             // ---- pk----indexes
             int pkCount = 0;
             int idxCount = 0;
             if (isPkIndexSupported) {
-                pkCount = getPKCount(catalog, schema, table);
-                schemaIndic.setKeyCount(schemaIndic.getKeyCount() + pkCount);
-                idxCount = getIndexCount(catalog, schema, table);
-                schemaIndic.setIndexCount(schemaIndic.getIndexCount() + idxCount);
+                if (pkCounts != null) {
+                    Integer count = pkCounts.get(table);
+                    pkCount = count == null ? 0 : count;
+                } else {
+                    pkCount = getPKCount(conn, catalog, schema, table);
+                }
+                idxCount = getIndexCount(conn, catalog, schema, table);
             }
+            return new long[] { rowCount, pkCount, idxCount };
+        }
+        // is a view TODO probably need to handle system tables separately
+        return new long[] { getRowCounts(conn, quCatalog, schema, quTable), 0, 0 };
+    }
+
+    /**
+     * Method "addAllCounts" adds the counts of a table or view to the indicators.
+     *
+     * @param t the table or view
+     * @param schemaIndic
+     * @param isTable
+     * @param counts the counts returned by {@link #getAllCounts}
+     */
+    private void addAllCounts(NamedColumnSet t, SchemaIndicator schemaIndic, boolean isTable, long[] counts) {
+        long rowCount = counts[0];
+        if (isTable) {
+            schemaIndic.setTableRowCount(schemaIndic.getTableRowCount() + rowCount);
+            int pkCount = (int) counts[1];
+            int idxCount = (int) counts[2];
+            schemaIndic.setKeyCount(schemaIndic.getKeyCount() + pkCount);
+            schemaIndic.setIndexCount(schemaIndic.getIndexCount() + idxCount);
 
             // create Table Indicator
             // TODO create tableindicator only if it's in top N or in bottom N (use an option?)
             createTableIndicator(t, schemaIndic, rowCount, pkCount, idxCount);
-        } else { // is a view TODO probably need to handle system tables separately
-            long rowCount = getRowCounts(quCatalog, schema, quTable);
+        } else {
             schemaIndic.setViewRowCount(schemaIndic.getViewRowCount() + rowCount);
             createViewIndicator(t, schemaIndic, rowCount);
         }
         // --- triggers (JDBC API cannot get triggers)
+    }
+
+    /**
+     * Method "evalAllCountsInParallel" reads the counts of the tables or views with {@link #THREAD_NUMBER} connections
+     * opened for this purpose. The indicators are changed by the calling thread only, in the order of the tables.
+     *
+     * @param catalog
+     * @param schema
+     * @param columnSets the tables or views
+     * @param schemaIndic
+     * @param isTable
+     * @throws SQLException
+     */
+    private void evalAllCountsInParallel(final String catalog, final String schema, List<? extends NamedColumnSet> columnSets,
+            SchemaIndicator schemaIndic, final boolean isTable) throws SQLException {
+        final String quCatalog = getCatalogNameWithQuote(schemaIndic);
+        final BlockingQueue<java.sql.Connection> idleConnections = new LinkedBlockingQueue<java.sql.Connection>();
+        final List<java.sql.Connection> openedConnections = new ArrayList<java.sql.Connection>();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREAD_NUMBER);
+        try {
+            List<Future<long[]>> tasks = new ArrayList<Future<long[]>>();
+            for (final NamedColumnSet t : columnSets) {
+                tasks.add(executor.submit(new Callable<long[]>() {
+
+                    @Override
+                    public long[] call() throws Exception {
+                        java.sql.Connection conn = idleConnections.poll();
+                        if (conn == null) {
+                            conn = openCountConnection(openedConnections, executor);
+                        }
+                        try {
+                            return getAllCounts(conn, quCatalog, catalog, schema, t, isTable);
+                        } finally {
+                            idleConnections.offer(conn);
+                        }
+                    }
+                }));
+            }
+            for (int i = 0; i < columnSets.size() && continueRun(); i++) {
+                NamedColumnSet t = columnSets.get(i);
+                if (isTable) {
+                    setTaskName(catalog, schema, t);
+                }
+                long[] counts;
+                try {
+                    counts = tasks.get(i).get();
+                } catch (ExecutionException e) {
+                    // count this one on the connection of the analysis
+                    log.warn(e.getCause(), e.getCause());
+                    counts = getAllCounts(getConnection(), quCatalog, catalog, schema, t, isTable);
+                }
+                addAllCounts(t, schemaIndic, isTable, counts);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            synchronized (openedConnections) {
+                for (java.sql.Connection conn : openedConnections) {
+                    ConnectionUtils.closeConnection(conn);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method "openCountConnection".
+     *
+     * @param openedConnections the connections opened so far, to be closed at the end
+     * @param executor the threads of the counts, which are shut down before the opened connections are closed
+     * @return a new connection
+     * @throws SQLException when the connection cannot be opened, or when the counts are over
+     */
+    private java.sql.Connection openCountConnection(List<java.sql.Connection> openedConnections, ExecutorService executor)
+            throws SQLException {
+        // the threads open their connections at the same time, only the list is shared
+        TypedReturnCode<java.sql.Connection> conn = JavaSqlFactory.createConnection(getDataManager());
+        if (!conn.isOk()) {
+            throw new SQLException(conn.getMessage());
+        }
+        synchronized (openedConnections) {
+            if (!executor.isShutdown()) {
+                openedConnections.add(conn.getObject());
+                return conn.getObject();
+            }
+        }
+        // the opened connections have been closed already
+        ConnectionUtils.closeConnection(conn.getObject());
+        throw new SQLException(Messages.getString("AbstractSchemaEvaluator.CountsOver")); //$NON-NLS-1$
+    }
+
+    /**
+     * Method "isParallelCounts".
+     *
+     * @param columnSets the tables or views to count
+     * @return true when the tables or views are counted with several connections
+     */
+    private boolean isParallelCounts(List<? extends NamedColumnSet> columnSets) {
+        // MOD qiongli 2012-8-13 TDQ-5907.the Hive connections are too expensive
+        return THREAD_NUMBER > 1 && columnSets.size() > 1 && !DbmsLanguageFactory.isHive(dbms().getDbmsName());
+    }
+
+    /**
+     * Method "loadSchemaCounts" reads the estimated row counts and the primary key counts of all the tables of the
+     * catalog or schema, when the database can give them in one query.
+     *
+     * @param catalog
+     * @param schema
+     */
+    private void loadSchemaCounts(String catalog, String schema) {
+        estimatedRowCounts = null;
+        pkCounts = null;
+        if (ESTIMATED_COUNTS) {
+            String sql = dbms().getEstimatedRowCountsQuery(catalog, schema);
+            if (sql != null) {
+                estimatedRowCounts = getEstimatedRowCounts(sql);
+            }
+        }
+        if (dbms().isPkIndexSupported() && dbms().isAllTablesPrimaryKeySupported()) {
+            pkCounts = getPKCounts(catalog, schema);
+        }
+    }
 
+    /**
+     * Method "getEstimatedRowCounts".
+     *
+     * @param sql the query returned by {@link DbmsLanguage#getEstimatedRowCountsQuery(String, String)}
+     * @return the estimated number of rows by table name, only for the tables with statistics, null if the query fails
+     */
+    private Map<String, Long> getEstimatedRowCounts(String sql) {
+        Map<String, Long> rowCounts = new HashMap<String, Long>();
+        Statement statement = null;
+        try {
+            if (log.isInfoEnabled()) {
+                log.info("Executing query: " + sql); //$NON-NLS-1$
+            }
+            statement = getConnection().createStatement();
+            ResultSet resultSet = statement.executeQuery(sql);
+            while (resultSet.next()) {
+                Object count = resultSet.getObject(2);
+                if (count != null) {
+                    Long rowCount = IndicatorHelper.getLongFromObject(String.valueOf(count));
+                    if (rowCount >= 0) {
+                        rowCounts.put(resultSet.getString(1), rowCount);
+                    }
+                }
+            }
+            resultSet.close();
+        } catch (SQLException e) {
+            log.warn(e.getMessage() + " for the query: " + sql); //$NON-NLS-1$
+            return null;
+        } finally {
+            if (statement != null) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    log.warn(e, e);
+                }
+            }
+        }
+        return rowCounts;
+    }
+
+    /**
+     * Method "getPKCounts".
+     *
+     * @param catalog
+     * @param schema
+     * @return the number of primary key columns by table name, null if the primary keys cannot be read
+     */
+    @SuppressWarnings("deprecation")
+    private Map<String, Integer> getPKCounts(String catalog, String schema) {
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        try {
+            ResultSet pk = org.talend.utils.sql.ConnectionUtils.getConnectionMetadata(getConnection()).getPrimaryKeys(catalog,
+                    schema, null);
+            while (pk.next()) {
+                String table = pk.getString("TABLE_NAME"); //$NON-NLS-1$
+                Integer count = counts.get(table);
+                counts.put(table, count == null ? 1 : count + 1);
+            }
+            pk.close();
+        } catch (SQLException e) {
+            log.warn(Messages.getString("AbstractSchemaEvaluator.PrimaryException", //$NON-NLS-1$
+                    schema == null ? catalog : schema, e.getLocalizedMessage()), e);
+            return null;
+        }
+        return counts;
     }
 
     /**
@@ -228,20 +496,20 @@ public abstract class AbstractSchemaEvaluator<T> extends Evaluator<T> {
      * @throws SQLException
      */
     @SuppressWarnings("deprecation")
-    private int getIndexCount(String catalog, String schema, String table) throws SQLException {
+    private int getIndexCount(java.sql.Connection conn, String catalog, String schema, String table) throws SQLException {
         int idxCount = 0;
         ResultSet idx = null;
         try {
             // MOD xqliu 2009-07-13 bug 7888
-            idx = org.talend.utils.sql.ConnectionUtils.getConnectionMetadata(getConnection()).getIndexInfo(catalog, schema,
-                    table, false, true);
+            idx = org.talend.utils.sql.ConnectionUtils.getConnectionMetadata(conn).getIndexInfo(catalog, schema, table, false,
+                    true);
             // ~
         } catch (SQLException e) {
 
             log.warn(Messages.getString("AbstractSchemaEvaluator.IndexException", //$NON-NLS-1$
                     this.dbms().toQualifiedName(catalog, schema, table), e.getLocalizedMessage()), e);
             // Oracle increments the number of cursors to close each time a new query is executed after this exception!
-            reloadConnectionAfterException(catalog);
+            reloadConnectionAfterException(conn, catalog);
         }
         // TODO unicity of index could be a parameter
         if (idx != null) {
@@ -270,18 +538,17 @@ public abstract class AbstractSchemaEvaluator<T> extends Evaluator<T> {
      * @throws SQLException
      */
     @SuppressWarnings("deprecation")
-    private int getPKCount(String catalog, String schema, String table) throws SQLException {
+    private int getPKCount(java.sql.Connection conn, String catalog, String schema, String table) throws SQLException {
         int pkCount = 0;
         ResultSet pk = null;
         try {
             // MOD xqliu 2009-07-13 bug 7888
-            pk = org.talend.utils.sql.ConnectionUtils.getConnectionMetadata(getConnection()).getPrimaryKeys(catalog, schema,
-                    table);
+            pk = org.talend.utils.sql.ConnectionUtils.getConnectionMetadata(conn).getPrimaryKeys(catalog, schema, table);
             // ~
         } catch (SQLException e1) {
             log.warn(Messages.getString("AbstractSchemaEvaluator.PrimaryException", //$NON-NLS-1$
                     this.dbms().toQualifiedName(catalog, schema, table), e1.getLocalizedMessage()), e1);
-            reloadConnectionAfterException(catalog);
+            reloadConnectionAfterException(conn, catalog);
         }
         if (pk != null) {
             while (pk.next()) {
@@ -292,6 +559,19 @@ public abstract class AbstractSchemaEvaluator<T> extends Evaluator<T> {
         return pkCount;
     }
 
+    /**
+     * Method "reloadConnectionAfterException" reloads the connection of the analysis when the failed query used it. The
+     * connections opened to count the tables in parallel are closed at the end of the counts.
+     *
+     * @param conn the connection of the failed query
+     * @param catalog
+     */
+    private void reloadConnectionAfterException(java.sql.Connection conn, String catalog) {
+        if (conn == getConnection()) {
+            reloadConnectionAfterException(catalog);
+        }
+    }
+
     /**
      * DOC scorreia Comment method "reloadConnection".
      *
@@ -323,18 +603,17 @@ public abstract class AbstractSchemaEvaluator<T> extends Evaluator<T> {
     /**
      * DOC scorreia Comment method "getRowCounts".
      *
-     * @param schemaIndic
+     * @param conn
      * @param quCatalog
      * @param quSchema
      * @param quTable
      * @return
      * @throws SQLException
      */
-    private long getRowCounts(String quCatalog, String quSchema, String quTable) throws SQLException {
+    private long getRowCounts(java.sql.Connection conn, String quCatalog, String quSchema, String quTable) throws SQLException {
         String sql = SELECT_COUNT_FROM + dbms().toQualifiedName(quCatalog, quSchema, quTable);
 
         long totalRowCount = 0;
-        java.sql.Connection conn = getConnection();
         if (conn == null || conn.isClosed()) {
             return totalRowCount;
         }
@@ -349,7 +628,7 @@ public abstract class AbstractSchemaEvaluator<T> extends Evaluator<T> {
         // not needed here statement.setFetchSize(fetchSize);
         try {
             // MOD xqliu 2009-02-09 bug 6237
-            if (continueRun()) {
+            if (continueCount(conn)) {
                 if (log.isInfoEnabled()) {
                     log.info("Executing query: " + sql); //$NON-NLS-1$
                 }
@@ -363,7 +642,7 @@ public abstract class AbstractSchemaEvaluator<T> extends Evaluator<T> {
             }
             // some tables on Oracle give the following exception:
             // ORA-25191: cannot reference overflow table of an index-organized table
-            reloadConnectionAfterException(quCatalog);
+            reloadConnectionAfterException(conn, quCatalog);
             return totalRowCount;
         }
 
@@ -375,7 +654,7 @@ public abstract class AbstractSchemaEvaluator<T> extends Evaluator<T> {
         } else {
             while (resultSet != null && resultSet.next()) {
                 // MOD xqliu 2009-02-09 bug 6237
-                if (!continueRun()) {
+                if (!continueCount(conn)) {
                     break;
                 }
                 // --- get content of column
@@ -400,6 +679,17 @@ public abstract class AbstractSchemaEvaluator<T> extends Evaluator<T> {
         return totalRowCount;
     }
 
+    /**
+     * Method "continueCount".
+     *
+     * @param conn the connection of the count
+     * @return false when the analysis is stopped. The counts on the connections opened for the parallel counts are
+     * stopped by {@link #evalAllCountsInParallel}.
+     */
+    private boolean continueCount(java.sql.Connection conn) {
+        return conn != getConnection() || continueRun();
+    }
+
     /**
      * DOC scorreia Comment method "evalSchemaIndic".
      *
@@ -448,6 +738,7 @@ public abstract class AbstractSchemaEvaluator<T> extends Evaluator<T> {
             catName = hasCatalog ? tdCatalog.getName() : null;
         }
         schemaIndic.setAnalyzedElement(hasSchema ? tdSchema : tdCatalog);
+        loadSchemaCounts(catName, schemaName);
 
         // profile tables
         int tableCount = 0;
@@ -465,21 +756,13 @@ public abstract class AbstractSchemaEvaluator<T> extends Evaluator<T> {
                 List<? extends NamedColumnSet> tables = DqRepositoryViewService.getTables(getConnection(), getDataManager(),
                         pacage, trimPat, true, false);
                 // ~TDQ-3607
+                if (isParallelCounts(tables)) {
+                    tableCount += tables.size();
+                    evalAllCountsInParallel(catName, schemaName, tables, schemaIndic, true);
+                    continue;
+                }
                 for (NamedColumnSet t : tables) {
-                    if (this.getMonitor() != null) {
-                        StringBuilder taskName = new StringBuilder();
-                        if (catName != null) {
-                            taskName.append(Messages.getString("ColumnAnalysisSqlExecutor.AnalyzedElementCatalog", catName)) //$NON-NLS-1$
-                                    .append(", "); //$NON-NLS-1$
-                        }
-                        if (schemaName != null) {
-                            taskName.append(Messages.getString("ColumnAnalysisSqlExecutor.AnalyzedElementSchema", schemaName)) //$NON-NLS-1$
-                                    .append(", "); //$NON-NLS-1$
-                        }
-                        taskName.append(Messages.getString("ColumnAnalysisSqlExecutor.AnalyzedElementTable", t.getName())); //$NON-NLS-1$
-                        this.getMonitor().setTaskName(
-                                Messages.getString("ColumnAnalysisSqlExecutor.AnalyzedElement", taskName.toString())); //$NON-NLS-1$
-                    }
+                    setTaskName(catName, schemaName, t);
                     tableCount++;
                     evalAllCounts(catName, schemaName, t, schemaIndic, true, ok);
                 }
@@ -505,6 +788,11 @@ public abstract class AbstractSchemaEvaluator<T> extends Evaluator<T> {
                 List<? extends NamedColumnSet> views = DqRepositoryViewService.getViews(getConnection(), getDataManager(),
                         pacage, trimPat, true, false);
                 // ~TDQ-3607
+                if (isParallelCounts(views)) {
+                    viewCount += views.size();
+                    evalAllCountsInParallel(catName, schemaName, views, schemaIndic, false);
+                    continue;
+                }
                 for (NamedColumnSet t : views) {
                     viewCount++;
                     evalAllCounts(catName, schemaName, t, schemaIndic, false, ok);
@@ -544,6 +832,29 @@ public abstract class AbstractSchemaEvaluator<T> extends Evaluator<T> {
         }
     }
 
+    /**
+     * Method "setTaskName" shows the table being analyzed in the progress monitor.
+     *
+     * @param catName
+     * @param schemaName
+     * @param t the table
+     */
+    private void setTaskName(String catName, String schemaName, NamedColumnSet t) {
+        if (this.getMonitor() != null) {
+            StringBuilder taskName = new StringBuilder();
+            if (catName != null) {
+                taskName.append(Messages.getString("ColumnAnalysisSqlExecutor.AnalyzedElementCatalog", catName)) //$NON-NLS-1$
+                        .append(", "); //$NON-NLS-1$
+            }
+            if (schemaName != null) {
+                taskName.append(Messages.getString("ColumnAnalysisSqlExecutor.AnalyzedElementSchema", schemaName)) //$NON-NLS-1$
+                        .append(", "); //$NON-NLS-1$
+            }
+            taskName.append(Messages.getString("ColumnAnalysisSqlExecutor.AnalyzedElementTable", t.getName())); //$NON-NLS-1$
+            this.getMonitor().setTaskName(Messages.getString("ColumnAnalysisSqlExecutor.AnalyzedElement", taskName.toString())); //$NON-NLS-1$
+        }
+    }
+
     protected void addToConnectionIndicator(Indicator indicator) {
         // does nothing: implemented only in ConnectionEvaluator
     }
@@ -16,9 +16,16 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.log4j.Logger;
 import org.eclipse.core.runtime.IPath;
@@ -40,12 +47,15 @@ import org.talend.dataquality.PluginConstant;
 import org.talend.dataquality.analysis.Analysis;
 import org.talend.dataquality.analysis.AnalysisFactory;
 import org.talend.dataquality.analysis.AnalyzedDataSet;
+import org.talend.dataquality.helpers.IndicatorHelper;
+import org.talend.dataquality.helpers.SystemPropertyHelper;
 import org.talend.dataquality.indicators.DuplicateCountIndicator;
 import org.talend.dataquality.indicators.Indicator;
 import org.talend.dataquality.indicators.UniqueCountIndicator;
 import org.talend.dataquality.indicators.mapdb.MapDBUtils;
 import org.talend.dq.helper.AnalysisExecutorHelper;
 import org.talend.dq.helper.FileUtils;
+import org.talend.dq.helper.MappedDelimitedFileReader;
 import org.talend.fileprocess.FileInputDelimited;
 import org.talend.utils.sql.TalendTypeConvert;
 import org.talend.utils.sugars.ReturnCode;
@@ -59,6 +69,18 @@ import orgomg.cwm.objectmodel.core.ModelElement;
  */
 public class DelimitedFileIndicatorEvaluator extends IndicatorEvaluator {
 
+    /**
+     * The number of threads which read a delimited file through a memory mapping of the file (see
+     * {@link MappedDelimitedFileReader}). The default value 0 keeps the buffered readers.
+     */
+    public static final int MAPPED_READER_THREADS = SystemPropertyHelper.getInt(
+            "talend.analysis.file.reader.threads", 0); //$NON-NLS-1$
+
+    /**
+     * the size of the parts of the file read by the threads.
+     */
+    private static final long CHUNK_SIZE = 64L * 1024 * 1024;
+
     protected DelimitedFileConnection delimitedFileconnection = null;
 
     private Logger log = Logger.getLogger(DelimitedFileIndicatorEvaluator.class);
@@ -99,6 +121,9 @@ public class DelimitedFileIndicatorEvaluator extends IndicatorEvaluator {
         List<ModelElement> analysisElementList = this.analysis.getContext().getAnalysedElements();
         EMap<Indicator, AnalyzedDataSet> indicToRowMap = analysis.getResults().getIndicToRowMap();
         indicToRowMap.clear();
+        if (analysis.getParameters().isStoreData()) {
+            MapDBUtils.clearDrillDownRowLog(analysis);
+        }
 
         List<MetadataColumn> columnElementList = new ArrayList<MetadataColumn>();
         for (int i = 0; i < analysisElementList.size(); i++) {
@@ -110,8 +135,11 @@ public class DelimitedFileIndicatorEvaluator extends IndicatorEvaluator {
             }
         }
         ReturnCode readDataReturnCode = new ReturnCode(true);
-        // use CsvReader to parse.
-        if (Escape.CSV.equals(delimitedFileconnection.getEscapeType())) {
+        MappedDelimitedFileReader mappedReader = createMappedReader(file, analysisElementList);
+        if (mappedReader != null) {
+            readDataReturnCode = useMappedReader(mappedReader, analysisElementList, indicToRowMap);
+        } else if (Escape.CSV.equals(delimitedFileconnection.getEscapeType())) {
+            // use CsvReader to parse.
             readDataReturnCode = useCsvReader(file, analysisElementList, columnElementList, indicToRowMap);
         } else {
             readDataReturnCode = useDelimitedReader(analysisElementList, columnElementList, indicToRowMap);
@@ -190,6 +218,262 @@ public class DelimitedFileIndicatorEvaluator extends IndicatorEvaluator {
         return returnCode;
     }
 
+    /**
+     * Method "createMappedReader".
+     *
+     * @param file the file of the connection
+     * @param analysisElementList the analyzed columns
+     * @return the memory mapped reader of the file, or null when the file must be read by the buffered readers
+     */
+    private MappedDelimitedFileReader createMappedReader(File file, List<ModelElement> analysisElementList) {
+        if (getReaderThreads() < 1 || analysis.getParameters().isStoreData()) {
+            return null;
+        }
+        for (ModelElement element : analysisElementList) {
+            for (Indicator indicator : getIndicators(((MetadataColumn) element).getLabel())) {
+                // the whole row is kept with the duplicate values
+                if (indicator instanceof DuplicateCountIndicator) {
+                    return null;
+                }
+            }
+        }
+        try {
+            return MappedDelimitedFileReader.create(file, delimitedFileconnection);
+        } catch (IOException e) {
+            log.warn(e, e);
+            return null;
+        }
+    }
+
+    /**
+     * Method "useMappedReader" reads the file in chunks, in parallel when all the indicators can be merged.
+     *
+     * @param reader the memory mapped reader of the file
+     * @param analysisElementList the analyzed columns
+     * @param indicToRowMap
+     * @return a return code which is not ok when a record does not have all the analyzed columns
+     */
+    ReturnCode useMappedReader(MappedDelimitedFileReader reader, List<ModelElement> analysisElementList,
+            EMap<Indicator, AnalyzedDataSet> indicToRowMap) {
+        ReturnCode returnCode = new ReturnCode(true);
+        int maxNumberRows = analysis.getParameters().getMaxNumberRows();
+        List<MetadataColumn> columns = new ArrayList<MetadataColumn>();
+        List<List<Indicator>> columnIndicators = new ArrayList<List<Indicator>>();
+        boolean mergeable = true;
+        for (ModelElement element : analysisElementList) {
+            MetadataColumn mColumn = (MetadataColumn) element;
+            List<Indicator> indicators = getIndicators(mColumn.getLabel());
+            for (Indicator indicator : indicators) {
+                if (indicToRowMap.get(indicator) == null) {
+                    AnalyzedDataSet analyzedDataSet = AnalysisFactory.eINSTANCE.createAnalyzedDataSet();
+                    indicToRowMap.put(indicator, analyzedDataSet);
+                    analyzedDataSet.setDataCount(maxNumberRows);
+                    analyzedDataSet.setRecordSize(0);
+                }
+            }
+            // the row count indicators are copied and merged, not their adapter
+            for (Indicator indicator : IndicatorHelper.getAdaptedIndicators(indicators)) {
+                mergeable &= indicator.isMergeable();
+            }
+            columns.add(mColumn);
+            columnIndicators.add(indicators);
+        }
+        try {
+            long start = reader.skipRecords(JavaSqlFactory.getHeadValue(delimitedFileconnection));
+            List<long[]> chunks = reader.split(start, getChunkSize());
+            int limitValue = JavaSqlFactory.getLimitValue(delimitedFileconnection);
+            if (getReaderThreads() > 1 && chunks.size() > 1 && limitValue <= 0 && mergeable) {
+                return readInParallel(reader, chunks, columns, columnIndicators);
+            }
+            MappedRecordHandler handler = new MappedRecordHandler(this, columns, columnIndicators);
+            long remaining = limitValue > 0 ? limitValue : Long.MAX_VALUE;
+            for (long[] chunk : chunks) {
+                long count = reader.read(chunk[0], chunk[1], handler.fields, remaining, handler);
+                if (count < 0) {
+                    break;
+                }
+                remaining -= count;
+                if (remaining <= 0) {
+                    break;
+                }
+            }
+            returnCode.setOk(handler.ok);
+        } catch (IOException e) {
+            log.error(e, e);
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                log.error(e, e);
+            }
+        }
+        return returnCode;
+    }
+
+    /**
+     * Getter for the number of threads which read the file.
+     *
+     * @return {@link #MAPPED_READER_THREADS}
+     */
+    protected int getReaderThreads() {
+        return MAPPED_READER_THREADS;
+    }
+
+    /**
+     * Getter for the size of the parts of the file read by the threads.
+     *
+     * @return {@link #CHUNK_SIZE}
+     */
+    protected long getChunkSize() {
+        return CHUNK_SIZE;
+    }
+
+    /**
+     * Reads the chunks of the file in several threads, each one into its own copy of the indicators, then merges the
+     * copies into the indicators of the analysis. The {@link org.talend.dataquality.helpers.RowCountIndicatorsAdapter}
+     * is replaced by the row count indicators it counts for, which are copied and merged one by one.
+     */
+    private ReturnCode readInParallel(final MappedDelimitedFileReader reader, final List<long[]> chunks,
+            List<MetadataColumn> columns, List<List<Indicator>> columnIndicators) {
+        ReturnCode returnCode = new ReturnCode(true);
+        final AtomicInteger nextChunk = new AtomicInteger();
+        List<Map<Indicator, Indicator>> partials = new ArrayList<Map<Indicator, Indicator>>();
+        List<MappedRecordHandler> handlers = new ArrayList<MappedRecordHandler>();
+        List<Future<Boolean>> tasks = new ArrayList<Future<Boolean>>();
+        int threads = getReaderThreads();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                Map<Indicator, Indicator> threadPartials = new LinkedHashMap<Indicator, Indicator>();
+                List<List<Indicator>> threadIndicators = new ArrayList<List<Indicator>>();
+                for (List<Indicator> columnLeaves : columnIndicators) {
+                    List<Indicator> indicators = IndicatorHelper.getAdaptedIndicators(columnLeaves);
+                    List<Indicator> copies = PartitionedIndicatorEvaluator.createPartialIndicators(indicators);
+                    for (int i = 0; i < indicators.size(); i++) {
+                        threadPartials.put(indicators.get(i), copies.get(i));
+                    }
+                    threadIndicators.add(copies);
+                }
+                IndicatorEvaluator threadEvaluator = new IndicatorEvaluator(analysis);
+                threadEvaluator.setMonitor(getMonitor());
+                final MappedRecordHandler handler = new MappedRecordHandler(threadEvaluator, columns, threadIndicators);
+                partials.add(threadPartials);
+                handlers.add(handler);
+                tasks.add(executor.submit(new Callable<Boolean>() {
+
+                    @Override
+                    public Boolean call() throws Exception {
+                        int chunk;
+                        while ((chunk = nextChunk.getAndIncrement()) < chunks.size()) {
+                            long[] bounds = chunks.get(chunk);
+                            if (reader.read(bounds[0], bounds[1], handler.fields, Long.MAX_VALUE, handler) < 0) {
+                                // stopped: the other threads stop after their current chunk
+                                nextChunk.set(chunks.size());
+                            }
+                        }
+                        return Boolean.TRUE;
+                    }
+                }));
+            }
+            for (Future<Boolean> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error(e, e);
+            returnCode.setReturnCode(e.getMessage(), false);
+            return returnCode;
+        } catch (ExecutionException e) {
+            log.error(e.getCause(), e.getCause());
+            returnCode.setReturnCode(e.getCause().getMessage(), false);
+            return returnCode;
+        } finally {
+            executor.shutdownNow();
+            try {
+                reader.close();
+            } catch (IOException e) {
+                log.error(e, e);
+            }
+        }
+        for (Map<Indicator, Indicator> threadPartials : partials) {
+            for (Map.Entry<Indicator, Indicator> entry : threadPartials.entrySet()) {
+                if (!entry.getKey().merge(entry.getValue())) {
+                    // should not happen since the indicators have been checked before
+                    log.warn(Messages.getString("PartitionedIndicatorEvaluator.NotMerged", entry.getKey().getName())); //$NON-NLS-1$
+                }
+            }
+        }
+        for (MappedRecordHandler handler : handlers) {
+            returnCode.setOk(returnCode.isOk() && handler.ok);
+        }
+        return returnCode;
+    }
+
+    /**
+     * Handles the analyzed fields of the records read by the {@link MappedDelimitedFileReader}.
+     */
+    private class MappedRecordHandler implements MappedDelimitedFileReader.RecordHandler {
+
+        private final Evaluator<String> evaluator;
+
+        private final List<MetadataColumn> columns;
+
+        private final List<List<Indicator>> columnIndicators;
+
+        private final int[] positions;
+
+        private final boolean[] fields;
+
+        private boolean ok = true;
+
+        MappedRecordHandler(Evaluator<String> evaluator, List<MetadataColumn> columns, List<List<Indicator>> columnIndicators) {
+            this.evaluator = evaluator;
+            this.columns = columns;
+            this.columnIndicators = columnIndicators;
+            this.positions = new int[columns.size()];
+            int maxPosition = -1;
+            for (int i = 0; i < columns.size(); i++) {
+                Integer position = ColumnHelper.getColumnIndex(columns.get(i));
+                positions[i] = position == null ? -1 : position;
+                maxPosition = Math.max(maxPosition, positions[i]);
+            }
+            this.fields = new boolean[maxPosition + 1];
+            for (int position : positions) {
+                if (position >= 0) {
+                    fields[position] = true;
+                }
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.talend.dq.helper.MappedDelimitedFileReader.RecordHandler#handle(java.lang.String[], long)
+         */
+        @Override
+        public boolean handle(String[] values, long offset) {
+            if (!evaluator.continueRun()) {
+                return false;
+            }
+            for (int i = 0; i < positions.length; i++) {
+                MetadataColumn mColumn = columns.get(i);
+                String value = positions[i] < 0 ? null : values[positions[i]];
+                // warning with a file of badly form
+                if (value == null) {
+                    log.warn(Messages.getString("DelimitedFileIndicatorEvaluator.missingData", //$NON-NLS-1$
+                            mColumn.getLabel(), offset, delimitedFileconnection.getFilePath()));
+                    ok = false;
+                    continue;
+                }
+                Object object = TalendTypeConvert.convertToObject(mColumn.getTalendType(), value, mColumn.getPattern());
+                for (Indicator indicator : columnIndicators.get(i)) {
+                    indicator.handle(object);
+                }
+            }
+            return true;
+        }
+    }
+
     /**
      * DOC zshen Comment method "createFileInputDelimited".
      *
@@ -307,6 +591,8 @@ public class DelimitedFileIndicatorEvaluator extends IndicatorEvaluator {
         Object object = null;
         int maxNumberRows = analysis.getParameters().getMaxNumberRows();
         int recordIncrement = 0;
+        // the row stored for the drill down, built once for all the indicators
+        List<Object> inputRowList = null;
         element: for (int i = 0; i < analysisElementList.size(); i++) {
             MetadataColumn mColumn = (MetadataColumn) analysisElementList.get(i);
             Integer position = ColumnHelper.getColumnIndex(mColumn);
@@ -344,14 +630,17 @@ public class DelimitedFileIndicatorEvaluator extends IndicatorEvaluator {
                         List<Object[]> valueObjectList = initDataSet(indicator, indicToRowMap, object);
                         recordIncrement = valueObjectList.size();
 
-                        List<Object> inputRowList = new ArrayList<Object>();
-                        for (int j = 0; j < rowValues.length; j++) {
-                            Object newobject = rowValues[j];
-
-                            if (indicator.isUsedMapDBMode()) {
-                                inputRowList.add(newobject == null ? PluginConstant.NULL_STRING : newobject);
-                                continue;
-                            } else {
+                        if (indicator.isUsedMapDBMode()) {
+                            if (inputRowList == null) {
+                                inputRowList = new ArrayList<Object>(rowValues.length);
+                                for (String value : rowValues) {
+                                    inputRowList.add(value == null ? PluginConstant.NULL_STRING : value);
+                                }
+                            }
+                            MapDBUtils.handleDrillDownData(object, inputRowList, indicator);
+                        } else {
+                            for (int j = 0; j < rowValues.length; j++) {
+                                Object newobject = rowValues[j];
                                 if (recordIncrement < maxNumberRows) {
                                     if (recordIncrement < valueObjectList.size()) {
                                         valueObjectList.get(recordIncrement)[j] = newobject;
@@ -365,10 +654,6 @@ public class DelimitedFileIndicatorEvaluator extends IndicatorEvaluator {
                                 }
                             }
                         }
-
-                        if (indicator.isUsedMapDBMode()) {
-                            MapDBUtils.handleDrillDownData(object, inputRowList, indicator);
-                        }
                     } else if (indicator instanceof UniqueCountIndicator
                             && analysis.getResults().getIndicToRowMap().get(indicator).getData() != null) {
                         List<Object[]> removeValueObjectList = analysis.getResults().getIndicToRowMap().get(indicator).getData();
@@ -32,6 +32,9 @@ import org.talend.core.model.metadata.builder.database.ExtractMetaDataUtils;
 import org.talend.cwm.db.connection.ConnectionUtils;
 import org.talend.cwm.management.i18n.Messages;
 import org.talend.dataquality.analysis.Analysis;
+import org.talend.dataquality.helpers.AnalysisHelper;
+import org.talend.dataquality.helpers.IndicatorHelper;
+import org.talend.dataquality.helpers.SystemPropertyHelper;
 import org.talend.dataquality.indicators.Indicator;
 import org.talend.dq.analysis.memory.AnalysisThreadMemoryChangeNotifier;
 import org.talend.dq.dbms.DbmsLanguageFactory;
@@ -49,8 +52,7 @@ public abstract class Evaluator<T> {
 
     private static Logger log = Logger.getLogger(Evaluator.class);
 
-    public static final int CHECK_EVERY_N_COUNT = Integer.valueOf(System.getProperty("talend.analysis.memory.check", //$NON-NLS-1$
-            "1000")); //$NON-NLS-1$
+    public static final int CHECK_EVERY_N_COUNT = SystemPropertyHelper.getInt("talend.analysis.memory.check", 1000); //$NON-NLS-1$
 
     private long checkContinueCount = 0L;
 
@@ -82,6 +84,8 @@ public abstract class Evaluator<T> {
 
     private boolean keepRunning = true;
 
+    private IncrementalAnalysisState incrementalState = null;
+
     /**
      * Getter for analysis.
      *
@@ -91,6 +95,16 @@ public abstract class Evaluator<T> {
         return this.analysis;
     }
 
+    /**
+     * Sets the state of an analysis run incrementally on a watermark column: the written state is added to the
+     * indicators before the rows are read, and the new state is written before the indicators are finalized.
+     *
+     * @param incrementalState the state, null when all the rows are read
+     */
+    public void setIncrementalState(IncrementalAnalysisState incrementalState) {
+        this.incrementalState = incrementalState;
+    }
+
     /**
      * Method "storeIndicator" stores the mapping between the analyzed element name and its indicators. if needed, this
      * method must be called on the Child indicators of the given indicator.
@@ -141,10 +155,18 @@ public abstract class Evaluator<T> {
                 rc.setReturnCode(Messages.getString("Evaluator.Problem", javaPatternMessage), false); //$NON-NLS-1$
                 return rc;
             }
+            if (incrementalState != null
+                    && !incrementalState.restore(IndicatorHelper.getAdaptedIndicators(allIndicators))) {
+                rc.setReturnCode(Messages.getString("Evaluator.IncrementalStateNotRead"), false); //$NON-NLS-1$
+                return rc;
+            }
 
             if (this.continueRun()) {
                 rc = executeSqlQuery(sqlStatement);
             }
+            if (incrementalState != null && rc.isOk() && !isLowMemory && this.continueRun()) {
+                incrementalState.store(IndicatorHelper.getAdaptedIndicators(allIndicators));
+            }
             // MOD qiongli tdq-7282 when rc is not ok,should not return,need to continue and dispaly those correct
             // indicator results.
             // if (!rc.isOk()) {
@@ -167,12 +189,17 @@ public abstract class Evaluator<T> {
 
     private boolean finalizeIndicators() {
         boolean ok = true;
+        boolean estimated = false;
         for (Indicator indic : allIndicators) {
             if (!indic.finalizeComputation()) {
                 ok = false;
             } else {
                 indic.setComputed(true);
             }
+            estimated |= indic.isEstimated();
+        }
+        if (analysis != null && analysis.getResults() != null) {
+            AnalysisHelper.setEstimatedResult(analysis.getResults(), estimated);
         }
         return ok;
     }
@@ -185,6 +212,10 @@ public abstract class Evaluator<T> {
                 ok = false;
             }
         }
+        // the quantiles of a column are estimated from the same values
+        IndicatorHelper.shareQuantileSketches(allIndicators);
+        // the indicators of a column derive the same values from each cell
+        IndicatorHelper.shareDerivedValueCaches(allIndicators);
         return ok;
     }
 
@@ -204,7 +235,14 @@ public abstract class Evaluator<T> {
      * @return a return code with an error message if any problem has been encountered.
      */
     public ReturnCode evaluateIndicators(String sqlStatement, boolean closeConnection) {
+        long allocatedBytes = log.isDebugEnabled() ? AnalysisThreadMemoryChangeNotifier.getCurrentThreadAllocatedBytes() : -1L;
         ReturnCode rc = evaluateIndicators(sqlStatement);
+        if (allocatedBytes >= 0) {
+            // the memory allocated by the analysis on this thread, the worker threads are not counted
+            long newAllocatedBytes = AnalysisThreadMemoryChangeNotifier.getCurrentThreadAllocatedBytes() - allocatedBytes;
+            log.debug("Analysis " + (analysis == null ? null : analysis.getName()) + " allocated " //$NON-NLS-1$ //$NON-NLS-2$
+                    + AnalysisThreadMemoryChangeNotifier.convertToMB(newAllocatedBytes) + " MB"); //$NON-NLS-1$
+        }
         if (this.isPooledConnection()) {
             return rc;
         } else {
@@ -285,6 +323,24 @@ public abstract class Evaluator<T> {
 
     }
 
+    /**
+     * Getter for isLowMemory.
+     *
+     * @return true when the evaluation has been stopped because of the memory threshold
+     */
+    protected boolean isLowMemory() {
+        return this.isLowMemory;
+    }
+
+    /**
+     * Getter for usedMemory.
+     *
+     * @return the used memory in MB when the evaluation has been stopped because of the memory threshold
+     */
+    protected long getUsedMemory() {
+        return this.usedMemory;
+    }
+
     protected Indicator[] getAllIndicators() {
         return this.allIndicators.toArray(new Indicator[allIndicators.size()]);
     }
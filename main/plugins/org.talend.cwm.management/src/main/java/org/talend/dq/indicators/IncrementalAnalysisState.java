@@ -0,0 +1,374 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.indicators;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang.ObjectUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.log4j.Logger;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.talend.cwm.helper.ResourceHelper;
+import org.talend.cwm.helper.TaggedValueHelper;
+import org.talend.dataquality.analysis.Analysis;
+import org.talend.dataquality.indicators.Indicator;
+import org.talend.resource.ResourceManager;
+
+/**
+ * The state of the indicators of an analysis run incrementally on a watermark column, i.e. a column whose value grows
+ * with each new row (an auto-increment key, a creation date...).
+ * <p>
+ * After each run, the state of the indicators before {@link Indicator#finalizeComputation()} is written with
+ * {@link Indicator#writeState(java.io.ObjectOutput)}, with the greatest watermark read. The next run reads only the
+ * rows after this watermark and adds the written state to the prepared indicators with
+ * {@link Indicator#readState(java.io.ObjectInput)}, so the results are the ones of the whole table. The state is
+ * discarded, and all the rows are read again, when the data filter, the watermark column, the indicators of the
+ * analysis or their parameters change.
+ * <p>
+ * The indicators are the leaf indicators of the analysis, with the row count indicators themselves instead of the
+ * {@link org.talend.dataquality.helpers.RowCountIndicatorsAdapter} which computes them during the run (see
+ * {@link org.talend.dataquality.helpers.IndicatorHelper#getAdaptedIndicators(Collection)}).
+ */
+public class IncrementalAnalysisState {
+
+    private static Logger log = Logger.getLogger(IncrementalAnalysisState.class);
+
+    /**
+     * The key of the tagged value of the analysis which holds the name of the watermark column.
+     */
+    public static final String WATERMARK_COLUMN = "WATERMARK_COLUMN"; //$NON-NLS-1$
+
+    private static final String FILE_EXTENSION = ".incremental"; //$NON-NLS-1$
+
+    private static final int VERSION = 2;
+
+    private final File file;
+
+    private final String watermarkColumn;
+
+    private final String dataFilter;
+
+    private String watermark;
+
+    private Map<String, byte[]> indicatorStates;
+
+    private String nextWatermark;
+
+    /**
+     * IncrementalAnalysisState constructor.
+     *
+     * @param file the file where the state is kept
+     * @param watermarkColumn the name of the watermark column
+     * @param dataFilter the data filter of the analysis
+     */
+    IncrementalAnalysisState(File file, String watermarkColumn, String dataFilter) {
+        this.file = file;
+        this.watermarkColumn = watermarkColumn;
+        this.dataFilter = StringUtils.defaultString(dataFilter);
+    }
+
+    /**
+     * Method "getWatermarkColumn".
+     *
+     * @param analysis the analysis
+     * @return the name of the watermark column of the analysis, or null when the analysis is not incremental
+     */
+    public static String getWatermarkColumn(Analysis analysis) {
+        String column = TaggedValueHelper.getValueString(WATERMARK_COLUMN, analysis);
+        return StringUtils.isBlank(column) ? null : column.trim();
+    }
+
+    /**
+     * Method "isMergeable".
+     *
+     * @param indicators the indicators of the analysis
+     * @return true when the state of all the indicators can be written and read again
+     */
+    public static boolean isMergeable(Collection<Indicator> indicators) {
+        for (Indicator indicator : indicators) {
+            if (!indicator.isMergeable() || ResourceHelper.getUUID(indicator) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method "getParametersFingerprint".
+     *
+     * @param indicator an indicator
+     * @return the description of everything which changes the results of the indicator beside the rows: its
+     * parameters, its definition and the elements they refer to (patterns...)
+     */
+    static String getParametersFingerprint(Indicator indicator) {
+        StringBuilder fingerprint = new StringBuilder();
+        Set<EObject> visited = new HashSet<EObject>();
+        appendElement(fingerprint, indicator.getParameters(), visited, true);
+        fingerprint.append('|');
+        appendElement(fingerprint, indicator.getIndicatorDefinition(), visited, true);
+        return fingerprint.toString();
+    }
+
+    /**
+     * Appends the attributes of an element and of its contained elements. The referenced elements are appended the
+     * same way, without following their own references.
+     */
+    private static void appendElement(StringBuilder fingerprint, EObject element, Set<EObject> visited,
+            boolean followReferences) {
+        if (element == null) {
+            fingerprint.append("null"); //$NON-NLS-1$
+            return;
+        }
+        fingerprint.append(element.eClass().getName()).append('{');
+        if (visited.add(element)) {
+            for (EAttribute attribute : element.eClass().getEAllAttributes()) {
+                if (!attribute.isTransient() && !attribute.isDerived()) {
+                    fingerprint.append(attribute.getName()).append('=').append(element.eGet(attribute)).append(';');
+                }
+            }
+            for (EReference reference : element.eClass().getEAllReferences()) {
+                if (reference.isContainer() || reference.isTransient() || reference.isDerived()
+                        || !(reference.isContainment() || followReferences)) {
+                    continue;
+                }
+                fingerprint.append(reference.getName()).append('=');
+                Object value = element.eGet(reference);
+                if (value instanceof Collection<?>) {
+                    for (Object referenced : (Collection<?>) value) {
+                        appendReferenced(fingerprint, reference, (EObject) referenced, visited, followReferences);
+                    }
+                } else {
+                    appendReferenced(fingerprint, reference, (EObject) value, visited, followReferences);
+                }
+                fingerprint.append(';');
+            }
+        } else {
+            fingerprint.append(ResourceHelper.getUUID(element));
+        }
+        fingerprint.append('}');
+    }
+
+    private static void appendReferenced(StringBuilder fingerprint, EReference reference, EObject referenced,
+            Set<EObject> visited, boolean followReferences) {
+        if (reference.isContainment()) {
+            appendElement(fingerprint, referenced, visited, followReferences);
+        } else {
+            fingerprint.append(referenced == null ? null : ResourceHelper.getUUID(referenced));
+            appendElement(fingerprint, referenced, visited, false);
+        }
+    }
+
+    /**
+     * Method "load" reads the state written by the previous run of the analysis.
+     *
+     * @param analysis the analysis
+     * @param watermarkColumn the name of the watermark column
+     * @param dataFilter the data filter of the analysis
+     * @param indicators the indicators of the analysis
+     * @return the state, which is incremental when the written state matches the analysis
+     */
+    public static IncrementalAnalysisState load(Analysis analysis, String watermarkColumn, String dataFilter,
+            Collection<Indicator> indicators) {
+        File folder = ResourceManager.getTempMapDBFolder().toFile();
+        File stateFile = new File(folder, ResourceHelper.getUUID(analysis) + FILE_EXTENSION);
+        IncrementalAnalysisState state = new IncrementalAnalysisState(stateFile, watermarkColumn, dataFilter);
+        state.read(indicators);
+        return state;
+    }
+
+    /**
+     * Method "isIncremental".
+     *
+     * @return true when only the rows after {@link #getWatermark()} must be read
+     */
+    public boolean isIncremental() {
+        return indicatorStates != null && watermark != null;
+    }
+
+    /**
+     * Getter for watermark.
+     *
+     * @return the SQL literal of the greatest watermark read by the previous run, or null
+     */
+    public String getWatermark() {
+        return this.watermark;
+    }
+
+    /**
+     * Sets the SQL literal of the greatest watermark read by this run, which is written with the state.
+     *
+     * @param nextWatermark the SQL literal, null when no row has a watermark
+     */
+    public void setNextWatermark(String nextWatermark) {
+        this.nextWatermark = nextWatermark;
+    }
+
+    /**
+     * Method "restore" adds the written state to the prepared indicators, when the run is incremental.
+     *
+     * @param indicators the prepared indicators
+     * @return false when the state cannot be read, then it is deleted so that the next run reads all the rows
+     */
+    public boolean restore(Collection<Indicator> indicators) {
+        if (!isIncremental()) {
+            return true;
+        }
+        try {
+            for (Indicator indicator : indicators) {
+                byte[] indicatorState = indicatorStates.get(ResourceHelper.getUUID(indicator));
+                if (indicatorState == null) {
+                    log.error("No incremental state for the indicator " + indicator.getName()); //$NON-NLS-1$
+                    delete();
+                    return false;
+                }
+                ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(indicatorState));
+                indicator.readState(in);
+            }
+            return true;
+        } catch (IOException e) {
+            log.error(e, e);
+        } catch (ClassNotFoundException e) {
+            log.error(e, e);
+        }
+        delete();
+        return false;
+    }
+
+    /**
+     * Method "store" writes the state of the indicators, before they are finalized, with the next watermark.
+     *
+     * @param indicators the indicators
+     */
+    public void store(Collection<Indicator> indicators) {
+        File tempFile = new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+        ObjectOutputStream out = null;
+        try {
+            file.getParentFile().mkdirs();
+            out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            out.writeInt(VERSION);
+            out.writeUTF(watermarkColumn);
+            out.writeUTF(dataFilter);
+            out.writeObject(nextWatermark);
+            out.writeInt(indicators.size());
+            for (Indicator indicator : indicators) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                ObjectOutputStream indicatorOut = new ObjectOutputStream(bytes);
+                indicator.writeState(indicatorOut);
+                indicatorOut.close();
+                out.writeUTF(ResourceHelper.getUUID(indicator));
+                out.writeUTF(indicator.getClass().getName());
+                out.writeObject(getParametersFingerprint(indicator));
+                out.writeObject(bytes.toByteArray());
+            }
+            out.close();
+            out = null;
+            if ((!file.exists() || file.delete()) && tempFile.renameTo(file)) {
+                return;
+            }
+            log.warn("Cannot write the incremental state " + file); //$NON-NLS-1$
+        } catch (IOException e) {
+            // a value which is not serializable: the next run reads all the rows
+            log.warn(e, e);
+        } finally {
+            close(out);
+        }
+        tempFile.delete();
+        delete();
+    }
+
+    /**
+     * Method "delete" deletes the written state, so that the next run reads all the rows.
+     */
+    public void delete() {
+        if (file.exists() && !file.delete()) {
+            log.warn("Cannot delete the incremental state " + file); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Reads the written state, which is kept only when it matches the watermark column, the data filter and the
+     * indicators of the analysis with their parameters.
+     */
+    void read(Collection<Indicator> indicators) {
+        indicatorStates = null;
+        watermark = null;
+        if (!file.isFile()) {
+            return;
+        }
+        ObjectInputStream in = null;
+        try {
+            in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != VERSION || !watermarkColumn.equals(in.readUTF()) || !dataFilter.equals(in.readUTF())) {
+                return;
+            }
+            String lastWatermark = (String) in.readObject();
+            int size = in.readInt();
+            if (size != indicators.size()) {
+                return;
+            }
+            Map<String, String> classNames = new HashMap<String, String>();
+            Map<String, String> fingerprints = new HashMap<String, String>();
+            Map<String, byte[]> states = new HashMap<String, byte[]>();
+            for (int i = 0; i < size; i++) {
+                String uuid = in.readUTF();
+                classNames.put(uuid, in.readUTF());
+                fingerprints.put(uuid, (String) in.readObject());
+                states.put(uuid, (byte[]) in.readObject());
+            }
+            for (Indicator indicator : indicators) {
+                String uuid = ResourceHelper.getUUID(indicator);
+                if (!ObjectUtils.equals(indicator.getClass().getName(), classNames.get(uuid))
+                        || !ObjectUtils.equals(getParametersFingerprint(indicator), fingerprints.get(uuid))) {
+                    return;
+                }
+            }
+            this.watermark = lastWatermark;
+            this.indicatorStates = states;
+        } catch (IOException e) {
+            log.warn(e, e);
+        } catch (ClassNotFoundException e) {
+            log.warn(e, e);
+        } catch (ClassCastException e) {
+            log.warn(e, e);
+        } finally {
+            close(in);
+        }
+    }
+
+    private static void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                log.warn(e, e);
+            }
+        }
+    }
+}
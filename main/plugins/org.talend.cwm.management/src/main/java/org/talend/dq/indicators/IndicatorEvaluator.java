@@ -16,6 +16,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Time;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -40,6 +41,8 @@ import org.talend.dataquality.analysis.AnalyzedDataSet;
 import org.talend.dataquality.analysis.ExecutionLanguage;
 import org.talend.dataquality.analysis.impl.AnalyzedDataSetImpl;
 import org.talend.dataquality.helpers.IndicatorHelper;
+import org.talend.dataquality.helpers.SystemPropertyHelper;
+import org.talend.dataquality.indicators.DerivedValueCache;
 import org.talend.dataquality.indicators.DuplicateCountIndicator;
 import org.talend.dataquality.indicators.FormatFreqPieIndicator;
 import org.talend.dataquality.indicators.FrequencyIndicator;
@@ -70,6 +73,12 @@ public class IndicatorEvaluator extends Evaluator<String> {
 
     private static Logger log = Logger.getLogger(IndicatorEvaluator.class);
 
+    /**
+     * The number of rows fetched per batch by the columnar execution mode. The default value 0 keeps the row by row
+     * mode.
+     */
+    public static final int BATCH_SIZE = SystemPropertyHelper.getInt("talend.analysis.batch.size", 0); //$NON-NLS-1$
+
     public IndicatorEvaluator(Analysis analysis) {
         this.analysis = analysis;
     }
@@ -117,10 +126,26 @@ public class IndicatorEvaluator extends Evaluator<String> {
         AnalysisResult anaResult = analysis.getResults();
         EMap<Indicator, AnalyzedDataSet> indicToRowMap = anaResult.getIndicToRowMap();
         indicToRowMap.clear();
+        if (isBatchModeAllowed(columnlist)) {
+            executeBatchQuery(resultSet, columnlist, columnlistMap, indicToRowMap, maxNumberRows);
+            // --- release resultset
+            resultSet.close();
+            // --- release statement
+            statement.close();
+            // --- close connection
+            getConnection().close();
+            return ok;
+        }
         int recordIncrement = 0;
+        if (analysis.getParameters().isStoreData()) {
+            MapDBUtils.clearDrillDownRowLog(analysis);
+        }
         // --- for each row
         int columnListSize = columnlist.size();
         label: while (resultSet.next()) {
+            // the row stored for the drill down, read once for all the indicators
+            List<Object> inputRowList = null;
+            ColumnSet inputRowColumnSet = null;
             // --- for each column
             // feature 0010630 zshen: dislodge the Qualifiers from name of the column
             for (int i = 0; i < columnListSize; i++) {
@@ -183,30 +208,19 @@ public class IndicatorEvaluator extends Evaluator<String> {
                             ColumnSet doSwitch = SwitchHelpers.COLUMN_SET_SWITCH.doSwitch(indicator.getAnalyzedElement()
                                     .eContainer());
                             List<TdColumn> columnList = ColumnSetHelper.getColumns(doSwitch);
-                            List<Object> inputRowList = new ArrayList<Object>();
-                            for (int j = 0; j < columnCount; j++) {
-                                String newcol = columnList.get(j).getName();
-                                Object newobject = ResultSetUtils.getBigObject(resultSet, newcol);
-                                // TDQ-10833 Format Drill down Date data by TalendFormatTime with
-                                // "HH:mm:ss:SSS",TalendFormatDate with "yyyy-MM-dd HH:mm:ss:SSS".So that it is
-                                // same format as result page.
-                                if (newobject instanceof Date) {
-                                    if (newobject instanceof Time) {
-                                        newobject = new TalendFormatTime((Time) newobject);
-                                    } else {
-                                        newobject = new TalendFormatDate((Date) newobject);
-                                    }
+                            if (indicator.isUsedMapDBMode()) {
+                                if (inputRowList == null || inputRowColumnSet != doSwitch) {
+                                    inputRowList = getDrillDownRow(resultSet, columnList, columnCount);
+                                    inputRowColumnSet = doSwitch;
                                 }
-                                if (indicator.isUsedMapDBMode()) {
-                                    inputRowList.add(newobject == null ? PluginConstant.NULL_STRING : newobject);
-                                    continue;
-                                } else {
-                                    if (recordIncrement < maxNumberRows) {// decide whether current record is more than
-                                                                          // max
-                                                                          // Number else don't need to record more than
-                                                                          // data.
-                                        if (recordIncrement < valueObjectList.size()) {// decide whether need to
-                                                                                       // increase
+                                MapDBUtils.handleDrillDownData(object, inputRowList, indicator);
+                            } else {
+                                for (int j = 0; j < columnCount; j++) {
+                                    String newcol = columnList.get(j).getName();
+                                    Object newobject = getDrillDownValue(resultSet, newcol);
+                                    if (recordIncrement < maxNumberRows) {// decide whether current record is more than max
+                                                                          // Number else don't need to record more than data.
+                                        if (recordIncrement < valueObjectList.size()) {// decide whether need to increase
                                                                                        // current array.
                                             valueObjectList.get(recordIncrement)[j] = newobject;
 
@@ -220,9 +234,6 @@ public class IndicatorEvaluator extends Evaluator<String> {
                                     }
                                 }
                             }
-                            if (indicator.isUsedMapDBMode()) {
-                                MapDBUtils.handleDrillDownData(object, inputRowList, indicator);
-                            }
                             // ~
                         } else if (indicator instanceof UniqueCountIndicator
                                 && analysis.getResults().getIndicToRowMap().get(indicator).getData() != null) {
@@ -256,13 +267,208 @@ public class IndicatorEvaluator extends Evaluator<String> {
         return ok;
     }
 
+    /**
+     * Reads the row stored for the drill down. The same row is given to all the indicators which store it, so it is
+     * written once in the drill down row log of the analysis.
+     *
+     * @param resultSet the result set, on the current row
+     * @param columnList the columns of the analyzed table
+     * @param columnCount the number of columns of the result set
+     * @return the values of the row, null values being replaced by {@link PluginConstant#NULL_STRING}
+     * @throws SQLException
+     */
+    private List<Object> getDrillDownRow(ResultSet resultSet, List<TdColumn> columnList, int columnCount) throws SQLException {
+        List<Object> inputRowList = new ArrayList<Object>(columnCount);
+        for (int j = 0; j < columnCount; j++) {
+            Object newobject = getDrillDownValue(resultSet, columnList.get(j).getName());
+            inputRowList.add(newobject == null ? PluginConstant.NULL_STRING : newobject);
+        }
+        return inputRowList;
+    }
+
+    private Object getDrillDownValue(ResultSet resultSet, String col) throws SQLException {
+        Object newobject = ResultSetUtils.getBigObject(resultSet, col);
+        // TDQ-10833 Format Drill down Date data by TalendFormatTime with "HH:mm:ss:SSS",TalendFormatDate with
+        // "yyyy-MM-dd HH:mm:ss:SSS".So that it is same format as result page.
+        if (newobject instanceof Date) {
+            if (newobject instanceof Time) {
+                newobject = new TalendFormatTime((Time) newobject);
+            } else {
+                newobject = new TalendFormatDate((Date) newobject);
+            }
+        }
+        return newobject;
+    }
+
+    /**
+     * The columnar mode can only be used when no row has to be stored for the drill down and when no indicator needs
+     * the whole result set row.
+     *
+     * @param columnlist the analyzed columns
+     * @return true if the rows can be given to the indicators by batch
+     */
+    protected boolean isBatchModeAllowed(List<String> columnlist) {
+        if (getBatchSize() <= 0 || analysis.getParameters().isStoreData()) {
+            return false;
+        }
+        for (String col : columnlist) {
+            for (Indicator indicator : getIndicators(col)) {
+                if (indicator instanceof DuplicateCountIndicator) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Getter for the batch size.
+     *
+     * @return the number of rows fetched per batch, 0 or less when the columnar mode is disabled
+     */
+    protected int getBatchSize() {
+        return BATCH_SIZE;
+    }
+
+    /**
+     * Fetches the rows by batch of {@link #getBatchSize()} into one array per column and gives each filled batch to
+     * {@link #processBatch(Object[][], int, boolean[], List)}.
+     *
+     * @param resultSet the result set positioned before the first row
+     * @param columnlist the analyzed columns
+     * @param columnlistMap the column name in the result set for each analyzed column
+     * @param indicToRowMap the analyzed data set map of the analysis result
+     * @param maxNumberRows the max number of rows of the analysis
+     * @throws SQLException
+     */
+    protected void executeBatchQuery(ResultSet resultSet, List<String> columnlist, Map<String, String> columnlistMap,
+            EMap<Indicator, AnalyzedDataSet> indicToRowMap, int maxNumberRows) throws SQLException {
+        int columnListSize = columnlist.size();
+        int[] columnIndexes = new int[columnListSize];
+        boolean[] timestampColumns = new boolean[columnListSize];
+        Boolean[] vendorTimestampColumns = new Boolean[columnListSize];
+        boolean[] dateColumns = new boolean[columnListSize];
+        List<List<Indicator>> columnIndicators = new ArrayList<List<Indicator>>(columnListSize);
+        for (int i = 0; i < columnListSize; i++) {
+            String col = columnlist.get(i);
+            List<Indicator> indicators = getIndicators(col);
+            columnIndicators.add(indicators);
+            for (Indicator indicator : indicators) {
+                if (indicToRowMap.get(indicator) == null) {
+                    AnalyzedDataSet analyzedDataSet = AnalysisFactory.eINSTANCE.createAnalyzedDataSet();
+                    indicToRowMap.put(indicator, analyzedDataSet);
+                    analyzedDataSet.setDataCount(maxNumberRows);
+                    analyzedDataSet.setRecordSize(0);
+                }
+            }
+            // resolve the column type once instead of checking it for each cell
+            columnIndexes[i] = resultSet.findColumn(columnlistMap.get(col));
+            int columnType = resultSet.getMetaData().getColumnType(columnIndexes[i]);
+            timestampColumns[i] = columnType == Types.TIMESTAMP;
+            dateColumns[i] = timestampColumns[i] || columnType == Types.DATE || columnType == Types.TIME;
+        }
+
+        int batchSize = getBatchSize();
+        Object[][] batch = new Object[columnListSize][batchSize];
+        int batchRowCount = 0;
+        try {
+            while (resultSet.next()) {
+                if (!continueRun()) {
+                    break;
+                }
+                for (int i = 0; i < columnListSize; i++) {
+                    Object object = null;
+                    if (timestampColumns[i]) {
+                        object = resultSet.getTimestamp(columnIndexes[i]);
+                    } else {
+                        object = ResultSetUtils.getBigObject(resultSet, columnIndexes[i]);
+                        // some drivers return their own TIMESTAMP object, check it only on the first non null value
+                        if (object != null && vendorTimestampColumns[i] == null) {
+                            vendorTimestampColumns[i] = !(object instanceof String)
+                                    && object.toString().indexOf("TIMESTAMP") > -1; //$NON-NLS-1$
+                            dateColumns[i] = dateColumns[i] || vendorTimestampColumns[i] || object instanceof Date;
+                        }
+                        if (object != null && Boolean.TRUE.equals(vendorTimestampColumns[i])) {
+                            object = resultSet.getTimestamp(columnIndexes[i]);
+                        }
+                    }
+                    batch[i][batchRowCount] = object;
+                }
+                batchRowCount++;
+                if (batchRowCount == batchSize) {
+                    batch = processBatch(batch, batchRowCount, dateColumns, columnIndicators);
+                    batchRowCount = 0;
+                }
+            }
+            // the rows read before a cancel are counted, as in the row by row mode
+            if (batchRowCount > 0) {
+                processBatch(batch, batchRowCount, dateColumns, columnIndicators);
+            }
+        } finally {
+            endBatches();
+        }
+    }
+
+    /**
+     * Gives a filled batch to the indicators. This implementation handles it on the current thread and returns the
+     * same arrays to be filled with the next rows. Subclasses can handle it asynchronously and return other arrays.
+     *
+     * @param batch the values of the batch, one array per column
+     * @param size the number of rows in the batch
+     * @param dateColumns whether each column can contain dates
+     * @param columnIndicators the indicators of each column
+     * @return the arrays in which the next batch will be read
+     * @throws SQLException
+     */
+    protected Object[][] processBatch(Object[][] batch, int size, boolean[] dateColumns,
+            List<List<Indicator>> columnIndicators) throws SQLException {
+        for (int i = 0; i < batch.length; i++) {
+            handleColumnBatch(batch[i], size, dateColumns[i], columnIndicators.get(i));
+        }
+        return batch;
+    }
+
+    /**
+     * Called once all the batches have been read, even when the reading has failed. Subclasses which handle the
+     * batches asynchronously must wait here for the pending ones.
+     *
+     * @throws SQLException
+     */
+    protected void endBatches() throws SQLException {
+        // nothing to wait for, all batches are handled synchronously
+    }
+
+    /**
+     * Converts the dates of one column of a batch and gives the column vector to its indicators.
+     *
+     * @param values the column values of the batch
+     * @param size the number of rows in the batch
+     * @param dateColumn whether the column can contain dates
+     * @param indicators the indicators of the column
+     */
+    protected void handleColumnBatch(Object[] values, int size, boolean dateColumn, List<Indicator> indicators) {
+        if (dateColumn) {
+            // TDQ-11299: fix the ClassCastException: java.sql.Date cannot be cast to java.lang.String
+            for (int j = 0; j < size; j++) {
+                Object object = values[j];
+                if (object instanceof Date) {
+                    values[j] = object instanceof Time ? new TalendFormatTime((Time) object) : new TalendFormatDate(
+                            (Date) object);
+                }
+            }
+        }
+        for (Indicator indicator : indicators) {
+            indicator.handleBatch(values, size);
+        }
+    }
+
     /**
      * DOC xqliu Comment method "buildColumnListMap". bug 13826
      *
      * @param columnlist
      * @return
      */
-    private Map<String, String> buildColumnListMap(List<String> columnlist) {
+    protected Map<String, String> buildColumnListMap(List<String> columnlist) {
         Map<String, String> result = new HashMap<String, String>();
         for (String col : columnlist) {
             result.put(col, col.substring(col.lastIndexOf('.') + 1));
@@ -292,13 +498,16 @@ public class IndicatorEvaluator extends Evaluator<String> {
             if (object == null) {
                 key = SpecialValueDisplay.NULL_FIELD;
             } else if (indicator instanceof MinLengthIndicator || indicator instanceof MaxLengthIndicator) {
-                key = String.valueOf(object.toString().codePoints().count());
+                // the length has already been computed for the indicator
+                String str = object.toString();
+                DerivedValueCache cache = indicator.getDerivedValueCache();
+                key = String.valueOf(cache == null ? str.codePointCount(0, str.length()) : cache.getLength(str));
             } else if (object.equals(PluginConstant.EMPTY_STRING)) {
                 key = SpecialValueDisplay.EMPTY_FIELD;
             } else if (indicator instanceof PatternLowFreqIndicator) {
-                key = ((PatternLowFreqIndicator) indicator).convertCharacters(object.toString());
+                key = ((PatternLowFreqIndicator) indicator).getPattern(object);
             } else if (indicator instanceof PatternFreqIndicator) {
-                key = ((PatternFreqIndicator) indicator).convertCharacters(object.toString());
+                key = ((PatternFreqIndicator) indicator).getPattern(object);
             } else if (indicator instanceof FormatFreqPieIndicator) {
                 // MOD qiongli 2011-8-26,feature TDQ-3253.
                 key = ((FormatFreqPieIndicator) indicator).getCurrentKey();
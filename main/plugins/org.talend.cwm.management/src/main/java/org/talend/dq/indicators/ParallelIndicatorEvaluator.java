@@ -0,0 +1,152 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.indicators;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+import org.talend.dataquality.analysis.Analysis;
+import org.talend.dataquality.helpers.SystemPropertyHelper;
+import org.talend.dataquality.indicators.Indicator;
+
+/**
+ * Computes indicators on columns with java engine, the indicators of each column being computed on worker threads.
+ * <p>
+ * The thread which reads the result set fills a batch while the workers handle the previous one (two batches are
+ * used alternately). All the indicators of a column are handled by the same task, and a batch is only given to the
+ * workers once the previous one has been completely handled, so that an indicator is never called by two threads at
+ * the same time. The cancellation and memory checks are still done by the reading thread with
+ * {@link #continueRun()}.
+ */
+public class ParallelIndicatorEvaluator extends IndicatorEvaluator {
+
+    private static Logger log = Logger.getLogger(ParallelIndicatorEvaluator.class);
+
+    /**
+     * The number of worker threads used to compute the indicators. The default value 1 keeps the serial
+     * {@link IndicatorEvaluator}.
+     */
+    public static final int THREAD_NUMBER = SystemPropertyHelper.getInt("talend.analysis.thread.number", 1); //$NON-NLS-1$
+
+    /**
+     * the batch size used when no batch size is set by the user.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private ExecutorService executor;
+
+    private List<Future<Boolean>> pendingTasks = new ArrayList<Future<Boolean>>();
+
+    private Object[][] pendingBatch;
+
+    public ParallelIndicatorEvaluator(Analysis analysis) {
+        super(analysis);
+    }
+
+    /**
+     * Method "isParallelEnabled".
+     *
+     * @return true when more than one worker thread has been set
+     */
+    public static boolean isParallelEnabled() {
+        return THREAD_NUMBER > 1;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.indicators.IndicatorEvaluator#getBatchSize()
+     */
+    @Override
+    protected int getBatchSize() {
+        return BATCH_SIZE > 0 ? BATCH_SIZE : DEFAULT_BATCH_SIZE;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.indicators.IndicatorEvaluator#processBatch(java.lang.Object[][], int, boolean[],
+     * java.util.List)
+     */
+    @Override
+    protected Object[][] processBatch(Object[][] batch, int size, boolean[] dateColumns,
+            List<List<Indicator>> columnIndicators) throws SQLException {
+        // the previous batch must be handled before its arrays are filled again
+        waitPendingTasks();
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(Math.min(THREAD_NUMBER, batch.length));
+        }
+        for (int i = 0; i < batch.length; i++) {
+            final Object[] values = batch[i];
+            final int batchSize = size;
+            final boolean dateColumn = dateColumns[i];
+            final List<Indicator> indicators = columnIndicators.get(i);
+            pendingTasks.add(executor.submit(new Callable<Boolean>() {
+
+                @Override
+                public Boolean call() throws Exception {
+                    handleColumnBatch(values, batchSize, dateColumn, indicators);
+                    return Boolean.TRUE;
+                }
+            }));
+        }
+        Object[][] nextBatch = pendingBatch;
+        if (nextBatch == null) {
+            nextBatch = new Object[batch.length][batch[0].length];
+        }
+        pendingBatch = batch;
+        return nextBatch;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.indicators.IndicatorEvaluator#endBatches()
+     */
+    @Override
+    protected void endBatches() throws SQLException {
+        try {
+            waitPendingTasks();
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+            pendingTasks.clear();
+            pendingBatch = null;
+        }
+    }
+
+    private void waitPendingTasks() throws SQLException {
+        try {
+            for (Future<Boolean> task : pendingTasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            log.error(e.getCause(), e.getCause());
+            throw new SQLException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            pendingTasks.clear();
+        }
+    }
+}
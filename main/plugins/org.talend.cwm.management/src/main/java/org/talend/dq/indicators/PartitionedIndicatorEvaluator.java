@@ -0,0 +1,332 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.indicators;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.BasicEMap;
+import org.eclipse.emf.common.util.EMap;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.talend.cwm.management.i18n.Messages;
+import org.talend.dataquality.analysis.Analysis;
+import org.talend.dataquality.analysis.AnalysisFactory;
+import org.talend.dataquality.analysis.AnalyzedDataSet;
+import org.talend.dataquality.helpers.IndicatorHelper;
+import org.talend.dataquality.helpers.SystemPropertyHelper;
+import org.talend.dataquality.indicators.FrequencyIndicator;
+import org.talend.dataquality.indicators.Indicator;
+import org.talend.dataquality.indicators.MedianIndicator;
+import org.talend.dataquality.indicators.sketch.QuantileSketch;
+import org.talend.dataquality.indicators.sketch.QuantileSketchIndicator;
+import org.talend.dq.analysis.connpool.TdqAnalysisConnectionPool;
+import org.talend.utils.collections.MultiMapHelper;
+import org.talend.utils.sugars.ReturnCode;
+
+/**
+ * Computes indicators on columns with java engine, the rows being split in partitions which are read in parallel.
+ * <p>
+ * Each partition is read with its own query (see {@link #setPartitionStatements(List)}) and its own pooled connection
+ * into copies of the indicators. The partial results are then merged into the indicators of the analysis with
+ * {@link Indicator#merge(Indicator)}. When an indicator cannot be merged, the whole table is read by
+ * {@link IndicatorEvaluator}. The quantile sketches of the copies are merged into the sketch of the column, so the
+ * estimated quantiles keep a bounded memory.
+ */
+public class PartitionedIndicatorEvaluator extends IndicatorEvaluator {
+
+    private static Logger log = Logger.getLogger(PartitionedIndicatorEvaluator.class);
+
+    /**
+     * The number of partitions read in parallel. The default value 1 keeps the serial {@link IndicatorEvaluator}.
+     */
+    public static final int PARTITION_NUMBER = SystemPropertyHelper.getInt("talend.analysis.partition.number", 1); //$NON-NLS-1$
+
+    /**
+     * the batch size used when no batch size is set by the user.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private List<String> partitionStatements = new ArrayList<String>();
+
+    private String catalogName;
+
+    public PartitionedIndicatorEvaluator(Analysis analysis) {
+        super(analysis);
+    }
+
+    /**
+     * Method "isPartitionEnabled".
+     *
+     * @return true when more than one partition has been set
+     */
+    public static boolean isPartitionEnabled() {
+        return PARTITION_NUMBER > 1;
+    }
+
+    /**
+     * Sets the queries of the partitions, each one selecting the same columns as the analysis query on a disjoint
+     * subset of the rows.
+     *
+     * @param partitionStatements the query of each partition
+     */
+    public void setPartitionStatements(List<String> partitionStatements) {
+        this.partitionStatements = partitionStatements;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.indicators.Evaluator#selectCatalog(java.lang.String)
+     */
+    @Override
+    public boolean selectCatalog(String catalogName) {
+        this.catalogName = catalogName;
+        return super.selectCatalog(catalogName);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.indicators.IndicatorEvaluator#getBatchSize()
+     */
+    @Override
+    protected int getBatchSize() {
+        return BATCH_SIZE > 0 ? BATCH_SIZE : DEFAULT_BATCH_SIZE;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dq.indicators.IndicatorEvaluator#executeSqlQuery(java.lang.String)
+     */
+    @Override
+    protected ReturnCode executeSqlQuery(String sqlStatement) throws SQLException {
+        List<String> columnlist = sortColumnName(getAnalyzedElements(), sqlStatement);
+        if (partitionStatements.size() < 2 || columnlist.isEmpty() || !isBatchModeAllowed(columnlist)
+                || !isMergeable(columnlist)) {
+            return super.executeSqlQuery(sqlStatement);
+        }
+        ReturnCode ok = getMessageForInvalidJUDIs();
+        int maxNumberRows = analysis.getParameters().getMaxNumberRows();
+        EMap<Indicator, AnalyzedDataSet> indicToRowMap = analysis.getResults().getIndicToRowMap();
+        indicToRowMap.clear();
+
+        List<PartitionEvaluator> evaluators = new ArrayList<PartitionEvaluator>();
+        List<Future<Boolean>> tasks = new ArrayList<Future<Boolean>>();
+        ExecutorService executor = Executors.newFixedThreadPool(partitionStatements.size());
+        try {
+            for (final String partitionStatement : partitionStatements) {
+                final PartitionEvaluator evaluator = createPartitionEvaluator(columnlist);
+                evaluators.add(evaluator);
+                final List<String> columns = columnlist;
+                tasks.add(executor.submit(new Callable<Boolean>() {
+
+                    @Override
+                    public Boolean call() throws Exception {
+                        evaluator.evaluatePartition(partitionStatement, columns, catalogName);
+                        return Boolean.TRUE;
+                    }
+                }));
+            }
+            for (Future<Boolean> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            log.error(e.getCause(), e.getCause());
+            throw new SQLException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (PartitionEvaluator evaluator : evaluators) {
+            mergePartials(evaluator, indicToRowMap, maxNumberRows);
+            if (evaluator.isLowMemory()) {
+                ok.setReturnCode(Messages.getString("Evaluator.OutOfMomory", evaluator.getUsedMemory()), false); //$NON-NLS-1$
+            }
+        }
+        // the connection of this evaluator has not been used to read the rows
+        getConnection().close();
+        return ok;
+    }
+
+    /**
+     * Merges the partial indicators of a partition into the indicators of the analysis.
+     *
+     * @param evaluator the evaluator of the partition, once its rows have been read
+     * @param indicToRowMap the analyzed data set map of the analysis result
+     * @param maxNumberRows the max number of rows of the analysis
+     */
+    void mergePartials(PartitionEvaluator evaluator, EMap<Indicator, AnalyzedDataSet> indicToRowMap, int maxNumberRows) {
+        for (Map.Entry<Indicator, Indicator> entry : evaluator.partials.entrySet()) {
+            if (indicToRowMap.get(entry.getKey()) == null) {
+                AnalyzedDataSet analyzedDataSet = AnalysisFactory.eINSTANCE.createAnalyzedDataSet();
+                indicToRowMap.put(entry.getKey(), analyzedDataSet);
+                analyzedDataSet.setDataCount(maxNumberRows);
+                analyzedDataSet.setRecordSize(0);
+            }
+            if (!entry.getKey().merge(entry.getValue())) {
+                // should not happen since the indicators have been checked before
+                log.warn(Messages.getString("PartitionedIndicatorEvaluator.NotMerged", entry.getKey().getName())); //$NON-NLS-1$
+            }
+        }
+    }
+
+    private boolean isMergeable(List<String> columnlist) {
+        for (String col : columnlist) {
+            for (Indicator indicator : IndicatorHelper.getAdaptedIndicators(getIndicators(col))) {
+                if (!indicator.isMergeable()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the evaluator of a partition with one empty copy of each indicator. The copies are not contained in the
+     * analysis, so they keep their values in memory instead of the MapDB files of the analysis. The row count adapter
+     * of the analysis is not copied: each row count indicator it counts for gets its own copy.
+     *
+     * @param columnlist the analyzed columns
+     * @return the evaluator of the partition
+     */
+    PartitionEvaluator createPartitionEvaluator(List<String> columnlist) {
+        PartitionEvaluator evaluator = new PartitionEvaluator(analysis);
+        evaluator.setMonitor(getMonitor());
+        evaluator.setFetchSize(getFetchSize());
+        for (String col : columnlist) {
+            List<Indicator> indicators = IndicatorHelper.getAdaptedIndicators(getIndicators(col));
+            List<Indicator> columnPartials = createPartialIndicators(indicators);
+            for (int i = 0; i < indicators.size(); i++) {
+                evaluator.partials.put(indicators.get(i), columnPartials.get(i));
+                evaluator.storeIndicator(col, columnPartials.get(i));
+            }
+        }
+        return evaluator;
+    }
+
+    /**
+     * Creates an empty copy of each indicator of a column, to be merged later with {@link Indicator#merge(Indicator)}.
+     *
+     * @param indicators the indicators of a column
+     * @return the prepared copies, in the same order
+     */
+    static List<Indicator> createPartialIndicators(List<Indicator> indicators) {
+        List<Indicator> columnPartials = new ArrayList<Indicator>();
+        for (Indicator indicator : indicators) {
+            Indicator partial = EcoreUtil.copy(indicator);
+            partial.setUsedMapDBMode(false);
+            if (partial instanceof FrequencyIndicator) {
+                ((FrequencyIndicator) partial).setValueToFreq(new HashMap<Object, Long>());
+            } else if (partial instanceof MedianIndicator) {
+                ((MedianIndicator) partial).setFrequenceTable(new TreeMap<Object, Long>());
+            }
+            partial.prepare();
+            if (indicator instanceof QuantileSketchIndicator) {
+                QuantileSketch sketch = ((QuantileSketchIndicator) indicator).getQuantileSketch();
+                if (sketch != null) {
+                    // the sketch of the column in this copy, shared below
+                    ((QuantileSketchIndicator) partial).setQuantileSketch(new QuantileSketch(sketch.getCompression()), true);
+                }
+            }
+            columnPartials.add(partial);
+        }
+        IndicatorHelper.shareQuantileSketches(columnPartials);
+        IndicatorHelper.shareDerivedValueCaches(columnPartials);
+        return columnPartials;
+    }
+
+    /**
+     * Reads the rows of one partition into the partial indicators.
+     */
+    static class PartitionEvaluator extends IndicatorEvaluator {
+
+        private Map<Indicator, Indicator> partials = new LinkedHashMap<Indicator, Indicator>();
+
+        PartitionEvaluator(Analysis analysis) {
+            super(analysis);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.talend.dq.indicators.IndicatorEvaluator#storeIndicator(java.lang.String,
+         * org.talend.dataquality.indicators.Indicator)
+         *
+         * the partials are leaves, they must not be replaced by the row count adapter of the analysis.
+         */
+        @Override
+        public boolean storeIndicator(String elementToAnalyze, Indicator indicator) {
+            this.allIndicators.add(indicator);
+            return MultiMapHelper.addUniqueObjectToListMap(elementToAnalyze, indicator, elementToIndicators);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.talend.dq.indicators.IndicatorEvaluator#getBatchSize()
+         */
+        @Override
+        protected int getBatchSize() {
+            return BATCH_SIZE > 0 ? BATCH_SIZE : DEFAULT_BATCH_SIZE;
+        }
+
+        void evaluatePartition(String sqlStatement, List<String> columnlist, String catalog) throws SQLException {
+            Connection partitionConnection = TdqAnalysisConnectionPool.getConnectionPool(analysis).getConnection();
+            if (partitionConnection == null) {
+                throw new SQLException(Messages.getString("Evaluator.openNullConnection")); //$NON-NLS-1$
+            }
+            setConnection(partitionConnection);
+            try {
+                if (catalog != null) {
+                    selectCatalog(catalog);
+                }
+                Statement statement = createStatement();
+                try {
+                    if (log.isInfoEnabled()) {
+                        log.info("Executing query: " + sqlStatement); //$NON-NLS-1$
+                    }
+                    statement.execute(sqlStatement);
+                    ResultSet resultSet = statement.getResultSet();
+                    if (resultSet == null) {
+                        throw new SQLException(Messages.getString("Evaluator.NoResultSet", sqlStatement)); //$NON-NLS-1$
+                    }
+                    executeBatchQuery(resultSet, columnlist, buildColumnListMap(columnlist),
+                            new BasicEMap<Indicator, AnalyzedDataSet>(), analysis.getParameters().getMaxNumberRows());
+                    resultSet.close();
+                } finally {
+                    statement.close();
+                }
+            } finally {
+                TdqAnalysisConnectionPool.returnPooledConnection(analysis, partitionConnection);
+            }
+        }
+    }
+}
@@ -47,6 +47,7 @@ import org.talend.core.model.properties.User;
 import org.talend.core.repository.model.ProxyRepositoryFactory;
 import org.talend.core.repository.utils.AbstractResourceChangesService;
 import org.talend.core.repository.utils.TDQServiceRegister;
+import org.talend.cwm.dependencies.DependencyIndex;
 import org.talend.cwm.helper.SwitchHelpers;
 import org.talend.cwm.management.i18n.Messages;
 import org.talend.dataquality.PluginConstant;
@@ -370,6 +371,7 @@ public abstract class AElementPersistance {
         }
 
         if (rc.isOk()) {
+            updateDependencyIndex(element);
             rc.setMessage("save " + element.getName() + " is OK!"); //$NON-NLS-1$ //$NON-NLS-2$
             if (withProperty) {
                 notifyResourceChanges();
@@ -583,6 +585,7 @@ public abstract class AElementPersistance {
         }
 
         ProxyRepositoryFactory.getInstance().save(item);
+        updateDependencyIndex(element);
         AbstractResourceChangesService resChangeService = TDQServiceRegister.getInstance().getResourceChangeService(
                 AbstractResourceChangesService.class);
         if (resChangeService != null) {
@@ -615,9 +618,24 @@ public abstract class AElementPersistance {
             setTDQItemFileName(element, item);
         }
         ProxyRepositoryFactory.getInstance().save(item);
+        updateDependencyIndex(element);
 
         return rc;
     }
 
+    /**
+     * Reads again the dependencies of a saved analysis in the {@link DependencyIndex}.
+     *
+     * @param element the saved element
+     */
+    protected void updateDependencyIndex(ModelElement element) {
+        if (element instanceof Analysis && element.eResource() != null && element.eResource().getURI().isPlatform()) {
+            DependencyIndex index = DependencyIndex.getInstance();
+            if (index != null) {
+                index.update(element.eResource().getURI().toPlatformString(true));
+            }
+        }
+    }
+
     protected abstract ReturnCode removeDependencies(Item item);
 }
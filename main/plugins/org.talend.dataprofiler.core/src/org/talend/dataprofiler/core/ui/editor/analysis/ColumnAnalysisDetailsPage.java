@@ -38,6 +38,7 @@ import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Text;
 import org.eclipse.swt.widgets.TreeColumn;
 import org.eclipse.swt.widgets.TreeItem;
 import org.eclipse.swt.widgets.Widget;
@@ -109,6 +110,10 @@ public class ColumnAnalysisDetailsPage extends DynamicAnalysisMasterPage {
 
     private Composite drillDownComposite;
 
+    private Text approximateErrorText;
+
+    private Text quantileCompressionText;
+
     AnalysisColumnTreeViewer treeViewer;
 
     ModelElementAnalysisHandler analysisHandler;
@@ -524,6 +529,8 @@ public class ColumnAnalysisDetailsPage extends DynamicAnalysisMasterPage {
         }
         analysis.getParameters().setStoreData(drillDownCheck.getSelection());
         // ~12919
+        saveApproximateCountError(analysis);
+        saveQuantileSketchCompression(analysis);
 
         ModelElementIndicator[] modelElementIndicators = this.getCurrentModelElementIndicators();
         if (modelElementIndicators != null && modelElementIndicators.length != 0) {
@@ -1031,9 +1038,109 @@ public class ColumnAnalysisDetailsPage extends DynamicAnalysisMasterPage {
         GridDataFactory.fillDefaults().grab(true, false).applyTo(maxNumText);
         GridDataFactory.fillDefaults().align(SWT.BEGINNING, SWT.BEGINNING).applyTo(maxNumLabel);
         GridDataFactory.fillDefaults().grab(true, false).align(SWT.FILL, SWT.BEGINNING).applyTo(drillDownCheck);
+
+        Label approximateErrorLabel = toolkit.createLabel(numberSection,
+                DefaultMessagesImpl.getString("ColumnAnalysisDetailsPage.approximateErrorLabel")); //$NON-NLS-1$
+        approximateErrorLabel.setToolTipText(DefaultMessagesImpl.getString("ColumnAnalysisDetailsPage.approximateErrorTooltip")); //$NON-NLS-1$
+        approximateErrorText = toolkit.createText(numberSection, null, SWT.BORDER);
+        double approximateError = AnalysisHelper.getApproximateCountError(getCurrentModelElement());
+        approximateErrorText.setText(approximateError > 0 ? String.valueOf(approximateError * 100) : "0"); //$NON-NLS-1$
+        approximateErrorText.addModifyListener(new ModifyListener() {
+
+            public void modifyText(ModifyEvent e) {
+                setDirty(true);
+            }
+
+        });
+        approximateErrorText.addVerifyListener(new VerifyListener() {
+
+            public void verifyText(VerifyEvent e) {
+                String inputValue = e.text;
+                Pattern pattern = Pattern.compile("^[0-9.]"); //$NON-NLS-1$
+                char[] charArray = inputValue.toCharArray();
+                for (char c : charArray) {
+                    if (!pattern.matcher(String.valueOf(c)).matches()) {
+                        e.doit = false;
+                    }
+                }
+            }
+        });
+        GridDataFactory.fillDefaults().grab(true, false).applyTo(approximateErrorText);
+        GridDataFactory.fillDefaults().align(SWT.BEGINNING, SWT.BEGINNING).applyTo(approximateErrorLabel);
+
+        Label quantileCompressionLabel = toolkit.createLabel(numberSection,
+                DefaultMessagesImpl.getString("ColumnAnalysisDetailsPage.quantileCompressionLabel")); //$NON-NLS-1$
+        quantileCompressionLabel.setToolTipText(DefaultMessagesImpl
+                .getString("ColumnAnalysisDetailsPage.quantileCompressionTooltip")); //$NON-NLS-1$
+        quantileCompressionText = toolkit.createText(numberSection, null, SWT.BORDER);
+        quantileCompressionText.setText(String.valueOf(AnalysisHelper.getQuantileSketchCompression(getCurrentModelElement())));
+        quantileCompressionText.addModifyListener(new ModifyListener() {
+
+            public void modifyText(ModifyEvent e) {
+                setDirty(true);
+            }
+
+        });
+        quantileCompressionText.addVerifyListener(new VerifyListener() {
+
+            public void verifyText(VerifyEvent e) {
+                String inputValue = e.text;
+                Pattern pattern = Pattern.compile("^[0-9]"); //$NON-NLS-1$
+                char[] charArray = inputValue.toCharArray();
+                for (char c : charArray) {
+                    if (!pattern.matcher(String.valueOf(c)).matches()) {
+                        e.doit = false;
+                    }
+                }
+            }
+        });
+        GridDataFactory.fillDefaults().grab(true, false).applyTo(quantileCompressionText);
+        GridDataFactory.fillDefaults().align(SWT.BEGINNING, SWT.BEGINNING).applyTo(quantileCompressionLabel);
         return javaEnginSection;
     }
 
+    /**
+     * save the relative error allowed for the approximate counts, entered as a percentage.
+     *
+     * @param analysis
+     */
+    private void saveApproximateCountError(Analysis analysis) {
+        if (approximateErrorText == null) {
+            return;
+        }
+        double percent = 0;
+        try {
+            String text = approximateErrorText.getText().trim();
+            percent = text.length() == 0 ? 0 : Double.parseDouble(text);
+        } catch (NumberFormatException nfe) {
+            approximateErrorText.setText("0"); //$NON-NLS-1$
+        }
+        if (percent < 0 || percent >= 100) {
+            percent = 0;
+            approximateErrorText.setText("0"); //$NON-NLS-1$
+        }
+        AnalysisHelper.setApproximateCountError(analysis, percent / 100);
+    }
+
+    /**
+     * save the compression of the sketches which estimate the median and the quartiles.
+     *
+     * @param analysis
+     */
+    private void saveQuantileSketchCompression(Analysis analysis) {
+        if (quantileCompressionText == null) {
+            return;
+        }
+        int compression = 0;
+        try {
+            String text = quantileCompressionText.getText().trim();
+            compression = text.length() == 0 ? 0 : Integer.parseInt(text);
+        } catch (NumberFormatException nfe) {
+            quantileCompressionText.setText("0"); //$NON-NLS-1$
+        }
+        AnalysisHelper.setQuantileSketchCompression(analysis, compression);
+    }
+
     private void showDrillDownComposite(Composite drillDownComposite, int height) {
         GridData data = (GridData) drillDownComposite.getLayoutData();
         data.heightHint = height;
@@ -60,7 +60,7 @@ public class DrillDownUtils {
     public static AbstractDB<Object> getMapDB(final ChartDataEntity dataEntity, Analysis analysis, MenuItemEntity itemEntitie) {
         AnalysisType analysisType = analysis.getParameters().getAnalysisType();
         if (AnalysisType.COLUMN_SET == analysisType) {
-            return getColumnSetAnalysisMapDB(analysis);
+            return enableRankIndex(getColumnSetAnalysisMapDB(analysis));
         }
 
         Indicator indicator = dataEntity.getIndicator();
@@ -77,7 +77,20 @@ public class DrillDownUtils {
         // TDQ-10785~
 
         String dbMapName = getDBMapName(analysisType, indicator, selectValue, itemEntitie);
-        return MapDBUtils.getMapDB(dbMapName, dataEntity.getIndicator());
+        return enableRankIndex(MapDBUtils.getMapDB(dbMapName, dataEntity.getIndicator()));
+    }
+
+    /**
+     * The drill down reads the store by pages: keep the checkpoints of its items.
+     *
+     * @param mapDB the store, can be null
+     * @return the store
+     */
+    private static AbstractDB<Object> enableRankIndex(AbstractDB<Object> mapDB) {
+        if (mapDB != null) {
+            mapDB.enableRankIndex();
+        }
+        return mapDB;
     }
 
     /**
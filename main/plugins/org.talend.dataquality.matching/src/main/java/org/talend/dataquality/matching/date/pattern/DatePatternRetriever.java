@@ -20,8 +20,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.StringTokenizer;
 
 import org.apache.log4j.Logger;
@@ -35,7 +38,31 @@ import org.talend.dataquality.matching.i18n.Messages;
 
 public class DatePatternRetriever {
 
-    private List<ModelMatcher> modelMatchers = new ArrayList<ModelMatcher>();
+    /**
+     * The maximum number of distinct shapes whose candidate matchers are remembered.
+     */
+    private static final int SHAPE_CACHE_SIZE = 10000;
+
+    private static final ModelMatcher[] NO_MATCHER = new ModelMatcher[0];
+
+    private MatcherList modelMatchers = new MatcherList();
+
+    /**
+     * The candidate matchers of the last shapes of the expressions (see {@link ValueShape}), so that an expression is
+     * only checked against the few matchers which can match a value of its shape, instead of all the matchers. The
+     * cache is emptied as soon as the list of matchers changes.
+     */
+    private final Map<String, ModelMatcher[]> shapeCache = new LinkedHashMap<String, ModelMatcher[]>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ModelMatcher[]> eldest) {
+            return size() > SHAPE_CACHE_SIZE;
+        }
+    };
+
+    private int shapeCacheVersion = -1;
 
     public List<ModelMatcher> getModelMatchers() {
         return modelMatchers;
@@ -93,10 +120,8 @@ public class DatePatternRetriever {
      * @param expression
      */
     public void handle(String expression) {
-        for (ModelMatcher patternMatcher : this.modelMatchers) {
-            if (patternMatcher.matches(expression)) {
-                patternMatcher.increment();
-            }
+        for (ModelMatcher patternMatcher : match(expression)) {
+            patternMatcher.increment();
         }
     }
 
@@ -121,13 +146,52 @@ public class DatePatternRetriever {
      * @param expression
      */
     public List<ModelMatcher> findMatchers(String expression) {
-        List<ModelMatcher> matchers = new ArrayList<ModelMatcher>();
-        for (ModelMatcher patternMatcher : this.modelMatchers) {
+        return new ArrayList<ModelMatcher>(Arrays.asList(match(expression)));
+    }
+
+    /**
+     * Method "match".
+     *
+     * @param expression the string to be matched
+     * @return the matchers which match the expression, in the order of the list of matchers
+     */
+    private ModelMatcher[] match(String expression) {
+        ModelMatcher[] candidates = getCandidates(ValueShape.of(expression));
+        List<ModelMatcher> found = null;
+        for (ModelMatcher patternMatcher : candidates) {
             if (patternMatcher.matches(expression)) {
-                matchers.add(patternMatcher);
+                if (found == null) {
+                    found = new ArrayList<ModelMatcher>(2);
+                }
+                found.add(patternMatcher);
+            }
+        }
+        return found == null ? NO_MATCHER : found.toArray(new ModelMatcher[found.size()]);
+    }
+
+    /**
+     * Method "getCandidates".
+     *
+     * @param shape the shape of an expression
+     * @return the matchers which may match an expression of this shape, in the order of the list of matchers
+     */
+    private ModelMatcher[] getCandidates(String shape) {
+        if (shapeCacheVersion != modelMatchers.getVersion()) {
+            shapeCache.clear();
+            shapeCacheVersion = modelMatchers.getVersion();
+        }
+        ModelMatcher[] candidates = shapeCache.get(shape);
+        if (candidates == null) {
+            List<ModelMatcher> found = new ArrayList<ModelMatcher>(2);
+            for (ModelMatcher patternMatcher : this.modelMatchers) {
+                if (patternMatcher.mayMatchShape(shape)) {
+                    found.add(patternMatcher);
+                }
             }
+            candidates = found.isEmpty() ? NO_MATCHER : found.toArray(new ModelMatcher[found.size()]);
+            shapeCache.put(shape, candidates);
         }
-        return matchers;
+        return candidates;
     }
 
     /**
@@ -180,4 +244,29 @@ public class DatePatternRetriever {
         }
         return null;
     }
+
+    /**
+     * The list of matchers, which tells when it has been changed, including when a matcher is replaced.
+     */
+    private static class MatcherList extends ArrayList<ModelMatcher> {
+
+        private static final long serialVersionUID = 1L;
+
+        private int replaceCount = 0;
+
+        int getVersion() {
+            return modCount + replaceCount;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.ArrayList#set(int, java.lang.Object)
+         */
+        @Override
+        public ModelMatcher set(int index, ModelMatcher element) {
+            replaceCount++;
+            return super.set(index, element);
+        }
+    }
 }
@@ -30,12 +30,19 @@ public class ModelMatcher implements java.lang.Comparable<ModelMatcher> {
 
     private final Pattern compiledPattern;
 
+    /**
+     * The relaxed pattern which matches the shapes of the values which can match, null when the regular expression
+     * can not be relaxed.
+     */
+    private final Pattern shapePattern;
+
     public ModelMatcher(String model, String regex) {
         this.model = model;
         this.regex = regex;
         this.score = 0;
 
         this.compiledPattern = Pattern.compile(regex);
+        this.shapePattern = ValueShape.relax(regex);
     }
 
     public String getRegex() {
@@ -54,6 +61,16 @@ public class ModelMatcher implements java.lang.Comparable<ModelMatcher> {
         return compiledPattern.matcher(expression).matches();
     }
 
+    /**
+     * Method "mayMatchShape".
+     *
+     * @param shape the shape of some values, see {@link ValueShape#of(String)}
+     * @return false when no value of this shape matches, true when some values of this shape may match
+     */
+    boolean mayMatchShape(String shape) {
+        return shapePattern == null || shapePattern.matcher(shape).matches();
+    }
+
     public int getScore() {
         return this.score;
     }
@@ -0,0 +1,205 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.matching.date.pattern;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The shape of a value: its digits are replaced by 9, its letters by a, and the other characters are kept, so that
+ * "2009-08-11" and "1999-12-31" have the same shape "9999-99-99".
+ * <p>
+ * The regular expression of a matcher is relaxed into a shape pattern, where each digit and each class of digits
+ * matches any digit, and each letter and each class of letters matches any letter. When the shape pattern does not
+ * match a shape, the matcher does not match any value of this shape. Some constructs, like back references or look
+ * arounds, can not be relaxed: such a regular expression has no shape pattern and must be checked against all the
+ * values.
+ */
+final class ValueShape {
+
+    private static final String ANY_DIGIT = "[0-9]"; //$NON-NLS-1$
+
+    private static final String ANY_LETTER = "\\p{L}"; //$NON-NLS-1$
+
+    private ValueShape() {
+    }
+
+    /**
+     * Method "of".
+     *
+     * @param value a value
+     * @return the shape of the value
+     */
+    static String of(String value) {
+        char[] shape = new char[value.length()];
+        for (int i = 0; i < shape.length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                shape[i] = '9';
+            } else if (Character.isLetter(c)) {
+                shape[i] = 'a';
+            } else {
+                shape[i] = c;
+            }
+        }
+        return new String(shape);
+    }
+
+    /**
+     * Method "relax".
+     *
+     * @param regex the regular expression of a matcher
+     * @return the shape pattern of the regular expression, or null when it can not be relaxed
+     */
+    static Pattern relax(String regex) {
+        StringBuilder relaxed = new StringBuilder(regex.length() * 2);
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= regex.length() || !appendEscape(regex.charAt(i + 1), relaxed)) {
+                    return null;
+                }
+                i += 2;
+            } else if (c == '[') {
+                int end = appendClass(regex, i, relaxed);
+                if (end < 0) {
+                    return null;
+                }
+                i = end + 1;
+            } else if (c == '{') {
+                // a quantifier is kept as is
+                int end = regex.indexOf('}', i);
+                if (end < 0) {
+                    return null;
+                }
+                relaxed.append(regex, i, end + 1);
+                i = end + 1;
+            } else if (c == '(' && i + 1 < regex.length() && regex.charAt(i + 1) == '?') {
+                // only the non capturing groups are kept, not the look arounds nor the flags
+                if (i + 2 >= regex.length() || regex.charAt(i + 2) != ':') {
+                    return null;
+                }
+                relaxed.append("(?:"); //$NON-NLS-1$
+                i += 3;
+            } else {
+                if (c >= '0' && c <= '9') {
+                    relaxed.append(ANY_DIGIT);
+                } else if (Character.isLetter(c)) {
+                    relaxed.append(ANY_LETTER);
+                } else {
+                    relaxed.append(c);
+                }
+                i++;
+            }
+        }
+        try {
+            return Pattern.compile(relaxed.toString());
+        } catch (PatternSyntaxException e) {
+            return null;
+        }
+    }
+
+    private static boolean appendEscape(char escaped, StringBuilder relaxed) {
+        if (Character.isLetterOrDigit(escaped)) {
+            // the digits, spaces and control characters keep their meaning on the shapes, the other escapes (back
+            // references, word characters, boundaries, properties...) do not
+            if ("dDsStnrfae".indexOf(escaped) < 0) { //$NON-NLS-1$
+                return false;
+            }
+        }
+        relaxed.append('\\').append(escaped);
+        return true;
+    }
+
+    /**
+     * Method "appendClass" relaxes the character class which starts at the given index.
+     *
+     * @return the index of the end of the class, or -1 when it can not be relaxed
+     */
+    private static int appendClass(String regex, int start, StringBuilder relaxed) {
+        boolean negated = start + 1 < regex.length() && regex.charAt(start + 1) == '^';
+        boolean digits = false;
+        boolean letters = false;
+        StringBuilder others = new StringBuilder();
+        int i = negated ? start + 2 : start + 1;
+        // a closing bracket at the start of the class is a character
+        boolean first = true;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == ']' && !first) {
+                break;
+            }
+            first = false;
+            if (c == '[' || (c == '&' && i + 1 < regex.length() && regex.charAt(i + 1) == '&')) {
+                // nested classes and intersections
+                return -1;
+            }
+            if (c == '\\') {
+                if (i + 1 >= regex.length()) {
+                    return -1;
+                }
+                char escaped = regex.charAt(i + 1);
+                if (escaped == 'd') {
+                    digits = true;
+                } else if (Character.isLetterOrDigit(escaped)) {
+                    if ("sStnrfae".indexOf(escaped) < 0) { //$NON-NLS-1$
+                        return -1;
+                    }
+                    others.append('\\').append(escaped);
+                } else {
+                    others.append('\\').append(escaped);
+                }
+                i += 2;
+                continue;
+            }
+            boolean range = i + 2 < regex.length() && regex.charAt(i + 1) == '-' && regex.charAt(i + 2) != ']';
+            char last = range ? regex.charAt(i + 2) : c;
+            if (isDigit(c) && isDigit(last)) {
+                digits = true;
+            } else if (Character.isLetter(c) && Character.isLetter(last)) {
+                letters = true;
+            } else if (!range && !Character.isLetterOrDigit(c)) {
+                others.append('\\').append(c);
+            } else {
+                // a range between digits, letters or other characters
+                return -1;
+            }
+            i += range ? 3 : 1;
+        }
+        if (i >= regex.length()) {
+            return -1;
+        }
+        if (negated) {
+            // a negated class of other characters matches all the digits and all the letters
+            if (digits || letters) {
+                return -1;
+            }
+            relaxed.append("[^").append(others).append(']'); //$NON-NLS-1$
+        } else {
+            relaxed.append('[');
+            if (digits) {
+                relaxed.append("0-9"); //$NON-NLS-1$
+            }
+            if (letters) {
+                relaxed.append(ANY_LETTER);
+            }
+            relaxed.append(others).append(']');
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
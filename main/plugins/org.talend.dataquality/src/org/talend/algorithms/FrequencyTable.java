@@ -0,0 +1,642 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.algorithms;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * A frequency table [value -> count] stored in open-addressing arrays, so that counting a value is a single lookup
+ * without allocation. The keys and their counts are stored side by side in one array of longs.
+ * <p>
+ * While all the values have the same numeric or date type (Long, Integer, Short, Byte, Double, Float, java.util.Date or
+ * java.sql.Date), they are stored as primitive longs and rebuilt only when read; a value of another type switches the
+ * table to object keys. The null value is allowed. The map is not thread safe and its iterators do not support
+ * removal.
+ */
+public class FrequencyTable extends AbstractMap<Object, Long> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final int NO_KEYS = -1;
+
+    private static final int OBJECT_KEYS = 0;
+
+    private static final int LONG_KEYS = 1;
+
+    private static final int INTEGER_KEYS = 2;
+
+    private static final int SHORT_KEYS = 3;
+
+    private static final int BYTE_KEYS = 4;
+
+    private static final int DOUBLE_KEYS = 5;
+
+    private static final int FLOAT_KEYS = 6;
+
+    private static final int DATE_KEYS = 7;
+
+    private static final int SQL_DATE_KEYS = 8;
+
+    /**
+     * the slot of the null value in the top-n selection.
+     */
+    private static final int NULL_SLOT = -1;
+
+    private int keyType = NO_KEYS;
+
+    private Object[] keys;
+
+    /**
+     * two longs by slot: the primitive form of the key (the hash code of an object key), then the count + 1, so that a
+     * count of 0 marks a free slot.
+     */
+    private long[] slots;
+
+    private int capacity;
+
+    private int mask;
+
+    private int slotCount = 0;
+
+    private boolean hasNullKey = false;
+
+    private long nullKeyCount = 0L;
+
+    /**
+     * Method "increment" counts one more occurrence of the value.
+     *
+     * @param key the value, can be null
+     * @return the count of the value, including this occurrence
+     */
+    public long increment(Object key) {
+        return add(key, 1L);
+    }
+
+    /**
+     * Method "add" adds a number of occurrences of the value.
+     *
+     * @param key the value, can be null
+     * @param delta the number of occurrences
+     * @return the count of the value, including these occurrences
+     */
+    public long add(Object key, long delta) {
+        if (key == null) {
+            hasNullKey = true;
+            nullKeyCount += delta;
+            return nullKeyCount;
+        }
+        int slot = findOrInsert(key);
+        slots[2 * slot + 1] += delta;
+        return slots[2 * slot + 1] - 1;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#get(java.lang.Object)
+     */
+    @Override
+    public Long get(Object key) {
+        if (key == null) {
+            return hasNullKey ? Long.valueOf(nullKeyCount) : null;
+        }
+        int slot = find(key);
+        return slot < 0 ? null : Long.valueOf(countAt(slot));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#containsKey(java.lang.Object)
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return key == null ? hasNullKey : find(key) >= 0;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#put(java.lang.Object, java.lang.Object)
+     */
+    @Override
+    public Long put(Object key, Long value) {
+        long count = value == null ? 0L : value.longValue();
+        if (key == null) {
+            Long old = get(null);
+            hasNullKey = true;
+            nullKeyCount = count;
+            return old;
+        }
+        int before = slotCount;
+        int slot = findOrInsert(key);
+        Long old = before == slotCount ? Long.valueOf(countAt(slot)) : null;
+        slots[2 * slot + 1] = count + 1;
+        return old;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#remove(java.lang.Object)
+     */
+    @Override
+    public Long remove(Object key) {
+        if (key == null) {
+            Long old = get(null);
+            hasNullKey = false;
+            nullKeyCount = 0L;
+            return old;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        Long old = countAt(slot);
+        deleteSlot(slot);
+        return old;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#size()
+     */
+    @Override
+    public int size() {
+        return slotCount + (hasNullKey ? 1 : 0);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#clear()
+     */
+    @Override
+    public void clear() {
+        keyType = NO_KEYS;
+        keys = null;
+        slots = null;
+        capacity = 0;
+        slotCount = 0;
+        hasNullKey = false;
+        nullKeyCount = 0L;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#entrySet()
+     */
+    @Override
+    public Set<Map.Entry<Object, Long>> entrySet() {
+        return new AbstractSet<Map.Entry<Object, Long>>() {
+
+            @Override
+            public Iterator<Map.Entry<Object, Long>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return FrequencyTable.this.size();
+            }
+        };
+    }
+
+    /**
+     * Method "getMostFrequent".
+     *
+     * @param n the number of values to return
+     * @return the n most frequent values, the most frequent first
+     */
+    public List<Object> getMostFrequent(int n) {
+        return selectValues(n, true);
+    }
+
+    /**
+     * Method "getLessFrequent".
+     *
+     * @param n the number of values to return
+     * @return the n less frequent values, the less frequent first
+     */
+    public List<Object> getLessFrequent(int n) {
+        return selectValues(n, false);
+    }
+
+    /**
+     * Method "getMostFrequent" selects the most frequent values of any frequency table with a bounded heap instead of
+     * sorting the whole table.
+     *
+     * @param valueToCount the frequency table
+     * @param n the number of values to return
+     * @return the n most frequent values, the most frequent first
+     */
+    public static List<Object> getMostFrequent(Map<Object, Long> valueToCount, int n) {
+        if (valueToCount instanceof FrequencyTable) {
+            return ((FrequencyTable) valueToCount).getMostFrequent(n);
+        }
+        return selectEntries(valueToCount, n, true);
+    }
+
+    /**
+     * Method "getLessFrequent" selects the less frequent values of any frequency table with a bounded heap instead of
+     * sorting the whole table.
+     *
+     * @param valueToCount the frequency table
+     * @param n the number of values to return
+     * @return the n less frequent values, the less frequent first
+     */
+    public static List<Object> getLessFrequent(Map<Object, Long> valueToCount, int n) {
+        if (valueToCount instanceof FrequencyTable) {
+            return ((FrequencyTable) valueToCount).getLessFrequent(n);
+        }
+        return selectEntries(valueToCount, n, false);
+    }
+
+    private static List<Object> selectEntries(Map<Object, Long> valueToCount, int n, final boolean mostFrequent) {
+        if (n <= 0 || valueToCount.isEmpty()) {
+            return new ArrayList<Object>();
+        }
+        // the head of the queue is the first value to drop
+        PriorityQueue<Object[]> heap = new PriorityQueue<Object[]>(Math.min(n, valueToCount.size()) + 1,
+                new Comparator<Object[]>() {
+
+                    public int compare(Object[] o1, Object[] o2) {
+                        int cmp = compareCounts((Long) o1[1], (Long) o2[1]);
+                        return mostFrequent ? cmp : -cmp;
+                    }
+                });
+        for (Map.Entry<Object, Long> entry : valueToCount.entrySet()) {
+            heap.add(new Object[] { entry.getKey(), entry.getValue() });
+            if (heap.size() > n) {
+                heap.poll();
+            }
+        }
+        List<Object> values = new ArrayList<Object>(heap.size());
+        while (!heap.isEmpty()) {
+            values.add(heap.poll()[0]);
+        }
+        Collections.reverse(values);
+        return values;
+    }
+
+    private static int compareCounts(Long count1, Long count2) {
+        long c1 = count1 == null ? 0L : count1.longValue();
+        long c2 = count2 == null ? 0L : count2.longValue();
+        return c1 < c2 ? -1 : (c1 == c2 ? 0 : 1);
+    }
+
+    private List<Object> selectValues(int n, boolean mostFrequent) {
+        int size = size();
+        if (n <= 0 || size == 0) {
+            return new ArrayList<Object>();
+        }
+        // binary heap of slots, its root is the first value to drop
+        int[] heap = new int[Math.min(n, size)];
+        int heapSize = 0;
+        if (hasNullKey) {
+            heap[heapSize++] = NULL_SLOT;
+        }
+        for (int slot = 0; slot < capacity; slot++) {
+            if (!isUsed(slot)) {
+                continue;
+            }
+            if (heapSize < heap.length) {
+                heap[heapSize++] = slot;
+                siftUp(heap, heapSize - 1, mostFrequent);
+            } else if (compareSlots(slot, heap[0], mostFrequent) > 0) {
+                heap[0] = slot;
+                siftDown(heap, heapSize, mostFrequent);
+            }
+        }
+        Object[] values = new Object[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            int slot = heap[0];
+            values[i] = slot == NULL_SLOT ? null : keyAt(slot);
+            heap[0] = heap[i];
+            siftDown(heap, i, mostFrequent);
+        }
+        return new ArrayList<Object>(Arrays.asList(values));
+    }
+
+    /**
+     * @return a positive number when the first slot must be kept rather than the second one
+     */
+    private int compareSlots(int slot1, int slot2, boolean mostFrequent) {
+        long c1 = slot1 == NULL_SLOT ? nullKeyCount : countAt(slot1);
+        long c2 = slot2 == NULL_SLOT ? nullKeyCount : countAt(slot2);
+        int cmp = c1 < c2 ? -1 : (c1 == c2 ? 0 : 1);
+        return mostFrequent ? cmp : -cmp;
+    }
+
+    private void siftUp(int[] heap, int index, boolean mostFrequent) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compareSlots(slot, heap[parent], mostFrequent) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = slot;
+    }
+
+    private void siftDown(int[] heap, int heapSize, boolean mostFrequent) {
+        if (heapSize == 0) {
+            return;
+        }
+        int index = 0;
+        int slot = heap[0];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && compareSlots(heap[child + 1], heap[child], mostFrequent) < 0) {
+                child++;
+            }
+            if (compareSlots(heap[child], slot, mostFrequent) >= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = slot;
+    }
+
+    private static int getKeyType(Object key) {
+        Class<?> keyClass = key.getClass();
+        if (keyClass == Long.class) {
+            return LONG_KEYS;
+        } else if (keyClass == Integer.class) {
+            return INTEGER_KEYS;
+        } else if (keyClass == Short.class) {
+            return SHORT_KEYS;
+        } else if (keyClass == Byte.class) {
+            return BYTE_KEYS;
+        } else if (keyClass == Double.class) {
+            return DOUBLE_KEYS;
+        } else if (keyClass == Float.class) {
+            return FLOAT_KEYS;
+        } else if (keyClass == Date.class) {
+            return DATE_KEYS;
+        } else if (keyClass == java.sql.Date.class) {
+            return SQL_DATE_KEYS;
+        }
+        return OBJECT_KEYS;
+    }
+
+    /**
+     * the primitive form of a key, equal for two keys of the same type if and only if the keys are equal.
+     */
+    private static long encode(Object key, int type) {
+        switch (type) {
+        case DOUBLE_KEYS:
+            return Double.doubleToLongBits((Double) key);
+        case FLOAT_KEYS:
+            return Float.floatToIntBits((Float) key);
+        case DATE_KEYS:
+        case SQL_DATE_KEYS:
+            return ((Date) key).getTime();
+        default:
+            return ((Number) key).longValue();
+        }
+    }
+
+    private Object keyAt(int slot) {
+        return keyType == OBJECT_KEYS ? keys[slot] : decode(slots[2 * slot], keyType);
+    }
+
+    private boolean isUsed(int slot) {
+        return slots[2 * slot + 1] != 0L;
+    }
+
+    private long countAt(int slot) {
+        return slots[2 * slot + 1] - 1;
+    }
+
+    private static Object decode(long key, int type) {
+        switch (type) {
+        case LONG_KEYS:
+            return Long.valueOf(key);
+        case INTEGER_KEYS:
+            return Integer.valueOf((int) key);
+        case SHORT_KEYS:
+            return Short.valueOf((short) key);
+        case BYTE_KEYS:
+            return Byte.valueOf((byte) key);
+        case DOUBLE_KEYS:
+            return Double.valueOf(Double.longBitsToDouble(key));
+        case FLOAT_KEYS:
+            return Float.valueOf(Float.intBitsToFloat((int) key));
+        case DATE_KEYS:
+            return new Date(key);
+        default:
+            return new java.sql.Date(key);
+        }
+    }
+
+    private static int mix(long hash) {
+        long h = hash * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * @return the primitive form of the key, or the hash code of an object key
+     */
+    private long primitiveKey(Object key) {
+        return keyType == OBJECT_KEYS ? key.hashCode() : encode(key, keyType);
+    }
+
+    private boolean isKeyAt(int slot, Object key, long primitiveKey) {
+        return slots[2 * slot] == primitiveKey && (keyType != OBJECT_KEYS || key == keys[slot] || key.equals(keys[slot]));
+    }
+
+    /**
+     * @return the slot of the key, or -1 when the key is not in the table
+     */
+    private int find(Object key) {
+        if (slotCount == 0 || (keyType != OBJECT_KEYS && getKeyType(key) != keyType)) {
+            return -1;
+        }
+        long primitiveKey = primitiveKey(key);
+        for (int slot = mix(primitiveKey) & mask; isUsed(slot); slot = (slot + 1) & mask) {
+            if (isKeyAt(slot, key, primitiveKey)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the slot of the key, inserted with a count of 0 when it is not in the table
+     */
+    private int findOrInsert(Object key) {
+        if (keyType == NO_KEYS) {
+            allocate(getKeyType(key), INITIAL_CAPACITY);
+        } else if (keyType != OBJECT_KEYS && getKeyType(key) != keyType) {
+            rehash(OBJECT_KEYS, capacity);
+        }
+        long primitiveKey = primitiveKey(key);
+        int slot;
+        for (slot = mix(primitiveKey) & mask; isUsed(slot); slot = (slot + 1) & mask) {
+            if (isKeyAt(slot, key, primitiveKey)) {
+                return slot;
+            }
+        }
+        if (2 * (slotCount + 1) > capacity) {
+            // keep at least half of the slots free so that the clusters stay short
+            rehash(keyType, 2 * capacity);
+            for (slot = mix(primitiveKey) & mask; isUsed(slot); slot = (slot + 1) & mask) {
+                // linear probing
+            }
+        }
+        if (keyType == OBJECT_KEYS) {
+            keys[slot] = key;
+        }
+        slots[2 * slot] = primitiveKey;
+        slots[2 * slot + 1] = 1L;
+        slotCount++;
+        return slot;
+    }
+
+    private void allocate(int type, int newCapacity) {
+        keyType = type;
+        keys = type == OBJECT_KEYS ? new Object[newCapacity] : null;
+        slots = new long[2 * newCapacity];
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        slotCount = 0;
+    }
+
+    private void rehash(int newKeyType, int newCapacity) {
+        int oldKeyType = keyType;
+        Object[] oldKeys = keys;
+        long[] oldSlots = slots;
+        allocate(newKeyType, newCapacity);
+        for (int i = 0; i < oldSlots.length / 2; i++) {
+            if (oldSlots[2 * i + 1] == 0L) {
+                continue;
+            }
+            long primitiveKey = oldSlots[2 * i];
+            Object key = null;
+            if (newKeyType == OBJECT_KEYS) {
+                key = oldKeyType == OBJECT_KEYS ? oldKeys[i] : decode(oldSlots[2 * i], oldKeyType);
+                primitiveKey = key.hashCode();
+            }
+            int slot;
+            for (slot = mix(primitiveKey) & mask; isUsed(slot); slot = (slot + 1) & mask) {
+                // linear probing
+            }
+            if (key != null) {
+                keys[slot] = key;
+            }
+            slots[2 * slot] = primitiveKey;
+            slots[2 * slot + 1] = oldSlots[2 * i + 1];
+            slotCount++;
+        }
+    }
+
+    /**
+     * removes the key of the slot and moves back the following keys of its cluster.
+     */
+    private void deleteSlot(int slot) {
+        int hole = slot;
+        for (int next = (hole + 1) & mask; isUsed(next); next = (next + 1) & mask) {
+            int home = mix(slots[2 * next]) & mask;
+            // move the key to the hole unless its home is cyclically between the hole and its slot
+            boolean between = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+            if (!between) {
+                if (keyType == OBJECT_KEYS) {
+                    keys[hole] = keys[next];
+                }
+                slots[2 * hole] = slots[2 * next];
+                slots[2 * hole + 1] = slots[2 * next + 1];
+                hole = next;
+            }
+        }
+        slots[2 * hole + 1] = 0L;
+        if (keyType == OBJECT_KEYS) {
+            keys[hole] = null;
+        }
+        slotCount--;
+    }
+
+    /**
+     * iterates over the null value first, then over the slots.
+     */
+    private class EntryIterator implements Iterator<Map.Entry<Object, Long>> {
+
+        private int slot = hasNullKey ? NULL_SLOT - 1 : NULL_SLOT;
+
+        private int nextSlot = findNext();
+
+        private int findNext() {
+            int next = slot + 1;
+            if (next == NULL_SLOT) {
+                return next;
+            }
+            while (next < capacity && !isUsed(next)) {
+                next++;
+            }
+            return next < capacity ? next : Integer.MAX_VALUE;
+        }
+
+        public boolean hasNext() {
+            return nextSlot != Integer.MAX_VALUE;
+        }
+
+        public Map.Entry<Object, Long> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            slot = nextSlot;
+            nextSlot = findNext();
+            final int entrySlot = slot;
+            final Object key = entrySlot == NULL_SLOT ? null : keyAt(entrySlot);
+            return new AbstractMap.SimpleEntry<Object, Long>(key, entrySlot == NULL_SLOT ? nullKeyCount
+                    : countAt(entrySlot)) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public Long setValue(Long value) {
+                    if (entrySlot == NULL_SLOT) {
+                        nullKeyCount = value;
+                    } else {
+                        slots[2 * entrySlot + 1] = value + 1;
+                    }
+                    return super.setValue(value);
+                }
+            };
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the rows of each group of values, like the sql 'select a, b, count(*) from table group by a, b'.
+ * <p>
+ * The values of each column are dictionary-encoded, so a group is stored as one int code by column. The groups are
+ * found through an open-addressing table on the codes with the hash code of each group kept aside, and the count of a
+ * group is incremented in place. The groups are numbered in the order they are first seen. The null value is allowed.
+ * The table is not thread safe.
+ */
+public class GroupTable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int width;
+
+    /**
+     * by column: [value -> code].
+     */
+    private final List<Map<Object, Integer>> dictionaries;
+
+    /**
+     * by column: the value of each code.
+     */
+    private final List<List<Object>> columnValues;
+
+    /**
+     * the codes of the group i are at [i * width, (i + 1) * width[.
+     */
+    private int[] codes;
+
+    private int[] hashes;
+
+    private long[] counts;
+
+    /**
+     * the open-addressing table: the group number + 1, 0 for a free slot.
+     */
+    private int[] slots;
+
+    private int mask;
+
+    private int groupCount;
+
+    private int[] rowCodes;
+
+    /**
+     * GroupTable constructor.
+     *
+     * @param width the number of columns of a group
+     */
+    public GroupTable(int width) {
+        this.width = width;
+        this.dictionaries = new ArrayList<Map<Object, Integer>>(width);
+        this.columnValues = new ArrayList<List<Object>>(width);
+        for (int i = 0; i < width; i++) {
+            dictionaries.add(new HashMap<Object, Integer>());
+            columnValues.add(new ArrayList<Object>());
+        }
+        this.rowCodes = new int[width];
+        init();
+    }
+
+    private void init() {
+        codes = new int[INITIAL_CAPACITY * width];
+        hashes = new int[INITIAL_CAPACITY];
+        counts = new long[INITIAL_CAPACITY];
+        slots = new int[INITIAL_CAPACITY * 2];
+        mask = slots.length - 1;
+        groupCount = 0;
+    }
+
+    /**
+     * Getter for width.
+     *
+     * @return the number of columns of a group
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Method "increment". Counts one more row in the group of the given values.
+     *
+     * @param values the values of the row, one by column
+     * @return the count of the group
+     */
+    public long increment(Object[] values) {
+        if (values.length != width) {
+            throw new IllegalArgumentException("Expected " + width + " values, got " + values.length); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        int hash = 1;
+        for (int i = 0; i < width; i++) {
+            int code = encode(i, values[i]);
+            rowCodes[i] = code;
+            hash = 31 * hash + code;
+        }
+        hash ^= hash >>> 16;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            int group = slots[slot] - 1;
+            if (hashes[group] == hash && sameCodes(group)) {
+                return ++counts[group];
+            }
+            slot = (slot + 1) & mask;
+        }
+        int group = addGroup(hash);
+        slots[slot] = group + 1;
+        if (groupCount * 2 > slots.length) {
+            rehash();
+        }
+        return counts[group];
+    }
+
+    private int encode(int column, Object value) {
+        Map<Object, Integer> dictionary = dictionaries.get(column);
+        Integer code = dictionary.get(value);
+        if (code == null) {
+            List<Object> values = columnValues.get(column);
+            code = values.size();
+            values.add(value);
+            dictionary.put(value, code);
+        }
+        return code;
+    }
+
+    private boolean sameCodes(int group) {
+        int offset = group * width;
+        for (int i = 0; i < width; i++) {
+            if (codes[offset + i] != rowCodes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int addGroup(int hash) {
+        if (groupCount == hashes.length) {
+            int capacity = hashes.length * 2;
+            codes = Arrays.copyOf(codes, capacity * width);
+            hashes = Arrays.copyOf(hashes, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        int group = groupCount++;
+        System.arraycopy(rowCodes, 0, codes, group * width, width);
+        hashes[group] = hash;
+        counts[group] = 1L;
+        return group;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        mask = slots.length - 1;
+        for (int group = 0; group < groupCount; group++) {
+            int slot = hashes[group] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = group + 1;
+        }
+    }
+
+    /**
+     * Getter for the number of groups.
+     *
+     * @return the number of distinct groups counted
+     */
+    public int size() {
+        return groupCount;
+    }
+
+    /**
+     * Method "getValues".
+     *
+     * @param group the number of the group, from 0 to size() - 1
+     * @return the values of the group, one by column
+     */
+    public Object[] getValues(int group) {
+        Object[] values = new Object[width];
+        int offset = group * width;
+        for (int i = 0; i < width; i++) {
+            values[i] = columnValues.get(i).get(codes[offset + i]);
+        }
+        return values;
+    }
+
+    /**
+     * Method "getCount".
+     *
+     * @param group the number of the group, from 0 to size() - 1
+     * @return the number of rows of the group
+     */
+    public long getCount(int group) {
+        return counts[group];
+    }
+
+    /**
+     * Removes all the groups and the values of the dictionaries.
+     */
+    public void clear() {
+        for (int i = 0; i < width; i++) {
+            dictionaries.get(i).clear();
+            columnValues.get(i).clear();
+        }
+        init();
+    }
+}
@@ -0,0 +1,92 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Draws a uniform random sample of a stream of items in one pass, keeping only the sample in memory (reservoir
+ * sampling).
+ *
+ * @param <T> the type of the items
+ */
+public class ReservoirSampler<T> {
+
+    private final int sampleSize;
+
+    private final List<T> sample;
+
+    private final Random random;
+
+    private long count = 0L;
+
+    /**
+     * ReservoirSampler constructor.
+     *
+     * @param sampleSize the number of items of the sample
+     */
+    public ReservoirSampler(int sampleSize) {
+        this(sampleSize, new Random());
+    }
+
+    /**
+     * ReservoirSampler constructor.
+     *
+     * @param sampleSize the number of items of the sample
+     * @param random the random generator
+     */
+    public ReservoirSampler(int sampleSize, Random random) {
+        this.sampleSize = sampleSize;
+        this.sample = new ArrayList<T>(sampleSize);
+        this.random = random;
+    }
+
+    /**
+     * Method "add". Each item read so far has the same probability to be in the sample.
+     *
+     * @param item the next item of the stream
+     */
+    public void add(T item) {
+        count++;
+        if (sample.size() < sampleSize) {
+            sample.add(item);
+        } else {
+            long index = (long) (random.nextDouble() * count);
+            if (index < sampleSize) {
+                sample.set((int) index, item);
+            }
+        }
+    }
+
+    /**
+     * Getter for count.
+     *
+     * @return the number of items read
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Method "getSample".
+     *
+     * @return the items of the sample, in random order
+     */
+    public List<T> getSample() {
+        Collections.shuffle(sample, random);
+        return sample;
+    }
+}
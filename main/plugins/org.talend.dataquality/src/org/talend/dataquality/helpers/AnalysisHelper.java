@@ -24,6 +24,7 @@ import org.talend.dataquality.PluginConstant;
 import org.talend.dataquality.analysis.Analysis;
 import org.talend.dataquality.analysis.AnalysisFactory;
 import org.talend.dataquality.analysis.AnalysisParameters;
+import org.talend.dataquality.analysis.AnalysisResult;
 import org.talend.dataquality.analysis.AnalysisType;
 import org.talend.dataquality.analysis.ExecutionLanguage;
 import org.talend.dataquality.domain.Domain;
@@ -54,6 +55,21 @@ public final class AnalysisHelper {
 
     private static final String DEFAULT = "Default"; //$NON-NLS-1$
 
+    /**
+     * the tagged value of the analysis which holds the relative error allowed for the approximate counts.
+     */
+    public static final String APPROXIMATE_COUNT_ERROR = "approximateCountError"; //$NON-NLS-1$
+
+    /**
+     * the tagged value of the analysis result which tells whether some results are estimated.
+     */
+    public static final String ESTIMATED_RESULT = "estimatedResult"; //$NON-NLS-1$
+
+    /**
+     * the tagged value of the analysis which holds the compression of the quantile sketches.
+     */
+    public static final String QUANTILE_SKETCH_COMPRESSION = "quantileSketchCompression"; //$NON-NLS-1$
+
     private AnalysisHelper() {
     }
 
@@ -530,4 +546,98 @@ public final class AnalysisHelper {
     public static boolean setLastRunContext(String lastRunContext, Analysis analysis) {
         return TaggedValueHelper.setTaggedValue(analysis, TaggedValueHelper.ANA_LAST_RUN_CONTEXT, lastRunContext);
     }
+
+    /**
+     * Method "getApproximateCountError".
+     *
+     * @param analysis
+     * @return the relative error allowed for the distinct, unique and duplicate counts of the java engine, 0 when the
+     * exact counts are computed
+     */
+    public static double getApproximateCountError(Analysis analysis) {
+        if (analysis == null) {
+            return 0;
+        }
+        TaggedValue taggedValue = TaggedValueHelper.getTaggedValue(APPROXIMATE_COUNT_ERROR, analysis.getTaggedValue());
+        if (taggedValue == null || StringUtils.isEmpty(taggedValue.getValue())) {
+            return 0;
+        }
+        try {
+            double error = Double.parseDouble(taggedValue.getValue());
+            return error > 0 && error < 1 ? error : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Method "setApproximateCountError".
+     *
+     * @param analysis
+     * @param error the relative error allowed for the approximate counts (between 0 and 1), 0 to compute the exact
+     * counts
+     * @return true if the value has been set
+     */
+    public static boolean setApproximateCountError(Analysis analysis, double error) {
+        return TaggedValueHelper.setTaggedValue(analysis, APPROXIMATE_COUNT_ERROR, String.valueOf(error));
+    }
+
+    /**
+     * Method "isEstimatedResult".
+     *
+     * @param result the analysis result
+     * @return true when some indicators of the last run have been estimated instead of computed exactly
+     */
+    public static boolean isEstimatedResult(AnalysisResult result) {
+        if (result == null) {
+            return false;
+        }
+        TaggedValue taggedValue = TaggedValueHelper.getTaggedValue(ESTIMATED_RESULT, result.getTaggedValue());
+        return taggedValue != null && Boolean.valueOf(taggedValue.getValue());
+    }
+
+    /**
+     * Method "setEstimatedResult".
+     *
+     * @param result the analysis result
+     * @param estimated true when some indicators have been estimated
+     * @return true if the value has been set
+     */
+    public static boolean setEstimatedResult(AnalysisResult result, boolean estimated) {
+        return TaggedValueHelper.setTaggedValue(result, ESTIMATED_RESULT, String.valueOf(estimated));
+    }
+
+    /**
+     * Method "getQuantileSketchCompression".
+     *
+     * @param analysis
+     * @return the compression of the sketches used by the java engine to estimate the median and the quartiles, 0 when
+     * the exact quantiles are computed
+     */
+    public static int getQuantileSketchCompression(Analysis analysis) {
+        if (analysis == null) {
+            return 0;
+        }
+        TaggedValue taggedValue = TaggedValueHelper.getTaggedValue(QUANTILE_SKETCH_COMPRESSION, analysis.getTaggedValue());
+        if (taggedValue == null || StringUtils.isEmpty(taggedValue.getValue())) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(taggedValue.getValue().trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Method "setQuantileSketchCompression".
+     *
+     * @param analysis
+     * @param compression the compression of the quantile sketches (about 100 gives a 1% error), 0 to compute the exact
+     * quantiles
+     * @return true if the value has been set
+     */
+    public static boolean setQuantileSketchCompression(Analysis analysis, int compression) {
+        return TaggedValueHelper.setTaggedValue(analysis, QUANTILE_SKETCH_COMPRESSION, String.valueOf(compression));
+    }
 }
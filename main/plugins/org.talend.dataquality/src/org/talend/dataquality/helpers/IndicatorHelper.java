@@ -15,7 +15,9 @@ package org.talend.dataquality.helpers;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -32,6 +34,7 @@ import org.talend.dataquality.indicators.BlankCountIndicator;
 import org.talend.dataquality.indicators.BoxIndicator;
 import org.talend.dataquality.indicators.CompositeIndicator;
 import org.talend.dataquality.indicators.DefValueCountIndicator;
+import org.talend.dataquality.indicators.DerivedValueCache;
 import org.talend.dataquality.indicators.DistinctCountIndicator;
 import org.talend.dataquality.indicators.DuplicateCountIndicator;
 import org.talend.dataquality.indicators.FormatFreqPieIndicator;
@@ -64,6 +67,8 @@ import org.talend.dataquality.indicators.WellFormIntePhoneCountIndicator;
 import org.talend.dataquality.indicators.WellFormNationalPhoneCountIndicator;
 import org.talend.dataquality.indicators.columnset.RecordMatchingIndicator;
 import org.talend.dataquality.indicators.definition.IndicatorCategory;
+import org.talend.dataquality.indicators.sketch.QuantileSketch;
+import org.talend.dataquality.indicators.sketch.QuantileSketchIndicator;
 import org.talend.dataquality.indicators.sql.JavaUserDefIndicator;
 import org.talend.dataquality.indicators.sql.UserDefIndicator;
 import org.talend.dataquality.indicators.sql.WhereRuleIndicator;
@@ -328,6 +333,29 @@ public final class IndicatorHelper {
         return leafIndicators;
     }
 
+    /**
+     * Method "getAdaptedIndicators" replaces the {@link RowCountIndicatorsAdapter} in the leaf indicators by the row
+     * count indicators it counts for. The returned indicators can then be copied, merged and saved one by one.
+     *
+     * @param leaves the leaf indicators returned by {@link #getIndicatorLeaves(Indicator)}
+     * @return the leaf indicators, without duplicate
+     */
+    public static List<Indicator> getAdaptedIndicators(Collection<Indicator> leaves) {
+        List<Indicator> indicators = new ArrayList<Indicator>();
+        for (Indicator leaf : leaves) {
+            if (leaf instanceof RowCountIndicatorsAdapter) {
+                for (RowCountIndicator rowCountIndicator : ((RowCountIndicatorsAdapter) leaf).getRowCountIndiSet()) {
+                    if (!indicators.contains(rowCountIndicator)) {
+                        indicators.add(rowCountIndicator);
+                    }
+                }
+            } else if (!indicators.contains(leaf)) {
+                indicators.add(leaf);
+            }
+        }
+        return indicators;
+    }
+
     /**
      * This method is used when not running analysis.returns the leaf indicators when the given indicator is a composite indicator
      * or the given indicator.
@@ -1016,4 +1044,51 @@ public final class IndicatorHelper {
         }
         return null;
     }
+
+    /**
+     * Method "shareQuantileSketches" makes the quantile indicators of the same column use one sketch: the sketch of the
+     * first of them is given to the others, which then neither feed nor merge it.
+     *
+     * @param indicators the indicators of an analysis
+     */
+    public static void shareQuantileSketches(Collection<Indicator> indicators) {
+        Map<ModelElement, QuantileSketch> columnSketches = new HashMap<ModelElement, QuantileSketch>();
+        for (Indicator indicator : indicators) {
+            if (!(indicator instanceof QuantileSketchIndicator)) {
+                continue;
+            }
+            QuantileSketchIndicator quantileIndicator = (QuantileSketchIndicator) indicator;
+            if (quantileIndicator.getQuantileSketch() == null) {
+                continue;
+            }
+            QuantileSketch sketch = columnSketches.get(indicator.getAnalyzedElement());
+            if (sketch == null) {
+                columnSketches.put(indicator.getAnalyzedElement(), quantileIndicator.getQuantileSketch());
+            } else {
+                quantileIndicator.setQuantileSketch(sketch, false);
+            }
+        }
+    }
+
+    /**
+     * Method "shareDerivedValueCaches" gives one {@link DerivedValueCache} to all the indicators of the same column, so
+     * that the values they derive from a cell (pattern, length, soundex code...) are computed once.
+     *
+     * @param indicators the indicators of an analysis
+     */
+    public static void shareDerivedValueCaches(Collection<Indicator> indicators) {
+        Map<ModelElement, DerivedValueCache> columnCaches = new HashMap<ModelElement, DerivedValueCache>();
+        for (Indicator indicator : indicators) {
+            ModelElement analyzedElement = indicator.getAnalyzedElement();
+            if (analyzedElement == null) {
+                continue;
+            }
+            DerivedValueCache cache = columnCaches.get(analyzedElement);
+            if (cache == null) {
+                cache = new DerivedValueCache();
+                columnCaches.put(analyzedElement, cache);
+            }
+            indicator.setDerivedValueCache(cache);
+        }
+    }
 }
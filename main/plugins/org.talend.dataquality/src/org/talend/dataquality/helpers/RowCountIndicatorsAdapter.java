@@ -26,12 +26,21 @@ import orgomg.cwm.objectmodel.core.ModelElement;
 
 /**
  * DOC zshen class global comment. Detailled comment
+ * <p>
+ * There is one adapter by thread, since an analysis is prepared and run on the same thread: the analyses run
+ * concurrently by the reports each count their own row count indicators.
  */
 public class RowCountIndicatorsAdapter extends RowCountIndicatorImpl {
 
     private Set<RowCountIndicator> rowCountIndiSet = new HashSet<>();
 
-    private static RowCountIndicatorsAdapter instance = null;
+    private static final ThreadLocal<RowCountIndicatorsAdapter> INSTANCE = new ThreadLocal<RowCountIndicatorsAdapter>() {
+
+        @Override
+        protected RowCountIndicatorsAdapter initialValue() {
+            return new RowCountIndicatorsAdapter();
+        }
+    };
 
     private RowCountIndicatorsAdapter() {
         clear();
@@ -40,13 +49,10 @@ public class RowCountIndicatorsAdapter extends RowCountIndicatorImpl {
     /**
      * Getter for instance.
      *
-     * @return the instance
+     * @return the instance of the current thread
      */
     public static RowCountIndicatorsAdapter getInstance() {
-        if (instance == null) {
-            instance = new RowCountIndicatorsAdapter();
-        }
-        return instance;
+        return INSTANCE.get();
     }
 
     /**
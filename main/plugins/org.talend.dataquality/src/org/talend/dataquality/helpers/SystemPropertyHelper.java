@@ -0,0 +1,93 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.helpers;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Reads the tuning values of the analyses given as system properties. A value which cannot be parsed is logged and
+ * replaced by the default value, since these values are read by static initializers: an exception there would make the
+ * class unusable.
+ */
+public final class SystemPropertyHelper {
+
+    private static Logger log = Logger.getLogger(SystemPropertyHelper.class);
+
+    private SystemPropertyHelper() {
+    }
+
+    /**
+     * Method "getInt".
+     *
+     * @param key the name of the system property
+     * @param defaultValue the value when the property is not set or is not an integer
+     * @return the value of the property
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            warn(key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Method "getLong".
+     *
+     * @param key the name of the system property
+     * @param defaultValue the value when the property is not set or is not an integer
+     * @return the value of the property
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            warn(key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Method "getDouble".
+     *
+     * @param key the name of the system property
+     * @param defaultValue the value when the property is not set or is not a number
+     * @return the value of the property
+     */
+    public static double getDouble(String key, double defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            warn(key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static void warn(String key, String value, Object defaultValue) {
+        log.warn("Invalid value \"" + value + "\" of the system property " + key + ", " + defaultValue //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                + " is used instead"); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,172 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators;
+
+import java.util.Arrays;
+
+/**
+ * Values derived from the current cell of a column (pattern, length, soundex code, formatted date...), shared by all
+ * the indicators of the column so that each derivation is computed once per cell whatever the number of indicators
+ * which need it.
+ * <p>
+ * The cache only remembers the derivations of the last value it has been given: a derived value is found as long as
+ * the indicators ask for it with the very same value object, which is the case for the indicators of a column handling
+ * the same row. A derivation is identified by a key made of its name and of the parameters it depends on, see
+ * {@link #createKey(String, Object...)}.
+ * <p>
+ * This class is not thread safe: the indicators of a column are expected to be handled by a single thread.
+ */
+public class DerivedValueCache {
+
+    /**
+     * Key of the number of code points of a string.
+     */
+    public static final String LENGTH = "length"; //$NON-NLS-1$
+
+    /**
+     * Key of the soundex code of a value.
+     */
+    public static final String SOUNDEX = "soundex"; //$NON-NLS-1$
+
+    /**
+     * Name of the character pattern derivation, its parameters being the characters to replace, the replacement
+     * characters and the date pattern.
+     */
+    public static final String PATTERN = "pattern"; //$NON-NLS-1$
+
+    /**
+     * Name of the east asia character pattern derivation.
+     */
+    public static final String EAST_ASIA_PATTERN = "eastAsiaPattern"; //$NON-NLS-1$
+
+    /**
+     * Name of the date formatting derivation, its parameter being the date pattern.
+     */
+    public static final String FORMATTED_DATE = "formattedDate"; //$NON-NLS-1$
+
+    /**
+     * Name of the phone number parsing derivation, its parameter being the default region.
+     */
+    public static final String PHONE_NUMBER = "phoneNumber"; //$NON-NLS-1$
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private Object currentValue;
+
+    private String[] keys = new String[4];
+
+    private Object[] derivedValues = new Object[4];
+
+    private int size;
+
+    private PhoneNumberCache phoneNumberCache;
+
+    /**
+     * Creates the key of a derivation. The keys are interned so that the indicators which need the same derivation
+     * with the same parameters use the same key instance.
+     *
+     * @param derivation the name of the derivation
+     * @param parameters the parameters of the derivation, can contain null
+     * @return the key
+     */
+    public static String createKey(String derivation, Object... parameters) {
+        StringBuilder key = new StringBuilder(derivation);
+        for (Object parameter : parameters) {
+            key.append(KEY_SEPARATOR).append(parameter);
+        }
+        return key.toString().intern();
+    }
+
+    /**
+     * Method "get".
+     *
+     * @param key the key of the derivation
+     * @param value the value from which the derived value is computed, not null
+     * @return the derived value, or null when it has not been computed yet for this value
+     */
+    public Object get(String key, Object value) {
+        if (value != currentValue) {
+            return null;
+        }
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key || keys[i].equals(key)) {
+                return derivedValues[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores a derived value of the given value. The derived values of the previous value are forgotten.
+     *
+     * @param key the key of the derivation
+     * @param value the value from which the derived value has been computed, not null
+     * @param derivedValue the derived value, not null
+     */
+    public void put(String key, Object value, Object derivedValue) {
+        if (value != currentValue) {
+            Arrays.fill(derivedValues, 0, size, null);
+            size = 0;
+            currentValue = value;
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key || keys[i].equals(key)) {
+                    derivedValues[i] = derivedValue;
+                    return;
+                }
+            }
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            derivedValues = Arrays.copyOf(derivedValues, size * 2);
+        }
+        keys[size] = key;
+        derivedValues[size++] = derivedValue;
+    }
+
+    /**
+     * Method "getLength".
+     *
+     * @param value a string
+     * @return the number of code points of the string
+     */
+    public int getLength(String value) {
+        Object length = get(LENGTH, value);
+        if (length == null) {
+            length = value.codePointCount(0, value.length());
+            put(LENGTH, value, length);
+        }
+        return (Integer) length;
+    }
+
+    /**
+     * Method "getPhoneNumberCache".
+     *
+     * @return the phone numbers parsed from the last values of the column
+     */
+    public PhoneNumberCache getPhoneNumberCache() {
+        if (phoneNumberCache == null) {
+            phoneNumberCache = new PhoneNumberCache();
+        }
+        return phoneNumberCache;
+    }
+
+    /**
+     * Forgets the current value and its derived values.
+     */
+    public void clear() {
+        Arrays.fill(derivedValues, 0, size, null);
+        size = 0;
+        currentValue = null;
+    }
+}
@@ -5,6 +5,9 @@
  */
 package org.talend.dataquality.indicators;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.math.BigInteger;
 import java.util.List;
 
@@ -518,4 +521,85 @@ public interface Indicator extends ModelElement {
      * @return where we will save temp data on a file
      */
     public boolean isUsedMapDBMode();
+
+    /**
+     * Setter for usedMapDBMode.
+     * 
+     * @param usedMapDBMode false to keep the temp data in memory
+     */
+    public void setUsedMapDBMode(boolean usedMapDBMode);
+
+    /**
+     * Method "handleBatch" gives a whole column vector to this indicator at once. It is equivalent to calling
+     * {@link #handle(Object)} on the first <code>size</code> values in order, but lets the indicators which only keep
+     * counters run a tight loop. The row based drill down ({@link #mustStoreRow()}) is not available in this mode.
+     * 
+     * @param values the column values of the current batch
+     * @param size the number of values to handle in the array
+     * @return true if all values have been handled
+     */
+    public boolean handleBatch(Object[] values, int size);
+
+    /**
+     * Method "isMergeable".
+     * 
+     * @return true if the partial results of several instances of this indicator, each computed on a slice of the data,
+     * can be combined with {@link #merge(Indicator)}
+     */
+    public boolean isMergeable();
+
+    /**
+     * Method "merge" adds the state of a partial indicator to the state of this indicator. The partial indicator must be
+     * of the same kind and must have handled another slice of the same data. This method must be called before
+     * {@link #finalizeComputation()} on both indicators.
+     * 
+     * @param partial the partial indicator to add to this one
+     * @return false when the indicators cannot be merged, then this indicator is left unchanged
+     */
+    public boolean merge(Indicator partial);
+
+    /**
+     * Method "writeState" writes the state of this mergeable indicator, so that it can be added later to the state of
+     * another instance with {@link #readState(ObjectInput)}. This method must be called before
+     * {@link #finalizeComputation()}.
+     * 
+     * @param out the output where the state is written
+     * @throws IOException when the indicator is not mergeable or when a value cannot be written
+     */
+    public void writeState(ObjectOutput out) throws IOException;
+
+    /**
+     * Method "readState" adds a state written by {@link #writeState(ObjectOutput)} to the state of this indicator, as
+     * {@link #merge(Indicator)} does with a partial indicator. This method must be called after {@link #prepare()} and
+     * before {@link #finalizeComputation()}.
+     * 
+     * @param in the input where the state is read
+     * @throws IOException when the state cannot be read or cannot be added to this indicator
+     * @throws ClassNotFoundException when the class of a value is unknown
+     */
+    public void readState(ObjectInput in) throws IOException, ClassNotFoundException;
+
+    /**
+     * Method "isEstimated".
+     * 
+     * @return true when the result of this indicator is an estimate computed in bounded memory instead of the exact
+     * value (see {@link org.talend.dataquality.helpers.AnalysisHelper#getApproximateCountError(org.talend.dataquality.analysis.Analysis)}
+     * and {@link org.talend.dataquality.helpers.AnalysisHelper#getQuantileSketchCompression(org.talend.dataquality.analysis.Analysis)})
+     */
+    public boolean isEstimated();
+
+    /**
+     * Method "getDerivedValueCache".
+     * 
+     * @return the cache of the values derived from the current cell, shared by the indicators of the same column, or
+     * null when each indicator computes its own derived values
+     */
+    public DerivedValueCache getDerivedValueCache();
+
+    /**
+     * Method "setDerivedValueCache".
+     * 
+     * @param derivedValueCache the cache of the values derived from the current cell
+     */
+    public void setDerivedValueCache(DerivedValueCache derivedValueCache);
 } // Indicator
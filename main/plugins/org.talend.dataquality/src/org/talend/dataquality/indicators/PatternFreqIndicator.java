@@ -17,4 +17,12 @@ package org.talend.dataquality.indicators;
 public interface PatternFreqIndicator extends FrequencyIndicator {
 
     public String convertCharacters(String data);
+
+    /**
+     * Method "getPattern".
+     * 
+     * @param data a not null value of the analyzed column
+     * @return the pattern counted by this indicator for the value
+     */
+    public String getPattern(Object data);
 } // PatternFreqIndicator
@@ -0,0 +1,183 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.talend.dataquality.helpers.SystemPropertyHelper;
+
+import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+/**
+ * The phone numbers parsed from the last values of a column, shared by the phone indicators of the column through
+ * their {@link DerivedValueCache}.
+ * <p>
+ * A value is parsed once for each default region with {@link PhoneNumberUtil#parseAndKeepRawInput(String, String)},
+ * the result of {@link PhoneNumberUtil#parse(String, String)} being the same number without the raw input fields. The
+ * outcomes of the last parsed values, including the parse errors, are kept in a bounded LRU map since the phone
+ * columns have many repeated values.
+ * <p>
+ * This class is not thread safe, like {@link DerivedValueCache}.
+ */
+public class PhoneNumberCache {
+
+    /**
+     * The maximum number of parsed values kept by a column.
+     */
+    public static final int MAX_SIZE = SystemPropertyHelper.getInt("talend.analysis.phone.cache.size", 10000); //$NON-NLS-1$
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final Map<String, ParsedPhoneNumber> parsedNumbers;
+
+    private final Map<String, String> derivationKeys = new HashMap<String, String>();
+
+    public PhoneNumberCache() {
+        this(MAX_SIZE);
+    }
+
+    /**
+     * PhoneNumberCache constructor.
+     *
+     * @param maxSize the maximum number of parsed values kept
+     */
+    public PhoneNumberCache(final int maxSize) {
+        this.parsedNumbers = new LinkedHashMap<String, ParsedPhoneNumber>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParsedPhoneNumber> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Method "parse".
+     *
+     * @param value the value to parse
+     * @param region the default region, null when the value must start with its country calling code
+     * @return the outcome of the parsing of the value
+     */
+    public ParsedPhoneNumber parse(String value, String region) {
+        String key = region + KEY_SEPARATOR + value;
+        ParsedPhoneNumber parsedNumber = parsedNumbers.get(key);
+        if (parsedNumber == null) {
+            try {
+                parsedNumber = new ParsedPhoneNumber(PhoneNumberUtil.getInstance().parseAndKeepRawInput(value, region), null);
+            } catch (NumberParseException e) {
+                parsedNumber = new ParsedPhoneNumber(null, e);
+            }
+            parsedNumbers.put(key, parsedNumber);
+        }
+        return parsedNumber;
+    }
+
+    /**
+     * Method "parsePhoneNumber".
+     *
+     * @param derivedValueCache the derived values of the column, null when the value is only used by one indicator
+     * @param value the current value, not null
+     * @param region the default region, null when the value must start with its country calling code
+     * @param keepRawInput true to parse with {@link PhoneNumberUtil#parseAndKeepRawInput(String, String)}, false with
+     * {@link PhoneNumberUtil#parse(String, String)}
+     * @return the phone number, parsed once for all the phone indicators of the column. It must not be modified.
+     * @throws NumberParseException when the value is not a phone number
+     */
+    public static PhoneNumber parsePhoneNumber(DerivedValueCache derivedValueCache, Object value, String region,
+            boolean keepRawInput) throws NumberParseException {
+        if (derivedValueCache == null) {
+            PhoneNumberUtil phoneUtil = PhoneNumberUtil.getInstance();
+            return keepRawInput ? phoneUtil.parseAndKeepRawInput(value.toString(), region) : phoneUtil.parse(
+                    value.toString(), region);
+        }
+        PhoneNumberCache phoneNumberCache = derivedValueCache.getPhoneNumberCache();
+        String key = phoneNumberCache.getDerivationKey(region);
+        ParsedPhoneNumber parsedNumber = (ParsedPhoneNumber) derivedValueCache.get(key, value);
+        if (parsedNumber == null) {
+            parsedNumber = phoneNumberCache.parse(value.toString(), region);
+            derivedValueCache.put(key, value, parsedNumber);
+        }
+        return parsedNumber.getPhoneNumber(keepRawInput);
+    }
+
+    /**
+     * Method "getDerivationKey".
+     *
+     * @param region the default region, can be null
+     * @return the key of the phone number parsing with this region in the {@link DerivedValueCache}
+     */
+    String getDerivationKey(String region) {
+        String key = derivationKeys.get(region);
+        if (key == null) {
+            key = DerivedValueCache.createKey(DerivedValueCache.PHONE_NUMBER, region);
+            derivationKeys.put(region, key);
+        }
+        return key;
+    }
+
+    /**
+     * Method "size".
+     *
+     * @return the number of parsed values kept
+     */
+    public int size() {
+        return parsedNumbers.size();
+    }
+
+    /**
+     * The outcome of the parsing of a value: the phone number or the parse error. The phone numbers are shared, they
+     * must not be modified.
+     */
+    public static class ParsedPhoneNumber {
+
+        private final PhoneNumber numberWithRawInput;
+
+        private PhoneNumber number;
+
+        private final NumberParseException exception;
+
+        ParsedPhoneNumber(PhoneNumber numberWithRawInput, NumberParseException exception) {
+            this.numberWithRawInput = numberWithRawInput;
+            this.exception = exception;
+        }
+
+        /**
+         * Method "getPhoneNumber".
+         *
+         * @param keepRawInput true for the result of {@link PhoneNumberUtil#parseAndKeepRawInput(String, String)},
+         * false for the result of {@link PhoneNumberUtil#parse(String, String)}
+         * @return the phone number
+         * @throws NumberParseException when the value is not a phone number
+         */
+        public PhoneNumber getPhoneNumber(boolean keepRawInput) throws NumberParseException {
+            if (exception != null) {
+                throw exception;
+            }
+            if (keepRawInput) {
+                return numberWithRawInput;
+            }
+            if (number == null) {
+                // the fields which are only set when the raw input is kept
+                number = new PhoneNumber().mergeFrom(numberWithRawInput).clearRawInput().clearCountryCodeSource()
+                        .clearPreferredDomesticCarrierCode();
+            }
+            return number;
+        }
+    }
+}
@@ -9,8 +9,6 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -27,6 +25,7 @@ import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.eclipse.emf.ecore.util.EDataTypeUniqueEList;
 import org.eclipse.emf.ecore.util.EObjectResolvingEList;
 import org.talend.algorithms.AlgoUtils;
+import org.talend.algorithms.GroupTable;
 import org.talend.core.model.metadata.builder.connection.MetadataColumn;
 import org.talend.cwm.helper.SwitchHelpers;
 import org.talend.cwm.relational.TdColumn;
@@ -46,7 +45,6 @@ import org.talend.dataquality.indicators.mapdb.ColumnSetDBMap;
 import org.talend.dataquality.indicators.mapdb.DBMap;
 import org.talend.dataquality.indicators.mapdb.StandardDBName;
 import org.talend.resource.ResourceManager;
-import org.talend.utils.collections.Tuple;
 import org.talend.utils.sql.Java2SqlType;
 import org.talend.utils.sql.TalendTypeConvert;
 import orgomg.cwm.objectmodel.core.ModelElement;
@@ -228,9 +226,10 @@ public class ColumnSetMultiValueIndicatorImpl extends CompositeIndicatorImpl imp
     protected DuplicateCountIndicator duplicateCountIndicator;
 
     /**
-     * store the value of group like use sql 'select a ,b from table group by a,b'.
+     * store the value of group like use sql 'select a ,b from table group by a,b'. Created with the first row, as it
+     * needs the number of columns.
      */
-    protected Map<Object, Long> valueByGroupMapForJavaMap = new HashMap<Object, Long>();
+    protected GroupTable valueByGroupTable = null;
 
     /**
      * store the value of group like use sql 'select a ,b from table group by a,b' when use MapDB.
@@ -1243,8 +1242,8 @@ public class ColumnSetMultiValueIndicatorImpl extends CompositeIndicatorImpl imp
             if (!valueByGroupMapForMapDB.isEmpty()) {
                 valueByGroupMapForMapDB.clear();
             }
-        } else {
-            this.valueByGroupMapForJavaMap.clear();
+        } else if (this.valueByGroupTable != null) {
+            this.valueByGroupTable.clear();
         }
         return super.reset();
     }
@@ -1256,14 +1255,13 @@ public class ColumnSetMultiValueIndicatorImpl extends CompositeIndicatorImpl imp
      * @return
      */
     protected List<Object[]> convertValueByGroupMapToList() {
-        Iterator<Object> it = valueByGroupMapForJavaMap.keySet().iterator();
-        valueByGroupList = new ArrayList<Object[]>();
-        while (it.hasNext()) {
-            Tuple tuple = (Tuple) it.next();
-            List<Object> tempLs = new ArrayList<Object>();
-            tempLs.addAll(Arrays.asList(tuple.getTuple()));
-            tempLs.add(valueByGroupMapForJavaMap.get(tuple));
-            valueByGroupList.add(tempLs.toArray());
+        int groupCount = valueByGroupTable == null ? 0 : valueByGroupTable.size();
+        valueByGroupList = new ArrayList<Object[]>(groupCount);
+        for (int group = 0; group < groupCount; group++) {
+            Object[] values = valueByGroupTable.getValues(group);
+            Object[] row = Arrays.copyOf(values, values.length + 1);
+            row[values.length] = valueByGroupTable.getCount(group);
+            valueByGroupList.add(row);
         }
         return valueByGroupList;
     }
@@ -1285,20 +1283,10 @@ public class ColumnSetMultiValueIndicatorImpl extends CompositeIndicatorImpl imp
      */
     private void handleDataOnMemory(EList<Object> datas) {
         Object objects[] = datas.toArray();
-        Tuple tuple = new Tuple(objects);
-        Iterator<Object> it = valueByGroupMapForJavaMap.keySet().iterator();
-        boolean isFound = false;
-        while (it.hasNext()) {
-            Tuple oldTuple = (Tuple) it.next();
-            if (tuple.equals(oldTuple)) {
-                AlgoUtils.incrementValueCounts(oldTuple, this.valueByGroupMapForJavaMap);
-                isFound = true;
-                break;
-            }
-        }
-        if (!isFound) {
-            AlgoUtils.incrementValueCounts(tuple, this.valueByGroupMapForJavaMap);
+        if (valueByGroupTable == null) {
+            valueByGroupTable = new GroupTable(objects.length);
         }
+        valueByGroupTable.increment(objects);
     }
 
     /**
@@ -62,7 +62,7 @@ public class AvgLengthWithBlankNullIndicatorImpl extends AverageLengthIndicatorI
             // blank strings count as zero length strings
             if (((String) data).trim().length() > 0) {
                 String str = (String) data;
-                sumLength += str.codePointCount(0, str.length());
+                sumLength += getCodePointCount(str);
             }
         }
         return true;
@@ -8,6 +8,7 @@ package org.talend.dataquality.indicators.impl;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.emf.ecore.EClass;
 import org.talend.dataquality.indicators.BenfordLawFrequencyIndicator;
@@ -241,4 +242,15 @@ public class BenfordLawFrequencyIndicatorImpl extends FrequencyIndicatorImpl imp
         return true;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.FrequencyIndicatorImpl#getMapForFreq()
+     */
+    @Override
+    public Map<Object, Long> getMapForFreq() {
+        // the leading digits are counted directly in valueToFreq
+        return this.valueToFreq;
+    }
+
 } // BenfordLawFrequencyIndicatorImpl
@@ -5,6 +5,9 @@
  */
 package org.talend.dataquality.indicators.impl;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.List;
 
 import org.apache.commons.lang.StringUtils;
@@ -13,6 +16,7 @@ import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.talend.dataquality.helpers.IndicatorHelper;
 import org.talend.dataquality.indicators.BlankCountIndicator;
+import org.talend.dataquality.indicators.Indicator;
 import org.talend.dataquality.indicators.IndicatorsPackage;
 
 /**
@@ -217,4 +221,50 @@ public class BlankCountIndicatorImpl extends IndicatorImpl implements BlankCount
         return this.getBlankCount();
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#isMergeable()
+     */
+    @Override
+    public boolean isMergeable() {
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#merge(org.talend.dataquality.indicators.Indicator)
+     */
+    @Override
+    public boolean merge(Indicator partial) {
+        if (!super.merge(partial)) {
+            return false;
+        }
+        this.blankCount += ((BlankCountIndicatorImpl) partial).blankCount;
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#writeState(java.io.ObjectOutput)
+     */
+    @Override
+    public void writeState(ObjectOutput out) throws IOException {
+        super.writeState(out);
+        out.writeLong(blankCount);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#readState(java.io.ObjectInput)
+     */
+    @Override
+    public void readState(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readState(in);
+        this.blankCount += in.readLong();
+    }
+
 } // BlankCountIndicatorImpl
@@ -130,7 +130,7 @@ public class DatePatternFreqIndicatorImpl extends FrequencyIndicatorImpl impleme
         if (data != null) {
             // MOD qiongli 2011-11-11 TDQ-3864,format the date for file connection.
             if (data instanceof Date && !StringUtils.isEmpty(this.datePattern)) {
-                data = DateFormatUtils.format((Date) data, datePattern);
+                data = formatDate((Date) data, datePattern);
             }
             List<ModelMatcher> findMatchers = dateRetriever.findMatchers(String.valueOf(data));
             for (ModelMatcher matcher : findMatchers) {
@@ -277,4 +277,15 @@ public class DatePatternFreqIndicatorImpl extends FrequencyIndicatorImpl impleme
         }
     }
 
+    /**
+     * The counts of this indicator are not kept in the frequency map before the finalization, so the partial results
+     * cannot be merged.
+     * 
+     * @see org.talend.dataquality.indicators.impl.FrequencyIndicatorImpl#isMergeable()
+     */
+    @Override
+    public boolean isMergeable() {
+        return false;
+    }
+
 } // DatePatternFreqIndicatorImpl
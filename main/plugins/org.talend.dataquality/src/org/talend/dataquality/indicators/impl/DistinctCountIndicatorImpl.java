@@ -5,6 +5,10 @@
  */
 package org.talend.dataquality.indicators.impl;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -13,10 +17,12 @@ import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.talend.dataquality.helpers.IndicatorHelper;
 import org.talend.dataquality.indicators.DistinctCountIndicator;
+import org.talend.dataquality.indicators.Indicator;
 import org.talend.dataquality.indicators.IndicatorsPackage;
 import org.talend.dataquality.indicators.mapdb.AbstractDB;
 import org.talend.dataquality.indicators.mapdb.DBSet;
 import org.talend.dataquality.indicators.mapdb.StandardDBName;
+import org.talend.dataquality.indicators.sketch.DistinctValueSketch;
 import orgomg.cwm.objectmodel.core.Expression;
 
 /**
@@ -55,6 +61,11 @@ public class DistinctCountIndicatorImpl extends IndicatorImpl implements Distinc
 
     private Set<Object> distinctObjects = null;
 
+    /**
+     * used instead of the distinct objects when the analysis allows approximate counts.
+     */
+    private DistinctValueSketch distinctValueSketch = null;
+
     /**
      * <!-- begin-user-doc --> <!-- end-user-doc -->
      * @generated
@@ -211,6 +222,10 @@ public class DistinctCountIndicatorImpl extends IndicatorImpl implements Distinc
     @Override
     public boolean handle(Object data) {
         super.handle(data);
+        if (distinctValueSketch != null) {
+            distinctValueSketch.offer(data);
+            return true;
+        }
         // MOD msjian 2011-8-24 TDQ-1679: when run with java engine, the Duplicate count should contain "null"
         // if (data != null) {
         if (this.distinctObjects.add(data)) {
@@ -225,6 +240,10 @@ public class DistinctCountIndicatorImpl extends IndicatorImpl implements Distinc
 
     @Override
     public boolean finalizeComputation() {
+        if (distinctValueSketch != null) {
+            this.setDistinctValueCount(distinctValueSketch.getDistinctCount());
+            return super.finalizeComputation();
+        }
         this.setDistinctValueCount(Long.valueOf(distinctObjects.size()));
         return super.finalizeComputation();
     }
@@ -237,6 +256,11 @@ public class DistinctCountIndicatorImpl extends IndicatorImpl implements Distinc
     @Override
     public boolean reset() {
         this.distinctValueCount = DISTINCT_VALUE_COUNT_EDEFAULT;
+        distinctValueSketch = createDistinctValueSketch();
+        if (distinctValueSketch != null) {
+            // the distinct objects are not stored
+            return super.reset();
+        }
         if (isUsedMapDBMode()) {
             if (needReconnect((DBSet<Object>) distinctObjects)) {
                 distinctObjects = initValueForDBSet(StandardDBName.computeProcessSet.name());
@@ -244,6 +268,8 @@ public class DistinctCountIndicatorImpl extends IndicatorImpl implements Distinc
             if (!distinctObjects.isEmpty()) {
                 distinctObjects.clear();
             }
+        } else if (distinctObjects == null) {
+            distinctObjects = new HashSet<Object>();
         } else {
             distinctObjects.clear();
         }
@@ -294,4 +320,60 @@ public class DistinctCountIndicatorImpl extends IndicatorImpl implements Distinc
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#isMergeable()
+     */
+    @Override
+    public boolean isMergeable() {
+        return distinctValueSketch == null;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#merge(org.talend.dataquality.indicators.Indicator)
+     */
+    @Override
+    public boolean merge(Indicator partial) {
+        if (!super.merge(partial)) {
+            return false;
+        }
+        this.distinctObjects.addAll(((DistinctCountIndicatorImpl) partial).distinctObjects);
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#writeState(java.io.ObjectOutput)
+     */
+    @Override
+    public void writeState(ObjectOutput out) throws IOException {
+        super.writeState(out);
+        writeValues(out, distinctObjects);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#readState(java.io.ObjectInput)
+     */
+    @Override
+    public void readState(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readState(in);
+        this.distinctObjects.addAll(readValues(in));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#isEstimated()
+     */
+    @Override
+    public boolean isEstimated() {
+        return distinctValueSketch != null;
+    }
+
 } // DistinctCountIndicatorImpl
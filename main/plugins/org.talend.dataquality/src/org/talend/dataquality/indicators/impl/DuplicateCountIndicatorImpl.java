@@ -27,6 +27,7 @@ import org.talend.dataquality.indicators.mapdb.AbstractDB;
 import org.talend.dataquality.indicators.mapdb.DBMap;
 import org.talend.dataquality.indicators.mapdb.DBSet;
 import org.talend.dataquality.indicators.mapdb.StandardDBName;
+import org.talend.dataquality.indicators.sketch.DistinctValueSketch;
 import org.talend.resource.ResourceManager;
 import org.talend.utils.sql.ResultSetUtils;
 
@@ -70,6 +71,11 @@ public class DuplicateCountIndicatorImpl extends IndicatorImpl implements Duplic
     // store all distinct rows by one key, in its list.
     private Map<Object, List<Object>> distinctMap = null;
 
+    /**
+     * used instead of the distinct rows when the analysis allows approximate counts.
+     */
+    private DistinctValueSketch distinctValueSketch = null;
+
     // ~
 
     /**
@@ -246,6 +252,10 @@ public class DuplicateCountIndicatorImpl extends IndicatorImpl implements Duplic
 
     @Override
     public boolean finalizeComputation() {
+        if (distinctValueSketch != null) {
+            this.setDuplicateValueCount(distinctValueSketch.getDuplicateCount());
+            return super.finalizeComputation();
+        }
         // Mod yyin 20120608 TDQ-3589
         // at the end: remove the list.size()=1 , only remain the list.size()>1
         Iterator<Object> iterator = duplicateObjects.iterator();
@@ -275,6 +285,13 @@ public class DuplicateCountIndicatorImpl extends IndicatorImpl implements Duplic
 
     @Override
     public boolean reset() {
+        distinctValueSketch = createDistinctValueSketch();
+        if (distinctValueSketch != null) {
+            // no row is kept, so there is no duplicate to drill down
+            distinctMap = new HashMap<>();
+            duplicateObjects = new HashSet<>();
+            return super.reset();
+        }
         if (this.isUsedMapDBMode()) {
             if (needReconnect((AbstractDB<?>) distinctMap)) {
                 distinctMap = initValueForDBMap(StandardDBName.computeProcess.name());
@@ -304,6 +321,10 @@ public class DuplicateCountIndicatorImpl extends IndicatorImpl implements Duplic
     @Override
     public void handle(Object colValue, ResultSet resultSet, int columnSize) throws SQLException {
         super.handle(colValue);
+        if (distinctValueSketch != null) {
+            distinctValueSketch.offer(colValue);
+            return;
+        }
         if (distinctMap.containsKey(colValue)) {
             if (!duplicateObjects.contains(colValue)) {
                 duplicateObjects.add(colValue);
@@ -344,6 +365,10 @@ public class DuplicateCountIndicatorImpl extends IndicatorImpl implements Duplic
     @Override
     public void handle(Object object, String[] rowValues) {
         super.handle(object);
+        if (distinctValueSketch != null) {
+            distinctValueSketch.offer(object);
+            return;
+        }
         if (distinctMap.containsKey(object)) {
             if (!duplicateObjects.contains(object)) {
                 duplicateObjects.add(object);
@@ -407,4 +432,14 @@ public class DuplicateCountIndicatorImpl extends IndicatorImpl implements Duplic
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#isEstimated()
+     */
+    @Override
+    public boolean isEstimated() {
+        return distinctValueSketch != null;
+    }
+
 } // DuplicateCountIndicatorImpl
@@ -5,6 +5,7 @@ package org.talend.dataquality.indicators.impl;
 import org.eclipse.emf.ecore.EClass;
 import org.talend.dataquality.common.regex.ChainResponsibilityHandler;
 import org.talend.dataquality.common.regex.HandlerFactory;
+import org.talend.dataquality.indicators.DerivedValueCache;
 import org.talend.dataquality.indicators.EastAsiaPatternFreqIndicator;
 import org.talend.dataquality.indicators.IndicatorsPackage;
 
@@ -49,6 +50,16 @@ public class EastAsiaPatternFreqIndicatorImpl extends PatternFreqIndicatorImpl i
         return convertCharacters;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.PatternFreqIndicatorImpl#getPatternDerivation()
+     */
+    @Override
+    protected String getPatternDerivation() {
+        return DerivedValueCache.EAST_ASIA_PATTERN;
+    }
+
     /**
      * DOC talend Comment method "externalConvertChartacters".
      * 
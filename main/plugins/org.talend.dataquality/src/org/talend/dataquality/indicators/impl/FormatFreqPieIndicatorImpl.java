@@ -473,4 +473,15 @@ public class FormatFreqPieIndicatorImpl extends FrequencyIndicatorImpl implement
         return this.getCurrentKey();
     }
 
+    /**
+     * The counts of this indicator are not kept in the frequency map before the finalization, so the partial results
+     * cannot be merged.
+     * 
+     * @see org.talend.dataquality.indicators.impl.FrequencyIndicatorImpl#isMergeable()
+     */
+    @Override
+    public boolean isMergeable() {
+        return false;
+    }
+
 } // FormatFreqPieIndicatorImpl
@@ -5,8 +5,12 @@
  */
 package org.talend.dataquality.indicators.impl;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.sql.Time;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
@@ -22,11 +26,14 @@ import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.eclipse.emf.ecore.util.EDataTypeUniqueEList;
+import org.eclipse.emf.ecore.util.InternalEList;
+import org.talend.algorithms.FrequencyTable;
 import org.talend.commons.utils.SpecialValueDisplay;
 import org.talend.dataquality.PluginConstant;
 import org.talend.dataquality.helpers.IndicatorHelper;
 import org.talend.dataquality.indicators.DateGrain;
 import org.talend.dataquality.indicators.FrequencyIndicator;
+import org.talend.dataquality.indicators.Indicator;
 import org.talend.dataquality.indicators.IndicatorsPackage;
 import org.talend.dataquality.indicators.mapdb.AbstractDB;
 import org.talend.dataquality.indicators.mapdb.DBMap;
@@ -34,7 +41,6 @@ import org.talend.dataquality.indicators.mapdb.StandardDBName;
 import org.talend.dataquality.indicators.mapdb.TalendFormatDate;
 import org.talend.dataquality.indicators.mapdb.TalendFormatTime;
 import org.talend.resource.ResourceManager;
-import org.talend.utils.collections.MapValueSorter;
 
 /**
  * <!-- begin-user-doc --> An implementation of the model object '<em><b>Frequency Indicator</b></em>'. <!--
@@ -150,6 +156,12 @@ public class FrequencyIndicatorImpl extends IndicatorImpl implements FrequencyIn
 
     protected Map<Object, Long> valueToFreqForMapDB = null;
 
+    /**
+     * the frequency of each value while the rows are handled in memory, only the most frequent values are kept in
+     * valueToFreq by finalizeComputation().
+     */
+    private FrequencyTable frequencyTable = null;
+
     /**
      * <!-- begin-user-doc --> <!-- end-user-doc -->
      * @generated
@@ -334,7 +346,7 @@ public class FrequencyIndicatorImpl extends IndicatorImpl implements FrequencyIn
 
     /**
      * 
-     * When MapDB is valid will return BtreeMap else will return HashMap(valueToFreq)
+     * When MapDB is valid will return BtreeMap else will return the in memory frequency table
      * 
      * @return
      */
@@ -342,7 +354,14 @@ public class FrequencyIndicatorImpl extends IndicatorImpl implements FrequencyIn
         if (isUsedMapDBMode()) {
             return valueToFreqForMapDB;
         }
-        return getValueToFreq();
+        return getFrequencyTable();
+    }
+
+    private FrequencyTable getFrequencyTable() {
+        if (frequencyTable == null) {
+            frequencyTable = new FrequencyTable();
+        }
+        return frequencyTable;
     }
 
     @Override
@@ -460,28 +479,24 @@ public class FrequencyIndicatorImpl extends IndicatorImpl implements FrequencyIn
     @Override
     public boolean handle(Object data) {
         super.handle(data);
-        Long freq = getMapForFreq().get(data);
-        if (freq == null) { // new data
-            freq = 0L;
-            if (!isUsedMapDBMode()) {
-                this.getUniqueValues().add(data);
-            }
+        long freq;
+        if (isUsedMapDBMode()) {
+            Long oldFreq = getMapForFreq().get(data);
+            freq = (oldFreq == null ? 0L : oldFreq) + 1;
+            getMapForFreq().put(data, freq);
+        } else {
+            // one lookup, the unique values are collected at the end
+            freq = getFrequencyTable().increment(data);
+        }
+        if (freq == 1L) { // new data
             this.uniqueValueCount++;
-        } else { // data not new
-            if (!isUsedMapDBMode()) {
-                this.getUniqueValues().remove(data);
-            }
-            if (freq.compareTo(1L) == 0) { // decrement when data is seen twice
-                this.uniqueValueCount--;
-            }
+        } else if (freq == 2L) { // decrement when data is seen twice
+            this.uniqueValueCount--;
         }
-        if (this.checkMustStoreCurrentRow(freq)) {
+        if (this.checkMustStoreCurrentRow(freq - 1)) {
             mustStoreRow = true;
         }
-        freq++;
-        // TODO scorreia compute distinct values ?
         // TODO scorreia handle options (for numeric values and date values)
-        getMapForFreq().put(data, freq);
         return freq > 0;
 
     }
@@ -494,6 +509,7 @@ public class FrequencyIndicatorImpl extends IndicatorImpl implements FrequencyIn
     @Override
     public boolean finalizeComputation() {
         final int topN = (parameters != null) ? parameters.getTopN() : PluginConstant.DEFAULT_TOP_N;
+        computeUniqueValues();
         List<Object> mostFrequent = getReducedValues(topN);
         HashMap<Object, Long> map = new HashMap<Object, Long>();
         for (Object object : mostFrequent) {
@@ -501,6 +517,11 @@ public class FrequencyIndicatorImpl extends IndicatorImpl implements FrequencyIn
         }
         this.valueToFreq.clear();
         this.setValueToFreq(map);
+        if (!isUsedMapDBMode()) {
+            // release the values which are not kept
+            getFrequencyTable().clear();
+            getFrequencyTable().putAll(map);
+        }
         // this.distinctComputed = true;
         return super.finalizeComputation();
     }
@@ -512,7 +533,31 @@ public class FrequencyIndicatorImpl extends IndicatorImpl implements FrequencyIn
      * @return
      */
     protected List<Object> getReducedValues(int n) {
-        return new MapValueSorter().getMostFrequent(getMapForFreq(), n);
+        return FrequencyTable.getMostFrequent(getMapForFreq(), n);
+    }
+
+    /**
+     * fills the unique values (the values seen once) from the in memory frequency table, once all the rows have been
+     * handled.
+     */
+    @SuppressWarnings("unchecked")
+    protected void computeUniqueValues() {
+        if (isUsedMapDBMode()) {
+            return;
+        }
+        getUniqueValues().clear();
+        // the unique count is only maintained when the values are counted by handle(Object)
+        if (uniqueValueCount == null || uniqueValueCount <= 0) {
+            return;
+        }
+        List<Object> values = new ArrayList<Object>(uniqueValueCount.intValue());
+        for (Map.Entry<Object, Long> entry : getMapForFreq().entrySet()) {
+            if (entry.getValue() != null && entry.getValue().longValue() == 1L) {
+                values.add(entry.getKey());
+            }
+        }
+        // the keys of the table are already unique
+        ((InternalEList<Object>) getUniqueValues()).addAllUnique(values);
     }
 
     /*
@@ -536,6 +581,7 @@ public class FrequencyIndicatorImpl extends IndicatorImpl implements FrequencyIn
             }
         } else {
             this.getValueToFreq().clear();
+            getFrequencyTable().clear();
         }
         return super.reset();
     }
@@ -864,4 +910,72 @@ public class FrequencyIndicatorImpl extends IndicatorImpl implements FrequencyIn
         return sb.toString();
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#isMergeable()
+     */
+    @Override
+    public boolean isMergeable() {
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#merge(org.talend.dataquality.indicators.Indicator)
+     */
+    @Override
+    public boolean merge(Indicator partial) {
+        if (!super.merge(partial)) {
+            return false;
+        }
+        addFrequencies(((FrequencyIndicatorImpl) partial).getMapForFreq());
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#writeState(java.io.ObjectOutput)
+     */
+    @Override
+    public void writeState(ObjectOutput out) throws IOException {
+        super.writeState(out);
+        writeValueCounts(out, getMapForFreq());
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#readState(java.io.ObjectInput)
+     */
+    @Override
+    public void readState(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readState(in);
+        addFrequencies(readValueCounts(in));
+    }
+
+    /**
+     * Adds the frequencies of other values to the frequency table, and updates the number of unique values.
+     * Subclasses which keep other counts of the values must update them before calling this method.
+     * 
+     * @param valueToFreq the frequencies of the values
+     */
+    protected void addFrequencies(Map<Object, Long> valueToFreq) {
+        Map<Object, Long> freqMap = getMapForFreq();
+        for (Map.Entry<Object, Long> entry : valueToFreq.entrySet()) {
+            Object data = entry.getKey();
+            Long oldFreq = freqMap.get(data);
+            long newFreq = entry.getValue() + (oldFreq == null ? 0L : oldFreq);
+            if (oldFreq != null && oldFreq.compareTo(1L) == 0 && newFreq != 1L) {
+                this.uniqueValueCount--;
+            } else if ((oldFreq == null || oldFreq.compareTo(1L) != 0) && newFreq == 1L) {
+                this.uniqueValueCount++;
+            }
+            freqMap.put(data, newFreq);
+        }
+        this.distinctComputed = false;
+    }
+
 } // FrequencyIndicatorImpl
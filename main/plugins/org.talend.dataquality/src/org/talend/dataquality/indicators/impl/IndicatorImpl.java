@@ -6,11 +6,22 @@
 package org.talend.dataquality.indicators.impl;
 
 import java.io.IOError;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.NotSerializableException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.sql.Types;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang.ArrayUtils;
+import org.apache.commons.lang.time.DateFormatUtils;
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.notify.NotificationChain;
@@ -27,6 +38,7 @@ import org.talend.dataquality.analysis.Analysis;
 import org.talend.dataquality.helpers.AnalysisHelper;
 import org.talend.dataquality.helpers.MetadataHelper;
 import org.talend.dataquality.indicators.DataminingType;
+import org.talend.dataquality.indicators.DerivedValueCache;
 import org.talend.dataquality.indicators.Indicator;
 import org.talend.dataquality.indicators.IndicatorParameters;
 import org.talend.dataquality.indicators.IndicatorValueType;
@@ -35,11 +47,17 @@ import org.talend.dataquality.indicators.definition.IndicatorDefinition;
 import org.talend.dataquality.indicators.mapdb.AbstractDB;
 import org.talend.dataquality.indicators.mapdb.DBMap;
 import org.talend.dataquality.indicators.mapdb.DBSet;
+import org.talend.dataquality.indicators.mapdb.DrillDownDBMap;
 import org.talend.dataquality.indicators.mapdb.StandardDBName;
+import org.talend.dataquality.indicators.sketch.DistinctValueSketch;
+import org.talend.dataquality.indicators.sketch.MemoryPressure;
+import org.talend.dataquality.indicators.sketch.QuantileSketch;
 import org.talend.dataquality.rules.JoinElement;
 import org.talend.resource.ResourceManager;
 import org.talend.utils.sql.Java2SqlType;
 import org.talend.utils.sql.TalendTypeConvert;
+
+
 import orgomg.cwm.objectmodel.core.Expression;
 import orgomg.cwm.objectmodel.core.ModelElement;
 import orgomg.cwm.objectmodel.core.impl.ModelElementImpl;
@@ -97,6 +115,18 @@ public class IndicatorImpl extends ModelElementImpl implements Indicator {
      */
     protected DBMap<Object, List<Object>> drillDownMap = null;
 
+    /**
+     * the values derived from the current cell, shared with the other indicators of the column.
+     */
+    private DerivedValueCache derivedValueCache = null;
+
+    /**
+     * the date pattern of the last formatted date and its derivation key.
+     */
+    private String formattedDatePattern = null;
+
+    private String formattedDateKey = null;
+
     /**
      * store drill down value.
      */
@@ -739,6 +769,338 @@ public class IndicatorImpl extends ModelElementImpl implements Indicator {
         return true;
     }
 
+    /**
+     * Default batch implementation: handles each value one by one. Subclasses which only update counters should
+     * override it to run a tight loop.
+     * 
+     * @see org.talend.dataquality.indicators.Indicator#handleBatch(java.lang.Object[], int)
+     */
+    @Override
+    public boolean handleBatch(Object[] values, int size) {
+        boolean ok = true;
+        for (int i = 0; i < size; i++) {
+            if (!handle(values[i])) {
+                ok = false;
+            }
+        }
+        mustStoreRow = false;
+        return ok;
+    }
+
+    /**
+     * An indicator is not mergeable by default, subclasses which know how to combine their partial results must
+     * override this method and {@link #merge(Indicator)}.
+     * 
+     * @see org.talend.dataquality.indicators.Indicator#isMergeable()
+     */
+    @Override
+    public boolean isMergeable() {
+        return false;
+    }
+
+    /**
+     * Adds the counts of the partial indicator. Subclasses must call this method before merging their own state.
+     * 
+     * @see org.talend.dataquality.indicators.Indicator#merge(org.talend.dataquality.indicators.Indicator)
+     */
+    @Override
+    public boolean merge(Indicator partial) {
+        if (!isMergeable() || partial == null || partial == this || partial.getClass() != getClass()) {
+            return false;
+        }
+        count += partial.getCount();
+        nullCount += partial.getNullCount();
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.Indicator#isEstimated()
+     */
+    @Override
+    public boolean isEstimated() {
+        return false;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.Indicator#getDerivedValueCache()
+     */
+    @Override
+    public DerivedValueCache getDerivedValueCache() {
+        return derivedValueCache;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.Indicator#setDerivedValueCache(org.talend.dataquality.indicators.
+     * DerivedValueCache)
+     */
+    @Override
+    public void setDerivedValueCache(DerivedValueCache derivedValueCache) {
+        this.derivedValueCache = derivedValueCache;
+    }
+
+    /**
+     * Method "getDerivedValue".
+     * 
+     * @param key the key of the derivation, see {@link DerivedValueCache#createKey(String, Object...)}
+     * @param value the current value, not null
+     * @return the value derived from the current value by another indicator of the column, or null when it must be
+     * computed
+     */
+    protected Object getDerivedValue(String key, Object value) {
+        return derivedValueCache == null ? null : derivedValueCache.get(key, value);
+    }
+
+    /**
+     * Shares a value derived from the current value with the other indicators of the column.
+     * 
+     * @param key the key of the derivation
+     * @param value the current value, not null
+     * @param derivedValue the derived value, not null
+     */
+    protected void putDerivedValue(String key, Object value, Object derivedValue) {
+        if (derivedValueCache != null) {
+            derivedValueCache.put(key, value, derivedValue);
+        }
+    }
+
+    /**
+     * Method "getCodePointCount".
+     * 
+     * @param value a string
+     * @return the number of code points of the string, computed once for all the indicators of the column
+     */
+    protected int getCodePointCount(String value) {
+        return derivedValueCache == null ? value.codePointCount(0, value.length()) : derivedValueCache.getLength(value);
+    }
+
+    /**
+     * Method "formatDate".
+     * 
+     * @param date the current value
+     * @param pattern the date pattern
+     * @return the date formatted with the pattern, computed once for all the indicators of the column
+     */
+    protected String formatDate(Date date, String pattern) {
+        if (derivedValueCache == null) {
+            return DateFormatUtils.format(date, pattern);
+        }
+        if (!pattern.equals(formattedDatePattern)) {
+            formattedDatePattern = pattern;
+            formattedDateKey = DerivedValueCache.createKey(DerivedValueCache.FORMATTED_DATE, pattern);
+        }
+        String formattedDate = (String) derivedValueCache.get(formattedDateKey, date);
+        if (formattedDate == null) {
+            formattedDate = DateFormatUtils.format(date, pattern);
+            derivedValueCache.put(formattedDateKey, date, formattedDate);
+        }
+        return formattedDate;
+    }
+
+    /**
+     * Creates the sketch used instead of the exact sets of values when the analysis allows approximate counts, or when
+     * the memory is short (see {@link MemoryPressure}). The approximate counts are only available with the java
+     * engine.
+     * 
+     * @return the sketch, or null when the exact values must be computed
+     */
+    protected DistinctValueSketch createDistinctValueSketch() {
+        Analysis analysis = AnalysisHelper.getAnalysis(this);
+        if (analysis == null || !AnalysisHelper.isJavaExecutionEngine(analysis)) {
+            return null;
+        }
+        double error = AnalysisHelper.getApproximateCountError(analysis);
+        if (error <= 0 && MemoryPressure.isHigh()) {
+            error = MemoryPressure.COUNT_ERROR;
+        }
+        return error > 0 ? new DistinctValueSketch(error) : null;
+    }
+
+    /**
+     * Creates the sketch used instead of the exact frequency table when the analysis allows estimated quantiles, or
+     * when the memory is short (see {@link MemoryPressure}). The estimated quantiles are only available with the java
+     * engine.
+     * 
+     * @return the sketch, or null when the exact quantiles must be computed
+     */
+    protected QuantileSketch createQuantileSketch() {
+        Analysis analysis = AnalysisHelper.getAnalysis(this);
+        if (analysis == null || !AnalysisHelper.isJavaExecutionEngine(analysis)) {
+            return null;
+        }
+        int compression = AnalysisHelper.getQuantileSketchCompression(analysis);
+        if (compression <= 0 && MemoryPressure.isHigh()) {
+            compression = MemoryPressure.QUANTILE_COMPRESSION;
+        }
+        return compression > 0 ? new QuantileSketch(compression) : null;
+    }
+
+    /**
+     * Writes the counts of this indicator. Subclasses must call this method before writing their own state.
+     * 
+     * @see org.talend.dataquality.indicators.Indicator#writeState(java.io.ObjectOutput)
+     */
+    @Override
+    public void writeState(ObjectOutput out) throws IOException {
+        if (!isMergeable()) {
+            throw new NotSerializableException(getClass().getName());
+        }
+        out.writeLong(count);
+        out.writeLong(nullCount);
+    }
+
+    /**
+     * Adds the counts of a written state. Subclasses must call this method before reading their own state.
+     * 
+     * @see org.talend.dataquality.indicators.Indicator#readState(java.io.ObjectInput)
+     */
+    @Override
+    public void readState(ObjectInput in) throws IOException, ClassNotFoundException {
+        if (!isMergeable()) {
+            throw new NotSerializableException(getClass().getName());
+        }
+        count += in.readLong();
+        nullCount += in.readLong();
+    }
+
+    /**
+     * Writes the number of values of a collection, then the values.
+     * 
+     * @param out the output
+     * @param values the values, which must be serializable
+     * @throws IOException
+     */
+    protected static void writeValues(ObjectOutput out, Collection<Object> values) throws IOException {
+        out.writeInt(values.size());
+        for (Object value : values) {
+            out.writeObject(value);
+        }
+    }
+
+    /**
+     * Reads the values written by {@link #writeValues(ObjectOutput, Collection)}.
+     * 
+     * @param in the input
+     * @return the values
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    protected static List<Object> readValues(ObjectInput in) throws IOException, ClassNotFoundException {
+        int size = in.readInt();
+        List<Object> values = new ArrayList<Object>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readObject());
+        }
+        return values;
+    }
+
+    /**
+     * Writes the number of values of a frequency table, then each value with its count.
+     * 
+     * @param out the output
+     * @param valueToCount the frequency table, whose values must be serializable
+     * @throws IOException
+     */
+    protected static void writeValueCounts(ObjectOutput out, Map<Object, Long> valueToCount) throws IOException {
+        out.writeInt(valueToCount.size());
+        for (Map.Entry<Object, Long> entry : valueToCount.entrySet()) {
+            out.writeObject(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    /**
+     * Reads the frequency table written by {@link #writeValueCounts(ObjectOutput, Map)}.
+     * 
+     * @param in the input
+     * @return the frequency table, in the written order
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    protected static Map<Object, Long> readValueCounts(ObjectInput in) throws IOException, ClassNotFoundException {
+        int size = in.readInt();
+        Map<Object, Long> valueToCount = new LinkedHashMap<Object, Long>();
+        for (int i = 0; i < size; i++) {
+            Object value = in.readObject();
+            valueToCount.put(value, in.readLong());
+        }
+        return valueToCount;
+    }
+
+    /**
+     * Writes the values of a quantile indicator, summarized by its sketch or counted in its frequency table.
+     * 
+     * @param out the output
+     * @param valueToCount the frequency table of the indicator
+     * @param sketch the sketch of the indicator, null when the quantile is computed exactly
+     * @throws IOException
+     */
+    protected static void writeQuantileValues(ObjectOutput out, Map<Object, Long> valueToCount, QuantileSketch sketch)
+            throws IOException {
+        out.writeBoolean(sketch != null);
+        if (sketch != null) {
+            sketch.writeState(out);
+        } else {
+            writeValueCounts(out, valueToCount == null ? Collections.<Object, Long> emptyMap() : valueToCount);
+        }
+    }
+
+    /**
+     * Adds the values written by {@link #writeQuantileValues(ObjectOutput, Map, QuantileSketch)} to the frequency table
+     * or to the sketch of this indicator, as {@link #mergeQuantileValues(Map, QuantileSketch, Map, QuantileSketch)}
+     * does.
+     * 
+     * @param in the input
+     * @param valueToCount the frequency table of this indicator
+     * @param sketch the sketch of this indicator, null when the quantile is computed exactly
+     * @throws IOException when the values were summarized by a sketch and the quantile is computed exactly
+     * @throws ClassNotFoundException
+     */
+    protected static void readQuantileValues(ObjectInput in, Map<Object, Long> valueToCount, QuantileSketch sketch)
+            throws IOException, ClassNotFoundException {
+        if (in.readBoolean()) {
+            if (sketch == null) {
+                throw new InvalidObjectException("The exact quantile cannot be computed from a sketch."); //$NON-NLS-1$
+            }
+            sketch.readState(in);
+        } else {
+            mergeQuantileValues(valueToCount, sketch, readValueCounts(in), null);
+        }
+    }
+
+    /**
+     * Adds the values of a partial quantile indicator, counted in its frequency table or summarized by its sketch, to
+     * the frequency table or to the sketch of this indicator.
+     * 
+     * @param valueToCount the frequency table of this indicator
+     * @param sketch the sketch of this indicator, null when the quantile is computed exactly
+     * @param otherValueToCount the frequency table of the partial indicator
+     * @param otherSketch the sketch of the partial indicator, can be null
+     */
+    protected static void mergeQuantileValues(Map<Object, Long> valueToCount, QuantileSketch sketch,
+            Map<Object, Long> otherValueToCount, QuantileSketch otherSketch) {
+        if (sketch != null && otherSketch != null) {
+            sketch.merge(otherSketch);
+            return;
+        }
+        if (otherValueToCount == null) {
+            return;
+        }
+        for (Map.Entry<Object, Long> entry : otherValueToCount.entrySet()) {
+            if (sketch != null) {
+                sketch.offer(entry.getKey(), entry.getValue());
+            } else {
+                Long oldCount = valueToCount.get(entry.getKey());
+                valueToCount.put(entry.getKey(), entry.getValue() + (oldCount == null ? 0L : oldCount));
+            }
+        }
+    }
+
     /**
      * <!-- begin-user-doc --> <!-- end-user-doc -->
      * 
@@ -760,7 +1122,7 @@ public class IndicatorImpl extends ModelElementImpl implements Indicator {
     protected void clearDrillDownMap() {
         if (this.isUsedMapDBMode() && checkAllowDrillDown()) {
             if (needReconnect(drillDownMap)) {
-                drillDownMap = initValueForDBMap(StandardDBName.drillDown.name());
+                drillDownMap = initDrillDownDBMap(StandardDBName.drillDown.name());
             }
             if (!drillDownMap.isEmpty()) {
                 drillDownMap.clear();
@@ -775,7 +1137,7 @@ public class IndicatorImpl extends ModelElementImpl implements Indicator {
     protected void clearDrillDownSet() {
         if (this.isUsedMapDBMode() && checkAllowDrillDown()) {
             if (needReconnect(drillDownValuesSet)) {
-                drillDownValuesSet = initValueForDBSet(StandardDBName.drillDownValues.name());
+                drillDownValuesSet = initDrillDownDBSet(StandardDBName.drillDownValues.name());
             }
             if (!drillDownValuesSet.isEmpty()) {
                 drillDownValuesSet.clear();
@@ -803,6 +1165,31 @@ public class IndicatorImpl extends ModelElementImpl implements Indicator {
                 ResourceManager.getMapDBCatalogName(this, dbName));
     }
 
+    /**
+     * Create a new map of drill down rows, the rows being stored once for all the indicators of the analysis.
+     * 
+     * @param dbName
+     * @return
+     */
+    protected DBMap<Object, List<Object>> initDrillDownDBMap(String dbName) {
+        DBMap<Object, List<Object>> dbMap = new DrillDownDBMap(ResourceManager.getMapDBFilePath(),
+                ResourceManager.getMapDBFileName(this), ResourceManager.getMapDBCatalogName(this, dbName));
+        dbMap.enableRankIndex();
+        return dbMap;
+    }
+
+    /**
+     * Create a new set of drill down values, whose pages are read by the drill down.
+     * 
+     * @param dbName
+     * @return
+     */
+    protected DBSet<Object> initDrillDownDBSet(String dbName) {
+        DBSet<Object> dbSet = initValueForDBSet(dbName);
+        dbSet.enableRankIndex();
+        return dbSet;
+    }
+
     /**
      * Create a new DBSet
      * 
@@ -1332,9 +1719,9 @@ public class IndicatorImpl extends ModelElementImpl implements Indicator {
                 if (drillDownValuesSet != null && !drillDownValuesSet.isClosed()) {
                     return drillDownValuesSet;
                 }
-                return initValueForDBSet(StandardDBName.drillDownValues.name());
+                return initDrillDownDBSet(StandardDBName.drillDownValues.name());
             }
-            return initValueForDBMap(dbName);
+            return initDrillDownDBMap(dbName);
         }
         return null;
     }
@@ -13,6 +13,7 @@ import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.talend.dataquality.indicators.IndicatorsPackage;
 import org.talend.dataquality.indicators.InvalidRegCodeCountIndicator;
+import org.talend.dataquality.indicators.PhoneNumberCache;
 
 import com.google.i18n.phonenumbers.NumberParseException;
 import com.google.i18n.phonenumbers.PhoneNumberUtil;
@@ -185,7 +186,7 @@ public class InvalidRegCodeCountIndicatorImpl extends IndicatorImpl implements I
             // the parameter defualtRegion is null at here, it will get an region code when the data is guaranteed to
             // start with a '+' followed by the country calling code. e.g. "+86 13521588311", "+8613521588311",
             // "+86 1352 1588 311". or else, it will throw Exception as an invalid Region Code.
-            PhoneNumber phhoneNum = phoneUtil.parse(data.toString(), null);
+            PhoneNumber phhoneNum = PhoneNumberCache.parsePhoneNumber(getDerivedValueCache(), data, null, false);
             regionCodeForNumber = phoneUtil.getRegionCodeForNumber(phhoneNum);
         } catch (NumberParseException e) {
             parseSuccess = false;
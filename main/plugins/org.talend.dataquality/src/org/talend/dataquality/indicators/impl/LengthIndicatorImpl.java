@@ -259,7 +259,7 @@ public class LengthIndicatorImpl extends IndicatorImpl implements LengthIndicato
             inputDataLength = 0;
         } else {
             String inputStr = inputData.toString();
-            inputDataLength = inputStr.codePointCount(0, inputStr.length());
+            inputDataLength = getCodePointCount(inputStr);
         }
         return this.getName() + inputDataLength;
     }
@@ -8,9 +8,9 @@ package org.talend.dataquality.indicators.impl;
 import java.util.List;
 
 import org.eclipse.emf.ecore.EClass;
+import org.talend.algorithms.FrequencyTable;
 import org.talend.dataquality.indicators.IndicatorsPackage;
 import org.talend.dataquality.indicators.LowFrequencyIndicator;
-import org.talend.utils.collections.MapValueSorter;
 
 /**
  * <!-- begin-user-doc --> An implementation of the model object '<em><b>Low Frequency Indicator</b></em>'. <!--
@@ -41,7 +41,7 @@ public class LowFrequencyIndicatorImpl extends FrequencyIndicatorImpl implements
 
     @Override
     protected List<Object> getReducedValues(int n) {
-        return new MapValueSorter().getLessFrequent(getMapForFreq(), n);
+        return FrequencyTable.getLessFrequent(getMapForFreq(), n);
     }
 
 } // LowFrequencyIndicatorImpl
@@ -1,5 +1,8 @@
 package org.talend.dataquality.indicators.impl;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -7,11 +10,14 @@ import java.util.TreeMap;
 import org.apache.log4j.Logger;
 import org.eclipse.emf.ecore.EClass;
 import org.talend.algorithms.AlgoUtils;
+import org.talend.dataquality.indicators.Indicator;
 import org.talend.dataquality.indicators.IndicatorsPackage;
 import org.talend.dataquality.indicators.LowerQuartileIndicator;
 import org.talend.dataquality.indicators.mapdb.AbstractDB;
 import org.talend.dataquality.indicators.mapdb.DBMap;
 import org.talend.dataquality.indicators.mapdb.StandardDBName;
+import org.talend.dataquality.indicators.sketch.QuantileSketch;
+import org.talend.dataquality.indicators.sketch.QuantileSketchIndicator;
 import org.talend.resource.ResourceManager;
 
 /**
@@ -22,12 +28,22 @@ import org.talend.resource.ResourceManager;
  *
  * @generated
  */
-public class LowerQuartileIndicatorImpl extends MinValueIndicatorImpl implements LowerQuartileIndicator {
+public class LowerQuartileIndicatorImpl extends MinValueIndicatorImpl implements LowerQuartileIndicator, QuantileSketchIndicator {
 
     private static Logger log = Logger.getLogger(LowerQuartileIndicatorImpl.class);
 
     private Map<Object, Long> frequenceTable = null;
 
+    /**
+     * the sketch used instead of the frequency table when the quartile is estimated.
+     */
+    private QuantileSketch quantileSketch = null;
+
+    /**
+     * false when the sketch is fed by another quantile indicator of the column.
+     */
+    private boolean quantileSketchOwner = true;
+
     /**
      * <!-- begin-user-doc --> <!-- end-user-doc -->
      * @generated
@@ -66,6 +82,12 @@ public class LowerQuartileIndicatorImpl extends MinValueIndicatorImpl implements
         if (data == null) {
             return ok;
         }
+        if (quantileSketch != null) {
+            if (quantileSketchOwner) {
+                quantileSketch.offer(data);
+            }
+            return ok;
+        }
         return ok && AlgoUtils.incrementValueCounts(data, this.frequenceTable);
     }
 
@@ -78,9 +100,13 @@ public class LowerQuartileIndicatorImpl extends MinValueIndicatorImpl implements
                 ((DBMap<Object, Long>) frequenceTable).clear();
             }
             frequenceTable = initValueForLowerQuartileDBMap(StandardDBName.computeProcess.name());
+        } else if (frequenceTable == null) {
+            frequenceTable = new TreeMap<Object, Long>();
         } else {
             this.frequenceTable.clear();
         }
+        this.quantileSketch = createQuantileSketch();
+        this.quantileSketchOwner = true;
         return super.reset();
     }
 
@@ -91,7 +117,8 @@ public class LowerQuartileIndicatorImpl extends MinValueIndicatorImpl implements
                 this.setValue(String.valueOf(Double.NaN));
             } else {
                 long total = this.getCount().longValue() - this.getNullCount().longValue();
-                final double quantile = AlgoUtils.getQuantile(total, frequenceTable, 1, 4);
+                final double quantile = quantileSketch != null ? quantileSketch.quantile(0.25) : AlgoUtils.getQuantile(
+                        total, frequenceTable, 1, 4);
                 this.setValue(String.valueOf(quantile));
             }
             // get the correct type of result from the analyzed element
@@ -157,4 +184,91 @@ public class LowerQuartileIndicatorImpl extends MinValueIndicatorImpl implements
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.MinValueIndicatorImpl#isMergeable()
+     */
+    @Override
+    public boolean isMergeable() {
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.MinValueIndicatorImpl#merge(org.talend.dataquality.indicators.Indicator)
+     */
+    @Override
+    public boolean merge(Indicator partial) {
+        if (quantileSketch == null && partial instanceof LowerQuartileIndicatorImpl && ((LowerQuartileIndicatorImpl) partial).quantileSketch != null) {
+            // the exact quartile cannot be computed from a sketch
+            return false;
+        }
+        if (!super.merge(partial)) {
+            return false;
+        }
+        LowerQuartileIndicatorImpl other = (LowerQuartileIndicatorImpl) partial;
+        if (quantileSketchOwner) {
+            mergeQuantileValues(frequenceTable, quantileSketch, other.frequenceTable, other.quantileSketch);
+        }
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.MinValueIndicatorImpl#writeState(java.io.ObjectOutput)
+     */
+    @Override
+    public void writeState(ObjectOutput out) throws IOException {
+        super.writeState(out);
+        if (quantileSketchOwner) {
+            writeQuantileValues(out, frequenceTable, quantileSketch);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.MinValueIndicatorImpl#readState(java.io.ObjectInput)
+     */
+    @Override
+    public void readState(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readState(in);
+        if (quantileSketchOwner) {
+            readQuantileValues(in, frequenceTable, quantileSketch);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#isEstimated()
+     */
+    @Override
+    public boolean isEstimated() {
+        return quantileSketch != null;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.sketch.QuantileSketchIndicator#getQuantileSketch()
+     */
+    public QuantileSketch getQuantileSketch() {
+        return quantileSketch;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.sketch.QuantileSketchIndicator#setQuantileSketch(org.talend.dataquality.
+     * indicators.sketch.QuantileSketch, boolean)
+     */
+    public void setQuantileSketch(QuantileSketch sketch, boolean owner) {
+        this.quantileSketch = sketch;
+        this.quantileSketchOwner = owner;
+    }
+
 } // LowerQuartileIndicatorImpl
@@ -91,6 +91,21 @@ public class MeanIndicatorImpl extends SumIndicatorImpl implements MeanIndicator
         return handleStatus;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.SumIndicatorImpl#handleBatch(java.lang.Object[], int)
+     */
+    @Override
+    public boolean handleBatch(Object[] values, int size) {
+        int notNullCount = handleGenericSumBatch(values, size);
+        // mean count should not include null count.
+        count += notNullCount;
+        nullCount += size - notNullCount;
+        mustStoreRow = false;
+        return true;
+    }
+
     /**
      * <!-- begin-user-doc --> <!-- end-user-doc -->
      * @generated
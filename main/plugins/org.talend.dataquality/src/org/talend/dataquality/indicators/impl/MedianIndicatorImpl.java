@@ -5,6 +5,9 @@
  */
 package org.talend.dataquality.indicators.impl;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.sql.Types;
 import java.util.Date;
 import java.util.List;
@@ -15,9 +18,12 @@ import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.talend.algorithms.AlgoUtils;
+import org.talend.dataquality.indicators.Indicator;
 import org.talend.dataquality.indicators.IndicatorValueType;
 import org.talend.dataquality.indicators.IndicatorsPackage;
 import org.talend.dataquality.indicators.MedianIndicator;
+import org.talend.dataquality.indicators.sketch.QuantileSketch;
+import org.talend.dataquality.indicators.sketch.QuantileSketchIndicator;
 import org.talend.utils.sql.Java2SqlType;
 import org.talend.utils.time.TimeTracer;
 
@@ -35,7 +41,7 @@ import org.talend.utils.time.TimeTracer;
  * 
  * @generated
  */
-public class MedianIndicatorImpl extends IndicatorImpl implements MedianIndicator {
+public class MedianIndicatorImpl extends IndicatorImpl implements MedianIndicator, QuantileSketchIndicator {
 
     /**
      * The default value of the '{@link #getMedian() <em>Median</em>}' attribute.
@@ -346,8 +352,13 @@ public class MedianIndicatorImpl extends IndicatorImpl implements MedianIndicato
             tt.start("searching median");
         }
 
-        long totalCount = super.getCount().longValue() - super.getNullCount().longValue();
-        double localMedian = AlgoUtils.getMedian(totalCount, this.getFrequenceTable());
+        double localMedian;
+        if (quantileSketch != null) {
+            localMedian = quantileSketch.quantile(0.5);
+        } else {
+            long totalCount = super.getCount().longValue() - super.getNullCount().longValue();
+            localMedian = AlgoUtils.getMedian(totalCount, this.getFrequenceTable());
+        }
 
         if (trace) {
             tt.end("median found");
@@ -364,6 +375,16 @@ public class MedianIndicatorImpl extends IndicatorImpl implements MedianIndicato
      */
     private boolean medianComputed = true; // fix bug 4936 set to true
 
+    /**
+     * the sketch used instead of the frequency table when the median is estimated.
+     */
+    private QuantileSketch quantileSketch = null;
+
+    /**
+     * false when the sketch is fed by another quantile indicator of the column.
+     */
+    private boolean quantileSketchOwner = true;
+
     /*
      * (non-Javadoc) ADDED scorreia overriden method handle()
      * 
@@ -376,6 +397,12 @@ public class MedianIndicatorImpl extends IndicatorImpl implements MedianIndicato
         if (data == null) {
             return ok;
         }
+        if (quantileSketch != null) {
+            if (quantileSketchOwner) {
+                quantileSketch.offer(data);
+            }
+            return ok;
+        }
         return ok && AlgoUtils.incrementValueCounts(data, this.getFrequenceTable());
     }
 
@@ -480,6 +507,8 @@ public class MedianIndicatorImpl extends IndicatorImpl implements MedianIndicato
             this.frequenceTable.clear();
         }
         this.computed = COMPUTED_EDEFAULT; 
+        this.quantileSketch = createQuantileSketch();
+        this.quantileSketchOwner = true;
         return super.reset();
     }
 
@@ -499,6 +528,94 @@ public class MedianIndicatorImpl extends IndicatorImpl implements MedianIndicato
         return medianComputed;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.sketch.QuantileSketchIndicator#getQuantileSketch()
+     */
+    public QuantileSketch getQuantileSketch() {
+        return quantileSketch;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.sketch.QuantileSketchIndicator#setQuantileSketch(org.talend.dataquality.
+     * indicators.sketch.QuantileSketch, boolean)
+     */
+    public void setQuantileSketch(QuantileSketch sketch, boolean owner) {
+        this.quantileSketch = sketch;
+        this.quantileSketchOwner = owner;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#isEstimated()
+     */
+    @Override
+    public boolean isEstimated() {
+        return quantileSketch != null;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#isMergeable()
+     */
+    @Override
+    public boolean isMergeable() {
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#merge(org.talend.dataquality.indicators.Indicator)
+     */
+    @Override
+    public boolean merge(Indicator partial) {
+        if (quantileSketch == null && partial instanceof MedianIndicatorImpl
+                && ((MedianIndicatorImpl) partial).quantileSketch != null) {
+            // the exact median cannot be computed from a sketch
+            return false;
+        }
+        if (!super.merge(partial)) {
+            return false;
+        }
+        MedianIndicatorImpl other = (MedianIndicatorImpl) partial;
+        if (quantileSketchOwner) {
+            mergeQuantileValues(getFrequenceTable(), quantileSketch, other.frequenceTable, other.quantileSketch);
+        }
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#writeState(java.io.ObjectOutput)
+     */
+    @Override
+    public void writeState(ObjectOutput out) throws IOException {
+        super.writeState(out);
+        if (quantileSketchOwner) {
+            writeQuantileValues(out, frequenceTable, quantileSketch);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#readState(java.io.ObjectInput)
+     */
+    @Override
+    public void readState(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readState(in);
+        if (quantileSketchOwner) {
+            readQuantileValues(in, getFrequenceTable(), quantileSketch);
+        }
+    }
+
     
     
 } // MedianIndicatorImpl
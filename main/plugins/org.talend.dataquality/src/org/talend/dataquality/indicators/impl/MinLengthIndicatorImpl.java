@@ -47,7 +47,7 @@ public class MinLengthIndicatorImpl extends LengthIndicatorImpl implements MinLe
         boolean ok = super.handle(data);
         if (data != null) {
             String str = (String) data;
-            final int strLength = str.codePointCount(0, str.length());
+            final int strLength = getCodePointCount(str);
             if (strLength > 0) {
                 if ((length == LENGTH_EDEFAULT || length.intValue() == strLength)) {
                     length = Long.valueOf(strLength);
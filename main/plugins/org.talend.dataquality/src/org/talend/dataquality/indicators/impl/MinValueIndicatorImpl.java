@@ -5,9 +5,13 @@
  */
 package org.talend.dataquality.indicators.impl;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.Date;
 
 import org.eclipse.emf.ecore.EClass;
+import org.talend.dataquality.indicators.Indicator;
 import org.talend.dataquality.indicators.IndicatorValueType;
 import org.talend.dataquality.indicators.IndicatorsPackage;
 import org.talend.dataquality.indicators.MinValueIndicator;
@@ -120,4 +124,68 @@ public class MinValueIndicatorImpl extends ValueIndicatorImpl implements MinValu
         return super.prepare();
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#isMergeable()
+     */
+    @Override
+    public boolean isMergeable() {
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#merge(org.talend.dataquality.indicators.Indicator)
+     */
+    @Override
+    public boolean merge(Indicator partial) {
+        if (!super.merge(partial)) {
+            return false;
+        }
+        MinValueIndicatorImpl other = (MinValueIndicatorImpl) partial;
+        if (other.value == null) {
+            return true;
+        }
+        Object otherData = isDateType ? other.objValue : other.value;
+        if (null == this.value || isLess(otherData)) {
+            this.value = other.value;
+            this.objValue = other.objValue;
+        }
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#writeState(java.io.ObjectOutput)
+     */
+    @Override
+    public void writeState(ObjectOutput out) throws IOException {
+        super.writeState(out);
+        out.writeObject(value);
+        out.writeObject(objValue);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#readState(java.io.ObjectInput)
+     */
+    @Override
+    public void readState(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readState(in);
+        String otherValue = (String) in.readObject();
+        Object otherObjValue = in.readObject();
+        if (otherValue == null) {
+            return;
+        }
+        Object otherData = isDateType ? otherObjValue : otherValue;
+        if (null == this.value || isLess(otherData)) {
+            this.value = otherValue;
+            this.objValue = otherObjValue;
+        }
+    }
+
 } // MinValueIndicatorImpl
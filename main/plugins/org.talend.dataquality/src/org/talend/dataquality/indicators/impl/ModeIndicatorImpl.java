@@ -12,10 +12,10 @@ import org.apache.log4j.Logger;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.impl.ENotificationImpl;
+import org.talend.algorithms.FrequencyTable;
 import org.talend.dataquality.indicators.IndicatorValueType;
 import org.talend.dataquality.indicators.IndicatorsPackage;
 import org.talend.dataquality.indicators.ModeIndicator;
-import org.talend.utils.collections.MapValueSorter;
 
 /**
  * <!-- begin-user-doc --> An implementation of the model object '<em><b>Mode Indicator</b></em>'. <!-- end-user-doc -->
@@ -235,7 +235,7 @@ public class ModeIndicatorImpl extends FrequencyIndicatorImpl implements ModeInd
 
         List<Object[]> mostFrequentList = new ArrayList<Object[]>();
         // get the most frequency value
-        List<Object> mostFrequent = new MapValueSorter().getMostFrequent(getMapForFreq(), 1);
+        List<Object> mostFrequent = FrequencyTable.getMostFrequent(getMapForFreq(), 1);
         if (mostFrequent != null && !mostFrequent.isEmpty()) {
             Object[] mostFrequentObj = new Object[] { mostFrequent.get(0), getMapForFreq().get(mostFrequent.get(0)) };
             mostFrequentList.add(mostFrequentObj);
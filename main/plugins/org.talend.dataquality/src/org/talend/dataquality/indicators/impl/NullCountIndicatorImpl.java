@@ -96,4 +96,33 @@ public class NullCountIndicatorImpl extends IndicatorImpl implements NullCountIn
         return returnValue;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#handleBatch(java.lang.Object[], int)
+     */
+    @Override
+    public boolean handleBatch(Object[] values, int size) {
+        long nulls = 0L;
+        for (int i = 0; i < size; i++) {
+            if (values[i] == null) {
+                nulls++;
+            }
+        }
+        count += size;
+        nullCount += nulls;
+        mustStoreRow = false;
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#isMergeable()
+     */
+    @Override
+    public boolean isMergeable() {
+        return true;
+    }
+
 } // NullCountIndicatorImpl
@@ -13,6 +13,7 @@ import org.eclipse.emf.ecore.EClass;
 import org.talend.core.model.metadata.builder.connection.MetadataColumn;
 import org.talend.cwm.helper.SwitchHelpers;
 import org.talend.cwm.relational.TdColumn;
+import org.talend.dataquality.indicators.DerivedValueCache;
 import org.talend.dataquality.indicators.IndicatorsPackage;
 import org.talend.dataquality.indicators.PatternLowFreqIndicator;
 import org.talend.dataquality.indicators.TextParameters;
@@ -34,6 +35,9 @@ public class PatternLowFreqIndicatorImpl extends LowFrequencyIndicatorImpl imple
     // Mark replace parameter whether has been setting by the user.
     private boolean hasBeanCustomized = false;
 
+    // the key of the patterns computed by this indicator in the derived value cache
+    private String patternKey = null;
+
     /**
      * <!-- begin-user-doc --> <!-- end-user-doc -->
      * 
@@ -100,6 +104,7 @@ public class PatternLowFreqIndicatorImpl extends LowFrequencyIndicatorImpl imple
             // the datePattern only for DelimitedFile connection in PatternFreqIndicator.
             this.datePattern = pattern;
         }
+        patternKey = null;
         return flag;
     }
 
@@ -108,13 +113,42 @@ public class PatternLowFreqIndicatorImpl extends LowFrequencyIndicatorImpl imple
         if (data == null) {
             return super.handle(data);
         } else {
+            return super.handle(getPattern(data));
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.PatternLowFreqIndicator#getPattern(java.lang.Object)
+     */
+    @Override
+    public String getPattern(Object data) {
+        if (patternKey == null) {
+            patternKey = DerivedValueCache.createKey(getPatternDerivation(), charsToReplace, replacementChars, datePattern);
+        }
+        // the pattern indicators of the column with the same parameters convert each value once
+        String parsedData = (String) getDerivedValue(patternKey, data);
+        if (parsedData == null) {
+            Object value = data;
             // format the date for file connection.
-            if (data instanceof Date && !StringUtils.isEmpty(this.datePattern)) {
-                data = DateFormatUtils.format((Date) data, datePattern);
+            if (value instanceof Date && !StringUtils.isEmpty(this.datePattern)) {
+                value = formatDate((Date) value, datePattern);
             }
-            String parsedData = convertCharacters(String.valueOf(data));
-            return super.handle(parsedData);
+            parsedData = convertCharacters(String.valueOf(value));
+            putDerivedValue(patternKey, data, parsedData);
         }
+        return parsedData;
+    }
+
+    /**
+     * Method "getPatternDerivation".
+     * 
+     * @return the name of the conversion done by {@link #convertCharacters(String)}, which identifies the patterns
+     * computed by this indicator in the {@link DerivedValueCache}
+     */
+    protected String getPatternDerivation() {
+        return DerivedValueCache.PATTERN;
     }
 
     /**
@@ -14,6 +14,7 @@ import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.talend.dataquality.helpers.IndicatorHelper;
 import org.talend.dataquality.indicators.IndicatorParameters;
 import org.talend.dataquality.indicators.IndicatorsPackage;
+import org.talend.dataquality.indicators.PhoneNumberCache;
 import org.talend.dataquality.indicators.PossiblePhoneCountIndicator;
 import org.talend.dataquality.indicators.TextParameters;
 
@@ -196,7 +197,7 @@ public class PossiblePhoneCountIndicatorImpl extends IndicatorImpl implements Po
             IndicatorParameters indParameters = this.getParameters();
             TextParameters textParameters = indParameters == null ? null : indParameters.getTextParameter();
             String country = IndicatorHelper.getCountryCodeByParameter(textParameters);
-            PhoneNumber phoneNumeber = phoneUtil.parse(data.toString(), country);
+            PhoneNumber phoneNumeber = PhoneNumberCache.parsePhoneNumber(getDerivedValueCache(), data, country, false);
             // It only checks the length of phone numbers. In particular, it doesn't check starting digits of the
             // number.
             if (phoneUtil.isPossibleNumber(phoneNumeber)) {
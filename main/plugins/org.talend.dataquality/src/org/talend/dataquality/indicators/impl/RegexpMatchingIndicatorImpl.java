@@ -12,7 +12,6 @@ import java.util.Set;
 import java.util.regex.Matcher;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang.time.DateFormatUtils;
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EClass;
@@ -192,7 +191,7 @@ public class RegexpMatchingIndicatorImpl extends PatternMatchingIndicatorImpl im
         if (data != null) {
             // ADD msjian TDQ-14467: format the date for file connection.
             if (data instanceof Date && !StringUtils.isEmpty(datePattern)) {
-                data = DateFormatUtils.format((Date) data, datePattern);
+                data = formatDate((Date) data, datePattern);
             }
             // TDQ-14467~
             String body = String.valueOf(data);
@@ -237,7 +236,7 @@ public class RegexpMatchingIndicatorImpl extends PatternMatchingIndicatorImpl im
             // get invalidDrillDownValues set
             if (StandardDBName.invalidDrillDownValues.name().equals(dbName)) {
                 // create new DBSet
-                return initValueForDBSet(StandardDBName.invalidDrillDownValues.name());
+                return initDrillDownDBSet(StandardDBName.invalidDrillDownValues.name());
             }
         }
         return super.getMapDB(dbName);
@@ -265,7 +264,7 @@ public class RegexpMatchingIndicatorImpl extends PatternMatchingIndicatorImpl im
         } else {
             // store drill dwon data for view invalid values
             if (this.checkMustStoreCurrentRow(invalidValueCount)) {
-                Set<Object> drillDownValuesSet = initValueForDBSet(StandardDBName.invalidDrillDownValues.name());
+                Set<Object> drillDownValuesSet = initDrillDownDBSet(StandardDBName.invalidDrillDownValues.name());
                 if (!drillDownValuesSet.contains(masterObject)) {
                     invalidValueCount++;
                     drillDownValuesSet.add(masterObject);
@@ -274,7 +273,7 @@ public class RegexpMatchingIndicatorImpl extends PatternMatchingIndicatorImpl im
             // store drill dwon data for view invalid rows
             if (this.checkMustStoreCurrentRow(invalidCount)) {
                 invalidCount++;
-                Map<Object, List<Object>> drillDownRowsMap = initValueForDBMap(StandardDBName.invalidDrillDown.name());
+                Map<Object, List<Object>> drillDownRowsMap = initDrillDownDBMap(StandardDBName.invalidDrillDown.name());
                 drillDownRowsMap.put(invalidCount - 1, inputRowList);
             }
         }
@@ -81,4 +81,14 @@ public class RowCountIndicatorImpl extends IndicatorImpl implements RowCountIndi
         return this.getCount();
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#isMergeable()
+     */
+    @Override
+    public boolean isMergeable() {
+        return true;
+    }
+
 } // RowCountIndicatorImpl
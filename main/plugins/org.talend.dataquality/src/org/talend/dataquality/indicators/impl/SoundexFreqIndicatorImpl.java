@@ -19,6 +19,7 @@ import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.talend.commons.utils.WorkspaceUtils;
 import org.talend.dataquality.PluginConstant;
 import org.talend.dataquality.helpers.IndicatorHelper;
+import org.talend.dataquality.indicators.DerivedValueCache;
 import org.talend.dataquality.indicators.IndicatorsPackage;
 import org.talend.dataquality.indicators.SoundexFreqIndicator;
 import org.talend.dataquality.indicators.mapdb.StandardDBName;
@@ -265,56 +266,91 @@ public class SoundexFreqIndicatorImpl extends FrequencyIndicatorImpl implements
     public boolean handle(Object data) {
 
         if (isUsedMapDBMode()) {
-            if (data == null) {
-                List<Object> valueList = soundexFreqMap.get(data);
-                if (valueList == null) {
-                    valueList = new ArrayList<Object>();
-                    valueList.add(data);// input value
-                    valueList.add(null);// soundex value
-                    valueList.add(0);// distinct count
-                    valueList.add(1);// duplicate count
-                } else {
-                    // if already contain null value then duplicate count +1
-                    Long duplicateCount = Long.valueOf(valueList.get(3).toString()) + 1;
-                    valueList.set(3, duplicateCount);
-                }
-                soundexFreqMap.put(data, valueList);
-            } else {
-                String soundexValue = soundex.soundex(data.toString());
-                List<Object> valueList = soundexFreqMap.get(soundexValue);
-                if (valueList == null) {
-                    valueList = new ArrayList<Object>();
-                    valueList.add(data);// input value
-                    valueList.add(soundexValue);// soundex value
-                    valueList.add(1);// distinct count
-                    valueList.add(0);// duplicate count
-                } else if (!getMapForFreq().containsKey(data)) {
-                    // if already contain then soundex value but input valie is different then distinct count +1
-                    Long distinctCount = Long.valueOf(valueList.get(2).toString()) + 1;
-                    valueList.set(2, distinctCount);
-                    // distinctKey should be max one
-                    if (valueList.get(0).toString().compareTo(data.toString()) < 0) {
-                        valueList.set(0, data);
-                    }
-                } else {
-                    // if already contain the soundex value but input valie is same then duplicate count +1
-                    Long duplicateCount = Long.valueOf(valueList.get(3).toString()) + 1;
-                    valueList.set(3, duplicateCount);
-                }
-                soundexFreqMap.put(soundexValue, valueList);
-            }
+            addSoundexCount(data, 1L);
         }
         boolean returnValue = super.handle(data);
         this.mustStoreRow = false;
         return returnValue;
     }
 
+    /**
+     * Adds the occurrences of a value to its soundex group, before they are added to the frequency table.
+     * 
+     * @param data the value
+     * @param count the number of occurrences of the value
+     */
+    private void addSoundexCount(Object data, long count) {
+        if (data == null) {
+            List<Object> valueList = soundexFreqMap.get(data);
+            if (valueList == null) {
+                valueList = new ArrayList<Object>();
+                valueList.add(data);// input value
+                valueList.add(null);// soundex value
+                valueList.add(0);// distinct count
+                valueList.add(count);// duplicate count
+            } else {
+                // if already contain null value then duplicate count +count
+                Long duplicateCount = Long.valueOf(valueList.get(3).toString()) + count;
+                valueList.set(3, duplicateCount);
+            }
+            soundexFreqMap.put(data, valueList);
+        } else {
+            // the soundex indicators of the column encode each value once
+            String soundexValue = (String) getDerivedValue(DerivedValueCache.SOUNDEX, data);
+            if (soundexValue == null) {
+                soundexValue = soundex.soundex(data.toString());
+                putDerivedValue(DerivedValueCache.SOUNDEX, data, soundexValue);
+            }
+            List<Object> valueList = soundexFreqMap.get(soundexValue);
+            if (valueList == null) {
+                valueList = new ArrayList<Object>();
+                valueList.add(data);// input value
+                valueList.add(soundexValue);// soundex value
+                valueList.add(1);// distinct count
+                valueList.add(count - 1);// duplicate count
+            } else if (!getMapForFreq().containsKey(data)) {
+                // if already contain then soundex value but input valie is different then distinct count +1
+                Long distinctCount = Long.valueOf(valueList.get(2).toString()) + 1;
+                valueList.set(2, distinctCount);
+                Long duplicateCount = Long.valueOf(valueList.get(3).toString()) + count - 1;
+                valueList.set(3, duplicateCount);
+                // distinctKey should be max one
+                if (valueList.get(0).toString().compareTo(data.toString()) < 0) {
+                    valueList.set(0, data);
+                }
+            } else {
+                // if already contain the soundex value but input valie is same then duplicate count +count
+                Long duplicateCount = Long.valueOf(valueList.get(3).toString()) + count;
+                valueList.set(3, duplicateCount);
+            }
+            soundexFreqMap.put(soundexValue, valueList);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * the partial indicators of a partitioned scan do not use MapDB: their values are added to the soundex groups here,
+     * as they are when they are handled.
+     * 
+     * @see org.talend.dataquality.indicators.impl.FrequencyIndicatorImpl#addFrequencies(java.util.Map)
+     */
+    @Override
+    protected void addFrequencies(Map<Object, Long> valueToFreq) {
+        if (isUsedMapDBMode()) {
+            for (Map.Entry<Object, Long> entry : valueToFreq.entrySet()) {
+                addSoundexCount(entry.getKey(), entry.getValue());
+            }
+        }
+        super.addFrequencies(valueToFreq);
+    }
+
     /*
      * Run as JavaEngine.Set ValueToFreq and ValueToDistinctFreq Add by qiongli 2010-6-22,bug 13654
      */
 
     protected void soundexForJavaEngine() {
-        Iterator<Object> iterator = this.getValueToFreq().keySet().iterator();
+        Iterator<Object> iterator = getMapForFreq().keySet().iterator();
         Soundex sd = new Soundex();
         HashMap<Object, Long> disctinctVfMap = new HashMap<Object, Long>();
         List<String[]> valueToFreqLs = new ArrayList<String[]>();
@@ -439,6 +475,7 @@ public class SoundexFreqIndicatorImpl extends FrequencyIndicatorImpl implements
         if (isUsedMapDBMode()) {
             computeSoundexFreqByMapDB(true);
         } else {
+            computeUniqueValues();
             soundexForJavaEngine();
             MapValueSorter mvs = new MapValueSorter();
             List<Object> ls = mvs.sortMap(this.valueToDistinctFreq, false);
@@ -55,6 +55,7 @@ public class SoundexLowFreqIndicatorImpl extends SoundexFreqIndicatorImpl implem
         if (isUsedMapDBMode()) {
             computeSoundexFreqByMapDB(false);
         } else {
+            computeUniqueValues();
             soundexForJavaEngine();
             MapValueSorter mvs = new MapValueSorter();
             List<Object> ls = mvs.sortMap(this.getValueToDistinctFreq(), true);
@@ -5,6 +5,10 @@
  */
 package org.talend.dataquality.indicators.impl;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -13,11 +17,13 @@ import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.talend.dataquality.helpers.IndicatorHelper;
+import org.talend.dataquality.indicators.Indicator;
 import org.talend.dataquality.indicators.IndicatorsPackage;
 import org.talend.dataquality.indicators.UniqueCountIndicator;
 import org.talend.dataquality.indicators.mapdb.AbstractDB;
 import org.talend.dataquality.indicators.mapdb.DBSet;
 import org.talend.dataquality.indicators.mapdb.StandardDBName;
+import org.talend.dataquality.indicators.sketch.DistinctValueSketch;
 
 /**
  * <!-- begin-user-doc --> An implementation of the model object '<em><b>Unique Count Indicator</b></em>'. <!--
@@ -57,6 +63,11 @@ public class UniqueCountIndicatorImpl extends IndicatorImpl implements UniqueCou
 
     private Set<Object> duplicateObjects = null;
 
+    /**
+     * used instead of the distinct and duplicate objects when the analysis allows approximate counts.
+     */
+    private DistinctValueSketch distinctValueSketch = null;
+
     /**
      * <!-- begin-user-doc --> <!-- end-user-doc -->
      * @generated
@@ -207,6 +218,10 @@ public class UniqueCountIndicatorImpl extends IndicatorImpl implements UniqueCou
 
     @Override
     public boolean finalizeComputation() {
+        if (distinctValueSketch != null) {
+            this.setUniqueValueCount(distinctValueSketch.getUniqueCount());
+            return super.finalizeComputation();
+        }
         clearDrillDownData();
         this.setUniqueValueCount(Long.valueOf(distintObjects.size() - duplicateObjects.size()));
         return super.finalizeComputation();
@@ -242,6 +257,12 @@ public class UniqueCountIndicatorImpl extends IndicatorImpl implements UniqueCou
     @Override
     public boolean handle(Object data) {
         super.handle(data);
+        if (distinctValueSketch != null) {
+            if (data != null) {
+                distinctValueSketch.offer(data);
+            }
+            return true;
+        }
         if (data != null) {
             if (this.distintObjects.add(data)) {
                 this.mustStoreRow = true;
@@ -256,6 +277,11 @@ public class UniqueCountIndicatorImpl extends IndicatorImpl implements UniqueCou
     @Override
     public boolean reset() {
         this.uniqueValueCount = UNIQUE_VALUE_COUNT_EDEFAULT;
+        distinctValueSketch = createDistinctValueSketch();
+        if (distinctValueSketch != null) {
+            // the distinct and duplicate objects are not stored
+            return super.reset();
+        }
         if (isUsedMapDBMode()) {
             distintObjects = initValueForDBSet(StandardDBName.computeProcessSet.name());
             if (distintObjects != null) {
@@ -265,6 +291,9 @@ public class UniqueCountIndicatorImpl extends IndicatorImpl implements UniqueCou
             if (duplicateObjects != null) {
                 ((DBSet<Object>) duplicateObjects).clear();
             }
+        } else if (distintObjects == null || duplicateObjects == null) {
+            this.distintObjects = new HashSet<Object>();
+            this.duplicateObjects = new HashSet<Object>();
         } else {
             this.distintObjects.clear();
             this.duplicateObjects.clear();
@@ -308,4 +337,74 @@ public class UniqueCountIndicatorImpl extends IndicatorImpl implements UniqueCou
         drillDownMap.put(masterObject, inputRowList);
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#isMergeable()
+     */
+    @Override
+    public boolean isMergeable() {
+        return distinctValueSketch == null;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#merge(org.talend.dataquality.indicators.Indicator)
+     */
+    @Override
+    public boolean merge(Indicator partial) {
+        if (!super.merge(partial)) {
+            return false;
+        }
+        UniqueCountIndicatorImpl other = (UniqueCountIndicatorImpl) partial;
+        for (Object data : other.distintObjects) {
+            // a value seen in both slices is a duplicate
+            if (!this.distintObjects.add(data)) {
+                duplicateObjects.add(data);
+            }
+        }
+        duplicateObjects.addAll(other.duplicateObjects);
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#writeState(java.io.ObjectOutput)
+     */
+    @Override
+    public void writeState(ObjectOutput out) throws IOException {
+        super.writeState(out);
+        writeValues(out, distintObjects);
+        writeValues(out, duplicateObjects);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#readState(java.io.ObjectInput)
+     */
+    @Override
+    public void readState(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readState(in);
+        for (Object data : readValues(in)) {
+            // a value seen in both states is a duplicate
+            if (!this.distintObjects.add(data)) {
+                duplicateObjects.add(data);
+            }
+        }
+        duplicateObjects.addAll(readValues(in));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.talend.dataquality.indicators.impl.IndicatorImpl#isEstimated()
+     */
+    @Override
+    public boolean isEstimated() {
+        return distinctValueSketch != null;
+    }
+
 } // UniqueCountIndicatorImpl
@@ -14,6 +14,7 @@ import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.talend.dataquality.helpers.IndicatorHelper;
 import org.talend.dataquality.indicators.IndicatorParameters;
 import org.talend.dataquality.indicators.IndicatorsPackage;
+import org.talend.dataquality.indicators.PhoneNumberCache;
 import org.talend.dataquality.indicators.TextParameters;
 import org.talend.dataquality.indicators.ValidPhoneCountIndicator;
 
@@ -189,7 +190,7 @@ public class ValidPhoneCountIndicatorImpl extends IndicatorImpl implements Valid
             IndicatorParameters indParameters = this.getParameters();
             TextParameters textParameters = indParameters == null ? null : indParameters.getTextParameter();
             String country = IndicatorHelper.getCountryCodeByParameter(textParameters);
-            PhoneNumber phoneNumber = phoneUtil.parse(data.toString(), country);
+            PhoneNumber phoneNumber = PhoneNumberCache.parsePhoneNumber(getDerivedValueCache(), data, country, false);
             if (phoneUtil.isValidNumberForRegion(phoneNumber, country)) {
                 // if (phoneUtil.isValidNumber(phoneNumber)) {
                 validPhoneNumCount++;
@@ -12,6 +12,7 @@ import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.talend.dataquality.indicators.IndicatorsPackage;
+import org.talend.dataquality.indicators.PhoneNumberCache;
 import org.talend.dataquality.indicators.ValidRegCodeCountIndicator;
 
 import com.google.i18n.phonenumbers.NumberParseException;
@@ -190,7 +191,7 @@ public class ValidRegCodeCountIndicatorImpl extends IndicatorImpl implements Val
         boolean parseSuccess = true;
         String regionCodeForNumber = null;
         try {
-            PhoneNumber phhoneNum = phoneUtil.parse(data.toString(), null);
+            PhoneNumber phhoneNum = PhoneNumberCache.parsePhoneNumber(getDerivedValueCache(), data, null, false);
             regionCodeForNumber = phoneUtil.getRegionCodeForNumber(phhoneNum);
         } catch (NumberParseException e) {
             parseSuccess = false;
@@ -14,6 +14,7 @@ import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.talend.dataquality.helpers.IndicatorHelper;
 import org.talend.dataquality.indicators.IndicatorParameters;
 import org.talend.dataquality.indicators.IndicatorsPackage;
+import org.talend.dataquality.indicators.PhoneNumberCache;
 import org.talend.dataquality.indicators.TextParameters;
 import org.talend.dataquality.indicators.WellFormE164PhoneCountIndicator;
 
@@ -185,7 +186,7 @@ public class WellFormE164PhoneCountIndicatorImpl extends IndicatorImpl implement
             IndicatorParameters indParameters = this.getParameters();
             TextParameters textParameters = indParameters == null ? null : indParameters.getTextParameter();
             String country = IndicatorHelper.getCountryCodeByParameter(textParameters);
-            PhoneNumber phoneNumeber = phoneUtil.parse(data.toString(), country);
+            PhoneNumber phoneNumeber = PhoneNumberCache.parsePhoneNumber(getDerivedValueCache(), data, country, false);
             String format = phoneUtil.format(phoneNumeber, PhoneNumberFormat.E164);
             if (data.toString().equals(format)) {
                 wellFormE164PhoneCount++;
@@ -14,6 +14,7 @@ import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.talend.dataquality.helpers.IndicatorHelper;
 import org.talend.dataquality.indicators.IndicatorParameters;
 import org.talend.dataquality.indicators.IndicatorsPackage;
+import org.talend.dataquality.indicators.PhoneNumberCache;
 import org.talend.dataquality.indicators.TextParameters;
 import org.talend.dataquality.indicators.WellFormNationalPhoneCountIndicator;
 
@@ -184,7 +185,7 @@ public class WellFormNationalPhoneCountIndicatorImpl extends IndicatorImpl imple
             IndicatorParameters indParameters = this.getParameters();
             TextParameters textParameters = indParameters == null ? null : indParameters.getTextParameter();
             String country = IndicatorHelper.getCountryCodeByParameter(textParameters);
-            PhoneNumber phoneNumeber = phoneUtil.parseAndKeepRawInput(data.toString(), country);
+            PhoneNumber phoneNumeber = PhoneNumberCache.parsePhoneNumber(getDerivedValueCache(), data, country, true);
             String format = phoneUtil.format(phoneNumeber, PhoneNumberFormat.NATIONAL);
             if (data.toString().equals(format)) {
                 this.wellFormNatiPhoneCount++;
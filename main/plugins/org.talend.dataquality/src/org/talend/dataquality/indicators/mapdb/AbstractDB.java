@@ -14,10 +14,13 @@ package org.talend.dataquality.indicators.mapdb;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
+import java.util.WeakHashMap;
 
 import org.apache.log4j.Logger;
 import org.eclipse.core.runtime.Platform;
@@ -37,10 +40,32 @@ public abstract class AbstractDB<K> {
 
     public static final Object EMPTY = new TupleEmpty();
 
+    private static final String RANK_INDEX_SUFFIX = "_rankIndex"; //$NON-NLS-1$
+
     private File dbFile = null;
 
     protected Logger log = Logger.getLogger(this.getClass());
 
+    private int modCount = 0;
+
+    // true when the store is paged by the drill down: only then the checkpoints of its items are kept
+    private volatile boolean rankIndexEnabled = false;
+
+    private RankIndex<K> rankIndex = null;
+
+    // the name of the map of the MapDB file in which the checkpoints are saved, null when they are kept in memory
+    private String rankIndexName = null;
+
+    private Map<Long, Object> savedCheckpoints = null;
+
+    private volatile boolean savedCheckpointsCleared = false;
+
+    // false once an item has not been added after the others
+    private boolean addingInOrder = true;
+
+    // the checkpoints of the valid items, by validation
+    private Map<DataValidation, RankIndex<K>> validRankIndexes = new WeakHashMap<DataValidation, RankIndex<K>>();
+
     protected void initDefaultDB(String parentFullPathStr, String fileName) {
         dbFile = MapDBUtils.createPath(parentFullPathStr, fileName);
         db = MapDBManager.getInstance().getDB(dbFile);
@@ -154,60 +179,213 @@ public abstract class AbstractDB<K> {
      *
      * @param fromIndex
      * @param toIndex
-     * @param indexMap
+     * @param indexMap not used any more, the positions of the items are kept by the store
      * @return
      */
     public List<Object[]> subList(long fromIndex, long toIndex, Map<Long, K> indexMap, DataValidation dataValiator) {
-        boolean stratToRecord = false;
         List<Object[]> returnList = new ArrayList<Object[]>();
         if (!checkIndex(fromIndex, toIndex)) {
             return returnList;
         }
-        K fromKey = null;
-        K toKey = null;
-        if (indexMap != null) {
-            fromKey = indexMap.get(fromIndex);
-            toKey = indexMap.get(toIndex);
+        Iterator<K> iterator = iteratorFrom(fromIndex, dataValiator);
+        long index = fromIndex;
+        while (index < toIndex && iterator.hasNext()) {
+            K next = iterator.next();
+            if (dataValiator != null && !isValid(next, dataValiator)) {
+                continue;
+            }
+            returnList.add(new Object[] { next });
+            index++;
         }
-        Iterator<K> iterator = null;
-        long index = 0;
-        if (fromKey == null) {
+        return returnList;
+    }
+
+    /**
+     *
+     * Keep the checkpoints of the items of the store, so that its pages are read from the nearest checkpoint instead
+     * of from the first item. It is enabled by the creators of the drill down stores; the other stores are not paged
+     * and do not pay for the checkpoints when they are written.
+     */
+    public void enableRankIndex() {
+        rankIndexEnabled = true;
+    }
+
+    /**
+     *
+     * Iterate the keys from the item of the given rank. When the rank index is enabled, the key is computed from the
+     * rank if the keys are consecutive longs. Else the item is found from the nearest checkpoint of the rank index of
+     * the store, and the checkpoints met on the way are recorded, so that reading any page costs at most
+     * {@link RankIndex#INTERVAL} items more than the page once the store was written or read up to it.
+     *
+     * @param fromIndex the rank of the first item
+     * @param dataValidator when not null, only the valid items are counted
+     * @return the iterator of the keys, starting with the key of the given rank
+     */
+    protected Iterator<K> iteratorFrom(long fromIndex, DataValidation dataValidator) {
+        if (!rankIndexEnabled) {
+            Iterator<K> iterator = this.iterator();
+            long rank = 0l;
+            while (iterator.hasNext()) {
+                K next = iterator.next();
+                if (dataValidator != null && !isValid(next, dataValidator)) {
+                    continue;
+                }
+                if (rank == fromIndex) {
+                    return tailSet(next, true).iterator();
+                }
+                rank++;
+            }
+            return Collections.<K> emptyList().iterator();
+        }
+        return iteratorFromCheckpoint(fromIndex, dataValidator);
+    }
+
+    private synchronized Iterator<K> iteratorFromCheckpoint(long fromIndex, DataValidation dataValidator) {
+        RankIndex<K> index = getRankIndex(dataValidator);
+        K consecutiveKey = index.getConsecutiveKey(fromIndex);
+        if (consecutiveKey != null) {
+            return tailSet(consecutiveKey, true).iterator();
+        }
+        int checkpoint = index.getCheckpoint(fromIndex);
+        Iterator<K> iterator;
+        long rank;
+        if (checkpoint < 0) {
             iterator = this.iterator();
-        } else if (toKey == null) {
-            NavigableSet<K> tailSet = tailSet(fromKey, true);
-            index = fromIndex;
-            iterator = tailSet.iterator();
+            rank = 0l;
         } else {
-            NavigableSet<K> tailSet = subSet(fromKey, toKey);
-            index = fromIndex;
-            iterator = tailSet.iterator();
+            iterator = tailSet(index.getKey(checkpoint), true).iterator();
+            rank = index.getRank(checkpoint);
         }
-
         while (iterator.hasNext()) {
             K next = iterator.next();
-            if (dataValiator != null && !dataValiator.isValid(next)) {
+            if (dataValidator != null && !isValid(next, dataValidator)) {
                 continue;
             }
-            if (index == 0 && fromKey == null && indexMap != null) {
-                indexMap.put(0l, next);
+            index.visit(rank, next);
+            if (rank == fromIndex) {
+                return tailSet(next, true).iterator();
             }
-            if (index == fromIndex) {
-                stratToRecord = true;
-            }
-            if (index == toIndex) {
-                if (toKey == null && indexMap != null) {
-                    indexMap.put(toIndex, next);
-                }
-                break;
+            rank++;
+        }
+        return Collections.<K> emptyList().iterator();
+    }
+
+    private RankIndex<K> getRankIndex(DataValidation dataValidator) {
+        RankIndex<K> index = dataValidator == null ? rankIndex : validRankIndexes.get(dataValidator);
+        if (index == null || !index.isUpToDate(modCount)) {
+            if (dataValidator == null) {
+                index = new RankIndex<K>(modCount, getSavedCheckpoints());
+                rankIndex = index;
+            } else {
+                // the valid items depend on the validation instance, their checkpoints are not saved
+                index = new RankIndex<K>(modCount);
+                validRankIndexes.put(dataValidator, index);
             }
-            if (stratToRecord == true) {
-                returnList.add(new Object[] { next });
+        }
+        return index;
+    }
+
+    /**
+     *
+     * Save the checkpoints of the items in a map of the MapDB file, next to the store, so that they are not computed
+     * again by the next instances of the store
+     *
+     * @param storeName the name of the store in the MapDB file
+     */
+    protected void saveRankIndex(String storeName) {
+        rankIndexName = storeName + RANK_INDEX_SUFFIX;
+    }
+
+    private Map<Long, Object> getSavedCheckpoints() {
+        if (savedCheckpoints == null && rankIndexName != null) {
+            savedCheckpoints = getDB().createTreeMap(rankIndexName).valueSerializer(new TalendSerializerBase()).makeOrGet();
+        }
+        savedCheckpointsCleared = false;
+        return savedCheckpoints;
+    }
+
+    /**
+     *
+     * Judge whether the item of the key is valid
+     *
+     * @param key the key of the item
+     * @param dataValidator the validation
+     * @return
+     */
+    protected boolean isValid(K key, DataValidation dataValidator) {
+        return dataValidator.isValid(key);
+    }
+
+    /**
+     *
+     * Record that an item is added to the store. While the store is filled from empty in the order of its keys, the
+     * checkpoints are recorded with the items, else the store is modified. Nothing is recorded when the rank index is
+     * not enabled.
+     *
+     * @param key the key of the item, as stored
+     */
+    protected void added(K key) {
+        if (!rankIndexEnabled) {
+            clearSavedCheckpoints();
+            return;
+        }
+        addInRankIndex(key);
+    }
+
+    private synchronized void addInRankIndex(K key) {
+        if (addingInOrder && (rankIndex == null || !rankIndex.isUpToDate(modCount))) {
+            addingInOrder = isEmpty();
+            if (addingInOrder) {
+                rankIndex = new RankIndex<K>(modCount, getSavedCheckpoints());
+                rankIndex.startAdding();
             }
-            index++;
+        }
+        if (!addingInOrder || !rankIndex.add(key, comparator())) {
+            addingInOrder = false;
+            modified();
+        }
+    }
 
+    /**
+     *
+     * Record that the store changed, so that the checkpoints of its items are computed again
+     */
+    protected void modified() {
+        if (!rankIndexEnabled) {
+            clearSavedCheckpoints();
+            return;
         }
+        clearRankIndex();
+    }
 
-        return returnList;
+    private synchronized void clearRankIndex() {
+        modCount++;
+        if (rankIndex != null) {
+            rankIndex.clear();
+            rankIndex = null;
+        } else {
+            clearSavedCheckpoints();
+        }
+        savedCheckpointsCleared = true;
+    }
+
+    /**
+     *
+     * Clear the checkpoints saved by another instance of the store, once, since they are not valid after a change
+     */
+    private void clearSavedCheckpoints() {
+        if (savedCheckpointsCleared) {
+            return;
+        }
+        synchronized (this) {
+            if (!savedCheckpointsCleared && rankIndexName != null && getDB().exists(rankIndexName)) {
+                Map<Long, Object> checkpoints = getSavedCheckpoints();
+                if (!checkpoints.isEmpty()) {
+                    checkpoints.clear();
+                }
+            }
+            savedCheckpointsCleared = true;
+        }
     }
 
     /**
@@ -255,4 +433,6 @@ public abstract class AbstractDB<K> {
 
     public abstract boolean isEmpty();
 
+    public abstract Comparator<? super K> comparator();
+
 }
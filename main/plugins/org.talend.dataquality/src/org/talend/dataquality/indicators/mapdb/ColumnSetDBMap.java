@@ -18,7 +18,6 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.NavigableSet;
 
 import org.mapdb.Pump;
 import org.talend.cwm.indicator.DataValidation;
@@ -46,56 +45,15 @@ public class ColumnSetDBMap extends DBMap<List<Object>, Long> {
      */
     @Override
     public List<Object[]> subList(long fromIndex, long toIndex, Map<Long, List<Object>> indexMap) {
-        boolean stratToRecord = false;
         List<Object[]> returnList = new ArrayList<>();
         if (!checkIndex(fromIndex, toIndex)) {
             return returnList;
         }
-        List<Object> fromKey = null;
-        List<Object> toKey = null;
-        if (indexMap != null) {
-            fromKey = indexMap.get(fromIndex);
-            toKey = indexMap.get(toIndex);
-        }
-        Iterator<List<Object>> iterator = null;
-        long index = 0;
-        if (fromKey == null) {
-            iterator = this.iterator();
-        } else if (toKey == null) {
-            NavigableSet<List<Object>> tailSet = tailSet(fromKey, true);
-            index = fromIndex;
-            iterator = tailSet.iterator();
-        } else {
-            NavigableSet<List<Object>> tailSet = subSet(fromKey, toKey);
-            index = fromIndex;
-            iterator = tailSet.iterator();
-        }
-
-        while (iterator.hasNext()) {
-            List<Object> next = iterator.next();
-            if (index == 0 && fromKey == null && indexMap != null) {
-                indexMap.put(0l, next);
-            }
-            if (index == fromIndex) {
-                stratToRecord = true;
-            }
-            if (index == toIndex) {
-                if (toKey == null && indexMap != null) {
-                    indexMap.put(toIndex, next);
-                }
-                break;
-            }
-            if (stratToRecord == true) {
-                Object arrayElement[] = new Object[next.size() + 1];
-                for (int i = 0; i < next.size(); i++) {
-                    arrayElement[i] = next.get(i);
-                }
-                Long value = this.get(next);
-                arrayElement[next.size()] = (value == null ? "" : value.toString()); //$NON-NLS-1$
-                returnList.add(arrayElement);
-            }
+        Iterator<List<Object>> iterator = iteratorFrom(fromIndex, null);
+        long index = fromIndex;
+        while (index < toIndex && iterator.hasNext()) {
+            returnList.add(toArrayElement(iterator.next()));
             index++;
-
         }
 
         return returnList;
@@ -114,13 +72,10 @@ public class ColumnSetDBMap extends DBMap<List<Object>, Long> {
             return subList(fromIndex, toIndex, indexMap);
         }
         dataValiator.getResult().clear();
-        boolean stratToRecord = false;
 
         if (!checkIndex(fromIndex, toIndex)) {
             return dataValiator.getResult();
         }
-        List<Object> fromKey = null;
-        List<Object> toKey = null;
 
         Iterator<List<Object>> iterator = null;
         long index = 0l;
@@ -138,51 +93,51 @@ public class ColumnSetDBMap extends DBMap<List<Object>, Long> {
                     Pump.sort(this.keySet().iterator(), false, batchSize, dbMapSpecialColCompartor,
                             this.talendSerializerBase);
         } else {
-            if (indexMap != null) {
-                fromKey = indexMap.get(fromIndex);
-                toKey = indexMap.get(toIndex);
-            }
-            if (fromKey == null) {
-                iterator = this.iterator();
-            } else if (toKey == null) {
-                NavigableSet<List<Object>> tailSet = tailSet(fromKey, true);
-                iterator = tailSet.iterator();
-                index = fromIndex;
-            } else {
-                NavigableSet<List<Object>> tailSet = subSet(fromKey, toKey);
-                iterator = tailSet.iterator();
-                index = fromIndex;
-            }
+            iterator = iteratorFrom(fromIndex, dataValiator);
+            index = fromIndex;
         }
 
         while (iterator.hasNext()) {
             List<Object> next = iterator.next();
-            if (dataValiator != null && !dataValiator.isValid(dataValiator.isCheckKey() ? next : this.get(next))) {
+            if (!isValid(next, dataValiator)) {
                 continue;
             }
-            if (index == 0 && fromKey == null && indexMap != null) {
-                indexMap.put(0l, next);
-            }
-            if (index == fromIndex) {
-                stratToRecord = true;
-            }
             if (index == toIndex) {
-                if (toKey == null && indexMap != null) {
-                    indexMap.put(toIndex, next);
-                }
                 break;
             }
-            if (stratToRecord == true) {
-                Object arrayElement[] = new Object[next.size() + 1];
-                for (int i = 0; i < next.size(); i++) {
-                    arrayElement[i] = next.get(i);
-                }
-                Long value = this.get(next);
-                arrayElement[next.size()] = (value == null ? "" : value.toString()); //$NON-NLS-1$
-                dataValiator.add(arrayElement);
+            if (index >= fromIndex) {
+                dataValiator.add(toArrayElement(next));
             }
             index++;
         }
         return dataValiator.getResult();
     }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dataquality.indicators.mapdb.DBMap#isValid(java.lang.Object,
+     * org.talend.cwm.indicator.DataValidation)
+     */
+    @Override
+    protected boolean isValid(List<Object> key, DataValidation dataValidator) {
+        return dataValidator.isValid(dataValidator.isCheckKey() ? key : this.get(key));
+    }
+
+    /**
+     *
+     * Convert a group to a row: the values of the group then its count
+     *
+     * @param key
+     * @return
+     */
+    private Object[] toArrayElement(List<Object> key) {
+        Object arrayElement[] = new Object[key.size() + 1];
+        for (int i = 0; i < key.size(); i++) {
+            arrayElement[i] = key.get(i);
+        }
+        Long value = this.get(key);
+        arrayElement[key.size()] = (value == null ? "" : value.toString()); //$NON-NLS-1$
+        return arrayElement;
+    }
 }
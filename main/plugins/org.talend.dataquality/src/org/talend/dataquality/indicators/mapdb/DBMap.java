@@ -82,6 +82,7 @@ public class DBMap<K, V> extends AbstractDB<K> implements ConcurrentNavigableMap
 
     protected void initMap(String theMapName) {
         mapName = theMapName;
+        saveRankIndex(mapName);
         if (getDB().exists(mapName)) {
             dbMap = getDB().get(mapName);
         } else {
@@ -184,17 +185,29 @@ public class DBMap<K, V> extends AbstractDB<K> implements ConcurrentNavigableMap
     @Override
     @SuppressWarnings("unchecked")
     public V put(K key, V value) {
+        K storedKey = (K) getStoredKey(key);
+        added(storedKey);
+        return dbMap.put(storedKey, value);
+    }
+
+    /**
+     * Method "getStoredKey".
+     *
+     * @param key a key
+     * @return the key under which the value of the given key is stored
+     */
+    protected Object getStoredKey(Object key) {
         if (key == null) {
-            return dbMap.put((K) EMPTY, value);
+            return EMPTY;
         }
         // TDQ-10833 format Date.like as :Date and Timestamp is "yyyy-MM-dd HH:MM:ss";Time is "HH:MM:ss".
         if (key instanceof Date) {
             if (key instanceof Time) {
-                return dbMap.put((K) new TalendFormatTime(((Time) key)), value);
+                return new TalendFormatTime(((Time) key));
             }
-            return dbMap.put((K) new TalendFormatDate(((Date) key)), value);
+            return new TalendFormatDate(((Date) key));
         }
-        return dbMap.put(key, value);
+        return key;
     }
 
     /*
@@ -204,6 +217,7 @@ public class DBMap<K, V> extends AbstractDB<K> implements ConcurrentNavigableMap
      */
     @Override
     public V remove(Object key) {
+        modified();
         if (key == null) {
             return dbMap.remove(EMPTY);
         }
@@ -217,6 +231,7 @@ public class DBMap<K, V> extends AbstractDB<K> implements ConcurrentNavigableMap
      */
     @Override
     public void putAll(Map<? extends K, ? extends V> m) {
+        modified();
         dbMap.putAll(m);
 
     }
@@ -228,6 +243,7 @@ public class DBMap<K, V> extends AbstractDB<K> implements ConcurrentNavigableMap
      */
     @Override
     public void clear() {
+        modified();
         if (!getDB().isClosed()) {
             dbMap.clear();
             this.getDB().delete(mapName);
@@ -301,6 +317,7 @@ public class DBMap<K, V> extends AbstractDB<K> implements ConcurrentNavigableMap
      */
     @Override
     public V putIfAbsent(K key, V value) {
+        modified();
         return dbMap.putIfAbsent(key, value);
     }
 
@@ -311,6 +328,7 @@ public class DBMap<K, V> extends AbstractDB<K> implements ConcurrentNavigableMap
      */
     @Override
     public boolean remove(Object key, Object value) {
+        modified();
         return dbMap.remove(key, value);
     }
 
@@ -321,6 +339,7 @@ public class DBMap<K, V> extends AbstractDB<K> implements ConcurrentNavigableMap
      */
     @Override
     public boolean replace(K key, V oldValue, V newValue) {
+        modified();
         return dbMap.replace(key, oldValue, newValue);
     }
 
@@ -331,6 +350,7 @@ public class DBMap<K, V> extends AbstractDB<K> implements ConcurrentNavigableMap
      */
     @Override
     public V replace(K key, V value) {
+        modified();
         return dbMap.replace(key, value);
     }
 
@@ -441,6 +461,7 @@ public class DBMap<K, V> extends AbstractDB<K> implements ConcurrentNavigableMap
      */
     @Override
     public java.util.Map.Entry<K, V> pollFirstEntry() {
+        modified();
         return dbMap.pollFirstEntry();
     }
 
@@ -451,6 +472,7 @@ public class DBMap<K, V> extends AbstractDB<K> implements ConcurrentNavigableMap
      */
     @Override
     public java.util.Map.Entry<K, V> pollLastEntry() {
+        modified();
         return dbMap.pollLastEntry();
     }
 
@@ -632,66 +654,40 @@ public class DBMap<K, V> extends AbstractDB<K> implements ConcurrentNavigableMap
      */
     @Override
     public List<Object[]> subList(long fromIndex, long toIndex, Map<Long, K> indexMap, DataValidation dataValiator) {
-        boolean stratToRecord = false;
         List<Object[]> returnList = new ArrayList<Object[]>();
         if (!checkIndex(fromIndex, toIndex)) {
             return returnList;
         }
-        K fromKey = null;
-        K toKey = null;
-        if (indexMap != null) {
-            fromKey = indexMap.get(fromIndex);
-            toKey = indexMap.get(toIndex);
-        }
-        Iterator<K> iterator = null;
-        long index = 0l;
-        if (fromKey == null) {
-            iterator = this.iterator();
-        } else if (toKey == null) {
-            NavigableSet<K> tailSet = tailSet(fromKey, true);
-            index = fromIndex;
-            iterator = tailSet.iterator();
-        } else {
-            NavigableSet<K> tailSet = subSet(fromKey, toKey);
-            index = fromIndex;
-            iterator = tailSet.iterator();
-        }
-
-        while (iterator.hasNext()) {
+        Iterator<K> iterator = iteratorFrom(fromIndex, dataValiator);
+        long index = fromIndex;
+        while (index < toIndex && iterator.hasNext()) {
             K next = iterator.next();
-            if (dataValiator != null) {
-                V v = this.get(next);
-                if (!dataValiator.isValid(v)) {
-                    continue;
-                }
-            }
-            if (index == 0 && fromKey == null && indexMap != null) {
-                indexMap.put(0l, next);
-            }
-            if (index == fromIndex) {
-                stratToRecord = true;
+            V v = this.get(next);
+            if (dataValiator != null && !dataValiator.isValid(v)) {
+                continue;
             }
-            if (index == toIndex) {
-                if (toKey == null && indexMap != null) {
-                    indexMap.put(toIndex, next);
-                }
-                break;
-            }
-            if (stratToRecord == true) {
-                V v = this.get(next);
-                if (v.getClass().isArray()) {
-                    returnList.add((Object[]) v);
-                } else if (List.class.isInstance(v)) {
-                    returnList.add(((List<?>) v).toArray());
-                } else {
-                    returnList.add(new Object[] { v });
-                }
+            if (v.getClass().isArray()) {
+                returnList.add((Object[]) v);
+            } else if (List.class.isInstance(v)) {
+                returnList.add(((List<?>) v).toArray());
+            } else {
+                returnList.add(new Object[] { v });
             }
             index++;
-
         }
 
         return returnList;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dataquality.indicators.mapdb.AbstractDB#isValid(java.lang.Object,
+     * org.talend.cwm.indicator.DataValidation)
+     */
+    @Override
+    protected boolean isValid(K key, DataValidation dataValidator) {
+        return dataValidator.isValid(this.get(key));
+    }
+
 }
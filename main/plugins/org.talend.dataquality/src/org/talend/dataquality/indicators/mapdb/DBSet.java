@@ -98,6 +98,7 @@ public class DBSet<E> extends AbstractDB<E> implements NavigableSet<E> {
      */
     private void initSet(String theSetName) {
         setName = theSetName;
+        saveRankIndex(setName);
         if (getDB().exists(setName)) {
             dbSet = getDB().getTreeSet(setName);
         } else {
@@ -185,9 +186,10 @@ public class DBSet<E> extends AbstractDB<E> implements NavigableSet<E> {
     @SuppressWarnings("unchecked")
     public boolean add(E e) {
         if (e == null) {
+            added((E) EMPTY);
             return dbSet.add((E) EMPTY);
         }
-
+        added(e);
         return dbSet.add(e);
     }
 
@@ -198,6 +200,7 @@ public class DBSet<E> extends AbstractDB<E> implements NavigableSet<E> {
      */
     @Override
     public boolean remove(Object o) {
+        modified();
         if (o == null) {
             return dbSet.remove(EMPTY);
         }
@@ -221,6 +224,7 @@ public class DBSet<E> extends AbstractDB<E> implements NavigableSet<E> {
      */
     @Override
     public boolean addAll(Collection<? extends E> c) {
+        modified();
         return dbSet.addAll(c);
     }
 
@@ -231,6 +235,7 @@ public class DBSet<E> extends AbstractDB<E> implements NavigableSet<E> {
      */
     @Override
     public boolean retainAll(Collection<?> c) {
+        modified();
         return dbSet.retainAll(c);
     }
 
@@ -241,6 +246,7 @@ public class DBSet<E> extends AbstractDB<E> implements NavigableSet<E> {
      */
     @Override
     public boolean removeAll(Collection<?> c) {
+        modified();
         return dbSet.removeAll(c);
     }
 
@@ -251,6 +257,7 @@ public class DBSet<E> extends AbstractDB<E> implements NavigableSet<E> {
      */
     @Override
     public void clear() {
+        modified();
         if (!getDB().isClosed()) {
             dbSet.clear();
             this.getDB().delete(setName);
@@ -346,6 +353,7 @@ public class DBSet<E> extends AbstractDB<E> implements NavigableSet<E> {
      */
     @Override
     public E pollFirst() {
+        modified();
         return dbSet.pollFirst();
     }
 
@@ -356,6 +364,7 @@ public class DBSet<E> extends AbstractDB<E> implements NavigableSet<E> {
      */
     @Override
     public E pollLast() {
+        modified();
         return dbSet.pollLast();
     }
 
@@ -0,0 +1,162 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators.mapdb;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+
+/**
+ * The drill down rows of an indicator. The rows themselves are stored once for all the indicators in the
+ * {@link DrillDownRowLog} of the analysis, this map only keeps the id of each row.
+ * <p>
+ * The rows stored in the map by an older version are still read.
+ */
+public class DrillDownDBMap extends DBMap<Object, List<Object>> {
+
+    private String parentFullPathStr;
+
+    private String fileName;
+
+    public DrillDownDBMap(String parentFullPathStr, String fileName, String mapName) {
+        super(parentFullPathStr, fileName, mapName);
+        this.parentFullPathStr = parentFullPathStr;
+        this.fileName = fileName;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private ConcurrentNavigableMap<Object, Object> getRowIds() {
+        return (ConcurrentNavigableMap) dbMap;
+    }
+
+    private DrillDownRowLog getRowLog() {
+        return DrillDownRowLog.getInstance(parentFullPathStr, fileName);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> getRow(Object storedValue) {
+        if (storedValue instanceof Long) {
+            return getRowLog().get(storedValue);
+        }
+        return (List<Object>) storedValue;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dataquality.indicators.mapdb.DBMap#get(java.lang.Object)
+     */
+    @Override
+    public List<Object> get(Object key) {
+        return getRow(getRowIds().get(key == null ? EMPTY : key));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dataquality.indicators.mapdb.DBMap#put(java.lang.Object, java.lang.Object)
+     */
+    @Override
+    public List<Object> put(Object key, List<Object> value) {
+        Object storedKey = getStoredKey(key);
+        // the row numbers are added in order, the rank of a row is then found without reading the rows before it
+        added(storedKey);
+        return getRow(getRowIds().put(storedKey, getRowLog().append(value)));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dataquality.indicators.mapdb.DBMap#values()
+     */
+    @Override
+    public Collection<List<Object>> values() {
+        final Collection<Object> rowIds = getRowIds().values();
+        return new AbstractCollection<List<Object>>() {
+
+            @Override
+            public Iterator<List<Object>> iterator() {
+                final Iterator<Object> iterator = rowIds.iterator();
+                return new Iterator<List<Object>>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public List<Object> next() {
+                        return getRow(iterator.next());
+                    }
+
+                    @Override
+                    public void remove() {
+                        iterator.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return rowIds.size();
+            }
+        };
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.talend.dataquality.indicators.mapdb.DBMap#entrySet()
+     */
+    @Override
+    public Set<Map.Entry<Object, List<Object>>> entrySet() {
+        final Set<Map.Entry<Object, Object>> entries = getRowIds().entrySet();
+        return new AbstractSet<Map.Entry<Object, List<Object>>>() {
+
+            @Override
+            public Iterator<Map.Entry<Object, List<Object>>> iterator() {
+                final Iterator<Map.Entry<Object, Object>> iterator = entries.iterator();
+                return new Iterator<Map.Entry<Object, List<Object>>>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<Object, List<Object>> next() {
+                        Map.Entry<Object, Object> entry = iterator.next();
+                        return new AbstractMap.SimpleImmutableEntry<Object, List<Object>>(entry.getKey(),
+                                getRow(entry.getValue()));
+                    }
+
+                    @Override
+                    public void remove() {
+                        iterator.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+        };
+    }
+}
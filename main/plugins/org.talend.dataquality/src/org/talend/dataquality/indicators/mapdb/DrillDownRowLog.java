@@ -0,0 +1,88 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators.mapdb;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The rows stored for the drill down of an analysis, shared by all its indicators.
+ * <p>
+ * The rows are appended to one map of the MapDB file of the analysis, under an increasing row id. The drill down maps
+ * of the indicators ({@link DrillDownDBMap}) only keep the ids of their rows, so a row needed by several indicators is
+ * written once. The evaluators give the same row instance to all the indicators, which is how a row already appended
+ * is recognized.
+ */
+public class DrillDownRowLog extends DBMap<Long, List<Object>> {
+
+    // the row log of each MapDB file
+    private static final Map<File, DrillDownRowLog> ROW_LOGS = new HashMap<File, DrillDownRowLog>();
+
+    private long lastRowId;
+
+    private List<Object> lastRow;
+
+    private DrillDownRowLog(String parentFullPathStr, String fileName) {
+        super(parentFullPathStr, fileName, StandardDBName.drillDownRows.name());
+        lastRowId = isEmpty() ? 0L : lastKey();
+    }
+
+    /**
+     * Method "getInstance".
+     *
+     * @param parentFullPathStr the folder of the MapDB files
+     * @param fileName the name of the MapDB file of the analysis
+     * @return the row log of the analysis
+     */
+    public static synchronized DrillDownRowLog getInstance(String parentFullPathStr, String fileName) {
+        File file = MapDBUtils.createPath(parentFullPathStr, fileName);
+        DrillDownRowLog rowLog = ROW_LOGS.get(file);
+        if (rowLog == null || rowLog.isClosed()) {
+            rowLog = new DrillDownRowLog(parentFullPathStr, fileName);
+            ROW_LOGS.put(file, rowLog);
+        }
+        return rowLog;
+    }
+
+    /**
+     * Removes the rows of an analysis, before it is run again.
+     *
+     * @param parentFullPathStr the folder of the MapDB files
+     * @param fileName the name of the MapDB file of the analysis
+     */
+    public static synchronized void clear(String parentFullPathStr, String fileName) {
+        DrillDownRowLog rowLog = getInstance(parentFullPathStr, fileName);
+        if (!rowLog.isEmpty()) {
+            rowLog.clear();
+        }
+        // the next rows are appended to a new map
+        ROW_LOGS.remove(MapDBUtils.createPath(parentFullPathStr, fileName));
+    }
+
+    /**
+     * Appends a row, unless it is the row appended last.
+     *
+     * @param row the values of the row
+     * @return the id of the row
+     */
+    public synchronized Long append(List<Object> row) {
+        if (row != lastRow) {
+            lastRowId++;
+            put(lastRowId, row);
+            lastRow = row;
+        }
+        return lastRowId;
+    }
+}
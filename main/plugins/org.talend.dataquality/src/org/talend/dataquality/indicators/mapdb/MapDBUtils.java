@@ -15,6 +15,8 @@ package org.talend.dataquality.indicators.mapdb;
 import java.io.File;
 import java.util.List;
 
+import org.talend.cwm.helper.ResourceHelper;
+import org.talend.dataquality.analysis.Analysis;
 import org.talend.dataquality.indicators.Indicator;
 import org.talend.dataquality.indicators.impl.IndicatorImpl;
 import org.talend.resource.ResourceManager;
@@ -76,4 +78,16 @@ public class MapDBUtils {
     public static void handleDrillDownData(Object masterObject, List<Object> inputRowList, Indicator indicator) {
         ((IndicatorImpl) indicator).handleDrillDownData(masterObject, inputRowList);
     }
+
+    /**
+     * Remove the drill down rows stored by the last run of the analysis.
+     *
+     * @param analysis
+     */
+    public static void clearDrillDownRowLog(Analysis analysis) {
+        String analysisUUID = ResourceHelper.getUUID(analysis);
+        if (analysisUUID != null) {
+            DrillDownRowLog.clear(ResourceManager.getMapDBFilePath(), analysisUUID);
+        }
+    }
 }
@@ -0,0 +1,193 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators.mapdb;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The checkpoint keys of a MapDB store: the key of every {@link #INTERVAL}th item, in the order of the store. A page
+ * of the store is then read from the checkpoint before its first item, instead of from the first item of the store.
+ * <p>
+ * When the store is filled in the order of its keys, the checkpoints are recorded while the items are added, else they
+ * are recorded while the store is read, so they only cover the items read so far. When the keys added are consecutive
+ * longs, as the row numbers of the drill down stores, the key of a rank is computed without any checkpoint. When the
+ * items are filtered, the ranks count the valid items only.
+ * <p>
+ * The checkpoints can be saved in a map of the MapDB file of the store, so that they are kept by the next instances of
+ * the store. The index is valid as long as the store is not modified. The size of the store is not checked, as it is
+ * computed by reading all the keys of a MapDB map.
+ */
+class RankIndex<K> {
+
+    static final int INTERVAL = 1024;
+
+    // the key of the saved checkpoints under which the first key is saved when the keys are consecutive longs
+    private static final Long FIRST_CONSECUTIVE_KEY = -1L;
+
+    private final List<K> checkpoints = new ArrayList<K>();
+
+    private final int modCount;
+
+    // the saved checkpoints, null when they are only kept in memory
+    private final Map<Long, Object> savedCheckpoints;
+
+    // the number of items added in the order of the keys, -1 when the items have not been added through this index
+    private long addedCount = -1;
+
+    private K lastKey = null;
+
+    // the first key when all the keys are consecutive longs
+    private Long firstConsecutiveKey = null;
+
+    RankIndex(int modCount) {
+        this(modCount, null);
+    }
+
+    /**
+     * RankIndex constructor.
+     *
+     * @param modCount the modification count of the store
+     * @param savedCheckpoints the checkpoints saved with the store, null when they are only kept in memory
+     */
+    @SuppressWarnings("unchecked")
+    RankIndex(int modCount, Map<Long, Object> savedCheckpoints) {
+        this.modCount = modCount;
+        this.savedCheckpoints = savedCheckpoints;
+        if (savedCheckpoints != null) {
+            for (long checkpoint = 0; savedCheckpoints.containsKey(checkpoint); checkpoint++) {
+                checkpoints.add((K) savedCheckpoints.get(checkpoint));
+            }
+            Object firstKey = savedCheckpoints.get(FIRST_CONSECUTIVE_KEY);
+            firstConsecutiveKey = firstKey instanceof Long ? (Long) firstKey : null;
+        }
+    }
+
+    /**
+     * Method "isUpToDate".
+     *
+     * @param currentModCount the modification count of the store
+     * @return true when the store did not change since the index was created
+     */
+    boolean isUpToDate(int currentModCount) {
+        return modCount == currentModCount;
+    }
+
+    /**
+     * Method "getCheckpoint".
+     *
+     * @param rank the rank of an item
+     * @return the number of the last checkpoint at or before the given rank, -1 if there is none
+     */
+    int getCheckpoint(long rank) {
+        return (int) Math.min(rank / INTERVAL, checkpoints.size() - 1);
+    }
+
+    /**
+     * Method "getKey".
+     *
+     * @param checkpoint the number of a checkpoint
+     * @return the key of the checkpoint
+     */
+    K getKey(int checkpoint) {
+        return checkpoints.get(checkpoint);
+    }
+
+    /**
+     * Method "getRank".
+     *
+     * @param checkpoint the number of a checkpoint
+     * @return the rank of the key of the checkpoint
+     */
+    long getRank(int checkpoint) {
+        return (long) checkpoint * INTERVAL;
+    }
+
+    /**
+     * Method "getConsecutiveKey".
+     *
+     * @param rank the rank of an item
+     * @return the key of the given rank when the keys are consecutive longs, null when it must be found from the
+     * checkpoints
+     */
+    @SuppressWarnings("unchecked")
+    K getConsecutiveKey(long rank) {
+        return firstConsecutiveKey == null ? null : (K) Long.valueOf(firstConsecutiveKey + rank);
+    }
+
+    /**
+     * Records the key of an item read, when it is the next checkpoint.
+     *
+     * @param rank the rank of the item
+     * @param key the key of the item
+     */
+    void visit(long rank, K key) {
+        if (rank == getRank(checkpoints.size())) {
+            if (savedCheckpoints != null) {
+                savedCheckpoints.put((long) checkpoints.size(), key);
+            }
+            checkpoints.add(key);
+        }
+    }
+
+    /**
+     * Starts to record the items added to the store, which must be empty.
+     */
+    void startAdding() {
+        clear();
+        addedCount = 0;
+    }
+
+    /**
+     * Records an item added to the store.
+     *
+     * @param key the key of the item
+     * @param comparator the comparator of the keys of the store
+     * @return false when the item is not added after all the other items, the index is then not valid any more
+     */
+    boolean add(K key, Comparator<? super K> comparator) {
+        if (addedCount < 0 || (addedCount > 0 && comparator.compare(key, lastKey) <= 0)) {
+            return false;
+        }
+        if (addedCount == 0 && key instanceof Long) {
+            firstConsecutiveKey = (Long) key;
+            if (savedCheckpoints != null) {
+                savedCheckpoints.put(FIRST_CONSECUTIVE_KEY, key);
+            }
+        } else if (firstConsecutiveKey != null && !Long.valueOf(firstConsecutiveKey + addedCount).equals(key)) {
+            firstConsecutiveKey = null;
+            if (savedCheckpoints != null) {
+                savedCheckpoints.remove(FIRST_CONSECUTIVE_KEY);
+            }
+        }
+        visit(addedCount, key);
+        addedCount++;
+        lastKey = key;
+        return true;
+    }
+
+    /**
+     * Removes all the checkpoints, including the saved ones.
+     */
+    void clear() {
+        checkpoints.clear();
+        firstConsecutiveKey = null;
+        addedCount = -1;
+        lastKey = null;
+        if (savedCheckpoints != null && !savedCheckpoints.isEmpty()) {
+            savedCheckpoints.clear();
+        }
+    }
+}
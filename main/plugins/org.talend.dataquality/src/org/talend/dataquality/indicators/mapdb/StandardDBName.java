@@ -21,6 +21,7 @@ public enum StandardDBName {
     dataSection,
     drillDown,
     drillDownValues,
+    drillDownRows,
     invalidDrillDown,
     invalidDrillDownValues,
     computeProcess,
@@ -0,0 +1,157 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators.sketch;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.clearspring.analytics.hash.MurmurHash;
+import com.clearspring.analytics.stream.cardinality.HyperLogLogPlus;
+
+/**
+ * Estimates the number of distinct, unique (seen once) and duplicate (seen more than once) values of a column in
+ * constant memory.
+ * <p>
+ * The distinct count is estimated with HyperLogLog++. The unique and duplicate counts are estimated from a sample of
+ * the distinct values: the values with the smallest hashes are kept with their exact frequency, so that the ratio of
+ * unique values in the sample can be applied to the distinct count. When the column has fewer distinct values than the
+ * sample size, all the counts are exact.
+ */
+public class DistinctValueSketch {
+
+    private static final int MIN_PRECISION = 4;
+
+    private static final int MAX_PRECISION = 18;
+
+    private static final int MIN_SAMPLE_SIZE = 64;
+
+    private static final int MAX_SAMPLE_SIZE = 1 << 20;
+
+    private final HyperLogLogPlus distinctValues;
+
+    private final int sampleSize;
+
+    /**
+     * the frequency of the sampled values, by hash.
+     */
+    private final TreeMap<Long, long[]> sample = new TreeMap<Long, long[]>();
+
+    private long nullCount = 0L;
+
+    /**
+     * DistinctValueSketch constructor.
+     *
+     * @param relativeError the relative standard error allowed for the estimates, between 0 and 1
+     */
+    public DistinctValueSketch(double relativeError) {
+        this.distinctValues = new HyperLogLogPlus(getPrecision(relativeError));
+        this.sampleSize = getSampleSize(relativeError);
+    }
+
+    /**
+     * Method "getPrecision".
+     *
+     * @param relativeError the relative standard error allowed
+     * @return the HyperLogLog++ precision (log2 of the number of registers) which gives this error
+     */
+    public static int getPrecision(double relativeError) {
+        // the standard error of HyperLogLog is 1.04 / sqrt(2^p)
+        int precision = (int) Math.ceil(2 * Math.log(1.04 / relativeError) / Math.log(2));
+        return Math.max(MIN_PRECISION, Math.min(MAX_PRECISION, precision));
+    }
+
+    /**
+     * Method "getSampleSize".
+     *
+     * @param relativeError the relative standard error allowed
+     * @return the number of distinct values kept to estimate the unique and duplicate ratios
+     */
+    public static int getSampleSize(double relativeError) {
+        double size = Math.ceil(1 / (relativeError * relativeError));
+        return (int) Math.max(MIN_SAMPLE_SIZE, Math.min(MAX_SAMPLE_SIZE, size));
+    }
+
+    /**
+     * Method "offer" counts one occurrence of the given value.
+     *
+     * @param value the value, can be null
+     */
+    public void offer(Object value) {
+        if (value == null) {
+            nullCount++;
+            return;
+        }
+        long hash = MurmurHash.hash64(String.valueOf(value));
+        distinctValues.offerHashed(hash);
+        long[] frequency = sample.get(hash);
+        if (frequency != null) {
+            frequency[0]++;
+        } else if (sample.size() < sampleSize || hash < sample.lastKey()) {
+            sample.put(hash, new long[] { 1L });
+            if (sample.size() > sampleSize) {
+                sample.pollLastEntry();
+            }
+        }
+    }
+
+    /**
+     * Getter for the estimated number of distinct values, null included.
+     *
+     * @return the number of distinct values
+     */
+    public long getDistinctCount() {
+        return getNotNullDistinctCount() + (nullCount > 0 ? 1 : 0);
+    }
+
+    /**
+     * Getter for the estimated number of values seen exactly once, null excluded.
+     *
+     * @return the number of unique values
+     */
+    public long getUniqueCount() {
+        return getNotNullDistinctCount() - getNotNullDuplicateCount();
+    }
+
+    /**
+     * Getter for the estimated number of distinct values seen more than once, null included.
+     *
+     * @return the number of duplicate values
+     */
+    public long getDuplicateCount() {
+        return getNotNullDuplicateCount() + (nullCount > 1 ? 1 : 0);
+    }
+
+    private long getNotNullDistinctCount() {
+        if (sample.size() < sampleSize) {
+            // every value is in the sample
+            return sample.size();
+        }
+        return Math.max(sample.size(), distinctValues.cardinality());
+    }
+
+    private long getNotNullDuplicateCount() {
+        if (sample.isEmpty()) {
+            return 0L;
+        }
+        long duplicates = 0L;
+        for (Map.Entry<Long, long[]> entry : sample.entrySet()) {
+            if (entry.getValue()[0] > 1) {
+                duplicates++;
+            }
+        }
+        if (sample.size() < sampleSize) {
+            return duplicates;
+        }
+        return Math.round((double) duplicates * getNotNullDistinctCount() / sample.size());
+    }
+}
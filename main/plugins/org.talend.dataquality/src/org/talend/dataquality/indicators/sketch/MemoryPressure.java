@@ -0,0 +1,60 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators.sketch;
+
+import org.talend.dataquality.helpers.SystemPropertyHelper;
+
+/**
+ * Tells the indicators that the memory is short, so that the indicators which are prepared use the sketches instead of
+ * keeping all the values, even when their analysis computes the exact values. The results of these indicators are
+ * then estimated, instead of the analysis being stopped when there is no memory left.
+ * <p>
+ * The pressure is set by the memory control of the analyses, and only changes the indicators prepared after it is set.
+ */
+public final class MemoryPressure {
+
+    /**
+     * The relative error of the distinct, unique and duplicate counts when the memory is short.
+     */
+    public static final double COUNT_ERROR = SystemPropertyHelper.getDouble(
+            "talend.analysis.memory.pressure.error", 0.01); //$NON-NLS-1$
+
+    /**
+     * The compression of the quantile sketches when the memory is short.
+     */
+    public static final int QUANTILE_COMPRESSION = SystemPropertyHelper.getInt(
+            "talend.analysis.memory.pressure.compression", 200); //$NON-NLS-1$
+
+    private static volatile boolean high = false;
+
+    private MemoryPressure() {
+    }
+
+    /**
+     * Method "isHigh".
+     *
+     * @return true when the memory is short
+     */
+    public static boolean isHigh() {
+        return high;
+    }
+
+    /**
+     * Method "setHigh".
+     *
+     * @param isHigh true when the memory is short, false when it has been freed
+     */
+    public static void setHigh(boolean isHigh) {
+        high = isHigh;
+    }
+}
@@ -0,0 +1,346 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators.sketch;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+
+/**
+ * Estimates the quantiles of a numeric column in bounded memory (t-digest).
+ * <p>
+ * The values are summarized by centroids (a mean and a weight) kept in primitive arrays and sorted by mean. The
+ * centroids near the median may hold many values while those near the extremes stay small, so the estimates are
+ * the most accurate for the extreme quantiles. The number of centroids is about the compression, whatever the number
+ * of values; with fewer values than the compression, each value keeps its own centroid and the quantiles are
+ * interpolated between the exact values.
+ */
+public class QuantileSketch {
+
+    private static final double MIN_COMPRESSION = 10;
+
+    private final double compression;
+
+    private double[] means;
+
+    private double[] weights;
+
+    private int size = 0;
+
+    /**
+     * the centroids are rebuilt in these arrays, then the arrays are swapped.
+     */
+    private double[] mergedMeans;
+
+    private double[] mergedWeights;
+
+    private final double[] bufferMeans;
+
+    private final double[] bufferWeights;
+
+    private int bufferSize = 0;
+
+    private double totalWeight = 0;
+
+    private double bufferWeight = 0;
+
+    private double min = Double.POSITIVE_INFINITY;
+
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * QuantileSketch constructor.
+     *
+     * @param compression the accuracy of the sketch, the relative error on the quantiles being about 1/compression
+     */
+    public QuantileSketch(double compression) {
+        this.compression = Math.max(MIN_COMPRESSION, compression);
+        int capacity = 2 * (int) Math.ceil(this.compression) + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.mergedMeans = new double[capacity];
+        this.mergedWeights = new double[capacity];
+        this.bufferMeans = new double[5 * capacity];
+        this.bufferWeights = new double[5 * capacity];
+    }
+
+    /**
+     * Getter for the compression.
+     *
+     * @return the accuracy given to the constructor
+     */
+    public double getCompression() {
+        return compression;
+    }
+
+    /**
+     * Method "add" adds one value.
+     *
+     * @param value the value, NaN is ignored
+     */
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    /**
+     * Method "add" adds the same value several times.
+     *
+     * @param value the value, NaN is ignored
+     * @param count the number of times the value has been seen
+     */
+    public void add(double value, double count) {
+        if (Double.isNaN(value) || count <= 0) {
+            return;
+        }
+        if (bufferSize == bufferMeans.length) {
+            compress();
+        }
+        bufferMeans[bufferSize] = value;
+        bufferWeights[bufferSize] = count;
+        bufferSize++;
+        bufferWeight += count;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Method "offer" adds a value of the column.
+     *
+     * @param value a number or its string representation
+     * @return false when the value is not a number, then it is ignored
+     */
+    public boolean offer(Object value) {
+        return offer(value, 1);
+    }
+
+    /**
+     * Method "offer" adds a value of the column several times.
+     *
+     * @param value a number or its string representation
+     * @param count the number of times the value has been seen
+     * @return false when the value is not a number, then it is ignored
+     */
+    public boolean offer(Object value, double count) {
+        if (value instanceof Number) {
+            add(((Number) value).doubleValue(), count);
+            return true;
+        }
+        try {
+            add(Double.parseDouble(String.valueOf(value).trim()), count);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Method "merge" adds the values of another sketch, which is left unchanged.
+     *
+     * @param other the sketch of another slice of the data
+     */
+    public void merge(QuantileSketch other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        for (int i = 0; i < other.bufferSize; i++) {
+            add(other.bufferMeans[i], other.bufferWeights[i]);
+        }
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Method "writeState" writes the centroids of this sketch, to be added later to another sketch with
+     * {@link #readState(ObjectInput)}.
+     *
+     * @param out the output
+     * @throws IOException
+     */
+    public void writeState(ObjectOutput out) throws IOException {
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeInt(size + bufferSize);
+        for (int i = 0; i < size; i++) {
+            out.writeDouble(means[i]);
+            out.writeDouble(weights[i]);
+        }
+        for (int i = 0; i < bufferSize; i++) {
+            out.writeDouble(bufferMeans[i]);
+            out.writeDouble(bufferWeights[i]);
+        }
+    }
+
+    /**
+     * Method "readState" adds the centroids written by {@link #writeState(ObjectOutput)}, as {@link #merge(QuantileSketch)}
+     * does.
+     *
+     * @param in the input
+     * @throws IOException
+     */
+    public void readState(ObjectInput in) throws IOException {
+        double otherMin = in.readDouble();
+        double otherMax = in.readDouble();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            double mean = in.readDouble();
+            add(mean, in.readDouble());
+        }
+        min = Math.min(min, otherMin);
+        max = Math.max(max, otherMax);
+    }
+
+    /**
+     * Getter for the number of values.
+     *
+     * @return the number of values added to this sketch
+     */
+    public long getCount() {
+        return Math.round(totalWeight + bufferWeight);
+    }
+
+    /**
+     * Method "quantile".
+     *
+     * @param q the quantile, between 0 and 1 (e.g. 0.5 for the median)
+     * @return the estimated value of the quantile, NaN when no value has been added
+     */
+    public double quantile(double q) {
+        compress();
+        if (size == 0) {
+            return Double.NaN;
+        }
+        if (size == 1) {
+            return means[0];
+        }
+        double index = q * totalWeight;
+        // the values of a centroid are supposed to be spread around its mean, from one center to the next one
+        double center = weights[0] / 2;
+        if (index < center) {
+            return min + (means[0] - min) * index / center;
+        }
+        for (int i = 0; i < size - 1; i++) {
+            double gap = (weights[i] + weights[i + 1]) / 2;
+            if (index <= center + gap) {
+                return means[i] + (means[i + 1] - means[i]) * (index - center) / gap;
+            }
+            center += gap;
+        }
+        double lastHalf = weights[size - 1] / 2;
+        return means[size - 1] + (max - means[size - 1]) * Math.min(1, (index - center) / lastHalf);
+    }
+
+    /**
+     * merges the buffered values into the centroids.
+     */
+    private void compress() {
+        if (bufferSize == 0) {
+            return;
+        }
+        sort(bufferMeans, bufferWeights, 0, bufferSize - 1);
+        double total = totalWeight + bufferWeight;
+        int newSize = 0;
+        double weightBefore = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size || j < bufferSize) {
+            double mean;
+            double weight;
+            if (j >= bufferSize || (i < size && means[i] <= bufferMeans[j])) {
+                mean = means[i];
+                weight = weights[i];
+                i++;
+            } else {
+                mean = bufferMeans[j];
+                weight = bufferWeights[j];
+                j++;
+            }
+            if (newSize > 0) {
+                double proposed = mergedWeights[newSize - 1] + weight;
+                double q = (weightBefore + proposed / 2) / total;
+                // a centroid may hold at most 4 * n * q * (1 - q) / compression values
+                if (proposed <= 4 * total * q * (1 - q) / compression) {
+                    mergedMeans[newSize - 1] += (mean - mergedMeans[newSize - 1]) * weight / proposed;
+                    mergedWeights[newSize - 1] = proposed;
+                    continue;
+                }
+                weightBefore += mergedWeights[newSize - 1];
+            }
+            if (newSize == mergedMeans.length) {
+                mergedMeans = Arrays.copyOf(mergedMeans, 2 * newSize);
+                mergedWeights = Arrays.copyOf(mergedWeights, 2 * newSize);
+            }
+            mergedMeans[newSize] = mean;
+            mergedWeights[newSize] = weight;
+            newSize++;
+        }
+        double[] swap = means;
+        means = mergedMeans;
+        mergedMeans = swap.length >= means.length ? swap : new double[means.length];
+        swap = weights;
+        weights = mergedWeights;
+        mergedWeights = swap.length >= weights.length ? swap : new double[weights.length];
+        size = newSize;
+        totalWeight = total;
+        bufferWeight = 0;
+        bufferSize = 0;
+    }
+
+    /**
+     * sorts the values and their weights by value.
+     */
+    private static void sort(double[] values, double[] counts, int from, int to) {
+        while (to - from > 16) {
+            double pivot = values[(from + to) >>> 1];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, counts, i++, j--);
+                }
+            }
+            // recurse on the smaller part to bound the stack depth
+            if (j - from < to - i) {
+                sort(values, counts, from, j);
+                from = i;
+            } else {
+                sort(values, counts, i, to);
+                to = j;
+            }
+        }
+        for (int i = from + 1; i <= to; i++) {
+            for (int j = i; j > from && values[j - 1] > values[j]; j--) {
+                swap(values, counts, j - 1, j);
+            }
+        }
+    }
+
+    private static void swap(double[] values, double[] counts, int i, int j) {
+        double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+        double count = counts[i];
+        counts[i] = counts[j];
+        counts[j] = count;
+    }
+}
@@ -0,0 +1,38 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators.sketch;
+
+/**
+ * An indicator which can estimate its quantile with a {@link QuantileSketch} instead of an exact frequency table.
+ * <p>
+ * The quantile indicators of the same column share one sketch, which is only fed by its owner, so that the values are
+ * summarized once whatever the number of quantiles.
+ */
+public interface QuantileSketchIndicator {
+
+    /**
+     * Getter for the sketch.
+     *
+     * @return the sketch used to estimate the quantile, null when the quantile is computed exactly
+     */
+    QuantileSketch getQuantileSketch();
+
+    /**
+     * Sets the sketch used to estimate the quantile.
+     *
+     * @param sketch the sketch
+     * @param owner true when this indicator feeds and merges the sketch, false when the sketch is fed by another
+     * indicator of the same column
+     */
+    void setQuantileSketch(QuantileSketch sketch, boolean owner);
+}
@@ -17,6 +17,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 import org.talend.cwm.db.connection.ConnectionUtilsTest;
 import org.talend.cwm.dependencies.DependenciesHandlerTest;
+import org.talend.cwm.dependencies.DependencyIndexTest;
 import org.talend.cwm.management.api.SoftwareSystemManagerTest;
 import org.talend.cwm.management.i18n.MessagesTest;
 import org.talend.dq.CWMPluginTest;
@@ -27,6 +28,8 @@ import org.talend.dq.analysis.ColumnAnalysisSqlExecutorTest;
 import org.talend.dq.analysis.ExecuteMatchRuleHandlerTest;
 import org.talend.dq.analysis.MatchAnalysisExecutorTest;
 import org.talend.dq.analysis.MultiColumnAnalysisExecutorTest;
+import org.talend.dq.analysis.ReportExecutionPlanTest;
+import org.talend.dq.analysis.WhereRuleBatchPlannerTest;
 import org.talend.dq.analysis.category.CategoryHandlerTest;
 import org.talend.dq.analysis.connpool.TdqAnalysisConnectionPoolTest;
 import org.talend.dq.analysis.explore.BenfordLawFrequencyExplorerTest;
@@ -52,16 +55,22 @@ import org.talend.dq.dbms.TeradataDbmsLanguageTest;
 import org.talend.dq.helper.AnalysisExecutorHelperTest;
 import org.talend.dq.helper.ContextHelperTest;
 import org.talend.dq.helper.EObjectHelperTest;
+import org.talend.dq.helper.JavaUDIClassCacheTest;
+import org.talend.dq.helper.MappedDelimitedFileReaderTest;
 import org.talend.dq.helper.ParameterUtilTest;
 import org.talend.dq.helper.PropertyHelperTest;
 import org.talend.dq.helper.ProxyRepositoryManagerTest;
 import org.talend.dq.helper.ReportUtilsRealTest;
 import org.talend.dq.helper.RepositoryNodeHelperRealTest;
 import org.talend.dq.helper.RepositoryNodeHelperTest;
+import org.talend.dq.helper.RepositoryNodeIndexTest;
 import org.talend.dq.helper.UDIHelperTest;
 import org.talend.dq.indicators.AbstractSchemaEvaluatorTest;
 import org.talend.dq.indicators.ColumnSetIndicatorEvaluatorTest;
 import org.talend.dq.indicators.DelimitedFileIndicatorEvaluatorTest;
+import org.talend.dq.indicators.IncrementalAnalysisStateTest;
+import org.talend.dq.indicators.IndicatorEvaluatorTest;
+import org.talend.dq.indicators.PartitionedIndicatorEvaluatorTest;
 import org.talend.dq.indicators.SqlIndicatorHandlerTest;
 import org.talend.dq.nodes.AnalysisFolderRepNodeTest;
 import org.talend.dq.writer.AElementPersistanceRealTest;
@@ -84,7 +93,10 @@ import org.talend.dq.writer.AElementPersistanceRealTest;
         CWMPluginTest.class, MessagesTest.class, SoftwareSystemManagerTest.class, DependenciesHandlerTest.class,
         ConnectionUtilsTest.class, AnalysisFolderRepNodeTest.class, ColumnAnalysisSqlExecutorTest.class, EObjectHelperTest.class,
         TeradataDbmsLanguageTest.class, AnalysisRecordGroupingUtilsTest.class, FunctionFrequencyStatExplorerTest.class,
-        AnalysisHandlerTest.class, SoundexFrequencyExplorerTest.class })
+        AnalysisHandlerTest.class, SoundexFrequencyExplorerTest.class, RepositoryNodeIndexTest.class,
+        DependencyIndexTest.class, MappedDelimitedFileReaderTest.class, WhereRuleBatchPlannerTest.class,
+        ReportExecutionPlanTest.class, JavaUDIClassCacheTest.class, PartitionedIndicatorEvaluatorTest.class,
+        IncrementalAnalysisStateTest.class, IndicatorEvaluatorTest.class })
 public class AllCwmManagementTests {
 
 }
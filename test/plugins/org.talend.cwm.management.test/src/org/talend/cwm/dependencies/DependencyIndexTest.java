@@ -0,0 +1,184 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.cwm.dependencies;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class DependencyIndexTest {
+
+    private static final String FOLDER_PATH = "/PROJECT/TDQ_Data Profiling/Analyses"; //$NON-NLS-1$
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test method for {@link org.talend.cwm.dependencies.DependencyIndex#getClients(java.lang.String)}.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testGetClients() throws IOException {
+        File folder = temporaryFolder.newFolder("Analyses"); //$NON-NLS-1$
+        File store = new File(temporaryFolder.getRoot(), "PROJECT.dependencies"); //$NON-NLS-1$
+        File ana1 = write(new File(folder, "ana1_0.1.ana"), "_definition1", "_connection1"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        File sub = new File(folder, "sub"); //$NON-NLS-1$
+        sub.mkdir();
+        write(new File(sub, "ana2_0.1.ana"), "_definition1", "_pattern1"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        write(new File(folder, "ana3_0.1.properties"), "_definition1"); //$NON-NLS-1$ //$NON-NLS-2$
+
+        String path1 = FOLDER_PATH + "/ana1_0.1.ana"; //$NON-NLS-1$
+        String path2 = FOLDER_PATH + "/sub/ana2_0.1.ana"; //$NON-NLS-1$
+        DependencyIndex index = new DependencyIndex(folder, FOLDER_PATH, store);
+        assertEquals(paths(path1, path2), index.getClients("_definition1")); //$NON-NLS-1$
+        assertEquals(paths(path2), index.getClients("_pattern1")); //$NON-NLS-1$
+        assertEquals(paths(), index.getClients("_definition2")); //$NON-NLS-1$
+        assertTrue(index.isIndexed(path1));
+        assertFalse(index.isIndexed(FOLDER_PATH + "/ana3_0.1.ana")); //$NON-NLS-1$
+        assertTrue(store.isFile());
+
+        // a saved analysis
+        write(ana1, "_definition2"); //$NON-NLS-1$
+        index.update(path1);
+        assertEquals(paths(path2), index.getClients("_definition1")); //$NON-NLS-1$
+        assertEquals(paths(path1), index.getClients("_definition2")); //$NON-NLS-1$
+
+        // an analysis modified outside of the studio is read again, the new index is loaded from the store
+        write(ana1, "_definition1"); //$NON-NLS-1$
+        ana1.setLastModified(ana1.lastModified() - 10000L);
+        index = new DependencyIndex(folder, FOLDER_PATH, store);
+        assertEquals(paths(path1, path2), index.getClients("_definition1")); //$NON-NLS-1$
+        assertEquals(paths(), index.getClients("_definition2")); //$NON-NLS-1$
+
+        // a deleted analysis: the queries do not list the files again
+        assertTrue(new File(sub, "ana2_0.1.ana").delete()); //$NON-NLS-1$
+        assertEquals(paths(path1, path2), index.getClients("_definition1")); //$NON-NLS-1$
+        index.update(path2);
+        assertEquals(paths(path1), index.getClients("_definition1")); //$NON-NLS-1$
+        assertFalse(index.isIndexed(path2));
+
+        index.rebuild();
+        assertEquals(paths(path1), index.getClients("_definition1")); //$NON-NLS-1$
+    }
+
+    private IResourceDelta createFileDelta(String path) {
+        IResourceDelta fileDelta = mock(IResourceDelta.class);
+        IResource file = mock(IResource.class);
+        when(file.getType()).thenReturn(IResource.FILE);
+        when(file.getFileExtension()).thenReturn(new Path(path).getFileExtension());
+        when(fileDelta.getResource()).thenReturn(file);
+        when(fileDelta.getFullPath()).thenReturn(new Path(path));
+        return fileDelta;
+    }
+
+    private IResourceChangeEvent createEvent(String... paths) throws CoreException {
+        IResourceChangeEvent event = mock(IResourceChangeEvent.class);
+        IResourceDelta delta = mock(IResourceDelta.class);
+        when(event.getDelta()).thenReturn(delta);
+        final List<IResourceDelta> fileDeltas = new ArrayList<IResourceDelta>();
+        for (String path : paths) {
+            fileDeltas.add(createFileDelta(path));
+        }
+        doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(InvocationOnMock invocation) throws CoreException {
+                IResourceDeltaVisitor visitor = (IResourceDeltaVisitor) invocation.getArguments()[0];
+                for (IResourceDelta fileDelta : fileDeltas) {
+                    visitor.visit(fileDelta);
+                }
+                return null;
+            }
+        }).when(delta).accept(any(IResourceDeltaVisitor.class));
+        return event;
+    }
+
+    /**
+     * Test method for
+     * {@link org.talend.cwm.dependencies.DependencyIndex#resourceChanged(org.eclipse.core.resources.IResourceChangeEvent)}
+     * .
+     *
+     * @throws IOException
+     * @throws CoreException
+     */
+    @Test
+    public void testResourceChanged() throws IOException, CoreException {
+        File folder = temporaryFolder.newFolder("Analyses"); //$NON-NLS-1$
+        File ana1 = write(new File(folder, "ana1_0.1.ana"), "_definition1"); //$NON-NLS-1$ //$NON-NLS-2$
+        String path1 = FOLDER_PATH + "/ana1_0.1.ana"; //$NON-NLS-1$
+        String path2 = FOLDER_PATH + "/ana2_0.1.ana"; //$NON-NLS-1$
+        DependencyIndex index = new DependencyIndex(folder, FOLDER_PATH, null);
+        assertEquals(paths(path1), index.getClients("_definition1")); //$NON-NLS-1$
+
+        // the files changed outside of the studio are read again when the workspace tells it
+        write(ana1, "_definition2"); //$NON-NLS-1$
+        write(new File(folder, "ana2_0.1.ana"), "_definition1"); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(paths(path1), index.getClients("_definition1")); //$NON-NLS-1$
+        index.resourceChanged(createEvent(path1, path2, FOLDER_PATH + "/ana1_0.1.properties")); //$NON-NLS-1$
+        assertEquals(paths(path2), index.getClients("_definition1")); //$NON-NLS-1$
+        assertEquals(paths(path1), index.getClients("_definition2")); //$NON-NLS-1$
+
+        // a deleted analysis, and an analysis of another folder
+        assertTrue(ana1.delete());
+        index.resourceChanged(createEvent(path1, "/PROJECT/TDQ_Data Profiling/Reports/ana3_0.1.ana")); //$NON-NLS-1$
+        assertEquals(paths(), index.getClients("_definition2")); //$NON-NLS-1$
+        assertFalse(index.isIndexed(path1));
+        assertFalse(index.isIndexed("/PROJECT/TDQ_Data Profiling/Reports/ana3_0.1.ana")); //$NON-NLS-1$
+    }
+
+    private File write(File file, String... uuids) throws IOException {
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write("<analysis:Analysis xmi:version=\"2.0\" name=\"ana\">\n"); //$NON-NLS-1$
+            for (String uuid : uuids) {
+                writer.write("  <indicatorDefinition href=\"../../Libraries/Indicators/def.definition#" + uuid + "\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            writer.write("</analysis:Analysis>\n"); //$NON-NLS-1$
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+
+    private Set<String> paths(String... paths) {
+        Set<String> set = new HashSet<String>();
+        Collections.addAll(set, paths);
+        return set;
+    }
+}
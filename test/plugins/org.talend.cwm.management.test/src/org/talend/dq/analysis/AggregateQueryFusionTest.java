@@ -0,0 +1,98 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.analysis;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.talend.dataquality.indicators.Indicator;
+import org.talend.dataquality.indicators.IndicatorsFactory;
+import org.talend.dq.dbms.DbmsLanguage;
+import org.talend.dq.dbms.DbmsLanguageFactory;
+
+public class AggregateQueryFusionTest {
+
+    private AggregateQueryFusion createQueryFusion() {
+        DbmsLanguage dbmsLanguage = DbmsLanguageFactory.createDbmsLanguage(DbmsLanguage.SQL, null);
+        return new AggregateQueryFusion(dbmsLanguage);
+    }
+
+    /**
+     * Test method for {@link org.talend.dq.analysis.AggregateQueryFusion#getFusedQueries()}.
+     */
+    @Test
+    public void testGetFusedQueries() {
+        AggregateQueryFusion queryFusion = createQueryFusion();
+        Indicator rowCount = IndicatorsFactory.eINSTANCE.createRowCountIndicator();
+        Indicator nullCount = IndicatorsFactory.eINSTANCE.createNullCountIndicator();
+        Indicator mean = IndicatorsFactory.eINSTANCE.createMeanIndicator();
+        Indicator other = IndicatorsFactory.eINSTANCE.createRowCountIndicator();
+        assertTrue(queryFusion.add(rowCount, "db", "SELECT COUNT(*) FROM t WHERE (x > 1)")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertTrue(queryFusion.add(nullCount, "db", "SELECT COUNT(*) FROM t WHERE c IS NULL AND (x > 1)")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertTrue(queryFusion.add(mean, "db", "SELECT SUM(n), COUNT(n) FROM t WHERE (x > 1) ;")); //$NON-NLS-1$ //$NON-NLS-2$
+        // alone on its table
+        assertTrue(queryFusion.add(other, "db", "SELECT COUNT(*) FROM u")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        List<AggregateQueryFusion.FusedQuery> fusedQueries = queryFusion.getFusedQueries();
+        assertEquals(1, fusedQueries.size());
+        AggregateQueryFusion.FusedQuery fusedQuery = fusedQueries.get(0);
+        assertEquals("db", fusedQuery.getCatalog()); //$NON-NLS-1$
+        assertEquals(Arrays.asList(rowCount, nullCount, mean), fusedQuery.getIndicators());
+        assertEquals("SELECT COUNT(*), COUNT(CASE WHEN c IS NULL THEN 1 END), SUM(n), COUNT(n) FROM t WHERE x > 1", //$NON-NLS-1$
+                fusedQuery.getSql().replaceAll("\\s+", " ")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        List<Object[]> rows = Collections.singletonList(new Object[] { 10L, 2L, 35L, 7L });
+        assertArrayEquals(new Object[] { 10L }, fusedQuery.getResults(0, rows).get(0));
+        assertArrayEquals(new Object[] { 2L }, fusedQuery.getResults(1, rows).get(0));
+        assertArrayEquals(new Object[] { 35L, 7L }, fusedQuery.getResults(2, rows).get(0));
+    }
+
+    /**
+     * Test method for {@link org.talend.dq.analysis.AggregateQueryFusion#add(Indicator, String, String)}.
+     */
+    @Test
+    public void testAddNotMergeable() {
+        AggregateQueryFusion queryFusion = createQueryFusion();
+        Indicator indicator = IndicatorsFactory.eINSTANCE.createDistinctCountIndicator();
+        assertFalse(queryFusion.add(indicator, null, "SELECT COUNT(*) FROM (SELECT DISTINCT c FROM t) A")); //$NON-NLS-1$
+        assertFalse(queryFusion.add(indicator, null, "SELECT COUNT(DISTINCT c) FROM t")); //$NON-NLS-1$
+        assertFalse(queryFusion.add(indicator, null, "SELECT c, COUNT(*) FROM t GROUP BY c")); //$NON-NLS-1$
+        assertFalse(queryFusion.add(indicator, null, "SELECT MIN(a) + MAX(b) FROM t")); //$NON-NLS-1$
+        assertFalse(queryFusion.add(indicator, null, "SELECT COUNT(*) FROM t WHERE ROWNUM < 10")); //$NON-NLS-1$
+        assertFalse(queryFusion.add(indicator, null, "SELECT COUNT(*) FROM t -- comment")); //$NON-NLS-1$
+        assertTrue(queryFusion.getFusedQueries().isEmpty());
+    }
+
+    /**
+     * Test method for {@link org.talend.dq.analysis.AggregateQueryFusion#parse(String)}.
+     */
+    @Test
+    public void testParse() {
+        AggregateQueryFusion.AggregateQuery query = AggregateQueryFusion
+                .parse("SELECT MAX(\"order\") FROM t WHERE a BETWEEN 1 AND 3 AND ((b = 'x AND y'))"); //$NON-NLS-1$
+        assertNotNull(query);
+        assertEquals("t", query.from); //$NON-NLS-1$
+        assertEquals(1, query.aggregates.size());
+        assertArrayEquals(new String[] { "MAX", "\"order\"" }, query.aggregates.get(0)); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(Arrays.asList("a BETWEEN 1 AND 3", "b = 'x AND y'"), query.conditions); //$NON-NLS-1$ //$NON-NLS-2$
+
+        // a top level OR is kept with the whole condition
+        query = AggregateQueryFusion.parse("SELECT COUNT(*) FROM t WHERE a = 1 OR b = 2 AND c = 3"); //$NON-NLS-1$
+        assertNotNull(query);
+        assertEquals(Arrays.asList("a = 1 OR b = 2 AND c = 3"), query.conditions); //$NON-NLS-1$
+    }
+}
@@ -14,6 +14,11 @@ package org.talend.dq.analysis;
 
 import static org.junit.Assert.*;
 
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+
 import org.junit.Test;
 import org.talend.core.model.metadata.builder.connection.ConnectionFactory;
 import org.talend.core.model.metadata.builder.connection.DatabaseConnection;
@@ -132,4 +137,24 @@ public class ColumnAnalysisExecutorTest {
                 columnAnalysisExecutor.createSqlStatement(analysis));
     }
 
+    /**
+     * Test method for {@link org.talend.dq.analysis.ColumnAnalysisExecutor#toSqlLiteral(java.lang.Object)}: the
+     * watermark of an incremental analysis.
+     */
+    @Test
+    public void testToSqlLiteral() {
+        assertNull(ColumnAnalysisExecutor.toSqlLiteral(null));
+        assertEquals("42", ColumnAnalysisExecutor.toSqlLiteral(Long.valueOf(42L))); //$NON-NLS-1$
+        assertEquals("10000000000", ColumnAnalysisExecutor.toSqlLiteral(new BigDecimal("1E+10"))); //$NON-NLS-1$ //$NON-NLS-2$
+        Date date = Date.valueOf("2019-03-31"); //$NON-NLS-1$
+        assertEquals("{d '2019-03-31'}", ColumnAnalysisExecutor.toSqlLiteral(date)); //$NON-NLS-1$
+        Time time = Time.valueOf("12:30:00"); //$NON-NLS-1$
+        assertEquals("{t '12:30:00'}", ColumnAnalysisExecutor.toSqlLiteral(time)); //$NON-NLS-1$
+        Timestamp timestamp = Timestamp.valueOf("2019-03-31 12:30:00.123"); //$NON-NLS-1$
+        assertEquals("{ts '2019-03-31 12:30:00.123'}", ColumnAnalysisExecutor.toSqlLiteral(timestamp)); //$NON-NLS-1$
+        assertEquals("{ts '2019-03-31 12:30:00.123'}", //$NON-NLS-1$
+                ColumnAnalysisExecutor.toSqlLiteral(new java.util.Date(timestamp.getTime())));
+        assertEquals("'O''Brien'", ColumnAnalysisExecutor.toSqlLiteral("O'Brien")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
 }
@@ -0,0 +1,106 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.talend.cwm.relational.RelationalFactory;
+import org.talend.cwm.relational.TdColumn;
+import org.talend.cwm.relational.TdTable;
+import org.talend.dataquality.analysis.Analysis;
+import org.talend.dataquality.analysis.AnalysisContext;
+import org.talend.dataquality.analysis.AnalysisFactory;
+import org.talend.dataquality.analysis.AnalysisParameters;
+import org.talend.dataquality.analysis.ExecutionLanguage;
+import org.talend.dataquality.helpers.AnalysisHelper;
+
+public class ReportExecutionPlanTest {
+
+    private Analysis createAnalysis(ExecutionLanguage engine, TdColumn... columns) {
+        Analysis analysis = AnalysisFactory.eINSTANCE.createAnalysis();
+        AnalysisContext context = AnalysisFactory.eINSTANCE.createAnalysisContext();
+        context.getAnalysedElements().addAll(Arrays.asList(columns));
+        analysis.setContext(context);
+        AnalysisParameters parameters = AnalysisFactory.eINSTANCE.createAnalysisParameters();
+        parameters.setExecutionLanguage(engine);
+        analysis.setParameters(parameters);
+        return analysis;
+    }
+
+    private TdColumn createColumn(TdTable table, String name) {
+        TdColumn column = RelationalFactory.eINSTANCE.createTdColumn();
+        column.setName(name);
+        table.getOwnedElement().add(column);
+        column.setOwner(table);
+        return column;
+    }
+
+    /**
+     * Test method for {@link org.talend.dq.analysis.ReportExecutionPlan#getSharedScan(Analysis)}.
+     */
+    @Test
+    public void testGetSharedScan() {
+        TdTable table = RelationalFactory.eINSTANCE.createTdTable();
+        TdTable otherTable = RelationalFactory.eINSTANCE.createTdTable();
+        TdColumn column1 = createColumn(table, "C1"); //$NON-NLS-1$
+        TdColumn column2 = createColumn(table, "C2"); //$NON-NLS-1$
+        TdColumn otherColumn = createColumn(otherTable, "C3"); //$NON-NLS-1$
+
+        Object scan = ReportExecutionPlan.getSharedScan(createAnalysis(ExecutionLanguage.JAVA, column1));
+        assertNotNull(scan);
+        assertEquals(scan, ReportExecutionPlan.getSharedScan(createAnalysis(ExecutionLanguage.JAVA, column2, column1)));
+        // the sql engine analyses do not read the rows
+        assertNull(ReportExecutionPlan.getSharedScan(createAnalysis(ExecutionLanguage.SQL, column1)));
+        assertNull(ReportExecutionPlan.getSharedScan(createAnalysis(ExecutionLanguage.JAVA, column1, otherColumn)));
+
+        Analysis filteredAnalysis = createAnalysis(ExecutionLanguage.JAVA, column1);
+        AnalysisHelper.setStringDataFilter(filteredAnalysis, "C1 > 0"); //$NON-NLS-1$
+        assertFalse(scan.equals(ReportExecutionPlan.getSharedScan(filteredAnalysis)));
+    }
+
+    /**
+     * Test method for {@link org.talend.dq.analysis.ReportExecutionPlan#getChains()}.
+     */
+    @Test
+    public void testGetChains() {
+        ReportExecutionPlan plan = new ReportExecutionPlan();
+        Object provider = new Object();
+        Analysis analysis1 = AnalysisFactory.eINSTANCE.createAnalysis();
+        Analysis analysis2 = AnalysisFactory.eINSTANCE.createAnalysis();
+        Analysis analysis3 = AnalysisFactory.eINSTANCE.createAnalysis();
+        Analysis analysis4 = AnalysisFactory.eINSTANCE.createAnalysis();
+        assertTrue(plan.addAnalysis(analysis1, provider, "t")); //$NON-NLS-1$
+        assertTrue(plan.addAnalysis(analysis2, provider, null));
+        assertTrue(plan.addAnalysis(analysis3, provider, "t")); //$NON-NLS-1$
+        assertTrue(plan.addAnalysis(analysis4, null, null));
+        // an analysis in two analysis maps
+        assertFalse(plan.addAnalysis(analysis2, provider, null));
+
+        List<ReportExecutionPlan.AnalysisChain> chains = plan.getChains();
+        assertEquals(3, chains.size());
+        assertEquals(Arrays.asList(analysis1, analysis3), chains.get(0).getAnalyses());
+        assertSame(provider, chains.get(0).getDataProvider());
+        assertEquals(Arrays.asList(analysis2), chains.get(1).getAnalyses());
+        assertEquals(Arrays.asList(analysis4), chains.get(2).getAnalyses());
+        assertNull(chains.get(2).getDataProvider());
+    }
+}
@@ -0,0 +1,91 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.analysis;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.talend.dataquality.indicators.Indicator;
+import org.talend.dataquality.indicators.IndicatorsFactory;
+import org.talend.dataquality.indicators.sql.IndicatorSqlFactory;
+import org.talend.dq.dbms.DbmsLanguage;
+import org.talend.dq.dbms.DbmsLanguageFactory;
+
+public class WhereRuleBatchPlannerTest {
+
+    private WhereRuleBatchPlanner createPlanner() {
+        DbmsLanguage dbmsLanguage = DbmsLanguageFactory.createDbmsLanguage(DbmsLanguage.SQL, null);
+        return new WhereRuleBatchPlanner(dbmsLanguage);
+    }
+
+    /**
+     * Test method for {@link org.talend.dq.analysis.WhereRuleBatchPlanner#getBatches()}.
+     */
+    @Test
+    public void testGetBatches() {
+        WhereRuleBatchPlanner planner = createPlanner();
+        Indicator rowCount = IndicatorsFactory.eINSTANCE.createRowCountIndicator();
+        Indicator otherRowCount = IndicatorsFactory.eINSTANCE.createRowCountIndicator();
+        Indicator rule1 = IndicatorSqlFactory.eINSTANCE.createWhereRuleIndicator();
+        Indicator rule2 = IndicatorSqlFactory.eINSTANCE.createWhereRuleIndicator();
+        Indicator joinRule = IndicatorSqlFactory.eINSTANCE.createWhereRuleIndicator();
+        Indicator emptyRule = IndicatorSqlFactory.eINSTANCE.createWhereRuleIndicator();
+        assertTrue(planner.addRowCount(rowCount, "db", "SELECT COUNT(*) FROM t WHERE (x > 1)")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertTrue(planner.addRowCount(otherRowCount, "db", "SELECT COUNT(*) FROM u")); //$NON-NLS-1$ //$NON-NLS-2$
+        // the templates of the rules have a join clause
+        assertTrue(planner.addRule(rule1, "db", "SELECT COUNT(*) FROM t  WHERE (x > 1)", "a = 'b  c'")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertTrue(planner.addRule(rule2, "db", "select count(*) from t  WHERE (x > 1);", "a IS NULL OR b > 0")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertTrue(planner.addRule(joinRule, "db", "SELECT COUNT(*) FROM t A JOIN v B ON (A.id = B.id) WHERE (x > 1)", //$NON-NLS-1$ //$NON-NLS-2$
+                "B.c = 1")); //$NON-NLS-1$
+        assertFalse(planner.addRule(emptyRule, "db", "SELECT COUNT(*) FROM t", " ")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertFalse(planner.addRule(emptyRule, "db", "SELECT COUNT(DISTINCT a) FROM t", "a > 0")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+        // the row count of u has no rule
+        List<WhereRuleBatchPlanner.RuleBatch> batches = planner.getBatches();
+        assertEquals(2, batches.size());
+        WhereRuleBatchPlanner.RuleBatch batch = batches.get(0);
+        assertEquals("db", batch.getCatalog()); //$NON-NLS-1$
+        assertEquals(Arrays.asList(rowCount, rule1, rule2), batch.getIndicators());
+        assertFalse(batch.isRule(0));
+        assertTrue(batch.isRule(1));
+        assertEquals("SELECT COUNT(*), COUNT(CASE WHEN (a = 'b  c') THEN 1 END), " //$NON-NLS-1$
+                + "COUNT(CASE WHEN (a IS NULL OR b > 0) THEN 1 END) FROM t WHERE (x > 1)", batch.getSql()); //$NON-NLS-1$
+
+        List<Object[]> rows = Collections.singletonList(new Object[] { 10L, 7L, 3L });
+        assertArrayEquals(new Object[] { 10L }, batch.getCountResults(rows).get(0));
+        assertArrayEquals(new Object[] { 7L }, batch.getResults(1, rows).get(0));
+        assertArrayEquals(new Object[] { 3L }, batch.getResults(2, rows).get(0));
+
+        batch = batches.get(1);
+        assertEquals(Arrays.asList(joinRule), batch.getIndicators());
+        assertEquals("SELECT COUNT(*), COUNT(CASE WHEN (B.c = 1) THEN 1 END) FROM t A JOIN v B ON (A.id = B.id) WHERE (x > 1)", //$NON-NLS-1$
+                batch.getSql());
+        assertArrayEquals(new Object[] { 1L }, batch.getResults(0, Collections.singletonList(new Object[] { 2L, 1L })).get(0));
+    }
+
+    /**
+     * Test method for {@link org.talend.dq.analysis.WhereRuleBatchPlanner#normalizeSpaces(java.lang.String)}.
+     */
+    @Test
+    public void testNormalizeSpaces() {
+        assertEquals("FROM t WHERE a = ' x  y' AND \"b  c\" > 0", //$NON-NLS-1$
+                WhereRuleBatchPlanner.normalizeSpaces("FROM  t\n WHERE a = ' x  y'\tAND \"b  c\" > 0")); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,157 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.analysis.connpool;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class SqlQuerySchedulerTest {
+
+    /**
+     * Test method for {@link org.talend.dq.analysis.connpool.SqlQueryScheduler#submit(SqlQueryScheduler.Query)}.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testSubmit() throws Exception {
+        TdqAnalysisConnectionPool pool = mock(TdqAnalysisConnectionPool.class);
+        when(pool.getMaxConnections()).thenReturn(3);
+        when(pool.getDriverMaxConnections()).thenReturn(Integer.MAX_VALUE);
+        final AtomicInteger openedConnections = new AtomicInteger();
+        when(pool.getConnection()).thenAnswer(new Answer<Connection>() {
+
+            @Override
+            public Connection answer(InvocationOnMock invocation) throws Throwable {
+                openedConnections.incrementAndGet();
+                return mock(Connection.class);
+            }
+        });
+
+        final Map<Connection, String> catalogs = new ConcurrentHashMap<Connection, String>();
+        SqlQueryScheduler scheduler = new SqlQueryScheduler(pool, new SqlQueryScheduler.CatalogSwitcher() {
+
+            @Override
+            public boolean switchCatalog(Connection connection, String catalog) {
+                catalogs.put(connection, catalog);
+                return true;
+            }
+        });
+        final AtomicInteger wrongCatalogs = new AtomicInteger();
+        for (int i = 0; i < 30; i++) {
+            final String catalog = i < 20 ? "catalog1" : "catalog2"; //$NON-NLS-1$ //$NON-NLS-2$
+            scheduler.submit(new SqlQueryScheduler.Query() {
+
+                @Override
+                public String getCatalog() {
+                    return catalog;
+                }
+
+                @Override
+                public void run(Connection connection) {
+                    if (!catalog.equals(catalogs.get(connection))) {
+                        wrongCatalogs.incrementAndGet();
+                    }
+                }
+
+                @Override
+                public void fail(String message) {
+                    wrongCatalogs.incrementAndGet();
+                }
+            });
+        }
+        int completed = 0;
+        while (scheduler.hasPendingQueries()) {
+            if (scheduler.takeCompleted(1000) != null) {
+                completed++;
+            }
+        }
+        scheduler.shutdown();
+
+        assertEquals(30, completed);
+        assertEquals(0, wrongCatalogs.get());
+        // no more connections than the threads of the scheduler
+        assertTrue(openedConnections.get() <= 3);
+        verify(pool, times(openedConnections.get())).returnConnection(any(Connection.class));
+    }
+
+    /**
+     * Test method for {@link org.talend.dq.analysis.connpool.SqlQueryScheduler#submit(SqlQueryScheduler.Query)} when
+     * the catalog of the query cannot be set on the connection.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testSubmitCatalogNotSwitched() throws Exception {
+        TdqAnalysisConnectionPool pool = mock(TdqAnalysisConnectionPool.class);
+        when(pool.getMaxConnections()).thenReturn(1);
+        when(pool.getDriverMaxConnections()).thenReturn(Integer.MAX_VALUE);
+        when(pool.getConnection()).thenReturn(mock(Connection.class));
+        SqlQueryScheduler scheduler = new SqlQueryScheduler(pool, new SqlQueryScheduler.CatalogSwitcher() {
+
+            @Override
+            public boolean switchCatalog(Connection connection, String catalog) {
+                return false;
+            }
+        });
+        final AtomicInteger runQueries = new AtomicInteger();
+        final AtomicInteger failedQueries = new AtomicInteger();
+        scheduler.submit(new SqlQueryScheduler.Query() {
+
+            @Override
+            public String getCatalog() {
+                return "catalog1"; //$NON-NLS-1$
+            }
+
+            @Override
+            public void run(Connection connection) {
+                runQueries.incrementAndGet();
+            }
+
+            @Override
+            public void fail(String message) {
+                failedQueries.incrementAndGet();
+            }
+        });
+        while (scheduler.hasPendingQueries()) {
+            scheduler.takeCompleted(1000);
+        }
+        scheduler.shutdown();
+
+        assertEquals(0, runQueries.get());
+        assertEquals(1, failedQueries.get());
+    }
+
+    /**
+     * Test method for
+     * {@link org.talend.dq.analysis.connpool.SqlQueryScheduler#SqlQueryScheduler(TdqAnalysisConnectionPool, SqlQueryScheduler.CatalogSwitcher)}
+     * when no connection can be opened.
+     *
+     * @throws Exception
+     */
+    @Test(expected = SQLException.class)
+    public void testNoConnection() throws Exception {
+        TdqAnalysisConnectionPool pool = mock(TdqAnalysisConnectionPool.class);
+        when(pool.getConnection()).thenThrow(new SQLException());
+        new SqlQueryScheduler(pool, null);
+    }
+}
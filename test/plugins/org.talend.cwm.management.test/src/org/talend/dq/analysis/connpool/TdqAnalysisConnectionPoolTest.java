@@ -18,6 +18,14 @@ import static org.mockito.Mockito.*;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import junit.framework.Assert;
 
@@ -26,6 +34,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -135,6 +145,63 @@ public class TdqAnalysisConnectionPoolTest {
         assertNotNull(con);
     }
 
+    /**
+     * Test method for {@link org.talend.dq.analysis.connpool.TdqAnalysisConnectionPool#getConnection()}: the threads
+     * which ask for a connection at the same time do not open more connections than the size of the pool.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testGetConnectionConcurrently() throws Exception {
+        final TdqAnalysisConnectionPool pool = new TdqAnalysisConnectionPool(analysis, 2);
+        EClass theEClass = mock(EClass.class);
+        when(dataManager.eClass()).thenReturn(theEClass);
+        when(theEClass.getClassifierID()).thenReturn(ConnectionPackage.CONNECTION);
+        when(theEClass.eContainer()).thenReturn(ConnectionPackage.eINSTANCE);
+
+        PowerMockito.mockStatic(JavaSqlFactory.class);
+        when(JavaSqlFactory.createConnection(dataManager)).thenAnswer(new Answer<TypedReturnCode<Connection>>() {
+
+            @Override
+            public TypedReturnCode<Connection> answer(InvocationOnMock invocation) throws Throwable {
+                // opening a connection is slow
+                Thread.sleep(20);
+                Connection conn = mock(Connection.class);
+                DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+                when(conn.getMetaData()).thenReturn(metaData);
+                when(metaData.getMaxConnections()).thenReturn(100);
+                TypedReturnCode<Connection> trcConn = new TypedReturnCode<Connection>(true);
+                trcConn.setObject(conn);
+                return trcConn;
+            }
+        });
+
+        final CyclicBarrier barrier = new CyclicBarrier(6);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < 6; i++) {
+                results.add(executor.submit(new Callable<Boolean>() {
+
+                    @Override
+                    public Boolean call() throws Exception {
+                        barrier.await(10, TimeUnit.SECONDS);
+                        Connection conn = pool.getConnection();
+                        Thread.sleep(10);
+                        pool.returnConnection(conn);
+                        return conn != null;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, pool.getPConnections().size());
+    }
+
     /**
      * Test method for {@link org.talend.dq.analysis.connpool.TdqAnalysisConnectionPool#closeConnectionPool()}.
      */
@@ -259,6 +259,17 @@ public class DbmsLanguageTest {
         }
     }
 
+    /**
+     * Test method for {@link org.talend.dq.dbms.DbmsLanguage#getPartitionClause(String, Long, Long)}.
+     */
+    @Test
+    public void testGetPartitionClause() {
+        DbmsLanguage dbms = getMysqlDbmsLanguage();
+        Assert.assertEquals("`ID` < 10", dbms.getPartitionClause("`ID`", null, 10L)); //$NON-NLS-1$ //$NON-NLS-2$
+        Assert.assertEquals("`ID` >= 10 AND `ID` < 20", dbms.getPartitionClause("`ID`", 10L, 20L)); //$NON-NLS-1$ //$NON-NLS-2$
+        Assert.assertEquals("`ID` >= 20", dbms.getPartitionClause("`ID`", 20L, null)); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
     /**
      * Test method for {@link org.talend.dq.dbms.DbmsLanguage#less()}.
      */
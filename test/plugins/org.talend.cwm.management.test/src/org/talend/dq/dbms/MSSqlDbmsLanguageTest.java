@@ -51,4 +51,17 @@ public class MSSqlDbmsLanguageTest {
         String testCharLength = "LEN(" + columnName + ")";//$NON-NLS-1$ //$NON-NLS-2$
         assertEquals(charLength.trim(), testCharLength);
     }
+
+    /**
+     * Test method for {@link org.talend.dq.dbms.MSSqlDbmsLanguage#getTableSampleClause(int, long)}.
+     */
+    @Test
+    public void testGetTableSampleClause() {
+        MSSqlDbmsLanguage dbms = new MSSqlDbmsLanguage();
+        // twice the sample size
+        assertEquals("TABLESAMPLE (0.002000 PERCENT)", dbms.getTableSampleClause(100, 10000000L).trim()); //$NON-NLS-1$
+        // unknown or small tables are not sampled by the database
+        assertNull(dbms.getTableSampleClause(100, -1L));
+        assertNull(dbms.getTableSampleClause(100, 300L));
+    }
 }
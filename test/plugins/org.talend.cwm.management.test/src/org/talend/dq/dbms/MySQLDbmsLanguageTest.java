@@ -63,4 +63,16 @@ public class MySQLDbmsLanguageTest {
         Assert.assertEquals(SPACE + REGEXP_1 + "  NOT REGEXP BINARY " + REGEXP_2 + SPACE, regexLike); //$NON-NLS-1$
     }
 
+    /**
+     * Test method for {@link org.talend.dq.dbms.MySQLDbmsLanguage#getEstimatedRowCountsQuery(java.lang.String, java.lang.String)}.
+     */
+    @Test
+    public void testGetEstimatedRowCountsQuery() {
+        String query = mySQLDbmsLanguage.getEstimatedRowCountsQuery("o'db", null); //$NON-NLS-1$
+        Assert.assertEquals(
+                "SELECT TABLE_NAME, TABLE_ROWS FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_TYPE = 'BASE TABLE' AND TABLE_SCHEMA = 'o''db'", //$NON-NLS-1$
+                query);
+        Assert.assertTrue(mySQLDbmsLanguage.getEstimatedRowCountsQuery(null, null).endsWith("TABLE_SCHEMA = DATABASE()")); //$NON-NLS-1$
+    }
+
 }
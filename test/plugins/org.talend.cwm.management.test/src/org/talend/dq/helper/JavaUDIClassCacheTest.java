@@ -0,0 +1,60 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.helper;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JavaUDIClassCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test method for {@link org.talend.dq.helper.JavaUDIClassCache#getClassLoader(java.util.List)}.
+     *
+     * @throws IOException
+     * @throws MalformedURLException
+     */
+    @Test
+    public void testGetClassLoader() throws MalformedURLException, IOException {
+        File jar1 = temporaryFolder.newFile("udi1.jar"); //$NON-NLS-1$
+        File jar2 = temporaryFolder.newFile("udi2.jar"); //$NON-NLS-1$
+        List<File> jars = Arrays.asList(jar1, jar2);
+        JavaUDIClassCache cache = new JavaUDIClassCache();
+
+        ClassLoader classLoader = cache.getClassLoader(jars);
+        assertSame(classLoader, cache.getClassLoader(Arrays.asList(jar1, jar2)));
+        assertNotSame(classLoader, cache.getClassLoader(Arrays.asList(jar1)));
+
+        // a jar is replaced
+        assertTrue(jar2.setLastModified(jar2.lastModified() - 10000));
+        ClassLoader newClassLoader = cache.getClassLoader(jars);
+        assertNotSame(classLoader, newClassLoader);
+        assertSame(newClassLoader, cache.getClassLoader(jars));
+
+        cache.clear();
+        assertNotSame(newClassLoader, cache.getClassLoader(jars));
+    }
+}
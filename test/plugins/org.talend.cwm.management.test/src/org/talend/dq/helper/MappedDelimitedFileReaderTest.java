@@ -0,0 +1,140 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedDelimitedFileReaderTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8"); //$NON-NLS-1$
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test method for
+     * {@link org.talend.dq.helper.MappedDelimitedFileReader#read(long, long, boolean[], long, org.talend.dq.helper.MappedDelimitedFileReader.RecordHandler)}
+     * .
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testRead() throws IOException {
+        File file = temporaryFolder.newFile("data.txt"); //$NON-NLS-1$
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), UTF8);
+        try {
+            writer.write("id;;name;;city\r\n"); //$NON-NLS-1$
+            for (int i = 0; i < 1000; i++) {
+                writer.write(i + ";;né" + i + ";;Paris\r\n"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            writer.write("\r\nshort\nlast;;;;Nantes"); //$NON-NLS-1$
+        } finally {
+            writer.close();
+        }
+
+        MappedDelimitedFileReader reader = new MappedDelimitedFileReader(file, UTF8, ";;", true); //$NON-NLS-1$
+        try {
+            long start = reader.skipRecords(1);
+            // small chunks: most records are split between two chunks
+            List<long[]> chunks = reader.split(start, 100);
+            assertTrue(chunks.size() > 100);
+            final List<String> records = new ArrayList<String>();
+            long count = 0;
+            for (long[] chunk : chunks) {
+                count += reader.read(chunk[0], chunk[1], new boolean[] { false, true }, Long.MAX_VALUE,
+                        new MappedDelimitedFileReader.RecordHandler() {
+
+                            @Override
+                            public boolean handle(String[] fields, long offset) {
+                                records.add(fields[0] + '|' + fields[1]);
+                                return true;
+                            }
+                        });
+            }
+            // the empty row is skipped
+            assertEquals(1002, count);
+            assertEquals("null|né0", records.get(0)); //$NON-NLS-1$
+            assertEquals("null|né999", records.get(999)); //$NON-NLS-1$
+            assertEquals("null|null", records.get(1000)); //$NON-NLS-1$
+            assertEquals("null|", records.get(1001)); //$NON-NLS-1$
+
+            // the limit of records
+            long[] all = { start, file.length() };
+            assertEquals(10, reader.read(all[0], all[1], new boolean[] { true }, 10, new MappedDelimitedFileReader.RecordHandler() {
+
+                @Override
+                public boolean handle(String[] fields, long offset) {
+                    return true;
+                }
+            }));
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Test method for
+     * {@link org.talend.dq.helper.MappedDelimitedFileReader#isAsciiSeparator(java.lang.String, java.nio.charset.Charset)}
+     * .
+     */
+    @Test
+    public void testIsAsciiSeparator() {
+        assertTrue(MappedDelimitedFileReader.isAsciiSeparator(";", UTF8)); //$NON-NLS-1$
+        assertTrue(MappedDelimitedFileReader.isAsciiSeparator("\t", Charset.forName("ISO-8859-1"))); //$NON-NLS-1$ //$NON-NLS-2$
+        assertFalse(MappedDelimitedFileReader.isAsciiSeparator("§", UTF8)); //$NON-NLS-1$
+        assertFalse(MappedDelimitedFileReader.isAsciiSeparator(";", Charset.forName("UTF-16"))); //$NON-NLS-1$ //$NON-NLS-2$
+        assertFalse(MappedDelimitedFileReader.isAsciiSeparator("", UTF8)); //$NON-NLS-1$
+    }
+
+    /**
+     * Test method for {@link org.talend.dq.helper.MappedDelimitedFileReader#startsWithByteOrderMark(java.io.File)}.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testStartsWithByteOrderMark() throws IOException {
+        File bomFile = temporaryFolder.newFile("bom.txt"); //$NON-NLS-1$
+        Writer writer = new OutputStreamWriter(new FileOutputStream(bomFile), UTF8);
+        try {
+            writer.write("\uFEFFid;name\n1;a\n"); //$NON-NLS-1$
+        } finally {
+            writer.close();
+        }
+        assertTrue(MappedDelimitedFileReader.startsWithByteOrderMark(bomFile));
+
+        File file = temporaryFolder.newFile("nobom.txt"); //$NON-NLS-1$
+        writer = new OutputStreamWriter(new FileOutputStream(file), UTF8);
+        try {
+            writer.write("id;name\n1;a\n"); //$NON-NLS-1$
+        } finally {
+            writer.close();
+        }
+        assertFalse(MappedDelimitedFileReader.startsWithByteOrderMark(file));
+        assertFalse(MappedDelimitedFileReader.startsWithByteOrderMark(temporaryFolder.newFile("empty.txt"))); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,192 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.helper;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.talend.dq.nodes.AnalysisRepNode;
+import org.talend.dq.nodes.ReportRepNode;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({ RepositoryNodeIndex.class, ResourcesPlugin.class, Platform.class })
+public class RepositoryNodeIndexTest {
+
+    private static final String FOLDER = "/PROJECT/TDQ_Data Profiling/Analyses/"; //$NON-NLS-1$
+
+    /**
+     * Test method for {@link org.talend.dq.helper.RepositoryNodeIndex#get(java.lang.String, java.lang.Class)}.
+     */
+    @Test
+    public void testGet() {
+        PowerMockito.mockStatic(Platform.class);
+        when(Platform.isRunning()).thenReturn(true);
+        PowerMockito.mockStatic(ResourcesPlugin.class);
+        IWorkspace workspace = mock(IWorkspace.class);
+        when(ResourcesPlugin.getWorkspace()).thenReturn(workspace);
+
+        AnalysisRepNode node = mock(AnalysisRepNode.class);
+        long generation = RepositoryNodeIndex.getGeneration();
+        RepositoryNodeIndex.put("uuid1", null, node, generation); //$NON-NLS-1$
+        assertSame(node, RepositoryNodeIndex.get("uuid1", AnalysisRepNode.class)); //$NON-NLS-1$
+        assertNull(RepositoryNodeIndex.get("uuid1", ReportRepNode.class)); //$NON-NLS-1$
+        assertNull(RepositoryNodeIndex.get("uuid2", AnalysisRepNode.class)); //$NON-NLS-1$
+
+        // a change in the workspace empties the index
+        ArgumentCaptor<IResourceChangeListener> listener = ArgumentCaptor.forClass(IResourceChangeListener.class);
+        verify(workspace).addResourceChangeListener(listener.capture(), eq(IResourceChangeEvent.POST_CHANGE));
+        listener.getValue().resourceChanged(mock(IResourceChangeEvent.class));
+        assertNull(RepositoryNodeIndex.get("uuid1", AnalysisRepNode.class)); //$NON-NLS-1$
+
+        // the nodes built before the change are not added
+        RepositoryNodeIndex.put("uuid1", null, node, generation); //$NON-NLS-1$
+        assertNull(RepositoryNodeIndex.get("uuid1", AnalysisRepNode.class)); //$NON-NLS-1$
+        RepositoryNodeIndex.put("uuid1", null, node, RepositoryNodeIndex.getGeneration()); //$NON-NLS-1$
+        assertSame(node, RepositoryNodeIndex.get("uuid1", AnalysisRepNode.class)); //$NON-NLS-1$
+    }
+
+    private EObject createModelElement(String fileName) {
+        EObject modelElement = mock(EObject.class);
+        Resource resource = mock(Resource.class);
+        when(modelElement.eResource()).thenReturn(resource);
+        when(resource.getURI()).thenReturn(URI.createPlatformResourceURI(FOLDER + fileName, true));
+        return modelElement;
+    }
+
+    private IResourceChangeEvent createEvent(String fileName, int kind, int flags) throws CoreException {
+        IResourceChangeEvent event = mock(IResourceChangeEvent.class);
+        IResourceDelta delta = mock(IResourceDelta.class);
+        when(event.getDelta()).thenReturn(delta);
+        final IResourceDelta fileDelta = mock(IResourceDelta.class);
+        IResource file = mock(IResource.class);
+        when(file.getType()).thenReturn(IResource.FILE);
+        when(fileDelta.getResource()).thenReturn(file);
+        when(fileDelta.getFullPath()).thenReturn(new Path(FOLDER + fileName));
+        when(fileDelta.getKind()).thenReturn(kind);
+        when(fileDelta.getFlags()).thenReturn(flags);
+        doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(InvocationOnMock invocation) throws CoreException {
+                IResourceDeltaVisitor visitor = (IResourceDeltaVisitor) invocation.getArguments()[0];
+                visitor.visit(fileDelta);
+                return null;
+            }
+        }).when(delta).accept(any(IResourceDeltaVisitor.class));
+        return event;
+    }
+
+    /**
+     * Test method for
+     * {@link org.talend.dq.helper.RepositoryNodeIndex#resourceChanged(org.eclipse.core.resources.IResourceChangeEvent)}
+     * .
+     *
+     * @throws CoreException
+     */
+    @Test
+    public void testResourceChanged() throws CoreException {
+        PowerMockito.mockStatic(Platform.class);
+        when(Platform.isRunning()).thenReturn(true);
+        PowerMockito.mockStatic(ResourcesPlugin.class);
+        when(ResourcesPlugin.getWorkspace()).thenReturn(mock(IWorkspace.class));
+
+        AnalysisRepNode node1 = mock(AnalysisRepNode.class);
+        AnalysisRepNode node2 = mock(AnalysisRepNode.class);
+        AnalysisRepNode node3 = mock(AnalysisRepNode.class);
+        long generation = RepositoryNodeIndex.getGeneration();
+        RepositoryNodeIndex.put("uuidA", createModelElement("a_0.1.ana"), node1, generation); //$NON-NLS-1$ //$NON-NLS-2$
+        RepositoryNodeIndex.put("uuidB", createModelElement("b_0.1.ana"), node2, generation); //$NON-NLS-1$ //$NON-NLS-2$
+        RepositoryNodeIndex.put("uuidC", null, node3, generation); //$NON-NLS-1$
+
+        // the markers do not change the items
+        RepositoryNodeIndex.resourceChanged(createEvent("a_0.1.ana", IResourceDelta.CHANGED, //$NON-NLS-1$
+                IResourceDelta.MARKERS));
+        assertSame(node1, RepositoryNodeIndex.get("uuidA", AnalysisRepNode.class)); //$NON-NLS-1$
+        assertSame(node3, RepositoryNodeIndex.get("uuidC", AnalysisRepNode.class)); //$NON-NLS-1$
+
+        // the property file of an item is changed: only the nodes of this item and the nodes without file are removed
+        RepositoryNodeIndex.resourceChanged(createEvent("a_0.1.properties", IResourceDelta.CHANGED, //$NON-NLS-1$
+                IResourceDelta.CONTENT));
+        assertNull(RepositoryNodeIndex.get("uuidA", AnalysisRepNode.class)); //$NON-NLS-1$
+        assertSame(node2, RepositoryNodeIndex.get("uuidB", AnalysisRepNode.class)); //$NON-NLS-1$
+        assertNull(RepositoryNodeIndex.get("uuidC", AnalysisRepNode.class)); //$NON-NLS-1$
+
+        // the item file is deleted
+        RepositoryNodeIndex.resourceChanged(createEvent("b_0.1.ana", IResourceDelta.REMOVED, 0)); //$NON-NLS-1$
+        assertNull(RepositoryNodeIndex.get("uuidB", AnalysisRepNode.class)); //$NON-NLS-1$
+
+        // the nodes built before the change are not added
+        RepositoryNodeIndex.put("uuidB", createModelElement("b_0.1.ana"), node2, generation); //$NON-NLS-1$ //$NON-NLS-2$
+        assertNull(RepositoryNodeIndex.get("uuidB", AnalysisRepNode.class)); //$NON-NLS-1$
+    }
+
+
+    /**
+     * Test method for {@link org.talend.dq.helper.RepositoryNodeIndex#get(java.lang.String, java.lang.Class)}: a node
+     * whose model element has been unloaded is not returned.
+     */
+    @Test
+    public void testGetUnloaded() {
+        PowerMockito.mockStatic(Platform.class);
+        when(Platform.isRunning()).thenReturn(true);
+        PowerMockito.mockStatic(ResourcesPlugin.class);
+        when(ResourcesPlugin.getWorkspace()).thenReturn(mock(IWorkspace.class));
+
+        AnalysisRepNode node1 = mock(AnalysisRepNode.class);
+        AnalysisRepNode node2 = mock(AnalysisRepNode.class);
+        EObject modelElement1 = createModelElement("d_0.1.ana"); //$NON-NLS-1$
+        EObject modelElement2 = createModelElement("e_0.1.ana"); //$NON-NLS-1$
+        long generation = RepositoryNodeIndex.getGeneration();
+        RepositoryNodeIndex.put("uuidD", modelElement1, node1, generation); //$NON-NLS-1$
+        RepositoryNodeIndex.put("uuidE", modelElement2, node2, generation); //$NON-NLS-1$
+        assertSame(node1, RepositoryNodeIndex.get("uuidD", AnalysisRepNode.class)); //$NON-NLS-1$
+        assertSame(node2, RepositoryNodeIndex.get("uuidE", AnalysisRepNode.class)); //$NON-NLS-1$
+
+        // the resource is unloaded: the model element becomes a proxy
+        when(modelElement1.eIsProxy()).thenReturn(true);
+        assertNull(RepositoryNodeIndex.get("uuidD", AnalysisRepNode.class)); //$NON-NLS-1$
+        when(modelElement1.eIsProxy()).thenReturn(false);
+        assertNull(RepositoryNodeIndex.get("uuidD", AnalysisRepNode.class)); //$NON-NLS-1$
+
+        // the model element is removed from its resource
+        when(modelElement2.eResource()).thenReturn(null);
+        assertNull(RepositoryNodeIndex.get("uuidE", AnalysisRepNode.class)); //$NON-NLS-1$
+    }
+}
@@ -12,6 +12,10 @@
 // ============================================================================
 package org.talend.dq.indicators;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.powermock.api.support.membermodification.MemberMatcher.method;
@@ -19,11 +23,16 @@ import static org.powermock.api.support.membermodification.MemberModifier.stub;
 
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.emf.common.util.BasicEList;
+import org.eclipse.emf.common.util.BasicEMap;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.EMap;
 import org.junit.Ignore;
@@ -43,9 +52,18 @@ import org.talend.core.model.metadata.builder.database.JavaSqlFactory;
 import org.talend.cwm.helper.ColumnHelper;
 import org.talend.dataquality.analysis.Analysis;
 import org.talend.dataquality.analysis.AnalysisContext;
+import org.talend.dataquality.analysis.AnalysisFactory;
+import org.talend.dataquality.analysis.AnalysisParameters;
 import org.talend.dataquality.analysis.AnalysisResult;
 import org.talend.dataquality.analysis.AnalyzedDataSet;
+import org.talend.dataquality.analysis.ExecutionLanguage;
+import org.talend.dataquality.helpers.RowCountIndicatorsAdapter;
+import org.talend.dataquality.indicators.FrequencyIndicator;
 import org.talend.dataquality.indicators.Indicator;
+import org.talend.dataquality.indicators.IndicatorsFactory;
+import org.talend.dataquality.indicators.RowCountIndicator;
+import org.talend.dq.helper.MappedDelimitedFileReader;
+import org.talend.utils.sugars.ReturnCode;
 import orgomg.cwm.objectmodel.core.ModelElement;
 
 /**
@@ -121,4 +139,105 @@ public class DelimitedFileIndicatorEvaluatorTest {
         Mockito.doReturn(true).when(spyEvaluator).continueRun();
         spyEvaluator.executeSqlQuery(empty);
     }
+
+    /**
+     * Test method for
+     * {@link org.talend.dq.indicators.DelimitedFileIndicatorEvaluator#useMappedReader(org.talend.dq.helper.MappedDelimitedFileReader, List, EMap)}
+     * : the chunks of the file are read in parallel and the row count indicators are merged.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testUseMappedReaderInParallel() throws Exception {
+        int rows = 1000;
+        String[] colors = { "red", "blue", "green", "white" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        File file = File.createTempFile("parallel", ".txt"); //$NON-NLS-1$ //$NON-NLS-2$
+        file.deleteOnExit();
+        BufferedWriter output = new BufferedWriter(new FileWriter(file));
+        try {
+            output.write("id;color\n"); //$NON-NLS-1$
+            for (int i = 0; i < rows; i++) {
+                output.write(i + ";" + colors[i % colors.length] + '\n'); //$NON-NLS-1$
+            }
+        } finally {
+            output.close();
+        }
+
+        DelimitedFileConnection connection = mock(DelimitedFileConnection.class);
+        when(connection.getEscapeType()).thenReturn(Escape.DELIMITED);
+        PowerMockito.mockStatic(JavaSqlFactory.class);
+        when(JavaSqlFactory.getHeadValue(connection)).thenReturn(1);
+        when(JavaSqlFactory.getLimitValue(connection)).thenReturn(0);
+        when(JavaSqlFactory.getFieldSeparatorValue(connection)).thenReturn("\";\""); //$NON-NLS-1$
+        when(JavaSqlFactory.getRowSeparatorValue(connection)).thenReturn("\"\\n\""); //$NON-NLS-1$
+        when(JavaSqlFactory.getEncoding(connection)).thenReturn("UTF-8"); //$NON-NLS-1$
+        PowerMockito.mockStatic(LanguageManager.class);
+        when(LanguageManager.getCurrentLanguage()).thenReturn(ECodeLanguage.JAVA);
+        MetadataColumn idColumn = mock(MetadataColumn.class);
+        when(idColumn.getLabel()).thenReturn("id"); //$NON-NLS-1$
+        when(idColumn.getTalendType()).thenReturn("id_String"); //$NON-NLS-1$
+        MetadataColumn colorColumn = mock(MetadataColumn.class);
+        when(colorColumn.getLabel()).thenReturn("color"); //$NON-NLS-1$
+        when(colorColumn.getTalendType()).thenReturn("id_String"); //$NON-NLS-1$
+        PowerMockito.mockStatic(ColumnHelper.class);
+        when(ColumnHelper.getColumnIndex(idColumn)).thenReturn(0);
+        when(ColumnHelper.getColumnIndex(colorColumn)).thenReturn(1);
+
+        Analysis analysis = AnalysisFactory.eINSTANCE.createAnalysis();
+        AnalysisParameters parameters = AnalysisFactory.eINSTANCE.createAnalysisParameters();
+        parameters.setExecutionLanguage(ExecutionLanguage.JAVA);
+        analysis.setParameters(parameters);
+        analysis.setResults(AnalysisFactory.eINSTANCE.createAnalysisResult());
+        DelimitedFileIndicatorEvaluator evaluator = new DelimitedFileIndicatorEvaluator(analysis) {
+
+            @Override
+            protected int getReaderThreads() {
+                return 3;
+            }
+
+            @Override
+            protected long getChunkSize() {
+                return 100L;
+            }
+        };
+        evaluator.delimitedFileconnection = connection;
+        // as the executor does before storing the indicators of the analysis
+        RowCountIndicatorsAdapter.getInstance().clear();
+        RowCountIndicator idRowCount = IndicatorsFactory.eINSTANCE.createRowCountIndicator();
+        RowCountIndicator colorRowCount = IndicatorsFactory.eINSTANCE.createRowCountIndicator();
+        FrequencyIndicator colorFrequency = IndicatorsFactory.eINSTANCE.createFrequencyIndicator();
+        storeIndicator(evaluator, analysis, "id", idRowCount); //$NON-NLS-1$
+        storeIndicator(evaluator, analysis, "color", colorRowCount); //$NON-NLS-1$
+        storeIndicator(evaluator, analysis, "color", colorFrequency); //$NON-NLS-1$
+
+        MappedDelimitedFileReader reader = MappedDelimitedFileReader.create(file, connection);
+        assertNotNull(reader);
+        ReturnCode returnCode = evaluator.useMappedReader(reader, Arrays.<ModelElement> asList(idColumn, colorColumn),
+                new BasicEMap<Indicator, AnalyzedDataSet>());
+        assertTrue(returnCode.isOk());
+        idRowCount.finalizeComputation();
+        colorRowCount.finalizeComputation();
+        colorFrequency.finalizeComputation();
+        assertEquals(Long.valueOf(rows), idRowCount.getCount());
+        assertEquals(Long.valueOf(rows), colorRowCount.getCount());
+        assertEquals(Long.valueOf(rows / colors.length), colorFrequency.getCount("red")); //$NON-NLS-1$
+
+        // the byte order mark is left to the buffered readers
+        File bomFile = File.createTempFile("bom", ".txt"); //$NON-NLS-1$ //$NON-NLS-2$
+        bomFile.deleteOnExit();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(bomFile), "UTF-8"); //$NON-NLS-1$
+        try {
+            writer.write("\uFEFFid;color\n0;red\n"); //$NON-NLS-1$
+        } finally {
+            writer.close();
+        }
+        assertNull(MappedDelimitedFileReader.create(bomFile, connection));
+    }
+
+    private void storeIndicator(Evaluator<String> evaluator, Analysis analysis, String column, Indicator indicator) {
+        indicator.setUsedMapDBMode(false);
+        analysis.getResults().getIndicators().add(indicator);
+        evaluator.storeIndicator(column, indicator);
+        indicator.prepare();
+    }
 }
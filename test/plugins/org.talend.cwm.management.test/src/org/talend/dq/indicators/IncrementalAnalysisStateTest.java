@@ -0,0 +1,197 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.indicators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMLResourceImpl;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.talend.dataquality.analysis.Analysis;
+import org.talend.dataquality.analysis.AnalysisFactory;
+import org.talend.dataquality.analysis.AnalysisParameters;
+import org.talend.dataquality.analysis.AnalysisResult;
+import org.talend.dataquality.analysis.ExecutionLanguage;
+import org.talend.dataquality.indicators.FrequencyIndicator;
+import org.talend.dataquality.indicators.Indicator;
+import org.talend.dataquality.indicators.IndicatorParameters;
+import org.talend.dataquality.indicators.IndicatorsFactory;
+import org.talend.dataquality.indicators.RowCountIndicator;
+import org.talend.dataquality.indicators.UniqueCountIndicator;
+
+public class IncrementalAnalysisStateTest {
+
+    private static final String WATERMARK_COLUMN = "ID"; //$NON-NLS-1$
+
+    private static final String DATA_FILTER = "AMOUNT > 0"; //$NON-NLS-1$
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File stateFile;
+
+    private XMLResource resource;
+
+    private Analysis analysis;
+
+    private RowCountIndicator rowCount;
+
+    private FrequencyIndicator frequency;
+
+    @Before
+    public void setUp() throws Exception {
+        stateFile = new File(temporaryFolder.getRoot(), "analysis.incremental"); //$NON-NLS-1$
+        analysis = AnalysisFactory.eINSTANCE.createAnalysis();
+        AnalysisParameters parameters = AnalysisFactory.eINSTANCE.createAnalysisParameters();
+        parameters.setExecutionLanguage(ExecutionLanguage.JAVA);
+        analysis.setParameters(parameters);
+        AnalysisResult result = AnalysisFactory.eINSTANCE.createAnalysisResult();
+        analysis.setResults(result);
+        resource = new XMLResourceImpl();
+        resource.getContents().add(analysis);
+
+        rowCount = IndicatorsFactory.eINSTANCE.createRowCountIndicator();
+        frequency = IndicatorsFactory.eINSTANCE.createFrequencyIndicator();
+        IndicatorParameters indicatorParameters = IndicatorsFactory.eINSTANCE.createIndicatorParameters();
+        indicatorParameters.setTopN(10);
+        frequency.setParameters(indicatorParameters);
+        addIndicator(rowCount, "rowCount"); //$NON-NLS-1$
+        addIndicator(frequency, "frequency"); //$NON-NLS-1$
+    }
+
+    private void addIndicator(Indicator indicator, String uuid) {
+        indicator.setUsedMapDBMode(false);
+        analysis.getResults().getIndicators().add(indicator);
+        resource.setID(indicator, uuid);
+    }
+
+    private List<Indicator> getIndicators() {
+        return new ArrayList<Indicator>(Arrays.asList(rowCount, frequency));
+    }
+
+    private void handle(String... values) {
+        for (Indicator indicator : getIndicators()) {
+            for (String value : values) {
+                indicator.handle(value);
+            }
+        }
+    }
+
+    private IncrementalAnalysisState storeState() {
+        for (Indicator indicator : getIndicators()) {
+            indicator.prepare();
+        }
+        handle("a", "b", "b"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        IncrementalAnalysisState state = new IncrementalAnalysisState(stateFile, WATERMARK_COLUMN, DATA_FILTER);
+        state.setNextWatermark("3"); //$NON-NLS-1$
+        state.store(getIndicators());
+        return state;
+    }
+
+    private boolean isIncremental(String watermarkColumn, String dataFilter, List<Indicator> indicators) {
+        IncrementalAnalysisState state = new IncrementalAnalysisState(stateFile, watermarkColumn, dataFilter);
+        state.read(indicators);
+        return state.isIncremental();
+    }
+
+    /**
+     * Test method for {@link org.talend.dq.indicators.IncrementalAnalysisState#store(java.util.Collection)} and
+     * {@link org.talend.dq.indicators.IncrementalAnalysisState#restore(java.util.Collection)}: the next run adds the
+     * new rows to the stored state.
+     */
+    @Test
+    public void testStoreRestore() {
+        assertTrue(IncrementalAnalysisState.isMergeable(getIndicators()));
+        storeState();
+        assertTrue(stateFile.isFile());
+
+        for (Indicator indicator : getIndicators()) {
+            indicator.prepare();
+        }
+        IncrementalAnalysisState state = new IncrementalAnalysisState(stateFile, WATERMARK_COLUMN, DATA_FILTER);
+        state.read(getIndicators());
+        assertTrue(state.isIncremental());
+        assertEquals("3", state.getWatermark()); //$NON-NLS-1$
+        assertTrue(state.restore(getIndicators()));
+        handle("c", "a"); //$NON-NLS-1$ //$NON-NLS-2$
+        rowCount.finalizeComputation();
+        frequency.finalizeComputation();
+
+        assertEquals(Long.valueOf(5L), rowCount.getCount());
+        assertEquals(Long.valueOf(2L), frequency.getCount("a")); //$NON-NLS-1$
+        assertEquals(Long.valueOf(2L), frequency.getCount("b")); //$NON-NLS-1$
+        assertEquals(Long.valueOf(1L), frequency.getCount("c")); //$NON-NLS-1$
+    }
+
+    /**
+     * Test method for {@link org.talend.dq.indicators.IncrementalAnalysisState#read(java.util.Collection)}: the stored
+     * state is not used when the analysis has changed.
+     */
+    @Test
+    public void testReadMismatch() {
+        storeState();
+        assertTrue(isIncremental(WATERMARK_COLUMN, DATA_FILTER, getIndicators()));
+
+        assertFalse(isIncremental("CREATED", DATA_FILTER, getIndicators())); //$NON-NLS-1$
+        assertFalse(isIncremental(WATERMARK_COLUMN, null, getIndicators()));
+        assertFalse(isIncremental(WATERMARK_COLUMN, DATA_FILTER, Arrays.<Indicator> asList(rowCount)));
+
+        // another indicator
+        resource.setID(frequency, "otherFrequency"); //$NON-NLS-1$
+        assertFalse(isIncremental(WATERMARK_COLUMN, DATA_FILTER, getIndicators()));
+        resource.setID(frequency, "frequency"); //$NON-NLS-1$
+        assertTrue(isIncremental(WATERMARK_COLUMN, DATA_FILTER, getIndicators()));
+
+        // an indicator of another class
+        UniqueCountIndicator uniqueCount = IndicatorsFactory.eINSTANCE.createUniqueCountIndicator();
+        resource.setID(frequency, "oldFrequency"); //$NON-NLS-1$
+        addIndicator(uniqueCount, "frequency"); //$NON-NLS-1$
+        assertFalse(isIncremental(WATERMARK_COLUMN, DATA_FILTER, Arrays.<Indicator> asList(rowCount, uniqueCount)));
+        resource.setID(frequency, "frequency"); //$NON-NLS-1$
+
+        // other parameters
+        String fingerprint = IncrementalAnalysisState.getParametersFingerprint(frequency);
+        frequency.getParameters().setTopN(20);
+        assertFalse(fingerprint.equals(IncrementalAnalysisState.getParametersFingerprint(frequency)));
+        assertFalse(isIncremental(WATERMARK_COLUMN, DATA_FILTER, getIndicators()));
+        frequency.getParameters().setTopN(10);
+        assertEquals(fingerprint, IncrementalAnalysisState.getParametersFingerprint(frequency));
+        assertTrue(isIncremental(WATERMARK_COLUMN, DATA_FILTER, getIndicators()));
+    }
+
+    /**
+     * Test method for {@link org.talend.dq.indicators.IncrementalAnalysisState#restore(java.util.Collection)}: an
+     * indicator without stored state deletes the state.
+     */
+    @Test
+    public void testRestoreMissingIndicator() {
+        storeState();
+        IncrementalAnalysisState state = new IncrementalAnalysisState(stateFile, WATERMARK_COLUMN, DATA_FILTER);
+        state.read(getIndicators());
+        assertTrue(state.isIncremental());
+        Indicator otherRowCount = IndicatorsFactory.eINSTANCE.createRowCountIndicator();
+        addIndicator(otherRowCount, "otherRowCount"); //$NON-NLS-1$
+        assertFalse(state.restore(Arrays.<Indicator> asList(rowCount, otherRowCount)));
+        assertFalse(stateFile.exists());
+    }
+}
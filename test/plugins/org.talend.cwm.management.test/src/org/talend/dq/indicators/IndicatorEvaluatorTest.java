@@ -0,0 +1,271 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.indicators;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.BasicEMap;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.talend.dataquality.analysis.Analysis;
+import org.talend.dataquality.analysis.AnalysisFactory;
+import org.talend.dataquality.analysis.AnalysisParameters;
+import org.talend.dataquality.analysis.AnalysisResult;
+import org.talend.dataquality.analysis.AnalyzedDataSet;
+import org.talend.dataquality.analysis.ExecutionLanguage;
+import org.talend.dataquality.helpers.RowCountIndicatorsAdapter;
+import org.talend.dataquality.indicators.BlankCountIndicator;
+import org.talend.dataquality.indicators.FrequencyIndicator;
+import org.talend.dataquality.indicators.Indicator;
+import org.talend.dataquality.indicators.IndicatorParameters;
+import org.talend.dataquality.indicators.IndicatorsFactory;
+import org.talend.dataquality.indicators.MaxLengthIndicator;
+import org.talend.dataquality.indicators.RowCountIndicator;
+
+public class IndicatorEvaluatorTest {
+
+    private static final String COLUMN = "C"; //$NON-NLS-1$
+
+    private static final List<String> VALUES = Arrays.asList("a", "b", "b", null, "c", "a", "b", "d", "a", "b"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$
+
+    private static final List<String> TEXTS = Arrays.asList("a", "bb", "", "ccc", " ", null, "dddd"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+
+    private ResultSet createResultSet(List<String> values) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.findColumn(COLUMN)).thenReturn(1);
+        when(metaData.getColumnType(1)).thenReturn(Types.VARCHAR);
+        final Iterator<String> rows = values.iterator();
+        final String[] currentRow = new String[1];
+        when(resultSet.next()).thenAnswer(new Answer<Boolean>() {
+
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                if (!rows.hasNext()) {
+                    return Boolean.FALSE;
+                }
+                currentRow[0] = rows.next();
+                return Boolean.TRUE;
+            }
+        });
+        Answer<Object> currentValue = new Answer<Object>() {
+
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                return currentRow[0];
+            }
+        };
+        when(resultSet.getObject(1)).thenAnswer(currentValue);
+        when(resultSet.getString(1)).thenAnswer(currentValue);
+        return resultSet;
+    }
+
+    private static Analysis createAnalysis() {
+        Analysis analysis = AnalysisFactory.eINSTANCE.createAnalysis();
+        AnalysisParameters parameters = AnalysisFactory.eINSTANCE.createAnalysisParameters();
+        parameters.setExecutionLanguage(ExecutionLanguage.JAVA);
+        analysis.setParameters(parameters);
+        AnalysisResult result = AnalysisFactory.eINSTANCE.createAnalysisResult();
+        analysis.setResults(result);
+        return analysis;
+    }
+
+    /**
+     * Reads the values by batch with the given indicators of the column.
+     */
+    private void executeBatchQuery(IndicatorEvaluator evaluator, List<String> values, Indicator... indicators)
+            throws SQLException {
+        RowCountIndicatorsAdapter.getInstance().clear();
+        for (Indicator indicator : indicators) {
+            indicator.setUsedMapDBMode(false);
+            evaluator.analysis.getResults().getIndicators().add(indicator);
+            evaluator.storeIndicator(COLUMN, indicator);
+            indicator.prepare();
+        }
+        List<String> columnlist = Arrays.asList(COLUMN);
+        evaluator.executeBatchQuery(createResultSet(values), columnlist, evaluator.buildColumnListMap(columnlist),
+                new BasicEMap<Indicator, AnalyzedDataSet>(), 100);
+        for (Indicator indicator : indicators) {
+            indicator.finalizeComputation();
+        }
+    }
+
+    private FrequencyIndicator createFrequencyIndicator() {
+        FrequencyIndicator frequency = IndicatorsFactory.eINSTANCE.createFrequencyIndicator();
+        IndicatorParameters parameters = IndicatorsFactory.eINSTANCE.createIndicatorParameters();
+        parameters.setTopN(10);
+        frequency.setParameters(parameters);
+        return frequency;
+    }
+
+    /**
+     * Test method for
+     * {@link org.talend.dq.indicators.IndicatorEvaluator#executeBatchQuery(ResultSet, List, java.util.Map, org.eclipse.emf.common.util.EMap, int)}
+     * : the last batch, which is not full, is handled too.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testExecuteBatchQuery() throws SQLException {
+        FrequencyIndicator frequency = createFrequencyIndicator();
+        executeBatchQuery(new BatchIndicatorEvaluator(createAnalysis(), 3, Integer.MAX_VALUE), VALUES, frequency);
+        assertEquals(Long.valueOf(3L), frequency.getCount("a")); //$NON-NLS-1$
+        assertEquals(Long.valueOf(4L), frequency.getCount("b")); //$NON-NLS-1$
+        assertEquals(Long.valueOf(1L), frequency.getCount("c")); //$NON-NLS-1$
+        assertEquals(Long.valueOf(1L), frequency.getCount("d")); //$NON-NLS-1$
+
+        BlankCountIndicator blankCount = IndicatorsFactory.eINSTANCE.createBlankCountIndicator();
+        MaxLengthIndicator maxLength = IndicatorsFactory.eINSTANCE.createMaxLengthIndicator();
+        executeBatchQuery(new BatchIndicatorEvaluator(createAnalysis(), 3, Integer.MAX_VALUE), TEXTS, blankCount,
+                maxLength);
+        assertEquals(Long.valueOf(2L), blankCount.getBlankCount());
+        // the longest value is in the last batch
+        assertEquals(Long.valueOf(4L), maxLength.getLength());
+    }
+
+    /**
+     * Test method for
+     * {@link org.talend.dq.indicators.IndicatorEvaluator#executeBatchQuery(ResultSet, List, java.util.Map, org.eclipse.emf.common.util.EMap, int)}
+     * : the rows read before the analysis is cancelled are handled, although their batch is not full.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testExecuteBatchQueryCancel() throws SQLException {
+        FrequencyIndicator frequency = createFrequencyIndicator();
+        executeBatchQuery(new BatchIndicatorEvaluator(createAnalysis(), 3, 5), VALUES, frequency);
+        assertEquals(Long.valueOf(1L), frequency.getCount("a")); //$NON-NLS-1$
+        assertEquals(Long.valueOf(2L), frequency.getCount("b")); //$NON-NLS-1$
+        assertEquals(Long.valueOf(1L), frequency.getCount("c")); //$NON-NLS-1$
+        assertEquals(Long.valueOf(0L), frequency.getCount("d")); //$NON-NLS-1$
+    }
+
+    /**
+     * Test method for
+     * {@link org.talend.dq.indicators.IndicatorEvaluator#storeIndicator(java.lang.String, org.talend.dataquality.indicators.Indicator)}
+     * : two analyses run at the same time, as in a report, count their own rows.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testConcurrentAnalyses() throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Long> first = executor.submit(new AnalysisRun(createResultSet(VALUES.subList(0, 3)), barrier));
+            Future<Long> second = executor.submit(new AnalysisRun(createResultSet(VALUES), barrier));
+            assertEquals(Long.valueOf(3L), first.get(10, TimeUnit.SECONDS));
+            assertEquals(Long.valueOf(VALUES.size()), second.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The run of a java analysis with a row count indicator, whose rows are read once the other analysis has stored
+     * its indicators.
+     */
+    private static class AnalysisRun implements Callable<Long> {
+
+        private final ResultSet resultSet;
+
+        private final CyclicBarrier barrier;
+
+        AnalysisRun(ResultSet resultSet, CyclicBarrier barrier) {
+            this.resultSet = resultSet;
+            this.barrier = barrier;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.Callable#call()
+         */
+        @Override
+        public Long call() throws Exception {
+            Analysis analysis = createAnalysis();
+            AnalysisResult result = analysis.getResults();
+            IndicatorEvaluator evaluator = new IndicatorEvaluator(analysis);
+            // as the executors do before storing the indicators of an analysis
+            RowCountIndicatorsAdapter.getInstance().clear();
+            RowCountIndicator rowCount = IndicatorsFactory.eINSTANCE.createRowCountIndicator();
+            rowCount.setUsedMapDBMode(false);
+            result.getIndicators().add(rowCount);
+            evaluator.storeIndicator(COLUMN, rowCount);
+            rowCount.prepare();
+            barrier.await(10, TimeUnit.SECONDS);
+
+            List<String> columnlist = Arrays.asList(COLUMN);
+            evaluator.executeBatchQuery(resultSet, columnlist, evaluator.buildColumnListMap(columnlist),
+                    new BasicEMap<Indicator, AnalyzedDataSet>(), 100);
+            rowCount.finalizeComputation();
+            return rowCount.getCount();
+        }
+    }
+
+    /**
+     * An evaluator in columnar mode, which is cancelled after a number of rows.
+     */
+    private static class BatchIndicatorEvaluator extends IndicatorEvaluator {
+
+        private final int batchSize;
+
+        private final int rowsBeforeCancel;
+
+        private int readRows = 0;
+
+        BatchIndicatorEvaluator(Analysis analysis, int batchSize, int rowsBeforeCancel) {
+            super(analysis);
+            this.batchSize = batchSize;
+            this.rowsBeforeCancel = rowsBeforeCancel;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.talend.dq.indicators.IndicatorEvaluator#getBatchSize()
+         */
+        @Override
+        protected int getBatchSize() {
+            return batchSize;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.talend.dq.indicators.Evaluator#continueRun()
+         */
+        @Override
+        protected boolean continueRun() {
+            return readRows++ < rowsBeforeCancel;
+        }
+    }
+}
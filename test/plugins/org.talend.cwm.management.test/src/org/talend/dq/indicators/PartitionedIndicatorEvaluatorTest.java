@@ -0,0 +1,155 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dq.indicators;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.emf.common.util.BasicEMap;
+import org.eclipse.emf.common.util.EMap;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.talend.dataquality.analysis.Analysis;
+import org.talend.dataquality.analysis.AnalysisFactory;
+import org.talend.dataquality.analysis.AnalysisParameters;
+import org.talend.dataquality.analysis.AnalysisResult;
+import org.talend.dataquality.analysis.AnalyzedDataSet;
+import org.talend.dataquality.analysis.ExecutionLanguage;
+import org.talend.dataquality.helpers.RowCountIndicatorsAdapter;
+import org.talend.dataquality.indicators.FrequencyIndicator;
+import org.talend.dataquality.indicators.Indicator;
+import org.talend.dataquality.indicators.IndicatorsFactory;
+import org.talend.dataquality.indicators.RowCountIndicator;
+
+public class PartitionedIndicatorEvaluatorTest {
+
+    private static final String COLUMN = "C"; //$NON-NLS-1$
+
+    private static final List<String> VALUES = Arrays.asList("a", "b", "b", null, "c", "a", "b", "d", "a", "b"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$
+
+    private Analysis createAnalysis() {
+        Analysis analysis = AnalysisFactory.eINSTANCE.createAnalysis();
+        AnalysisParameters parameters = AnalysisFactory.eINSTANCE.createAnalysisParameters();
+        parameters.setExecutionLanguage(ExecutionLanguage.JAVA);
+        analysis.setParameters(parameters);
+        AnalysisResult result = AnalysisFactory.eINSTANCE.createAnalysisResult();
+        analysis.setResults(result);
+        return analysis;
+    }
+
+    private void storeIndicators(Evaluator<String> evaluator, Analysis analysis, Indicator... indicators) {
+        // as the executors do before storing the indicators of an analysis
+        RowCountIndicatorsAdapter.getInstance().clear();
+        for (Indicator indicator : indicators) {
+            indicator.setUsedMapDBMode(false);
+            analysis.getResults().getIndicators().add(indicator);
+            evaluator.storeIndicator(COLUMN, indicator);
+            indicator.prepare();
+        }
+    }
+
+    private ResultSet createResultSet(List<String> values) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.findColumn(COLUMN)).thenReturn(1);
+        when(metaData.getColumnType(1)).thenReturn(Types.VARCHAR);
+        final Iterator<String> rows = values.iterator();
+        final String[] currentRow = new String[1];
+        when(resultSet.next()).thenAnswer(new Answer<Boolean>() {
+
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                if (!rows.hasNext()) {
+                    return Boolean.FALSE;
+                }
+                currentRow[0] = rows.next();
+                return Boolean.TRUE;
+            }
+        });
+        Answer<Object> currentValue = new Answer<Object>() {
+
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                return currentRow[0];
+            }
+        };
+        when(resultSet.getObject(1)).thenAnswer(currentValue);
+        when(resultSet.getString(1)).thenAnswer(currentValue);
+        return resultSet;
+    }
+
+    /**
+     * Test method for
+     * {@link org.talend.dq.indicators.PartitionedIndicatorEvaluator#mergePartials(PartitionedIndicatorEvaluator.PartitionEvaluator, EMap, int)}
+     * .
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testMergePartials() throws SQLException {
+        List<String> columnlist = Arrays.asList(COLUMN);
+
+        // the serial evaluator reads all the rows
+        Analysis serialAnalysis = createAnalysis();
+        IndicatorEvaluator serialEvaluator = new IndicatorEvaluator(serialAnalysis) {
+
+            @Override
+            protected int getBatchSize() {
+                return 4;
+            }
+        };
+        RowCountIndicator serialRowCount = IndicatorsFactory.eINSTANCE.createRowCountIndicator();
+        FrequencyIndicator serialFrequency = IndicatorsFactory.eINSTANCE.createFrequencyIndicator();
+        storeIndicators(serialEvaluator, serialAnalysis, serialRowCount, serialFrequency);
+        serialEvaluator.executeBatchQuery(createResultSet(VALUES), columnlist, serialEvaluator.buildColumnListMap(columnlist),
+                new BasicEMap<Indicator, AnalyzedDataSet>(), 100);
+        serialRowCount.finalizeComputation();
+        serialFrequency.finalizeComputation();
+
+        // the partitioned evaluator reads the same rows in three partitions
+        Analysis analysis = createAnalysis();
+        PartitionedIndicatorEvaluator evaluator = new PartitionedIndicatorEvaluator(analysis);
+        RowCountIndicator rowCount = IndicatorsFactory.eINSTANCE.createRowCountIndicator();
+        FrequencyIndicator frequency = IndicatorsFactory.eINSTANCE.createFrequencyIndicator();
+        storeIndicators(evaluator, analysis, rowCount, frequency);
+        EMap<Indicator, AnalyzedDataSet> indicToRowMap = new BasicEMap<Indicator, AnalyzedDataSet>();
+        int[] bounds = { 0, 4, 7, VALUES.size() };
+        for (int i = 0; i < bounds.length - 1; i++) {
+            PartitionedIndicatorEvaluator.PartitionEvaluator partitionEvaluator = evaluator.createPartitionEvaluator(columnlist);
+            partitionEvaluator.executeBatchQuery(createResultSet(VALUES.subList(bounds[i], bounds[i + 1])), columnlist,
+                    partitionEvaluator.buildColumnListMap(columnlist), new BasicEMap<Indicator, AnalyzedDataSet>(), 100);
+            evaluator.mergePartials(partitionEvaluator, indicToRowMap, 100);
+        }
+        rowCount.finalizeComputation();
+        frequency.finalizeComputation();
+
+        assertEquals(VALUES.size(), serialRowCount.getCount().intValue());
+        assertEquals(serialRowCount.getCount(), rowCount.getCount());
+        assertEquals(serialFrequency.getCount(), frequency.getCount());
+        for (String value : VALUES) {
+            assertEquals(serialFrequency.getCount(value), frequency.getCount(value));
+        }
+        assertEquals(Long.valueOf(4L), frequency.getCount("b")); //$NON-NLS-1$
+    }
+}
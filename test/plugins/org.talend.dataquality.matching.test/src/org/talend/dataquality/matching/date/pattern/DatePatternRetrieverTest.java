@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URISyntaxException;
+import java.util.Arrays;
 
 import org.apache.log4j.Logger;
 import org.junit.Test;
@@ -114,6 +115,58 @@ public class DatePatternRetrieverTest {
         // ~ TDQ-8139
     }
 
+    /**
+     * Test method for
+     * {@link org.talend.dataquality.matching.date.pattern.DatePatternRetriever#findMatchers(java.lang.String)}: the
+     * matchers found for an expression follow the changes of the list of matchers.
+     */
+    @Test
+    public void testFindMatchersAfterChange() {
+        String expr = "21 11 1999"; //$NON-NLS-1$
+        DatePatternRetriever dtr = new DatePatternRetriever();
+        assertTrue(dtr.findMatchers(expr).isEmpty());
+
+        ModelMatcher mm = new ModelMatcher("dd MM yyyy", "^[0-3][0-9](-|/| )([0-0][1-9]|10|11|12)(-|/| )[0-9]{4}$"); //$NON-NLS-1$//$NON-NLS-2$
+        dtr.getModelMatchers().add(mm);
+        assertEquals(1, dtr.findMatchers(expr).size());
+        assertSame(mm, dtr.findMatchers(expr).get(0));
+        dtr.handle(expr);
+        dtr.handle(expr);
+        assertEquals(2, mm.getScore());
+
+        ModelMatcher other = new ModelMatcher("yyyy", "^[0-9]{4}$"); //$NON-NLS-1$//$NON-NLS-2$
+        dtr.getModelMatchers().set(0, other);
+        assertTrue(dtr.findMatchers(expr).isEmpty());
+        assertSame(other, dtr.findMatchers("1999").get(0)); //$NON-NLS-1$
+    }
+
+    /**
+     * Test method for
+     * {@link org.talend.dataquality.matching.date.pattern.DatePatternRetriever#findMatchers(java.lang.String)}: the
+     * expressions of the same shape can match different matchers.
+     */
+    @Test
+    public void testFindMatchersSameShape() {
+        DatePatternRetriever dtr = new DatePatternRetriever();
+        ModelMatcher yyyyMMdd = new ModelMatcher("yyyy MM dd", "^[0-9]{4}(-|/| )([0-0][1-9]|10|11|12)(-|/| )[0-3][0-9]$"); //$NON-NLS-1$//$NON-NLS-2$
+        ModelMatcher yyyyddMM = new ModelMatcher("yyyy dd MM", "^[0-9]{4}(-|/| )[0-3][0-9](-|/| )([0-0][1-9]|10|11|12)$"); //$NON-NLS-1$//$NON-NLS-2$
+        ModelMatcher ddMMyyyy = new ModelMatcher("dd MM yyyy", "^[0-3][0-9](-|/| )([0-0][1-9]|10|11|12)(-|/| )[0-9]{4}$"); //$NON-NLS-1$//$NON-NLS-2$
+        dtr.getModelMatchers().add(yyyyMMdd);
+        dtr.getModelMatchers().add(yyyyddMM);
+        dtr.getModelMatchers().add(ddMMyyyy);
+
+        assertEquals(Arrays.asList(yyyyMMdd, yyyyddMM), dtr.findMatchers("2000-04-05")); //$NON-NLS-1$
+        assertEquals(Arrays.asList(yyyyMMdd), dtr.findMatchers("2000-04-25")); //$NON-NLS-1$
+        assertEquals(Arrays.asList(yyyyddMM), dtr.findMatchers("2000-25-04")); //$NON-NLS-1$
+        assertTrue(dtr.findMatchers("2000-25-25").isEmpty()); //$NON-NLS-1$
+        assertEquals(Arrays.asList(ddMMyyyy), dtr.findMatchers("25-04-2000")); //$NON-NLS-1$
+        dtr.handle("2000-04-05"); //$NON-NLS-1$
+        dtr.handle("2000-04-25"); //$NON-NLS-1$
+        assertEquals(2, yyyyMMdd.getScore());
+        assertEquals(1, yyyyddMM.getScore());
+        assertEquals(0, ddMMyyyy.getScore());
+    }
+
     private void parseFile(InputStream dateStream, DatePatternRetriever patt) {
         try {
             BufferedReader br = new BufferedReader(new InputStreamReader(dateStream));
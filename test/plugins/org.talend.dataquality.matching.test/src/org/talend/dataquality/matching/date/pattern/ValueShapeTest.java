@@ -0,0 +1,84 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.matching.date.pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class ValueShapeTest {
+
+    private static final String[] VALUES = { "2001-31-01 12:21:22", "2000-04-05", "2000/04/25", "1961-08-26 00:00:00.0", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+            "1961-08-26 00:00:00:000", "12 03 2001", "13 03 01", "08/17/2009 5:19 AM", "Mon, 17 August 2009 2:22:12 GMT", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+            "Monday, 17 August 2009 14:22", "January 17", "January 17 1998", "1998 January", "17-Jan-1998", "2:22:12", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+            "99-99-99", "", "été 2009" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+    /**
+     * Test method for {@link org.talend.dataquality.matching.date.pattern.ValueShape#of(java.lang.String)}.
+     */
+    @Test
+    public void testOf() {
+        assertEquals("9999-99-99", ValueShape.of("2000-04-05")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(ValueShape.of("2000-04-05"), ValueShape.of("1999-12-31")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals("aaa, 99 aaaaaa 9999", ValueShape.of("Mon, 17 August 2009")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals("aaa 9999", ValueShape.of("été 2009")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Test method for {@link org.talend.dataquality.matching.date.pattern.ValueShape#relax(java.lang.String)}: a
+     * matcher which matches a value may match all the values of its shape.
+     */
+    @Test
+    public void testRelax() {
+        InputStream inStream = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream("PatternsNameAndRegularExpressions.txt"); //$NON-NLS-1$
+        DatePatternRetriever retriever = new DatePatternRetriever();
+        retriever.initModel2Regex(inStream);
+        int candidateCount = 0;
+        for (ModelMatcher matcher : retriever.getModelMatchers()) {
+            assertNotNull(matcher.getRegex(), ValueShape.relax(matcher.getRegex()));
+            for (String value : VALUES) {
+                boolean candidate = matcher.mayMatchShape(ValueShape.of(value));
+                if (matcher.matches(value)) {
+                    assertTrue(matcher.getModel() + " " + value, candidate); //$NON-NLS-1$
+                }
+                if (candidate) {
+                    candidateCount++;
+                }
+            }
+        }
+        // the shapes rule out most of the matchers
+        assertTrue(candidateCount < retriever.getModelMatchers().size() * VALUES.length / 4);
+
+        Pattern relaxed = ValueShape.relax("^[0-3][0-9](-|/| )(Jan|Feb)\\.?[^a-z0-9]$"); //$NON-NLS-1$
+        assertNull(relaxed);
+        relaxed = ValueShape.relax("^[0-3][0-9](-|/| )(Jan|Feb)\\.?[^,]\\d{2}$"); //$NON-NLS-1$
+        assertTrue(relaxed.matcher("99-aaa.a99").matches()); //$NON-NLS-1$
+        assertFalse(relaxed.matcher("99-aaaa,99").matches()); //$NON-NLS-1$
+
+        // the constructs which can not be relaxed
+        assertNull(ValueShape.relax("^([0-9])-\\1$")); //$NON-NLS-1$
+        assertNull(ValueShape.relax("^(?i)jan$")); //$NON-NLS-1$
+        assertNull(ValueShape.relax("^\\w+$")); //$NON-NLS-1$
+        assertNull(ValueShape.relax("^[!-~]+$")); //$NON-NLS-1$
+        ModelMatcher any = new ModelMatcher("any", "^\\w+$"); //$NON-NLS-1$//$NON-NLS-2$
+        assertTrue(any.mayMatchShape("9999-99-99")); //$NON-NLS-1$
+    }
+}
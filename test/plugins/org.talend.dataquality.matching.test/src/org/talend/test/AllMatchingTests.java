@@ -16,12 +16,13 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 import org.talend.dataquality.matching.date.pattern.DatePatternRetrieverTest;
+import org.talend.dataquality.matching.date.pattern.ValueShapeTest;
 
 /**
  * DOC yyin class global comment. Detailled comment
  */
 @RunWith(Suite.class)
-@SuiteClasses({ DatePatternRetrieverTest.class })
+@SuiteClasses({ DatePatternRetrieverTest.class, ValueShapeTest.class })
 public class AllMatchingTests {
 
 }
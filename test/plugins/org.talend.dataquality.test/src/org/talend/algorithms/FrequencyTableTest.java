@@ -0,0 +1,93 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FrequencyTableTest {
+
+    /**
+     * Test method for {@link org.talend.algorithms.FrequencyTable#increment(java.lang.Object)}.
+     */
+    @Test
+    public void testIncrement() {
+        FrequencyTable table = new FrequencyTable();
+        assertEquals(1L, table.increment(1L));
+        assertEquals(2L, table.increment(1L));
+        assertEquals(1L, table.increment(null));
+        assertEquals(2L, table.size());
+        // another type of value: the primitive keys are converted to objects
+        assertEquals(1L, table.increment("a")); //$NON-NLS-1$
+        assertEquals(1L, table.increment(1));
+        assertEquals(Long.valueOf(2L), table.get(1L));
+        assertEquals(Long.valueOf(1L), table.get(1));
+        assertEquals(Long.valueOf(1L), table.get(null));
+        assertNull(table.get("b")); //$NON-NLS-1$
+        assertEquals(4, table.size());
+    }
+
+    /**
+     * Test method for {@link org.talend.algorithms.FrequencyTable#remove(java.lang.Object)}.
+     */
+    @Test
+    public void testSameAsHashMap() {
+        Random random = new Random(42);
+        FrequencyTable table = new FrequencyTable();
+        Map<Object, Long> expected = new HashMap<Object, Long>();
+        for (int i = 0; i < 20000; i++) {
+            Object key = random.nextInt(10) == 0 ? null : Integer.valueOf(random.nextInt(1000));
+            int operation = random.nextInt(10);
+            if (operation == 0) {
+                assertEquals(expected.remove(key), table.remove(key));
+            } else if (operation == 1) {
+                assertEquals(expected.put(key, 0L), table.put(key, 0L));
+            } else {
+                Long freq = expected.get(key);
+                expected.put(key, freq == null ? 1L : freq + 1);
+                assertEquals(expected.get(key).longValue(), table.increment(key));
+            }
+        }
+        assertEquals(expected, table);
+        assertEquals(table, expected);
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertFalse(table.containsKey(null));
+    }
+
+    /**
+     * Test method for {@link org.talend.algorithms.FrequencyTable#getMostFrequent(int)}.
+     */
+    @Test
+    public void testGetMostFrequent() {
+        FrequencyTable table = new FrequencyTable();
+        for (String value : new String[] { "a", "b", "b", "c", "c", "c", "d", "d", "d", "d" }) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+            table.increment(value);
+        }
+        assertEquals(Arrays.asList("d", "c"), table.getMostFrequent(2)); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(Arrays.asList("a", "b", "c"), table.getLessFrequent(3)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertEquals(4, table.getMostFrequent(10).size());
+        Map<Object, Long> map = new HashMap<Object, Long>(table);
+        assertEquals(Arrays.asList("d", "c"), FrequencyTable.getMostFrequent(map, 2)); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(Arrays.asList("a", "b"), FrequencyTable.getLessFrequent(map, 2)); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
@@ -0,0 +1,73 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.algorithms;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class GroupTableTest {
+
+    /**
+     * Test method for {@link org.talend.algorithms.GroupTable#increment(java.lang.Object[])}.
+     */
+    @Test
+    public void testIncrement() {
+        GroupTable table = new GroupTable(2);
+        assertEquals(1L, table.increment(new Object[] { "a", 1 })); //$NON-NLS-1$
+        assertEquals(1L, table.increment(new Object[] { "a", null })); //$NON-NLS-1$
+        assertEquals(1L, table.increment(new Object[] { 1, "a" })); //$NON-NLS-1$
+        assertEquals(2L, table.increment(new Object[] { "a", 1 })); //$NON-NLS-1$
+        assertEquals(2L, table.increment(new Object[] { "a", null })); //$NON-NLS-1$
+        assertEquals(3, table.size());
+
+        // the groups are in the order they are first seen
+        assertArrayEquals(new Object[] { "a", 1 }, table.getValues(0)); //$NON-NLS-1$
+        assertEquals(2L, table.getCount(0));
+        assertArrayEquals(new Object[] { "a", null }, table.getValues(1)); //$NON-NLS-1$
+        assertArrayEquals(new Object[] { 1, "a" }, table.getValues(2)); //$NON-NLS-1$
+        assertEquals(1L, table.getCount(2));
+
+        table.clear();
+        assertEquals(0, table.size());
+        assertEquals(1L, table.increment(new Object[] { 1, "a" })); //$NON-NLS-1$
+        assertArrayEquals(new Object[] { 1, "a" }, table.getValues(0)); //$NON-NLS-1$
+    }
+
+    /**
+     * Test method for {@link org.talend.algorithms.GroupTable#increment(java.lang.Object[])}, compared with a map of
+     * lists.
+     */
+    @Test
+    public void testIncrementManyGroups() {
+        GroupTable table = new GroupTable(3);
+        Map<List<Object>, Long> expected = new HashMap<List<Object>, Long>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            Object[] values = new Object[] { random.nextInt(50), "v" + random.nextInt(40), random.nextBoolean() }; //$NON-NLS-1$
+            table.increment(values);
+            AlgoUtils.incrementValueCounts(Arrays.asList(values), expected);
+        }
+        assertEquals(expected.size(), table.size());
+        for (int group = 0; group < table.size(); group++) {
+            assertEquals(expected.get(Arrays.asList(table.getValues(group))), Long.valueOf(table.getCount(group)));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class ReservoirSamplerTest {
+
+    /**
+     * Test method for {@link org.talend.algorithms.ReservoirSampler#getSample()}.
+     */
+    @Test
+    public void testGetSample() {
+        // fewer items than the sample size: all of them are kept
+        ReservoirSampler<Integer> sampler = new ReservoirSampler<Integer>(10, new Random(1));
+        for (int i = 0; i < 5; i++) {
+            sampler.add(i);
+        }
+        assertEquals(5, sampler.getSample().size());
+        assertEquals(5L, sampler.getCount());
+
+        sampler = new ReservoirSampler<Integer>(10, new Random(1));
+        for (int i = 0; i < 1000; i++) {
+            sampler.add(i);
+        }
+        List<Integer> sample = sampler.getSample();
+        assertEquals(10, sample.size());
+        assertEquals(10, new HashSet<Integer>(sample).size());
+    }
+
+    /**
+     * Test method for {@link org.talend.algorithms.ReservoirSampler#add(java.lang.Object)}: the last items are drawn as
+     * often as the first ones.
+     */
+    @Test
+    public void testAddUniform() {
+        Random random = new Random(42);
+        int firstHalf = 0;
+        for (int run = 0; run < 2000; run++) {
+            ReservoirSampler<Integer> sampler = new ReservoirSampler<Integer>(5, random);
+            for (int i = 0; i < 100; i++) {
+                sampler.add(i);
+            }
+            Set<Integer> sample = new HashSet<Integer>(sampler.getSample());
+            for (Integer item : sample) {
+                if (item < 50) {
+                    firstHalf++;
+                }
+            }
+        }
+        // 5000 items expected in the first half out of 10000
+        assertTrue(String.valueOf(firstHalf), Math.abs(firstHalf - 5000) < 300);
+    }
+}
@@ -0,0 +1,66 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.helpers;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class SystemPropertyHelperTest {
+
+    private static final String KEY = "talend.test.system.property.helper"; //$NON-NLS-1$
+
+    @After
+    public void tearDown() {
+        System.clearProperty(KEY);
+    }
+
+    /**
+     * Test method for {@link org.talend.dataquality.helpers.SystemPropertyHelper#getInt(java.lang.String, int)}.
+     */
+    @Test
+    public void testGetInt() {
+        assertEquals(5, SystemPropertyHelper.getInt(KEY, 5));
+        System.setProperty(KEY, " 12 "); //$NON-NLS-1$
+        assertEquals(12, SystemPropertyHelper.getInt(KEY, 5));
+        System.setProperty(KEY, "12x"); //$NON-NLS-1$
+        assertEquals(5, SystemPropertyHelper.getInt(KEY, 5));
+        System.setProperty(KEY, ""); //$NON-NLS-1$
+        assertEquals(5, SystemPropertyHelper.getInt(KEY, 5));
+    }
+
+    /**
+     * Test method for {@link org.talend.dataquality.helpers.SystemPropertyHelper#getLong(java.lang.String, long)}.
+     */
+    @Test
+    public void testGetLong() {
+        assertEquals(10000L, SystemPropertyHelper.getLong(KEY, 10000L));
+        System.setProperty(KEY, "20000"); //$NON-NLS-1$
+        assertEquals(20000L, SystemPropertyHelper.getLong(KEY, 10000L));
+        System.setProperty(KEY, "1.5"); //$NON-NLS-1$
+        assertEquals(10000L, SystemPropertyHelper.getLong(KEY, 10000L));
+    }
+
+    /**
+     * Test method for {@link org.talend.dataquality.helpers.SystemPropertyHelper#getDouble(java.lang.String, double)}.
+     */
+    @Test
+    public void testGetDouble() {
+        assertEquals(0.8, SystemPropertyHelper.getDouble(KEY, 0.8), 0.0);
+        System.setProperty(KEY, "0.5"); //$NON-NLS-1$
+        assertEquals(0.5, SystemPropertyHelper.getDouble(KEY, 0.8), 0.0);
+        System.setProperty(KEY, "half"); //$NON-NLS-1$
+        assertEquals(0.8, SystemPropertyHelper.getDouble(KEY, 0.8), 0.0);
+    }
+}
@@ -0,0 +1,58 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class DerivedValueCacheTest {
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.DerivedValueCache#createKey(String, Object...)}.
+     */
+    @Test
+    public void testCreateKey() {
+        String key = DerivedValueCache.createKey(DerivedValueCache.PATTERN, new StringBuilder("ab").toString(), null); //$NON-NLS-1$
+        assertSame(key, DerivedValueCache.createKey(DerivedValueCache.PATTERN, "ab", null)); //$NON-NLS-1$
+        assertEquals(DerivedValueCache.LENGTH, DerivedValueCache.createKey(DerivedValueCache.LENGTH));
+    }
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.DerivedValueCache#get(String, Object)}.
+     */
+    @Test
+    public void testGet() {
+        DerivedValueCache cache = new DerivedValueCache();
+        String value = new String("abc"); //$NON-NLS-1$
+        String sameValue = new String("abc"); //$NON-NLS-1$
+        assertNull(cache.get(DerivedValueCache.SOUNDEX, value));
+        cache.put(DerivedValueCache.SOUNDEX, value, "A120"); //$NON-NLS-1$
+        assertEquals("A120", cache.get(DerivedValueCache.SOUNDEX, value)); //$NON-NLS-1$
+        assertEquals(3, cache.getLength(value));
+        assertEquals("A120", cache.get(DerivedValueCache.SOUNDEX, value)); //$NON-NLS-1$
+        // the derived values are only kept for the current value object
+        assertNull(cache.get(DerivedValueCache.SOUNDEX, sameValue));
+        assertEquals(3, cache.getLength(sameValue));
+        assertNull(cache.get(DerivedValueCache.SOUNDEX, value));
+        for (int i = 0; i < 10; i++) {
+            cache.put(DerivedValueCache.createKey(DerivedValueCache.FORMATTED_DATE, i), sameValue, i);
+        }
+        assertEquals(5, cache.get(DerivedValueCache.createKey(DerivedValueCache.FORMATTED_DATE, 5), sameValue));
+        assertEquals(Integer.valueOf(3), cache.get(DerivedValueCache.LENGTH, sameValue));
+        cache.clear();
+        assertNull(cache.get(DerivedValueCache.LENGTH, sameValue));
+    }
+}
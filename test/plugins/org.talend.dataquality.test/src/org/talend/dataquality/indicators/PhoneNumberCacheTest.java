@@ -0,0 +1,87 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+public class PhoneNumberCacheTest {
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.PhoneNumberCache#parse(java.lang.String, java.lang.String)}.
+     *
+     * @throws NumberParseException
+     */
+    @Test
+    public void testParse() throws NumberParseException {
+        PhoneNumberUtil phoneUtil = PhoneNumberUtil.getInstance();
+        PhoneNumberCache cache = new PhoneNumberCache(2);
+        String[] values = { "+41 44 668 18 00", "044 668 18 00", "+86 13521588310", "1581061 0794" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        for (String value : values) {
+            for (String region : new String[] { "CH", "CN" }) { //$NON-NLS-1$ //$NON-NLS-2$
+                PhoneNumberCache.ParsedPhoneNumber parsedNumber = cache.parse(value, region);
+                PhoneNumber number = parsedNumber.getPhoneNumber(false);
+                assertTrue(number.exactlySameAs(phoneUtil.parse(value, region)));
+                assertTrue(parsedNumber.getPhoneNumber(true).exactlySameAs(phoneUtil.parseAndKeepRawInput(value, region)));
+                assertSame(number, parsedNumber.getPhoneNumber(false));
+            }
+        }
+        // the outcome of the last values are kept
+        assertEquals(2, cache.size());
+        assertSame(cache.parse("1581061 0794", "CN"), cache.parse("1581061 0794", "CN")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        assertNotSame(cache.parse("+41 44 668 18 00", "CH"), cache.parse("+41 44 668 18 00", null)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+        // the parse errors too
+        PhoneNumberCache.ParsedPhoneNumber parsedNumber = cache.parse("044 668 18 00", null); //$NON-NLS-1$
+        assertSame(parsedNumber, cache.parse("044 668 18 00", null)); //$NON-NLS-1$
+        try {
+            parsedNumber.getPhoneNumber(false);
+            fail();
+        } catch (NumberParseException e) {
+            assertEquals(NumberParseException.ErrorType.INVALID_COUNTRY_CODE, e.getErrorType());
+        }
+    }
+
+
+    /**
+     * Test method for
+     * {@link org.talend.dataquality.indicators.PhoneNumberCache#parsePhoneNumber(DerivedValueCache, Object, String, boolean)}
+     * : the indicators of a column share the number parsed from the current value, for each region.
+     *
+     * @throws NumberParseException
+     */
+    @Test
+    public void testParsePhoneNumber() throws NumberParseException {
+        String value = "+41 44 668 18 00"; //$NON-NLS-1$
+        PhoneNumber number = PhoneNumberCache.parsePhoneNumber(null, value, "CH", false); //$NON-NLS-1$
+        assertTrue(number.exactlySameAs(PhoneNumberUtil.getInstance().parse(value, "CH"))); //$NON-NLS-1$
+
+        DerivedValueCache derivedValueCache = new DerivedValueCache();
+        number = PhoneNumberCache.parsePhoneNumber(derivedValueCache, value, "CH", false); //$NON-NLS-1$
+        assertSame(number, PhoneNumberCache.parsePhoneNumber(derivedValueCache, value, "CH", false)); //$NON-NLS-1$
+        assertNotSame(number, PhoneNumberCache.parsePhoneNumber(derivedValueCache, value, null, false));
+        assertSame(number, PhoneNumberCache.parsePhoneNumber(derivedValueCache, value, "CH", false)); //$NON-NLS-1$
+        PhoneNumberCache phoneNumberCache = derivedValueCache.getPhoneNumberCache();
+        assertSame(phoneNumberCache.getDerivationKey(null), phoneNumberCache.getDerivationKey(null));
+        assertEquals(2, phoneNumberCache.size());
+    }
+}
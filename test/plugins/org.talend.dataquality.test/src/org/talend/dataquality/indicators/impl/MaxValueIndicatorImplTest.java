@@ -12,6 +12,11 @@
 // ============================================================================
 package org.talend.dataquality.indicators.impl;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.talend.dataquality.indicators.IndicatorsFactory;
@@ -33,4 +38,55 @@ public class MaxValueIndicatorImplTest {
         Assert.assertTrue(maxValueIndicator.handle(data));
     }
 
+    /**
+     * Test method for
+     * {@link org.talend.dataquality.indicators.impl.MaxValueIndicatorImpl#merge(org.talend.dataquality.indicators.Indicator)}.
+     */
+    @Test
+    public void testMerge() {
+        MaxValueIndicator maxValueIndicator = IndicatorsFactory.eINSTANCE.createMaxValueIndicator();
+        maxValueIndicator.reset();
+        maxValueIndicator.handle(3);
+        maxValueIndicator.handle(5);
+        MaxValueIndicator partial = IndicatorsFactory.eINSTANCE.createMaxValueIndicator();
+        partial.reset();
+        partial.handle(7);
+        partial.handle(null);
+
+        Assert.assertTrue(maxValueIndicator.isMergeable());
+        Assert.assertTrue(maxValueIndicator.merge(partial));
+        Assert.assertEquals("7", maxValueIndicator.getValue()); //$NON-NLS-1$
+        Assert.assertEquals(Long.valueOf(4), maxValueIndicator.getCount());
+        Assert.assertEquals(Long.valueOf(1), maxValueIndicator.getNullCount());
+        // an indicator of another kind cannot be merged
+        Assert.assertFalse(maxValueIndicator.merge(IndicatorsFactory.eINSTANCE.createMinValueIndicator()));
+    }
+
+    /**
+     * Test method for
+     * {@link org.talend.dataquality.indicators.impl.MaxValueIndicatorImpl#readState(java.io.ObjectInput)}.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testReadState() throws Exception {
+        MaxValueIndicator previousRun = IndicatorsFactory.eINSTANCE.createMaxValueIndicator();
+        previousRun.reset();
+        previousRun.handle(7);
+        previousRun.handle(null);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        previousRun.writeState(out);
+        out.close();
+
+        MaxValueIndicator maxValueIndicator = IndicatorsFactory.eINSTANCE.createMaxValueIndicator();
+        maxValueIndicator.reset();
+        maxValueIndicator.handle(3);
+        maxValueIndicator.handle(5);
+        maxValueIndicator.readState(new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        Assert.assertEquals("7", maxValueIndicator.getValue()); //$NON-NLS-1$
+        Assert.assertEquals(Long.valueOf(4), maxValueIndicator.getCount());
+        Assert.assertEquals(Long.valueOf(1), maxValueIndicator.getNullCount());
+    }
+
 }
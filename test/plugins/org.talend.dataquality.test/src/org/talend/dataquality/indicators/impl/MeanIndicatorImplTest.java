@@ -12,8 +12,11 @@
 // ============================================================================
 package org.talend.dataquality.indicators.impl;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.math.BigDecimal;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -48,4 +51,24 @@ public class MeanIndicatorImplTest {
         assertTrue(meanInd.getMean().doubleValue() == 3);
     }
 
+    @Test
+    public void testHandleBatch() {
+        Object[] values = new Object[] { 1, null, Long.MAX_VALUE, 2L, "3.5", null, Long.MAX_VALUE };
+        MeanIndicatorImpl rowInd = new MeanIndicatorImpl();
+        MeanIndicatorImpl batchInd = new MeanIndicatorImpl();
+        for (Object value : values) {
+            rowInd.handle(value);
+        }
+        // the last value is not part of the batch
+        batchInd.handleBatch(values, values.length - 1);
+        batchInd.handleBatch(new Object[] { Long.MAX_VALUE }, 1);
+        rowInd.finalizeComputation();
+        batchInd.finalizeComputation();
+
+        assertEquals(rowInd.getCount(), batchInd.getCount());
+        assertEquals(Long.valueOf(5L), batchInd.getCount());
+        assertEquals(rowInd.getNullCount(), batchInd.getNullCount());
+        assertEquals(0, new BigDecimal(rowInd.getSumStr()).compareTo(new BigDecimal(batchInd.getSumStr())));
+    }
+
 }
@@ -21,6 +21,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.talend.dataquality.common.regex.ChainResponsibilityHandler;
 import org.talend.dataquality.common.regex.HandlerFactory;
+import org.talend.dataquality.indicators.DerivedValueCache;
 import org.talend.dataquality.indicators.IndicatorsFactory;
 import org.talend.utils.dates.DateUtils;
 
@@ -119,4 +120,27 @@ public class PatternFreqIndicatorImplTest {
         assertEquals("CCCCCCC", createFrequencyIndicator.convertCharacters("中崎𠀀𠀁𠀂𠀃𠀄")); //$NON-NLS-1$ //$NON-NLS-2$
         assertEquals("HHゟ", createFrequencyIndicator.convertCharacters("ゞゝゟ")); //$NON-NLS-1$ //$NON-NLS-2$
     }
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.impl.PatternFreqIndicatorImpl#getPattern(java.lang.Object)}
+     * with a derived value cache shared by several pattern indicators.
+     */
+    @Test
+    public void testGetPatternWithSharedCache() {
+        DerivedValueCache cache = new DerivedValueCache();
+        PatternFreqIndicatorImpl patternIndicator = new PatternFreqIndicatorImpl();
+        EastAsiaPatternFreqIndicatorImpl eastAsiaIndicator =
+                (EastAsiaPatternFreqIndicatorImpl) IndicatorsFactory.eINSTANCE.createEastAsiaPatternFreqIndicator();
+        patternIndicator.setDerivedValueCache(cache);
+        eastAsiaIndicator.setDerivedValueCache(cache);
+
+        String value = "Ab1 你好"; //$NON-NLS-1$
+        assertEquals("Aa9 你好", patternIndicator.getPattern(value)); //$NON-NLS-1$
+        // same value but another conversion
+        assertEquals("Aa9 CC", eastAsiaIndicator.getPattern(value)); //$NON-NLS-1$
+        assertEquals("Aa9 你好", patternIndicator.getPattern(value)); //$NON-NLS-1$
+        assertEquals("Aa9 CC", eastAsiaIndicator.getPattern(value)); //$NON-NLS-1$
+        // next value
+        assertEquals("aa", patternIndicator.getPattern("xy")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
 }
@@ -101,4 +101,41 @@ public class SoundexFreqIndicatorImplTest {
         Assert.assertEquals(1, soundexFreqIndicator.getValueToDistinctFreq().get("unique").intValue()); //$NON-NLS-1$
     }
 
+    /**
+     * when UsedMapDBMode Test method for
+     * {@link org.talend.dataquality.indicators.impl.FrequencyIndicatorImpl#merge(org.talend.dataquality.indicators.Indicator)}
+     * : the partial indicators of a partitioned scan give the same soundex groups as the rows handled directly.
+     */
+    @Test
+    public void testMerge() {
+        Object empty = null;
+        SoundexFreqIndicator soundexFreqIndicator = IndicatorsFactory.eINSTANCE.createSoundexFreqIndicator();
+        ((SoundexFreqIndicatorImpl) soundexFreqIndicator).setUsedMapDBMode(true);
+        ResourceUtils.createAnalysis(soundexFreqIndicator);
+        soundexFreqIndicator.reset();
+
+        Object[][] partitions = { { empty, "mac", "mic", empty }, { "mic", "mac", "machine" }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+                { empty, "machine", "unique" } }; //$NON-NLS-1$ //$NON-NLS-2$
+        for (Object[] partition : partitions) {
+            SoundexFreqIndicator partial = IndicatorsFactory.eINSTANCE.createSoundexFreqIndicator();
+            partial.setUsedMapDBMode(false);
+            partial.reset();
+            for (Object value : partition) {
+                partial.handle(value);
+            }
+            Assert.assertTrue(soundexFreqIndicator.merge(partial));
+        }
+
+        soundexFreqIndicator.finalizeComputation();
+        Assert.assertEquals(2, soundexFreqIndicator.getValueToDistinctFreq().get("mic").intValue()); //$NON-NLS-1$
+        Assert.assertEquals(0, soundexFreqIndicator.getValueToDistinctFreq().get(empty).intValue());
+        Assert.assertEquals(1, soundexFreqIndicator.getValueToDistinctFreq().get("machine").intValue()); //$NON-NLS-1$
+        Assert.assertEquals(1, soundexFreqIndicator.getValueToDistinctFreq().get("unique").intValue()); //$NON-NLS-1$
+
+        Assert.assertEquals(4, soundexFreqIndicator.getValueToFreq().get("mic").intValue()); //$NON-NLS-1$
+        Assert.assertEquals(3, soundexFreqIndicator.getValueToFreq().get(empty).intValue());
+        Assert.assertEquals(2, soundexFreqIndicator.getValueToFreq().get("machine").intValue()); //$NON-NLS-1$
+        Assert.assertEquals(1, soundexFreqIndicator.getValueToFreq().get("unique").intValue()); //$NON-NLS-1$
+    }
+
 }
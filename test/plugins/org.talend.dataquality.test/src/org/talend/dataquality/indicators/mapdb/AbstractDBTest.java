@@ -0,0 +1,185 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators.mapdb;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.talend.dataquality.indicators.validation.DataValidationImpl;
+
+public class AbstractDBTest {
+
+    private static final int ITEM_COUNT = 5 * RankIndex.INTERVAL + 10;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.mapdb.AbstractDB#subList(long, long, java.util.Map)}.
+     */
+    @Test
+    public void testSubList() {
+        DBSet<Long> dbSet = new DBSet<Long>();
+        dbSet.enableRankIndex();
+        for (long i = 0; i < ITEM_COUNT; i++) {
+            dbSet.add(i);
+        }
+        // a page far from the start, then pages before and after it
+        long[] fromIndexes = { 3 * RankIndex.INTERVAL + 5, 10, RankIndex.INTERVAL - 1, 4 * RankIndex.INTERVAL,
+                ITEM_COUNT - 5 };
+        for (long fromIndex : fromIndexes) {
+            List<Object[]> page = dbSet.subList(fromIndex, fromIndex + 20, null);
+            Assert.assertEquals(Math.min(20, ITEM_COUNT - fromIndex), page.size());
+            for (int i = 0; i < page.size(); i++) {
+                Assert.assertEquals(fromIndex + i, page.get(i)[0]);
+            }
+        }
+
+        // the items added are found
+        dbSet.add(-1L);
+        List<Object[]> page = dbSet.subList(RankIndex.INTERVAL, RankIndex.INTERVAL + 1, null);
+        Assert.assertEquals(RankIndex.INTERVAL - 1L, page.get(0)[0]);
+        Assert.assertTrue(dbSet.subList(ITEM_COUNT + 1, ITEM_COUNT + 2, null).isEmpty());
+    }
+
+    /**
+     * Test method for
+     * {@link org.talend.dataquality.indicators.mapdb.AbstractDB#subList(long, long, java.util.Map, org.talend.cwm.indicator.DataValidation)}
+     * .
+     */
+    @Test
+    public void testSubListWithValidation() {
+        DBMap<Long, Long> dbMap = new DBMap<Long, Long>();
+        dbMap.enableRankIndex();
+        for (long i = 0; i < ITEM_COUNT; i++) {
+            dbMap.put(i, i);
+        }
+        // only the multiples of 3 are valid
+        DataValidationImpl validation = new DataValidationImpl() {
+
+            @Override
+            public boolean isValid(Object inputData) {
+                return ((Long) inputData) % 3 == 0;
+            }
+        };
+        long fromIndex = RankIndex.INTERVAL + 7;
+        for (int run = 0; run < 2; run++) {
+            List<Object[]> page = dbMap.subList(fromIndex, fromIndex + 5, null, validation);
+            Assert.assertEquals(5, page.size());
+            for (int i = 0; i < page.size(); i++) {
+                Assert.assertEquals(3 * (fromIndex + i), page.get(i)[0]);
+            }
+        }
+
+        // the pages without validation are counted apart
+        List<Object[]> page = dbMap.subList(fromIndex, fromIndex + 1, null);
+        Assert.assertEquals(fromIndex, page.get(0)[0]);
+    }
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.mapdb.AbstractDB#subList(long, long, java.util.Map)}
+     * when the keys are consecutive, as the row numbers of the drill down stores.
+     */
+    @Test
+    public void testSubListConsecutiveKeys() {
+        DBMap<Long, Long> dbMap = new DBMap<Long, Long>();
+        dbMap.enableRankIndex();
+        for (long i = 0; i < ITEM_COUNT; i++) {
+            dbMap.put(i + 1, i);
+        }
+        long[] fromIndexes = { 3 * RankIndex.INTERVAL + 5, 0, ITEM_COUNT - 5 };
+        for (long fromIndex : fromIndexes) {
+            List<Object[]> page = dbMap.subList(fromIndex, fromIndex + 20, null);
+            Assert.assertEquals(Math.min(20, ITEM_COUNT - fromIndex), page.size());
+            for (int i = 0; i < page.size(); i++) {
+                Assert.assertEquals(fromIndex + i, page.get(i)[0]);
+            }
+        }
+        Assert.assertTrue(dbMap.subList(ITEM_COUNT, ITEM_COUNT + 1, null).isEmpty());
+
+        // a gap in the keys, the ranks are then found from the checkpoints
+        dbMap.put(ITEM_COUNT + 10L, (long) ITEM_COUNT);
+        List<Object[]> page = dbMap.subList(ITEM_COUNT - 1, ITEM_COUNT + 1, null);
+        Assert.assertEquals(2, page.size());
+        Assert.assertEquals((long) ITEM_COUNT, page.get(1)[0]);
+        page = dbMap.subList(2 * RankIndex.INTERVAL + 1, 2 * RankIndex.INTERVAL + 2, null);
+        Assert.assertEquals(2L * RankIndex.INTERVAL + 1, page.get(0)[0]);
+    }
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.mapdb.AbstractDB#subList(long, long, java.util.Map)}
+     * with the checkpoints saved in the MapDB file by another instance of the store.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testSubListSavedRankIndex() throws IOException {
+        String parentFullPathStr = temporaryFolder.newFolder().getAbsolutePath();
+        DBMap<Long, Long> dbMap = new DBMap<Long, Long>(parentFullPathStr, "rank", "values"); //$NON-NLS-1$ //$NON-NLS-2$
+        dbMap.enableRankIndex();
+        // the checkpoints are saved while the store is filled
+        for (long i = 0; i < ITEM_COUNT; i++) {
+            dbMap.put(2 * i, i);
+        }
+        Map<Long, Object> savedCheckpoints = dbMap.getDB().getTreeMap("values_rankIndex"); //$NON-NLS-1$
+        Assert.assertEquals(ITEM_COUNT / RankIndex.INTERVAL + 1, savedCheckpoints.size());
+
+        DBMap<Long, Long> otherMap = new DBMap<Long, Long>(parentFullPathStr, "rank", "values"); //$NON-NLS-1$ //$NON-NLS-2$
+        otherMap.enableRankIndex();
+        long fromIndex = 4 * RankIndex.INTERVAL + 3;
+        List<Object[]> page = otherMap.subList(fromIndex, fromIndex + 2, null);
+        Assert.assertEquals(fromIndex, page.get(0)[0]);
+        Assert.assertEquals(fromIndex + 1, page.get(1)[0]);
+
+        // an item added before the others, the saved checkpoints are not valid any more
+        otherMap.put(1L, -1L);
+        Assert.assertTrue(savedCheckpoints.isEmpty());
+        page = otherMap.subList(fromIndex, fromIndex + 1, null);
+        Assert.assertEquals(fromIndex - 1, page.get(0)[0]);
+    }
+
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.mapdb.AbstractDB#subList(long, long, java.util.Map)}
+     * when the store is not paged by the drill down: no checkpoint is kept, and the saved ones are cleared when the
+     * store changes.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testSubListWithoutRankIndex() throws IOException {
+        String parentFullPathStr = temporaryFolder.newFolder().getAbsolutePath();
+        DBMap<Long, Long> dbMap = new DBMap<Long, Long>(parentFullPathStr, "rank", "values"); //$NON-NLS-1$ //$NON-NLS-2$
+        dbMap.enableRankIndex();
+        for (long i = 0; i < ITEM_COUNT; i++) {
+            dbMap.put(2 * i, i);
+        }
+        Map<Long, Object> savedCheckpoints = dbMap.getDB().getTreeMap("values_rankIndex"); //$NON-NLS-1$
+        Assert.assertFalse(savedCheckpoints.isEmpty());
+
+        DBMap<Long, Long> otherMap = new DBMap<Long, Long>(parentFullPathStr, "rank", "values"); //$NON-NLS-1$ //$NON-NLS-2$
+        otherMap.put(1L, -1L);
+        Assert.assertTrue(savedCheckpoints.isEmpty());
+        long fromIndex = 4 * RankIndex.INTERVAL + 3;
+        List<Object[]> page = otherMap.subList(fromIndex, fromIndex + 2, null);
+        Assert.assertEquals(fromIndex - 1, page.get(0)[0]);
+        Assert.assertEquals(fromIndex, page.get(1)[0]);
+        Assert.assertTrue(savedCheckpoints.isEmpty());
+        Assert.assertTrue(otherMap.subList(ITEM_COUNT + 1, ITEM_COUNT + 2, null).isEmpty());
+    }
+}
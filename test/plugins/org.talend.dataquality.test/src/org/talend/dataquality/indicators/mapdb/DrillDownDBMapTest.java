@@ -0,0 +1,91 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators.mapdb;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DrillDownDBMapTest {
+
+    private String parentPath;
+
+    private String fileName;
+
+    @Before
+    public void setUp() throws Exception {
+        File file = File.createTempFile("drillDown", ".db"); //$NON-NLS-1$ //$NON-NLS-2$
+        file.delete();
+        parentPath = file.getParent();
+        fileName = file.getName();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        DrillDownRowLog.clear(parentPath, fileName);
+        MapDBManager.getInstance().closeDB(parentPath, fileName);
+    }
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.mapdb.DrillDownDBMap#put(Object, List)}.
+     */
+    @Test
+    public void testPutSharedRow() {
+        DrillDownDBMap firstMap = new DrillDownDBMap(parentPath, fileName, "first"); //$NON-NLS-1$
+        DrillDownDBMap secondMap = new DrillDownDBMap(parentPath, fileName, "second"); //$NON-NLS-1$
+        List<Object> row = new ArrayList<Object>(Arrays.asList((Object) "a", 1)); //$NON-NLS-1$
+        firstMap.put(1L, row);
+        secondMap.put("a", row); //$NON-NLS-1$
+        List<Object> otherRow = new ArrayList<Object>(Arrays.asList((Object) "b", 2)); //$NON-NLS-1$
+        firstMap.put(2L, otherRow);
+
+        // each row is stored once
+        Assert.assertEquals(2, DrillDownRowLog.getInstance(parentPath, fileName).size());
+        Assert.assertEquals(row, firstMap.get(1L));
+        Assert.assertEquals(row, secondMap.get("a")); //$NON-NLS-1$
+        Assert.assertEquals(otherRow, firstMap.get(2L));
+        Assert.assertNull(firstMap.get(3L));
+
+        List<List<Object>> values = new ArrayList<List<Object>>(firstMap.values());
+        Assert.assertEquals(Arrays.asList(row, otherRow), values);
+        for (Map.Entry<Object, List<Object>> entry : secondMap.entrySet()) {
+            Assert.assertEquals("a", entry.getKey()); //$NON-NLS-1$
+            Assert.assertEquals(row, entry.getValue());
+        }
+        List<Object[]> page = firstMap.subList(0, 2, null);
+        Assert.assertEquals(2, page.size());
+        Assert.assertArrayEquals(row.toArray(), page.get(0));
+    }
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.mapdb.DrillDownRowLog#clear(String, String)}.
+     */
+    @Test
+    public void testClear() {
+        DrillDownDBMap map = new DrillDownDBMap(parentPath, fileName, "map"); //$NON-NLS-1$
+        map.put(1L, new ArrayList<Object>(Arrays.asList((Object) "a"))); //$NON-NLS-1$
+        DrillDownRowLog.clear(parentPath, fileName);
+        Assert.assertTrue(DrillDownRowLog.getInstance(parentPath, fileName).isEmpty());
+
+        // the ids start again from the first one
+        List<Object> row = new ArrayList<Object>(Arrays.asList((Object) "b")); //$NON-NLS-1$
+        Assert.assertEquals(Long.valueOf(1L), DrillDownRowLog.getInstance(parentPath, fileName).append(row));
+    }
+}
@@ -0,0 +1,70 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators.sketch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class DistinctValueSketchTest {
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.sketch.DistinctValueSketch#offer(java.lang.Object)}.
+     */
+    @Test
+    public void testOfferFewValues() {
+        DistinctValueSketch sketch = new DistinctValueSketch(0.01);
+        for (String value : new String[] { "a", "b", "b", "c", "c", "c", null, null }) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+            sketch.offer(value);
+        }
+        // fewer values than the sample size: exact counts
+        assertEquals(4L, sketch.getDistinctCount());
+        assertEquals(1L, sketch.getUniqueCount());
+        assertEquals(3L, sketch.getDuplicateCount());
+    }
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.sketch.DistinctValueSketch#offer(java.lang.Object)}.
+     */
+    @Test
+    public void testOfferManyValues() {
+        double error = 0.02;
+        DistinctValueSketch sketch = new DistinctValueSketch(error);
+        // 100000 distinct values, the even ones are seen twice
+        for (int i = 0; i < 100000; i++) {
+            sketch.offer(i);
+            if (i % 2 == 0) {
+                sketch.offer(i);
+            }
+        }
+        assertWithin(100000, sketch.getDistinctCount(), 5 * error);
+        assertWithin(50000, sketch.getUniqueCount(), 5 * error);
+        assertWithin(50000, sketch.getDuplicateCount(), 5 * error);
+    }
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.sketch.DistinctValueSketch#getPrecision(double)}.
+     */
+    @Test
+    public void testGetPrecision() {
+        assertEquals(14, DistinctValueSketch.getPrecision(0.01));
+        assertEquals(4, DistinctValueSketch.getPrecision(0.9));
+        assertEquals(18, DistinctValueSketch.getPrecision(0.0001));
+    }
+
+    private void assertWithin(long expected, long actual, double relativeError) {
+        assertTrue("expected " + expected + " but was " + actual, //$NON-NLS-1$ //$NON-NLS-2$
+                Math.abs(actual - expected) <= expected * relativeError);
+    }
+}
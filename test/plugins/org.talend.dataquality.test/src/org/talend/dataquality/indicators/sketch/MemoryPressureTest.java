@@ -0,0 +1,81 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators.sketch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+import org.talend.dataquality.analysis.Analysis;
+import org.talend.dataquality.analysis.AnalysisFactory;
+import org.talend.dataquality.analysis.AnalysisParameters;
+import org.talend.dataquality.analysis.AnalysisResult;
+import org.talend.dataquality.analysis.ExecutionLanguage;
+import org.talend.dataquality.indicators.DistinctCountIndicator;
+import org.talend.dataquality.indicators.IndicatorsFactory;
+
+public class MemoryPressureTest {
+
+    @After
+    public void tearDown() {
+        MemoryPressure.setHigh(false);
+    }
+
+    private DistinctCountIndicator createIndicator(ExecutionLanguage engine) {
+        Analysis analysis = AnalysisFactory.eINSTANCE.createAnalysis();
+        AnalysisParameters parameters = AnalysisFactory.eINSTANCE.createAnalysisParameters();
+        parameters.setExecutionLanguage(engine);
+        analysis.setParameters(parameters);
+        AnalysisResult result = AnalysisFactory.eINSTANCE.createAnalysisResult();
+        analysis.setResults(result);
+        DistinctCountIndicator indicator = IndicatorsFactory.eINSTANCE.createDistinctCountIndicator();
+        indicator.setUsedMapDBMode(false);
+        result.getIndicators().add(indicator);
+        return indicator;
+    }
+
+    private long countDistinctValues(DistinctCountIndicator indicator) {
+        indicator.reset();
+        for (String value : new String[] { "a", "b", "b", "c" }) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+            indicator.handle(value);
+        }
+        indicator.finalizeComputation();
+        return indicator.getDistinctValueCount();
+    }
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.sketch.MemoryPressure#setHigh(boolean)}.
+     */
+    @Test
+    public void testSetHigh() {
+        DistinctCountIndicator indicator = createIndicator(ExecutionLanguage.JAVA);
+        assertEquals(3L, countDistinctValues(indicator));
+        assertFalse(indicator.isEstimated());
+
+        // the indicators prepared when the memory is short are estimated
+        MemoryPressure.setHigh(true);
+        assertEquals(3L, countDistinctValues(indicator));
+        assertTrue(indicator.isEstimated());
+
+        // not with the sql engine
+        DistinctCountIndicator sqlIndicator = createIndicator(ExecutionLanguage.SQL);
+        sqlIndicator.reset();
+        assertFalse(sqlIndicator.isEstimated());
+
+        MemoryPressure.setHigh(false);
+        assertEquals(3L, countDistinctValues(indicator));
+        assertFalse(indicator.isEstimated());
+    }
+}
@@ -0,0 +1,121 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.indicators.sketch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class QuantileSketchTest {
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.sketch.QuantileSketch#quantile(double)}.
+     */
+    @Test
+    public void testQuantileFewValues() {
+        QuantileSketch sketch = new QuantileSketch(100);
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        for (int i = 1; i <= 4; i++) {
+            sketch.offer(i);
+        }
+        // fewer values than the compression: interpolated between the exact values
+        assertEquals(1.5, sketch.quantile(0.25), 0);
+        assertEquals(2.5, sketch.quantile(0.5), 0);
+        assertEquals(3.5, sketch.quantile(0.75), 0);
+    }
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.sketch.QuantileSketch#offer(java.lang.Object)}.
+     */
+    @Test
+    public void testOffer() {
+        QuantileSketch sketch = new QuantileSketch(100);
+        assertTrue(sketch.offer(" 1.5 ")); //$NON-NLS-1$
+        assertTrue(sketch.offer(Long.valueOf(2)));
+        assertFalse(sketch.offer("abc")); //$NON-NLS-1$
+        assertEquals(2L, sketch.getCount());
+    }
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.sketch.QuantileSketch#quantile(double)}.
+     */
+    @Test
+    public void testQuantileManyValues() {
+        QuantileSketch sketch = new QuantileSketch(100);
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            sketch.add(random.nextDouble());
+        }
+        assertEquals(100000L, sketch.getCount());
+        assertEquals(0.25, sketch.quantile(0.25), 0.01);
+        assertEquals(0.5, sketch.quantile(0.5), 0.01);
+        assertEquals(0.75, sketch.quantile(0.75), 0.01);
+    }
+
+    /**
+     * Test method for
+     * {@link org.talend.dataquality.indicators.sketch.QuantileSketch#merge(org.talend.dataquality.indicators.sketch.QuantileSketch)}
+     * .
+     */
+    @Test
+    public void testMerge() {
+        QuantileSketch even = new QuantileSketch(100);
+        QuantileSketch odd = new QuantileSketch(100);
+        for (int i = 1; i <= 100000; i++) {
+            (i % 2 == 0 ? even : odd).add(i);
+        }
+        even.merge(odd);
+        assertEquals(100000L, even.getCount());
+        assertEquals(50000L, odd.getCount());
+        assertEquals(25000, even.quantile(0.25), 1000);
+        assertEquals(50000, even.quantile(0.5), 1000);
+        assertEquals(75000, even.quantile(0.75), 1000);
+    }
+
+    /**
+     * Test method for {@link org.talend.dataquality.indicators.sketch.QuantileSketch#writeState(java.io.ObjectOutput)}
+     * and {@link org.talend.dataquality.indicators.sketch.QuantileSketch#readState(java.io.ObjectInput)}.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testWriteState() throws IOException {
+        QuantileSketch previous = new QuantileSketch(100);
+        for (int i = 1; i <= 50000; i++) {
+            previous.add(i);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        previous.writeState(out);
+        out.close();
+
+        QuantileSketch sketch = new QuantileSketch(100);
+        for (int i = 50001; i <= 100000; i++) {
+            sketch.add(i);
+        }
+        sketch.readState(new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(100000L, sketch.getCount());
+        assertEquals(1, sketch.quantile(0), 0);
+        assertEquals(50000, sketch.quantile(0.5), 1000);
+        assertEquals(100000, sketch.quantile(1), 0);
+    }
+}
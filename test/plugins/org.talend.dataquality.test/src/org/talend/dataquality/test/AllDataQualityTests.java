@@ -19,6 +19,8 @@ import org.talend.commons.MapDB.utils.ColumnSetDBMapTest;
 import org.talend.commons.MapDB.utils.DBMapTest;
 import org.talend.commons.MapDB.utils.DBSetTest;
 import org.talend.dataquality.helpers.IndicatorHelperTest;
+import org.talend.dataquality.helpers.SystemPropertyHelperTest;
+import org.talend.dataquality.indicators.PhoneNumberCacheTest;
 import org.talend.dataquality.indicators.columnset.impl.ColumnSetMultiValueIndicatorImplTest;
 import org.talend.dataquality.indicators.columnset.impl.RecordMatchingIndicatorImplTest;
 import org.talend.dataquality.indicators.impl.BenfordLawFrequencyIndicatorImplTest;
@@ -35,6 +37,7 @@ import org.talend.dataquality.indicators.impl.RegexpMatchingIndicatorImplTest;
 import org.talend.dataquality.indicators.impl.WellFormE164PhoneCountIndicatorImplTest;
 import org.talend.dataquality.indicators.impl.WellFormIntePhoneCountIndicatorImplTest;
 import org.talend.dataquality.indicators.impl.WellFormNationalPhoneCountIndicatorImplTest;
+import org.talend.dataquality.indicators.sketch.MemoryPressureTest;
 import org.talend.dataquality.properties.impl.TDQJrxmlItemImplTest;
 import org.talend.dataquality.properties.impl.TDQSourceFileItemImplTest;
 
@@ -49,7 +52,8 @@ import org.talend.dataquality.properties.impl.TDQSourceFileItemImplTest;
         IndicatorHelperTest.class, ColumnSetMultiValueIndicatorImplTest.class, RecordMatchingIndicatorImplTest.class,
         TDQJrxmlItemImplTest.class, TDQSourceFileItemImplTest.class, DBMapTest.class, DBSetTest.class, ColumnSetDBMapTest.class,
         FrequencyIndicatorImplTest.class, PatternFreqIndicatorImplTest.class, MaxValueIndicatorImplTest.class,
-        MinValueIndicatorImplTest.class, IndicatorParametersImplTest.class })
+        MinValueIndicatorImplTest.class, IndicatorParametersImplTest.class, PhoneNumberCacheTest.class,
+        MemoryPressureTest.class, SystemPropertyHelperTest.class })
 public class AllDataQualityTests {
 
 }